@@ -0,0 +1,91 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.questdb;
+
+import io.questdb.ServerMain;
+
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Measures rows/sec of JDBC batch inserts over PGWire with and without pipelined
+ * Bind/Execute runs being committed together, see pg.insert.batch.size.
+ */
+public class PGWireBatchInsertMain {
+    private static final int BATCH_COUNT = 200;
+    private static final int BATCH_SIZE = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        final String root = Files.createTempDirectory("pg-batch-insert").toString();
+        for (String insertBatchSize : new String[]{"1", "1024"}) {
+            final Map<String, String> env = new HashMap<>();
+            env.put("QDB_PG_INSERT_BATCH_SIZE", insertBatchSize);
+            env.put("QDB_HTTP_ENABLED", "false");
+            env.put("QDB_LINE_TCP_ENABLED", "false");
+            env.put("QDB_LINE_UDP_ENABLED", "false");
+            try (ServerMain serverMain = ServerMain.create(root, env)) {
+                serverMain.start();
+                final long rowsPerSec = run();
+                System.out.printf("pg.insert.batch.size=%s: %,d rows/sec%n", insertBatchSize, rowsPerSec);
+            }
+        }
+    }
+
+    private static long run() throws Exception {
+        final Properties properties = new Properties();
+        properties.setProperty("user", "admin");
+        properties.setProperty("password", "quest");
+        properties.setProperty("sslmode", "disable");
+        try (Connection connection = DriverManager.getConnection("jdbc:postgresql://127.0.0.1:8812/qdb", properties)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("drop table if exists trades");
+                statement.execute("create table trades (id long, price double, ts timestamp) timestamp(ts) partition by day wal");
+            }
+            connection.setAutoCommit(true);
+
+            final long start = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement("insert into trades values (?, ?, ?)")) {
+                long id = 0;
+                for (int i = 0; i < BATCH_COUNT; i++) {
+                    for (int j = 0; j < BATCH_SIZE; j++, id++) {
+                        insert.setLong(1, id);
+                        insert.setDouble(2, id * 0.5);
+                        insert.setLong(3, id * 1_000_000L);
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+            }
+            final long elapsed = System.nanoTime() - start;
+            return (long) BATCH_COUNT * BATCH_SIZE * 1_000_000_000L / elapsed;
+        }
+    }
+}
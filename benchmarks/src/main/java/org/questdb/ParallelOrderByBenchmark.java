@@ -0,0 +1,143 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package org.questdb;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.DefaultCairoConfiguration;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.SqlCompilerImpl;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.WorkerPool;
+import io.questdb.mp.WorkerPoolUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the tree chain based ORDER BY with the parallel one, i.e. sorted runs built
+ * by the shared workers followed by a k-way merge on the query thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelOrderByBenchmark {
+    private static final int NUM_ROWS = 10_000_000;
+    private static final String ROOT = System.getProperty("java.io.tmpdir");
+    private static final int WORKER_COUNT = 4;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+    @Param({"select * from x order by d", "select * from x order by s, l desc"})
+    public String query;
+    private SqlCompilerImpl compiler;
+    private SqlExecutionContextImpl ctx;
+    private CairoEngine engine;
+    private RecordCursorFactory factory;
+    private WorkerPool pool;
+
+    public static void main(String[] args) throws RunnerException {
+        final CairoConfiguration configuration = new DefaultCairoConfiguration(ROOT);
+        try (CairoEngine engine = new CairoEngine(configuration)) {
+            SqlExecutionContext sqlExecutionContext = new SqlExecutionContextImpl(engine, 1)
+                    .with(
+                            configuration.getFactoryProvider().getSecurityContextFactory().getRootContext(),
+                            null,
+                            null,
+                            -1,
+                            null
+                    );
+            try (SqlCompilerImpl compiler = new SqlCompilerImpl(engine)) {
+                compiler.compile("create table if not exists x as (select" +
+                        " rnd_symbol(100,4,4,0) s," +
+                        " rnd_long() l," +
+                        " rnd_double() d," +
+                        " timestamp_sequence(400000000000, 500000) ts" +
+                        " from long_sequence(" + NUM_ROWS + ")) timestamp(ts) partition by day", sqlExecutionContext);
+            } catch (SqlException e) {
+                e.printStackTrace();
+            }
+        }
+
+        Options opt = new OptionsBuilder()
+                .include(ParallelOrderByBenchmark.class.getSimpleName())
+                .warmupIterations(2)
+                .measurementIterations(5)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+
+        LogFactory.haltInstance();
+    }
+
+    @Setup(Level.Iteration)
+    public void setup() throws Exception {
+        final boolean parallelOrderBy = parallel;
+        final CairoConfiguration configuration = new DefaultCairoConfiguration(ROOT) {
+            @Override
+            public boolean isSqlParallelOrderByEnabled() {
+                return parallelOrderBy;
+            }
+        };
+        engine = new CairoEngine(configuration);
+        pool = new WorkerPool(() -> WORKER_COUNT);
+        WorkerPoolUtils.setupQueryJobs(pool, engine);
+        pool.start();
+
+        ctx = new SqlExecutionContextImpl(engine, 1, WORKER_COUNT);
+        compiler = new SqlCompilerImpl(engine);
+        factory = compiler.compile(query, ctx).getRecordCursorFactory();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        factory.close();
+        compiler.close();
+        pool.halt();
+        engine.close();
+    }
+
+    @Benchmark
+    public long testOrderBy() throws SqlException {
+        long checksum = 0;
+        try (RecordCursor cursor = factory.getCursor(ctx)) {
+            final Record record = cursor.getRecord();
+            while (cursor.hasNext()) {
+                checksum += record.getLong(1);
+            }
+        }
+        return checksum;
+    }
+}
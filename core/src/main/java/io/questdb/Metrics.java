@@ -24,11 +24,13 @@
 
 package io.questdb;
 
+import io.questdb.cairo.PartitionReadAheadMetrics;
 import io.questdb.cairo.TableWriterMetrics;
 import io.questdb.cairo.wal.WalMetrics;
 import io.questdb.cutlass.http.processors.JsonQueryMetrics;
 import io.questdb.cutlass.line.LineMetrics;
 import io.questdb.cutlass.pgwire.PGWireMetrics;
+import io.questdb.griffin.engine.QueryPlanPoolMetrics;
 import io.questdb.metrics.*;
 import io.questdb.std.MemoryTag;
 import io.questdb.std.Os;
@@ -43,7 +45,9 @@ public class Metrics implements Scrapable {
     private final JsonQueryMetrics jsonQuery;
     private final LineMetrics line;
     private final MetricsRegistry metricsRegistry;
+    private final PartitionReadAheadMetrics partitionReadAhead;
     private final PGWireMetrics pgWire;
+    private final QueryPlanPoolMetrics queryPlanPool;
     private final Runtime runtime = Runtime.getRuntime();
     private final VirtualLongGauge.StatProvider jvmFreeMemRef = runtime::freeMemory;
     private final VirtualLongGauge.StatProvider jvmMaxMemRef = runtime::maxMemory;
@@ -60,6 +64,8 @@ public class Metrics implements Scrapable {
         this.line = new LineMetrics(metricsRegistry);
         this.healthCheck = new HealthMetricsImpl(metricsRegistry);
         this.tableWriter = new TableWriterMetrics(metricsRegistry);
+        this.partitionReadAhead = new PartitionReadAheadMetrics(metricsRegistry);
+        this.queryPlanPool = new QueryPlanPoolMetrics(metricsRegistry);
         this.walMetrics = new WalMetrics(metricsRegistry);
         createMemoryGauges(metricsRegistry);
         this.metricsRegistry = metricsRegistry;
@@ -94,10 +100,18 @@ public class Metrics implements Scrapable {
         return line;
     }
 
+    public PartitionReadAheadMetrics partitionReadAhead() {
+        return partitionReadAhead;
+    }
+
     public PGWireMetrics pgWire() {
         return pgWire;
     }
 
+    public QueryPlanPoolMetrics queryPlanPool() {
+        return queryPlanPool;
+    }
+
     @Override
     public void scrapeIntoPrometheus(@NotNull BorrowableUtf8Sink sink) {
         metricsRegistry.scrapeIntoPrometheus(sink);
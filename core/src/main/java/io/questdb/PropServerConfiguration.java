@@ -169,6 +169,8 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final String checkpointRoot;
     private final PropSqlExecutionCircuitBreakerConfiguration circuitBreakerConfiguration = new PropSqlExecutionCircuitBreakerConfiguration();
     private final int circuitBreakerThrottle;
+    private final long coldPartitionAge;
+    private final long coldPartitionCheckInterval;
     private final int columnIndexerQueueCapacity;
     private final int columnPurgeQueueCapacity;
     private final long columnPurgeRetryDelay;
@@ -217,6 +219,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final boolean ilpAutoCreateNewColumns;
     private final boolean ilpAutoCreateNewTables;
     private final int inactiveReaderMaxOpenPartitions;
+    private final int inactiveReaderMaxOpenParquetPartitions;
     private final long inactiveReaderTTL;
     private final long inactiveWalWriterTTL;
     private final long inactiveWriterTTL;
@@ -378,6 +381,18 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final boolean sqlParallelFilterEnabled;
     private final boolean sqlParallelFilterPreTouchEnabled;
     private final boolean sqlParallelGroupByEnabled;
+    private final boolean sqlParallelHashJoinEnabled;
+    private final boolean sqlParallelOrderByEnabled;
+    private final int sqlParquetFrameCacheCapacity;
+    private final int sqlPageFramePrefetchCount;
+    private final int sqlPartitionReadAheadWindow;
+    private final int sqlPlanPoolCapacity;
+    private final boolean sqlPartitionReadAheadReleaseEnabled;
+    private final boolean sqlResultCacheEnabled;
+    private final long sqlResultCacheSize;
+    private final long sqlScrollableCursorIdleTimeout;
+    private final int sqlScrollableCursorMaxPerUser;
+    private final boolean zoneMapsEnabled;
     private final int sqlParallelWorkStealingThreshold;
     private final int sqlQueryRegistryPoolSize;
     private final int sqlRenameTableModelPoolCapacity;
@@ -420,6 +435,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final TextConfiguration textConfiguration = new PropTextConfiguration();
     private final int textLexerStringPoolCapacity;
     private final int timestampAdapterPoolCapacity;
+    private final long ttlCheckInterval;
     private final boolean useFastAsOfJoin;
     private final boolean useLegacyStringDefault;
     private final int utf8SinkSize;
@@ -427,7 +443,9 @@ public class PropServerConfiguration implements ServerConfiguration {
     private final int vectorAggregateQueueCapacity;
     private final VolumeDefinitions volumeDefinitions = new VolumeDefinitions();
     private final boolean walApplyEnabled;
+    private final boolean walApplyParallelPartitionsEnabled;
     private final int walApplyLookAheadTransactionCount;
+    private final int walApplySquashMaxRows;
     private final WorkerPoolConfiguration walApplyPoolConfiguration = new PropWalApplyPoolConfiguration();
     private final long walApplySleepTimeout;
     private final long walApplyTableTimeQuota;
@@ -522,6 +540,8 @@ public class PropServerConfiguration implements ServerConfiguration {
     private long lineTcpNetConnectionTimeout;
     private LineTcpTimestampAdapter lineTcpTimestampAdapter;
     private int lineTcpWriterQueueCapacity;
+    private long lineTcpWriterRebalanceInterval;
+    private double lineTcpWriterRebalanceMaxLoadRatio;
     private int[] lineTcpWriterWorkerAffinity;
     private int lineTcpWriterWorkerCount;
     private long lineTcpWriterWorkerNapThreshold;
@@ -543,6 +563,7 @@ public class PropServerConfiguration implements ServerConfiguration {
     private int pgForceRecvFragmentationChunkSize;
     private int pgForceSendFragmentationChunkSize;
     private boolean pgHaltOnError;
+    private int pgInsertBatchSize;
     private int pgInsertCacheBlockCount;
     private boolean pgInsertCacheEnabled;
     private int pgInsertCacheRowCount;
@@ -662,11 +683,15 @@ public class PropServerConfiguration implements ServerConfiguration {
         // instead cairo.wal.enabled.default=true is added to the config, so only new QuestDB installations have WAL enabled by default
         this.walEnabledDefault = getBoolean(properties, env, PropertyKey.CAIRO_WAL_ENABLED_DEFAULT, true);
         this.walPurgeInterval = getMillis(properties, env, PropertyKey.CAIRO_WAL_PURGE_INTERVAL, 30_000);
+        this.ttlCheckInterval = getMillis(properties, env, PropertyKey.CAIRO_TTL_CHECK_INTERVAL, 60_000);
+        this.coldPartitionAge = getMillis(properties, env, PropertyKey.CAIRO_COLD_PARTITION_AGE, 0);
+        this.coldPartitionCheckInterval = getMillis(properties, env, PropertyKey.CAIRO_COLD_PARTITION_CHECK_INTERVAL, 60_000);
         this.walPurgeWaitBeforeDelete = getInt(properties, env, PropertyKey.DEBUG_WAL_PURGE_WAIT_BEFORE_DELETE, 0);
         this.walTxnNotificationQueueCapacity = getQueueCapacity(properties, env, PropertyKey.CAIRO_WAL_TXN_NOTIFICATION_QUEUE_CAPACITY, 4096);
         this.walRecreateDistressedSequencerAttempts = getInt(properties, env, PropertyKey.CAIRO_WAL_RECREATE_DISTRESSED_SEQUENCER_ATTEMPTS, 3);
         this.walSupported = getBoolean(properties, env, PropertyKey.CAIRO_WAL_SUPPORTED, true);
         walApplyEnabled = getBoolean(properties, env, PropertyKey.CAIRO_WAL_APPLY_ENABLED, true);
+        this.walApplyParallelPartitionsEnabled = getBoolean(properties, env, PropertyKey.CAIRO_WAL_APPLY_PARALLEL_PARTITIONS_ENABLED, true);
         this.walSegmentRolloverRowCount = getLong(properties, env, PropertyKey.CAIRO_WAL_SEGMENT_ROLLOVER_ROW_COUNT, 200_000);
         this.walSegmentRolloverSize = getLongSize(properties, env, PropertyKey.CAIRO_WAL_SEGMENT_ROLLOVER_SIZE, 0);  // disabled by default.
         if ((this.walSegmentRolloverSize != 0) && (this.walSegmentRolloverSize < 1024)) {  // 1KiB segments minimum
@@ -682,6 +707,7 @@ public class PropServerConfiguration implements ServerConfiguration {
         this.walMaxSegmentFileDescriptorsCache = getInt(properties, env, PropertyKey.CAIRO_WAL_MAX_SEGMENT_FILE_DESCRIPTORS_CACHE, 30);
         this.walApplyTableTimeQuota = getMillis(properties, env, PropertyKey.CAIRO_WAL_APPLY_TABLE_TIME_QUOTA, 1000);
         this.walApplyLookAheadTransactionCount = getInt(properties, env, PropertyKey.CAIRO_WAL_APPLY_LOOK_AHEAD_TXN_COUNT, 20);
+        this.walApplySquashMaxRows = getInt(properties, env, PropertyKey.CAIRO_WAL_APPLY_SQUASH_MAX_ROWS, 100_000);
         this.tableTypeConversionEnabled = getBoolean(properties, env, PropertyKey.TABLE_TYPE_CONVERSION_ENABLED, true);
         this.tempRenamePendingTablePrefix = getString(properties, env, PropertyKey.CAIRO_WAL_TEMP_PENDING_RENAME_TABLE_PREFIX, "temp_5822f658-31f6-11ee-be56-0242ac120002");
         this.sequencerCheckInterval = getMillis(properties, env, PropertyKey.CAIRO_WAL_SEQUENCER_CHECK_INTERVAL, 10_000);
@@ -1085,6 +1111,7 @@ public class PropServerConfiguration implements ServerConfiguration {
                 this.pgWorkerSleepThreshold = getLong(properties, env, PropertyKey.PG_WORKER_SLEEP_THRESHOLD, 10_000);
                 this.pgDaemonPool = getBoolean(properties, env, PropertyKey.PG_DAEMON_POOL, true);
                 this.pgInsertCacheEnabled = getBoolean(properties, env, PropertyKey.PG_INSERT_CACHE_ENABLED, true);
+                this.pgInsertBatchSize = getInt(properties, env, PropertyKey.PG_INSERT_BATCH_SIZE, 1024);
                 this.pgInsertCacheBlockCount = getInt(properties, env, PropertyKey.PG_INSERT_CACHE_BLOCK_COUNT, 4);
                 this.pgInsertCacheRowCount = getInt(properties, env, PropertyKey.PG_INSERT_CACHE_ROW_COUNT, 4);
                 this.pgUpdateCacheEnabled = getBoolean(properties, env, PropertyKey.PG_UPDATE_CACHE_ENABLED, true);
@@ -1110,6 +1137,7 @@ public class PropServerConfiguration implements ServerConfiguration {
             this.fileOperationRetryCount = getInt(properties, env, PropertyKey.CAIRO_FILE_OPERATION_RETRY_COUNT, 30);
             this.idleCheckInterval = getMillis(properties, env, PropertyKey.CAIRO_IDLE_CHECK_INTERVAL, 5 * 60 * 1000L);
             this.inactiveReaderMaxOpenPartitions = getInt(properties, env, PropertyKey.CAIRO_INACTIVE_READER_MAX_OPEN_PARTITIONS, 10000);
+            this.inactiveReaderMaxOpenParquetPartitions = getInt(properties, env, PropertyKey.CAIRO_INACTIVE_READER_MAX_OPEN_PARQUET_PARTITIONS, 2);
             this.inactiveReaderTTL = getMillis(properties, env, PropertyKey.CAIRO_INACTIVE_READER_TTL, 120_000);
             this.inactiveWriterTTL = getMillis(properties, env, PropertyKey.CAIRO_INACTIVE_WRITER_TTL, 600_000);
             this.inactiveWalWriterTTL = getMillis(properties, env, PropertyKey.CAIRO_WAL_INACTIVE_WRITER_TTL, 120_000);
@@ -1365,6 +1393,8 @@ public class PropServerConfiguration implements ServerConfiguration {
                     lineTcpMsgBufferSize = lineTcpMaxMeasurementSize;
                 }
                 this.lineTcpWriterQueueCapacity = getQueueCapacity(properties, env, PropertyKey.LINE_TCP_WRITER_QUEUE_CAPACITY, 128);
+                this.lineTcpWriterRebalanceInterval = getMillis(properties, env, PropertyKey.LINE_TCP_WRITER_REBALANCE_INTERVAL, 10_000);
+                this.lineTcpWriterRebalanceMaxLoadRatio = getDouble(properties, env, PropertyKey.LINE_TCP_WRITER_REBALANCE_MAX_LOAD_RATIO, "2.0");
                 this.lineTcpWriterWorkerCount = getInt(properties, env, PropertyKey.LINE_TCP_WRITER_WORKER_COUNT, 0);
                 cpuUsed += this.lineTcpWriterWorkerCount;
                 this.lineTcpWriterWorkerAffinity = getAffinity(properties, env, PropertyKey.LINE_TCP_WRITER_WORKER_AFFINITY, lineTcpWriterWorkerCount);
@@ -1468,7 +1498,19 @@ public class PropServerConfiguration implements ServerConfiguration {
             boolean defaultParallelSqlEnabled = sharedWorkerCount >= 4;
             this.sqlParallelFilterEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_FILTER_ENABLED, defaultParallelSqlEnabled);
             this.sqlParallelGroupByEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_GROUPBY_ENABLED, defaultParallelSqlEnabled);
+            this.sqlParallelHashJoinEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_HASH_JOIN_ENABLED, false);
+            this.sqlParallelOrderByEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_ORDER_BY_ENABLED, false);
+            this.sqlResultCacheEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_RESULT_CACHE_ENABLED, false);
+            this.sqlResultCacheSize = getLongSize(properties, env, PropertyKey.CAIRO_SQL_RESULT_CACHE_SIZE, 64 * Numbers.SIZE_1MB);
+            this.sqlScrollableCursorIdleTimeout = getMillis(properties, env, PropertyKey.CAIRO_SQL_SCROLLABLE_CURSOR_IDLE_TIMEOUT, 60_000);
+            this.sqlScrollableCursorMaxPerUser = getInt(properties, env, PropertyKey.CAIRO_SQL_SCROLLABLE_CURSOR_MAX_PER_USER, 4);
+            this.zoneMapsEnabled = getBoolean(properties, env, PropertyKey.CAIRO_ZONE_MAPS_ENABLED, false);
             this.sqlParallelWorkStealingThreshold = getInt(properties, env, PropertyKey.CAIRO_SQL_PARALLEL_WORK_STEALING_THRESHOLD, 16);
+            this.sqlParquetFrameCacheCapacity = getInt(properties, env, PropertyKey.CAIRO_SQL_PARQUET_FRAME_CACHE_CAPACITY, 3);
+            this.sqlPageFramePrefetchCount = getInt(properties, env, PropertyKey.CAIRO_SQL_PAGE_FRAME_PREFETCH_COUNT, 0);
+            this.sqlPartitionReadAheadWindow = getInt(properties, env, PropertyKey.CAIRO_SQL_PARTITION_READ_AHEAD_WINDOW, 0);
+            this.sqlPlanPoolCapacity = getInt(properties, env, PropertyKey.CAIRO_SQL_PLAN_POOL_CAPACITY, 256);
+            this.sqlPartitionReadAheadReleaseEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_PARTITION_READ_AHEAD_RELEASE_ENABLED, false);
             this.sqlOrderBySortEnabled = getBoolean(properties, env, PropertyKey.CAIRO_SQL_ORDER_BY_SORT_ENABLED, true);
             this.sqlOrderByRadixSortThreshold = getInt(properties, env, PropertyKey.CAIRO_SQL_ORDER_BY_RADIX_SORT_THRESHOLD, 600);
             this.metricsEnabled = getBoolean(properties, env, PropertyKey.METRICS_ENABLED, false);
@@ -2260,6 +2302,16 @@ public class PropServerConfiguration implements ServerConfiguration {
             return circuitBreakerConfiguration;
         }
 
+        @Override
+        public long getColdPartitionAge() {
+            return coldPartitionAge;
+        }
+
+        @Override
+        public long getColdPartitionCheckInterval() {
+            return coldPartitionCheckInterval;
+        }
+
         @Override
         public int getColumnCastModelPoolCapacity() {
             return sqlColumnCastModelPoolCapacity;
@@ -2483,6 +2535,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return inactiveReaderMaxOpenPartitions;
         }
 
+        @Override
+        public int getInactiveReaderMaxOpenParquetPartitions() {
+            return inactiveReaderMaxOpenParquetPartitions;
+        }
+
         @Override
         public long getInactiveReaderTTL() {
             return inactiveReaderTTL;
@@ -2958,6 +3015,26 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlParallelWorkStealingThreshold;
         }
 
+        @Override
+        public int getSqlParquetFrameCacheCapacity() {
+            return sqlParquetFrameCacheCapacity;
+        }
+
+        @Override
+        public int getSqlPageFramePrefetchCount() {
+            return sqlPageFramePrefetchCount;
+        }
+
+        @Override
+        public int getSqlPartitionReadAheadWindow() {
+            return sqlPartitionReadAheadWindow;
+        }
+
+        @Override
+        public int getSqlPlanPoolCapacity() {
+            return sqlPlanPoolCapacity;
+        }
+
         @Override
         public int getSqlSmallMapKeyCapacity() {
             return sqlSmallMapKeyCapacity;
@@ -3097,6 +3174,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return textConfiguration;
         }
 
+        @Override
+        public long getTtlCheckInterval() {
+            return ttlCheckInterval;
+        }
+
         @Override
         public int getTxnScoreboardEntryCount() {
             return sqlTxnScoreboardEntryCount;
@@ -3117,6 +3199,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return walApplyLookAheadTransactionCount;
         }
 
+        @Override
+        public int getWalApplySquashMaxRows() {
+            return walApplySquashMaxRows;
+        }
+
         @Override
         public long getWalApplyTableTimeQuota() {
             return walApplyTableTimeQuota;
@@ -3307,6 +3394,46 @@ public class PropServerConfiguration implements ServerConfiguration {
             return sqlParallelGroupByEnabled;
         }
 
+        @Override
+        public boolean isSqlParallelHashJoinEnabled() {
+            return sqlParallelHashJoinEnabled;
+        }
+
+        @Override
+        public boolean isSqlParallelOrderByEnabled() {
+            return sqlParallelOrderByEnabled;
+        }
+
+        @Override
+        public boolean isSqlPartitionReadAheadReleaseEnabled() {
+            return sqlPartitionReadAheadReleaseEnabled;
+        }
+
+        @Override
+        public boolean isSqlResultCacheEnabled() {
+            return sqlResultCacheEnabled;
+        }
+
+        @Override
+        public long getSqlResultCacheSize() {
+            return sqlResultCacheSize;
+        }
+
+        @Override
+        public long getSqlScrollableCursorIdleTimeout() {
+            return sqlScrollableCursorIdleTimeout;
+        }
+
+        @Override
+        public int getSqlScrollableCursorMaxPerUser() {
+            return sqlScrollableCursorMaxPerUser;
+        }
+
+        @Override
+        public boolean isZoneMapsEnabled() {
+            return zoneMapsEnabled;
+        }
+
         @Override
         public boolean isTableTypeConversionEnabled() {
             return tableTypeConversionEnabled;
@@ -3317,6 +3444,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return walApplyEnabled;
         }
 
+        @Override
+        public boolean isWalApplyParallelPartitionsEnabled() {
+            return walApplyParallelPartitionsEnabled;
+        }
+
         public boolean isWalSupported() {
             return walSupported;
         }
@@ -4000,6 +4132,16 @@ public class PropServerConfiguration implements ServerConfiguration {
             return lineTcpWriterQueueCapacity;
         }
 
+        @Override
+        public long getWriterRebalanceInterval() {
+            return lineTcpWriterRebalanceInterval;
+        }
+
+        @Override
+        public double getWriterRebalanceMaxLoadRatio() {
+            return lineTcpWriterRebalanceMaxLoadRatio;
+        }
+
         @Override
         public WorkerPoolConfiguration getWriterWorkerPoolConfiguration() {
             return lineTcpWriterWorkerPoolConfiguration;
@@ -4317,6 +4459,11 @@ public class PropServerConfiguration implements ServerConfiguration {
             return pgForceSendFragmentationChunkSize;
         }
 
+        @Override
+        public int getInsertBatchSize() {
+            return pgInsertBatchSize;
+        }
+
         @Override
         public int getInsertCacheBlockCount() {
             return pgInsertCacheBlockCount;
@@ -51,6 +51,7 @@ public enum PropertyKey implements ConfigPropertyKey {
     CAIRO_FILE_OPERATION_RETRY_COUNT("cairo.file.operation.retry.count"),
     CAIRO_IDLE_CHECK_INTERVAL("cairo.idle.check.interval"),
     CAIRO_INACTIVE_READER_MAX_OPEN_PARTITIONS("cairo.inactive.reader.max.open.partitions"),
+    CAIRO_INACTIVE_READER_MAX_OPEN_PARQUET_PARTITIONS("cairo.inactive.reader.max.open.parquet.partitions"),
     CAIRO_INACTIVE_READER_TTL("cairo.inactive.reader.ttl"),
     CAIRO_INACTIVE_WRITER_TTL("cairo.inactive.writer.ttl"),
     CAIRO_INDEX_VALUE_BLOCK_SIZE("cairo.index.value.block.size"),
@@ -101,7 +102,19 @@ public enum PropertyKey implements ConfigPropertyKey {
     CAIRO_SQL_PARALLEL_GROUPBY_PRESIZE_ENABLED("cairo.sql.parallel.groupby.presize.enabled"),
     CAIRO_SQL_PARALLEL_GROUPBY_PRESIZE_MAX_CAPACITY("cairo.sql.parallel.groupby.presize.max.capacity"),
     CAIRO_SQL_PARALLEL_GROUPBY_PRESIZE_MAX_HEAP_SIZE("cairo.sql.parallel.groupby.presize.max.heap.size"),
+    CAIRO_SQL_PARALLEL_HASH_JOIN_ENABLED("cairo.sql.parallel.hash.join.enabled"),
+    CAIRO_SQL_PARALLEL_ORDER_BY_ENABLED("cairo.sql.parallel.orderby.enabled"),
+    CAIRO_SQL_RESULT_CACHE_ENABLED("cairo.sql.result.cache.enabled"),
+    CAIRO_SQL_RESULT_CACHE_SIZE("cairo.sql.result.cache.size"),
+    CAIRO_SQL_SCROLLABLE_CURSOR_IDLE_TIMEOUT("cairo.sql.scrollable.cursor.idle.timeout"),
+    CAIRO_SQL_SCROLLABLE_CURSOR_MAX_PER_USER("cairo.sql.scrollable.cursor.max.per.user"),
+    CAIRO_ZONE_MAPS_ENABLED("cairo.zone.maps.enabled"),
     CAIRO_SQL_PARALLEL_WORK_STEALING_THRESHOLD("cairo.sql.parallel.work.stealing.threshold"),
+    CAIRO_SQL_PARQUET_FRAME_CACHE_CAPACITY("cairo.sql.parquet.frame.cache.capacity"),
+    CAIRO_SQL_PAGE_FRAME_PREFETCH_COUNT("cairo.sql.page.frame.prefetch.count"),
+    CAIRO_SQL_PARTITION_READ_AHEAD_WINDOW("cairo.sql.partition.read.ahead.window"),
+    CAIRO_SQL_PARTITION_READ_AHEAD_RELEASE_ENABLED("cairo.sql.partition.read.ahead.release.enabled"),
+    CAIRO_SQL_PLAN_POOL_CAPACITY("cairo.sql.plan.pool.capacity"),
     CAIRO_PAGE_FRAME_SHARD_COUNT("cairo.page.frame.shard.count"),
     CAIRO_PAGE_FRAME_TASK_POOL_CAPACITY("cairo.page.frame.task.pool.capacity"),
     CAIRO_SQL_JOIN_METADATA_PAGE_SIZE("cairo.sql.join.metadata.page.size"),
@@ -334,6 +347,8 @@ public enum PropertyKey implements ConfigPropertyKey {
     LINE_TCP_MSG_BUFFER_SIZE("line.tcp.msg.buffer.size"),
     LINE_TCP_MAX_MEASUREMENT_SIZE("line.tcp.max.measurement.size"),
     LINE_TCP_WRITER_QUEUE_CAPACITY("line.tcp.writer.queue.capacity"),
+    LINE_TCP_WRITER_REBALANCE_INTERVAL("line.tcp.writer.rebalance.interval"),
+    LINE_TCP_WRITER_REBALANCE_MAX_LOAD_RATIO("line.tcp.writer.rebalance.max.load.ratio"),
     LINE_TCP_WRITER_WORKER_COUNT("line.tcp.writer.worker.count"),
     LINE_TCP_WRITER_WORKER_AFFINITY("line.tcp.writer.worker.affinity"),
     LINE_TCP_WRITER_HALT_ON_ERROR("line.tcp.writer.halt.on.error"),
@@ -401,6 +416,7 @@ public enum PropertyKey implements ConfigPropertyKey {
     PG_SELECT_CACHE_BLOCK_COUNT("pg.select.cache.block.count"),
     PG_SELECT_CACHE_ROW_COUNT("pg.select.cache.row.count"),
     PG_INSERT_CACHE_ENABLED("pg.insert.cache.enabled"),
+    PG_INSERT_BATCH_SIZE("pg.insert.batch.size"),
     PG_INSERT_CACHE_BLOCK_COUNT("pg.insert.cache.block.count"),
     PG_INSERT_CACHE_ROW_COUNT("pg.insert.cache.row.count"),
     PG_INSERT_POOL_CAPACITY("pg.insert.pool.capacity"),
@@ -441,6 +457,9 @@ public enum PropertyKey implements ConfigPropertyKey {
     DEV_MODE_ENABLED("dev.mode.enabled"),
     CAIRO_WAL_ENABLED_DEFAULT("cairo.wal.enabled.default"),
     CAIRO_WAL_PURGE_INTERVAL("cairo.wal.purge.interval"),
+    CAIRO_TTL_CHECK_INTERVAL("cairo.ttl.check.interval"),
+    CAIRO_COLD_PARTITION_AGE("cairo.cold.partition.age"),
+    CAIRO_COLD_PARTITION_CHECK_INTERVAL("cairo.cold.partition.check.interval"),
     CAIRO_WAL_SEGMENT_ROLLOVER_ROW_COUNT("cairo.wal.segment.rollover.row.count"),
     CAIRO_WAL_SEGMENT_ROLLOVER_SIZE("cairo.wal.segment.rollover.size"),
     CAIRO_WAL_WRITER_DATA_APPEND_PAGE_SIZE("cairo.wal.writer.data.append.page.size"),
@@ -458,6 +477,7 @@ public enum PropertyKey implements ConfigPropertyKey {
     CAIRO_WAL_TXN_NOTIFICATION_QUEUE_CAPACITY("cairo.wal.txn.notification.queue.capacity"),
     CAIRO_WAL_SUPPORTED("cairo.wal.supported"),
     CAIRO_WAL_APPLY_ENABLED("cairo.wal.apply.enabled"),
+    CAIRO_WAL_APPLY_PARALLEL_PARTITIONS_ENABLED("cairo.wal.apply.parallel.partitions.enabled"),
     TABLE_TYPE_CONVERSION_ENABLED("table.type.conversion.enabled"),
     CAIRO_WAL_RECREATE_DISTRESSED_SEQUENCER_ATTEMPTS("cairo.wal.recreate.distressed.sequencer.attempts"),
     CAIRO_WAL_INACTIVE_WRITER_TTL("cairo.wal.inactive.writer.ttl"),
@@ -467,6 +487,7 @@ public enum PropertyKey implements ConfigPropertyKey {
     CAIRO_WAL_MAX_SEGMENT_FILE_DESCRIPTORS_CACHE("cairo.wal.max.segment.file.descriptors.cache"),
     CAIRO_WAL_APPLY_TABLE_TIME_QUOTA("cairo.wal.apply.table.time.quota"),
     CAIRO_WAL_APPLY_LOOK_AHEAD_TXN_COUNT("cairo.wal.apply.look.ahead.txn.count"),
+    CAIRO_WAL_APPLY_SQUASH_MAX_ROWS("cairo.wal.apply.squash.max.rows"),
     CAIRO_WAL_TEMP_PENDING_RENAME_TABLE_PREFIX("cairo.wal.temp.pending.rename.table.prefix"),
     CAIRO_WAL_WRITER_POOL_MAX_SEGMENTS("cairo.wal.writer.pool.max.segments"),
     READ_ONLY_INSTANCE("readonly"),
@@ -28,6 +28,7 @@ import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.CairoEngine;
 import io.questdb.cairo.CairoException;
 import io.questdb.cairo.FlushQueryCacheJob;
+import io.questdb.cairo.mv.MatViewRefreshJob;
 import io.questdb.cairo.security.ReadOnlySecurityContextFactory;
 import io.questdb.cairo.security.SecurityContextFactory;
 import io.questdb.cairo.wal.ApplyWal2TableJob;
@@ -258,7 +259,7 @@ public class ServerMain implements Closeable {
 
     @TestOnly
     public void resetQueryCache() {
-        pgWireServer.resetQueryCache();
+        engine.getQueryPlanPool().clear();
     }
 
     public void start() {
@@ -382,6 +383,12 @@ public class ServerMain implements Closeable {
                     WorkerPoolManager.Requester.WAL_APPLY
             );
             setupWalApplyJob(walApplyWorkerPool, engine, workerPoolManager.getSharedWorkerCount());
+            if (cairoConfig.isWalApplyParallelPartitionsEnabled()) {
+                // WAL apply workers help each other with partitions of a large commit,
+                // a single table with heavy O3 commits would otherwise lag its sequencer
+                // while the rest of the WAL apply pool is idle
+                WorkerPoolUtils.setupO3Jobs(walApplyWorkerPool, engine.getMessageBus());
+            }
         }
 
         // http
@@ -407,11 +414,7 @@ public class ServerMain implements Closeable {
                 metrics
         ));
 
-        workerPoolManager.getSharedPool().assign(new FlushQueryCacheJob(
-                engine.getMessageBus(),
-                httpServer,
-                pgWireServer
-        ));
+        workerPoolManager.getSharedPool().assign(new FlushQueryCacheJob(engine));
 
         if (!isReadOnly && config.getLineTcpReceiverConfiguration().isEnabled()) {
             // ilp/tcp
@@ -452,6 +455,10 @@ public class ServerMain implements Closeable {
             final ApplyWal2TableJob applyWal2TableJob = new ApplyWal2TableJob(engine, workerCount, sharedWorkerCount);
             workerPool.assign(i, applyWal2TableJob);
             workerPool.freeOnExit(applyWal2TableJob);
+            // materialized views are refreshed on the same pool, right after base table transactions are applied
+            final MatViewRefreshJob matViewRefreshJob = new MatViewRefreshJob(engine, workerCount, sharedWorkerCount);
+            workerPool.assign(i, matViewRefreshJob);
+            workerPool.freeOnExit(matViewRefreshJob);
         }
     }
 
@@ -28,6 +28,7 @@ import io.questdb.cairo.sql.PartitionFrame;
 import io.questdb.cairo.sql.PartitionFrameCursor;
 import io.questdb.cairo.sql.StaticSymbolTable;
 import io.questdb.std.Misc;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 
 public abstract class AbstractFullPartitionFrameCursor implements PartitionFrameCursor {
@@ -35,6 +36,7 @@ public abstract class AbstractFullPartitionFrameCursor implements PartitionFrame
     protected int partitionHi;
     protected int partitionIndex;
     protected TableReader reader;
+    protected ZoneMapFilter zoneMapFilter;
 
     @Override
     public void close() {
@@ -51,15 +53,25 @@ public abstract class AbstractFullPartitionFrameCursor implements PartitionFrame
         return reader;
     }
 
+    @Override
+    public @Nullable ZoneMapFilter getZoneMapFilter() {
+        return zoneMapFilter;
+    }
+
     @Override
     public StaticSymbolTable newSymbolTable(int columnIndex) {
         return reader.newSymbolTable(columnIndex);
     }
 
     public PartitionFrameCursor of(TableReader reader) {
+        return of(reader, null);
+    }
+
+    public PartitionFrameCursor of(TableReader reader, @Nullable ZoneMapFilter zoneMapFilter) {
         partitionHi = reader.getPartitionCount();
         toTop();
         this.reader = reader;
+        this.zoneMapFilter = zoneMapFilter;
         return this;
     }
 
@@ -77,6 +89,10 @@ public abstract class AbstractFullPartitionFrameCursor implements PartitionFrame
         return reader.size();
     }
 
+    protected boolean isPartitionPruned(int partitionIndex) {
+        return zoneMapFilter != null && !zoneMapFilter.mayMatch(reader, partitionIndex);
+    }
+
     protected static class FullTablePartitionFrame implements PartitionFrame {
         protected int partitionIndex;
         protected long rowHi;
@@ -34,6 +34,7 @@ import io.questdb.griffin.model.RuntimeIntrinsicIntervalModel;
 import io.questdb.std.LongList;
 import io.questdb.std.Misc;
 import io.questdb.std.Vect;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 
 public abstract class AbstractIntervalPartitionFrameCursor implements PartitionFrameCursor {
@@ -54,10 +55,13 @@ public abstract class AbstractIntervalPartitionFrameCursor implements PartitionF
     protected TableReader reader;
     protected long size = -1;
     protected long sizeSoFar = 0;
+    protected ZoneMapFilter zoneMapFilter;
     private int initialIntervalsHi;
     private int initialIntervalsLo;
     private int initialPartitionHi;
     private int initialPartitionLo;
+    // last partition that zone map filter let through, avoids re-reading its zone map for every interval
+    private int matchedPartitionIndex = -1;
 
     public AbstractIntervalPartitionFrameCursor(RuntimeIntrinsicIntervalModel intervalModel, int timestampIndex) {
         assert timestampIndex > -1;
@@ -84,6 +88,11 @@ public abstract class AbstractIntervalPartitionFrameCursor implements PartitionF
         return reader;
     }
 
+    @Override
+    public @Nullable ZoneMapFilter getZoneMapFilter() {
+        return zoneMapFilter;
+    }
+
     public int getTimestampIndex() {
         return timestampIndex;
     }
@@ -94,9 +103,19 @@ public abstract class AbstractIntervalPartitionFrameCursor implements PartitionF
     }
 
     public AbstractIntervalPartitionFrameCursor of(TableReader reader, SqlExecutionContext sqlExecutionContext) throws SqlException {
+        return of(reader, sqlExecutionContext, null);
+    }
+
+    public AbstractIntervalPartitionFrameCursor of(
+            TableReader reader,
+            SqlExecutionContext sqlExecutionContext,
+            @Nullable ZoneMapFilter zoneMapFilter
+    ) throws SqlException {
         this.intervals = intervalModel.calculateIntervals(sqlExecutionContext);
         calculateRanges(reader, intervals);
         this.reader = reader;
+        this.zoneMapFilter = zoneMapFilter;
+        this.matchedPartitionIndex = -1;
         return this;
     }
 
@@ -105,6 +124,7 @@ public abstract class AbstractIntervalPartitionFrameCursor implements PartitionF
     public boolean reload() {
         if (reader != null && reader.reload()) {
             calculateRanges(reader, intervals);
+            matchedPartitionIndex = -1;
             return true;
         }
         return false;
@@ -124,6 +144,17 @@ public abstract class AbstractIntervalPartitionFrameCursor implements PartitionF
         sizeSoFar = 0;
     }
 
+    protected boolean isPartitionPruned(int partitionIndex) {
+        if (zoneMapFilter == null || partitionIndex == matchedPartitionIndex) {
+            return false;
+        }
+        if (zoneMapFilter.mayMatch(reader, partitionIndex)) {
+            matchedPartitionIndex = partitionIndex;
+            return false;
+        }
+        return true;
+    }
+
     private void calculateRanges(TableReader reader, LongList intervals) {
         size = -1;
         if (intervals.size() > 0) {
@@ -28,13 +28,17 @@ import io.questdb.cairo.sql.PartitionFrameCursorFactory;
 import io.questdb.cairo.sql.RecordMetadata;
 import io.questdb.griffin.PlanSink;
 import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.Misc;
 import io.questdb.std.str.CharSink;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class AbstractPartitionFrameCursorFactory implements PartitionFrameCursorFactory {
     private final GenericRecordMetadata metadata;
     private final long metadataVersion;
     private final TableToken tableToken;
+    private PartitionReadAhead partitionReadAhead;
+    private ZoneMapFilter zoneMapFilter;
 
     public AbstractPartitionFrameCursorFactory(TableToken tableToken, long metadataVersion, GenericRecordMetadata metadata) {
         this.tableToken = tableToken;
@@ -44,6 +48,7 @@ public abstract class AbstractPartitionFrameCursorFactory implements PartitionFr
 
     @Override
     public void close() {
+        zoneMapFilter = Misc.free(zoneMapFilter);
     }
 
     public RecordMetadata getMetadata() {
@@ -55,6 +60,14 @@ public abstract class AbstractPartitionFrameCursorFactory implements PartitionFr
         return tableToken;
     }
 
+    /**
+     * Sets filter used to skip partitions using their zone maps. The filter must be implied
+     * by the WHERE clause applied on top of the frames. Factory takes ownership of the filter.
+     */
+    public void setZoneMapFilter(@Nullable ZoneMapFilter zoneMapFilter) {
+        this.zoneMapFilter = zoneMapFilter;
+    }
+
     @Override
     public boolean supportsTableRowId(TableToken tableToken) {
         return this.tableToken.equals(tableToken);
@@ -63,6 +76,9 @@ public abstract class AbstractPartitionFrameCursorFactory implements PartitionFr
     @Override
     public void toPlan(PlanSink sink) {
         sink.meta("on").val(tableToken.getTableName());
+        if (zoneMapFilter != null) {
+            sink.attr("zone map filter").val(zoneMapFilter);
+        }
     }
 
     @Override
@@ -74,6 +90,26 @@ public abstract class AbstractPartitionFrameCursorFactory implements PartitionFr
                 .putAscii("\"}");
     }
 
+    /**
+     * @return read-ahead for the forward scanning cursor of this factory, null when
+     * partition read-ahead is disabled
+     */
+    @Nullable
+    protected PartitionReadAhead getPartitionReadAhead(SqlExecutionContext executionContext) {
+        if (partitionReadAhead == null) {
+            final CairoEngine engine = executionContext.getCairoEngine();
+            if (engine.getConfiguration().getSqlPartitionReadAheadWindow() > 0) {
+                partitionReadAhead = new PartitionReadAhead(engine.getConfiguration(), engine.getMetrics().partitionReadAhead());
+            }
+        }
+        return partitionReadAhead;
+    }
+
+    @Nullable
+    protected ZoneMapFilter getZoneMapFilter() {
+        return zoneMapFilter;
+    }
+
     protected TableReader getReader(SqlExecutionContext executionContext) {
         return executionContext.getReader(
                 tableToken,
@@ -0,0 +1,490 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.Hash;
+import io.questdb.std.LongList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Numbers;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.LPSZ;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.Utf8Sequence;
+import io.questdb.std.str.Utf8SplitString;
+import io.questdb.std.str.Utf8StringSink;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Maintains bloom filters of SYMBOL and VARCHAR columns declared with {@code INDEX TYPE BLOOM},
+ * one file per column and partition. Unlike the bitmap index, the size of a bloom filter
+ * depends on the row count only, so it stays small for high-cardinality columns. Queries
+ * use it to skip partitions that cannot contain the looked up values, see {@link ZoneMapFilter}.
+ * <p>
+ * The filter covers the first "row count" rows of the partition and is extended in place as
+ * rows are appended. Since bits are only ever set, the filter stays valid for readers that see
+ * fewer rows. When the filter fills up, or the column or the partition is rewritten, it is
+ * rebuilt from the column files into a copy that replaces the existing file.
+ * <p>
+ * File layout is a header of row count, column type, column name txn, column top and bit count
+ * followed by the bits. Values are hashed as UTF-8 bytes, symbols by their string value.
+ */
+public class BloomIndexWriter implements QuietCloseable {
+    public static final String FILE_SUFFIX = ".bf";
+    public static final int HEADER_BIT_COUNT_OFFSET = 32;
+    public static final int HEADER_COLUMN_NAME_TXN_OFFSET = 16;
+    public static final int HEADER_COLUMN_TOP_OFFSET = 24;
+    public static final int HEADER_COLUMN_TYPE_OFFSET = 8;
+    public static final int HEADER_ROW_COUNT_OFFSET = 0;
+    public static final long HEADER_SIZE = 64;
+    private static final int BITS_PER_VALUE = 10;
+    // optimal for 10 bits per value, false positive rate is below 1%
+    private static final int HASH_COUNT = 7;
+    private static final Log LOG = LogFactory.getLog(BloomIndexWriter.class);
+    private static final long M2 = 0x517cc1b727220a95L;
+    private static final long MIN_CAPACITY = 1024;
+    private final FilesFacade ff;
+    private final LongList keyHashes = new LongList();
+    private final MapWriterSymbolTable mapWriterSymbolTable = new MapWriterSymbolTable();
+    private final Path other = new Path();
+    private final Utf8StringSink symbolSink = new Utf8StringSink();
+    private final Utf8SplitString varcharView = new Utf8SplitString();
+    private long buf;
+    private long bufCapacity;
+
+    public BloomIndexWriter(FilesFacade ff) {
+        this.ff = ff;
+    }
+
+    public static LPSZ bloomFile(Path path, CharSequence columnName) {
+        return path.concat(columnName).put(FILE_SUFFIX).$();
+    }
+
+    public static long hash(Utf8Sequence value) {
+        final int size = value.size();
+        long h = 0;
+        int i = 0;
+        for (; i + 7 < size; i += 8) {
+            h = h * M2 + value.longAt(i);
+        }
+        for (; i < size; i++) {
+            h = h * M2 + value.byteAt(i);
+        }
+        return Hash.hashLong64(h);
+    }
+
+    public static boolean isSupported(int columnType) {
+        final short tag = ColumnType.tagOf(columnType);
+        return tag == ColumnType.SYMBOL || tag == ColumnType.VARCHAR;
+    }
+
+    /**
+     * @param bits     address of the filter bits
+     * @param bitCount number of bits in the filter, power of 2
+     * @param hash     value hash, see {@link #hash(Utf8Sequence)}
+     * @return false when the value was never added to the filter
+     */
+    public static boolean mightContain(long bits, long bitCount, long hash) {
+        final long mask = bitCount - 1;
+        final long step = Hash.hashLong64(hash) | 1;
+        for (int i = 0; i < HASH_COUNT; i++) {
+            final long bit = (hash + i * step) & mask;
+            if ((Unsafe.getUnsafe().getLong(bits + ((bit >>> 6) << 3)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        if (buf != 0) {
+            buf = Unsafe.free(buf, bufCapacity, MemoryTag.NATIVE_TABLE_WRITER);
+            bufCapacity = 0;
+        }
+        other.close();
+    }
+
+    /**
+     * Brings bloom filters of the partition up to date with the given row count.
+     *
+     * @param partitionPath      path to the partition directory, left unchanged on return
+     * @param metadata           table metadata, columns are addressed by writer index
+     * @param columnVersions     column versions of the table
+     * @param symbolMapWriters   symbol maps of the table, addressed by writer index
+     * @param partitionTimestamp timestamp of the partition
+     * @param rowCount           committed row count of the partition
+     * @param rebuild            true to ignore existing filters, e.g. after O3 rewrote the partition
+     */
+    public void update(
+            Path partitionPath,
+            RecordMetadata metadata,
+            ColumnVersionReader columnVersions,
+            ObjList<MapWriter> symbolMapWriters,
+            long partitionTimestamp,
+            long rowCount,
+            boolean rebuild
+    ) {
+        final int partitionPathLen = partitionPath.size();
+        try {
+            for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+                final int columnType = metadata.getColumnType(i);
+                if (columnType < 0 || !metadata.getColumnMetadata(i).isBloomIndexed()) {
+                    continue;
+                }
+                updateColumn(partitionPath, metadata, columnVersions, symbolMapWriters, partitionTimestamp, rowCount, i, rebuild);
+                partitionPath.trimTo(partitionPathLen);
+            }
+        } finally {
+            partitionPath.trimTo(partitionPathLen);
+        }
+    }
+
+    /**
+     * Rebuilds bloom filter of a single column in the partition, e.g. when the index is added
+     * to an existing column.
+     *
+     * @param partitionPath      path to the partition directory, left unchanged on return
+     * @param metadata           table metadata, columns are addressed by writer index
+     * @param columnVersions     column versions of the table
+     * @param symbolMapWriters   symbol maps of the table, addressed by writer index
+     * @param partitionTimestamp timestamp of the partition
+     * @param rowCount           committed row count of the partition
+     * @param columnIndex        writer index of the column
+     */
+    public void rebuild(
+            Path partitionPath,
+            RecordMetadata metadata,
+            ColumnVersionReader columnVersions,
+            ObjList<MapWriter> symbolMapWriters,
+            long partitionTimestamp,
+            long rowCount,
+            int columnIndex
+    ) {
+        final int partitionPathLen = partitionPath.size();
+        try {
+            updateColumn(partitionPath, metadata, columnVersions, symbolMapWriters, partitionTimestamp, rowCount, columnIndex, true);
+        } finally {
+            partitionPath.trimTo(partitionPathLen);
+        }
+    }
+
+    /**
+     * Rebuilds bloom filter of a single column in the partition from the column files.
+     *
+     * @param partitionPath  path to the partition directory, left unchanged on return
+     * @param columnName     column name
+     * @param columnType     column type, SYMBOL or VARCHAR
+     * @param columnNameTxn  column name txn in the partition
+     * @param columnTop      column top in the partition, -1 when the column does not exist in the partition
+     * @param rowCount       row count of the partition
+     * @param symbolTable    symbol values of a SYMBOL column, ignored for VARCHAR
+     */
+    public void rebuild(
+            Path partitionPath,
+            CharSequence columnName,
+            int columnType,
+            long columnNameTxn,
+            long columnTop,
+            long rowCount,
+            @Nullable SymbolTable symbolTable
+    ) {
+        final int partitionPathLen = partitionPath.size();
+        try {
+            updateColumn(partitionPath, columnName, columnType, columnNameTxn, columnTop, rowCount, true, symbolTable);
+        } finally {
+            partitionPath.trimTo(partitionPathLen);
+        }
+    }
+
+    private static void add(long bits, long bitCount, long hash) {
+        final long mask = bitCount - 1;
+        final long step = Hash.hashLong64(hash) | 1;
+        for (int i = 0; i < HASH_COUNT; i++) {
+            final long bit = (hash + i * step) & mask;
+            final long p = bits + ((bit >>> 6) << 3);
+            Unsafe.getUnsafe().putLong(p, Unsafe.getUnsafe().getLong(p) | (1L << bit));
+        }
+    }
+
+    private void addSymbols(long bits, long bitCount, long p, long count, SymbolTable symbolTable) {
+        for (long i = 0; i < count; i++) {
+            final int key = Unsafe.getUnsafe().getInt(p + (i << 2));
+            if (key < 0) {
+                // null
+                continue;
+            }
+            while (keyHashes.size() <= key) {
+                keyHashes.add(0);
+            }
+            // zero hash is recalculated, it is unlikely enough to not bother about
+            long h = keyHashes.getQuick(key);
+            if (h == 0) {
+                symbolSink.clear();
+                symbolSink.put(symbolTable.valueOf(key));
+                h = hash(symbolSink);
+                keyHashes.setQuick(key, h);
+            }
+            add(bits, bitCount, h);
+        }
+    }
+
+    private void addValues(
+            long bits,
+            long bitCount,
+            Path partitionPath,
+            CharSequence columnName,
+            int columnType,
+            long columnNameTxn,
+            long columnTop,
+            long lo,
+            long hi,
+            SymbolTable symbolTable
+    ) {
+        // rows above column top are nulls
+        final long dataLo = Math.max(lo, columnTop) - columnTop;
+        final long dataHi = hi - columnTop;
+        if (dataHi <= dataLo) {
+            return;
+        }
+
+        final int partitionPathLen = partitionPath.size();
+        if (ColumnType.isSymbol(columnType)) {
+            final long byteLo = dataLo << 2;
+            final long mapOffset = byteLo - byteLo % Files.PAGE_SIZE;
+            final long mapSize = (dataHi << 2) - mapOffset;
+            final long address = mapColumnFile(TableUtils.dFile(partitionPath, columnName, columnNameTxn), mapSize, mapOffset);
+            partitionPath.trimTo(partitionPathLen);
+            try {
+                addSymbols(bits, bitCount, address + byteLo - mapOffset, dataHi - dataLo, symbolTable);
+            } finally {
+                ff.munmap(address, mapSize, MemoryTag.MMAP_TABLE_WRITER);
+            }
+            return;
+        }
+
+        final long auxLo = dataLo * VarcharTypeDriver.VARCHAR_AUX_WIDTH_BYTES;
+        final long auxMapOffset = auxLo - auxLo % Files.PAGE_SIZE;
+        final long auxMapSize = dataHi * VarcharTypeDriver.VARCHAR_AUX_WIDTH_BYTES - auxMapOffset;
+        final long auxAddress = mapColumnFile(TableUtils.iFile(partitionPath, columnName, columnNameTxn), auxMapSize, auxMapOffset);
+        partitionPath.trimTo(partitionPathLen);
+        long dataAddress = 0;
+        long dataSize = 0;
+        try {
+            // address of the first row, the auxiliary vector is mapped from an offset
+            final long auxBase = auxAddress - auxMapOffset;
+            final long auxLim = auxAddress + auxMapSize;
+            dataSize = VarcharTypeDriver.INSTANCE.getDataVectorSizeAt(auxBase, dataHi - 1);
+            if (dataSize > 0) {
+                dataAddress = mapColumnFile(TableUtils.dFile(partitionPath, columnName, columnNameTxn), dataSize, 0);
+                partitionPath.trimTo(partitionPathLen);
+            }
+            for (long row = dataLo; row < dataHi; row++) {
+                final Utf8Sequence value = VarcharTypeDriver.getSplitValue(auxBase, auxLim, dataAddress, dataAddress + dataSize, row, varcharView);
+                if (value != null) {
+                    add(bits, bitCount, hash(value));
+                }
+            }
+        } finally {
+            if (dataAddress != 0) {
+                ff.munmap(dataAddress, dataSize, MemoryTag.MMAP_TABLE_WRITER);
+            }
+            ff.munmap(auxAddress, auxMapSize, MemoryTag.MMAP_TABLE_WRITER);
+        }
+    }
+
+    private void ensureCapacity(long size) {
+        if (bufCapacity < size) {
+            buf = Unsafe.realloc(buf, bufCapacity, size, MemoryTag.NATIVE_TABLE_WRITER);
+            bufCapacity = size;
+        }
+    }
+
+    private long mapColumnFile(LPSZ path, long size, long offset) {
+        final long fd = TableUtils.openRO(ff, path, LOG);
+        try {
+            return TableUtils.mapRO(ff, fd, size, offset, MemoryTag.MMAP_TABLE_WRITER);
+        } finally {
+            ff.close(fd);
+        }
+    }
+
+    private long readExisting(Path partitionPath, CharSequence columnName, int columnType, long columnNameTxn, long columnTop, long rowCount) {
+        final int partitionPathLen = partitionPath.size();
+        final long fd = ff.openRO(bloomFile(partitionPath, columnName));
+        partitionPath.trimTo(partitionPathLen);
+        if (fd < 0) {
+            return -1;
+        }
+        try {
+            if (ff.read(fd, buf, HEADER_SIZE, 0) != HEADER_SIZE) {
+                return -1;
+            }
+            final long bitCount = Unsafe.getUnsafe().getLong(buf + HEADER_BIT_COUNT_OFFSET);
+            final long existingRowCount = Unsafe.getUnsafe().getLong(buf + HEADER_ROW_COUNT_OFFSET);
+            if (
+                    Unsafe.getUnsafe().getLong(buf + HEADER_COLUMN_TYPE_OFFSET) != columnType
+                            || Unsafe.getUnsafe().getLong(buf + HEADER_COLUMN_NAME_TXN_OFFSET) != columnNameTxn
+                            || Unsafe.getUnsafe().getLong(buf + HEADER_COLUMN_TOP_OFFSET) != columnTop
+                            || existingRowCount > rowCount
+                            || ff.length(fd) != HEADER_SIZE + bitCount / Byte.SIZE
+            ) {
+                return -1;
+            }
+            return existingRowCount;
+        } finally {
+            ff.close(fd);
+        }
+    }
+
+    private void updateColumn(
+            Path partitionPath,
+            RecordMetadata metadata,
+            ColumnVersionReader columnVersions,
+            ObjList<MapWriter> symbolMapWriters,
+            long partitionTimestamp,
+            long rowCount,
+            int columnIndex,
+            boolean rebuild
+    ) {
+        final int columnType = metadata.getColumnType(columnIndex);
+        updateColumn(
+                partitionPath,
+                metadata.getColumnName(columnIndex),
+                columnType,
+                columnVersions.getColumnNameTxn(partitionTimestamp, columnIndex),
+                columnVersions.getColumnTop(partitionTimestamp, columnIndex),
+                rowCount,
+                rebuild,
+                ColumnType.isSymbol(columnType) ? mapWriterSymbolTable.of(symbolMapWriters.getQuick(columnIndex)) : null
+        );
+    }
+
+    private void updateColumn(
+            Path partitionPath,
+            CharSequence columnName,
+            int columnType,
+            long columnNameTxn,
+            long columnTop,
+            long rowCount,
+            boolean rebuild,
+            SymbolTable symbolTable
+    ) {
+        if (columnTop < 0 || columnTop > rowCount) {
+            // column does not exist in the partition, all values are null
+            columnTop = rowCount;
+        }
+        ensureCapacity(HEADER_SIZE);
+        final long prevRowCount = rebuild ? -1 : readExisting(partitionPath, columnName, columnType, columnNameTxn, columnTop, rowCount);
+        if (prevRowCount == rowCount) {
+            return;
+        }
+        keyHashes.clear();
+
+        final long valueCount = rowCount - columnTop;
+        if (prevRowCount > -1) {
+            final long bitCount = Unsafe.getUnsafe().getLong(buf + HEADER_BIT_COUNT_OFFSET);
+            if (valueCount <= bitCount / BITS_PER_VALUE) {
+                // extend the filter in place, header goes last so that readers never observe missing bits
+                final int partitionPathLen = partitionPath.size();
+                final long fileSize = HEADER_SIZE + bitCount / Byte.SIZE;
+                final long fd = TableUtils.openRW(ff, bloomFile(partitionPath, columnName), LOG, CairoConfiguration.O_NONE);
+                partitionPath.trimTo(partitionPathLen);
+                try {
+                    final long address = TableUtils.mapRW(ff, fd, fileSize, MemoryTag.MMAP_TABLE_WRITER);
+                    try {
+                        addValues(address + HEADER_SIZE, bitCount, partitionPath, columnName, columnType, columnNameTxn, columnTop, prevRowCount, rowCount, symbolTable);
+                        Unsafe.getUnsafe().putLong(address + HEADER_ROW_COUNT_OFFSET, rowCount);
+                    } finally {
+                        ff.munmap(address, fileSize, MemoryTag.MMAP_TABLE_WRITER);
+                    }
+                } finally {
+                    ff.close(fd);
+                }
+                return;
+            }
+        }
+
+        // size the filter with headroom for appends, it is rebuilt when full
+        final long bitCount = Numbers.ceilPow2(Math.max(MIN_CAPACITY, valueCount + (valueCount >> 1)) * BITS_PER_VALUE);
+        final long fileSize = HEADER_SIZE + bitCount / Byte.SIZE;
+        ensureCapacity(fileSize);
+        Unsafe.getUnsafe().setMemory(buf, fileSize, (byte) 0);
+        Unsafe.getUnsafe().putLong(buf + HEADER_ROW_COUNT_OFFSET, rowCount);
+        Unsafe.getUnsafe().putLong(buf + HEADER_COLUMN_TYPE_OFFSET, columnType);
+        Unsafe.getUnsafe().putLong(buf + HEADER_COLUMN_NAME_TXN_OFFSET, columnNameTxn);
+        Unsafe.getUnsafe().putLong(buf + HEADER_COLUMN_TOP_OFFSET, columnTop);
+        Unsafe.getUnsafe().putLong(buf + HEADER_BIT_COUNT_OFFSET, bitCount);
+        addValues(buf + HEADER_SIZE, bitCount, partitionPath, columnName, columnType, columnNameTxn, columnTop, 0, rowCount, symbolTable);
+        writeFile(partitionPath, columnName, fileSize);
+    }
+
+    private void writeFile(Path partitionPath, CharSequence columnName, long fileSize) {
+        // write a copy and rename it over the existing file, readers never observe a partial filter
+        final int partitionPathLen = partitionPath.size();
+        other.of(partitionPath).concat(columnName).put(FILE_SUFFIX).put(".tmp");
+        final long fd = TableUtils.openRW(ff, other.$(), LOG, CairoConfiguration.O_NONE);
+        try {
+            if (ff.write(fd, buf, fileSize, 0) != fileSize || !ff.truncate(fd, fileSize)) {
+                throw CairoException.critical(ff.errno()).put("could not write bloom index [path=").put(other).put(']');
+            }
+        } finally {
+            ff.close(fd);
+        }
+        if (ff.rename(other.$(), bloomFile(partitionPath, columnName)) != Files.FILES_RENAME_OK) {
+            final int errno = ff.errno();
+            partitionPath.trimTo(partitionPathLen);
+            throw CairoException.critical(errno).put("could not rename bloom index [path=").put(other).put(']');
+        }
+        partitionPath.trimTo(partitionPathLen);
+    }
+
+    private static class MapWriterSymbolTable implements SymbolTable {
+        private MapWriter mapWriter;
+
+        public MapWriterSymbolTable of(MapWriter mapWriter) {
+            this.mapWriter = mapWriter;
+            return this;
+        }
+
+        @Override
+        public CharSequence valueBOf(int key) {
+            return mapWriter.getSymbolValuesMemory().getStrB(mapWriter.getSymbolOffsetsMemory().getLong(SymbolMapWriter.keyToOffset(key)));
+        }
+
+        @Override
+        public CharSequence valueOf(int key) {
+            return mapWriter.getSymbolValuesMemory().getStrA(mapWriter.getSymbolOffsetsMemory().getLong(SymbolMapWriter.keyToOffset(key)));
+        }
+    }
+}
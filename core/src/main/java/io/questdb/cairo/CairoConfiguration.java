@@ -114,6 +114,10 @@ public interface CairoConfiguration {
     @NotNull
     SqlExecutionCircuitBreakerConfiguration getCircuitBreakerConfiguration();
 
+    long getColdPartitionAge();
+
+    long getColdPartitionCheckInterval();
+
     int getColumnCastModelPoolCapacity();
 
     int getColumnIndexerQueueCapacity();
@@ -219,6 +223,8 @@ public interface CairoConfiguration {
 
     int getInactiveReaderMaxOpenPartitions();
 
+    int getInactiveReaderMaxOpenParquetPartitions();
+
     long getInactiveReaderTTL();
 
     long getInactiveWalWriterTTL();
@@ -476,6 +482,14 @@ public interface CairoConfiguration {
 
     int getSqlParallelWorkStealingThreshold();
 
+    int getSqlParquetFrameCacheCapacity();
+
+    int getSqlPageFramePrefetchCount();
+
+    int getSqlPartitionReadAheadWindow();
+
+    int getSqlPlanPoolCapacity();
+
     int getSqlSmallMapKeyCapacity();
 
     long getSqlSmallMapPageSize();
@@ -535,6 +549,8 @@ public interface CairoConfiguration {
     @NotNull
     TextConfiguration getTextConfiguration();
 
+    long getTtlCheckInterval();
+
     int getTxnScoreboardEntryCount();
 
     int getVectorAggregateQueueCapacity();
@@ -544,6 +560,8 @@ public interface CairoConfiguration {
 
     int getWalApplyLookAheadTransactionCount();
 
+    int getWalApplySquashMaxRows();
+
     long getWalApplyTableTimeQuota();
 
     long getWalDataAppendPageSize();
@@ -639,10 +657,28 @@ public interface CairoConfiguration {
 
     boolean isSqlParallelGroupByEnabled();
 
+    boolean isSqlParallelHashJoinEnabled();
+
+    boolean isSqlParallelOrderByEnabled();
+
+    boolean isSqlPartitionReadAheadReleaseEnabled();
+
+    boolean isSqlResultCacheEnabled();
+
+    long getSqlResultCacheSize();
+
+    long getSqlScrollableCursorIdleTimeout();
+
+    int getSqlScrollableCursorMaxPerUser();
+
+    boolean isZoneMapsEnabled();
+
     boolean isTableTypeConversionEnabled();
 
     boolean isWalApplyEnabled();
 
+    boolean isWalApplyParallelPartitionsEnabled();
+
     boolean isWalSupported();
 
     boolean isWriterMixedIOEnabled();
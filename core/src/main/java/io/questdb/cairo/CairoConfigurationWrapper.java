@@ -125,6 +125,16 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getCircuitBreakerConfiguration();
     }
 
+    @Override
+    public long getColdPartitionAge() {
+        return getDelegate().getColdPartitionAge();
+    }
+
+    @Override
+    public long getColdPartitionCheckInterval() {
+        return getDelegate().getColdPartitionCheckInterval();
+    }
+
     @Override
     public int getColumnCastModelPoolCapacity() {
         return getDelegate().getColumnCastModelPoolCapacity();
@@ -340,6 +350,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getInactiveReaderMaxOpenPartitions();
     }
 
+    @Override
+    public int getInactiveReaderMaxOpenParquetPartitions() {
+        return getDelegate().getInactiveReaderMaxOpenParquetPartitions();
+    }
+
     @Override
     public long getInactiveReaderTTL() {
         return getDelegate().getInactiveReaderTTL();
@@ -815,6 +830,26 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getSqlParallelWorkStealingThreshold();
     }
 
+    @Override
+    public int getSqlParquetFrameCacheCapacity() {
+        return getDelegate().getSqlParquetFrameCacheCapacity();
+    }
+
+    @Override
+    public int getSqlPageFramePrefetchCount() {
+        return getDelegate().getSqlPageFramePrefetchCount();
+    }
+
+    @Override
+    public int getSqlPartitionReadAheadWindow() {
+        return getDelegate().getSqlPartitionReadAheadWindow();
+    }
+
+    @Override
+    public int getSqlPlanPoolCapacity() {
+        return getDelegate().getSqlPlanPoolCapacity();
+    }
+
     @Override
     public int getSqlSmallMapKeyCapacity() {
         return getDelegate().getSqlSmallMapKeyCapacity();
@@ -955,6 +990,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getTextConfiguration();
     }
 
+    @Override
+    public long getTtlCheckInterval() {
+        return getDelegate().getTtlCheckInterval();
+    }
+
     @Override
     public int getTxnScoreboardEntryCount() {
         return getDelegate().getTxnScoreboardEntryCount();
@@ -975,6 +1015,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().getWalApplyLookAheadTransactionCount();
     }
 
+    @Override
+    public int getWalApplySquashMaxRows() {
+        return getDelegate().getWalApplySquashMaxRows();
+    }
+
     @Override
     public long getWalApplyTableTimeQuota() {
         return getDelegate().getWalApplyTableTimeQuota();
@@ -1165,6 +1210,46 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().isSqlParallelGroupByEnabled();
     }
 
+    @Override
+    public boolean isSqlParallelHashJoinEnabled() {
+        return getDelegate().isSqlParallelHashJoinEnabled();
+    }
+
+    @Override
+    public boolean isSqlParallelOrderByEnabled() {
+        return getDelegate().isSqlParallelOrderByEnabled();
+    }
+
+    @Override
+    public boolean isSqlPartitionReadAheadReleaseEnabled() {
+        return getDelegate().isSqlPartitionReadAheadReleaseEnabled();
+    }
+
+    @Override
+    public boolean isSqlResultCacheEnabled() {
+        return getDelegate().isSqlResultCacheEnabled();
+    }
+
+    @Override
+    public long getSqlResultCacheSize() {
+        return getDelegate().getSqlResultCacheSize();
+    }
+
+    @Override
+    public long getSqlScrollableCursorIdleTimeout() {
+        return getDelegate().getSqlScrollableCursorIdleTimeout();
+    }
+
+    @Override
+    public int getSqlScrollableCursorMaxPerUser() {
+        return getDelegate().getSqlScrollableCursorMaxPerUser();
+    }
+
+    @Override
+    public boolean isZoneMapsEnabled() {
+        return getDelegate().isZoneMapsEnabled();
+    }
+
     @Override
     public boolean isTableTypeConversionEnabled() {
         return getDelegate().isTableTypeConversionEnabled();
@@ -1175,6 +1260,11 @@ public class CairoConfigurationWrapper implements CairoConfiguration {
         return getDelegate().isWalApplyEnabled();
     }
 
+    @Override
+    public boolean isWalApplyParallelPartitionsEnabled() {
+        return getDelegate().isWalApplyParallelPartitionsEnabled();
+    }
+
     public boolean isWalSupported() {
         return getDelegate().isWalSupported();
     }
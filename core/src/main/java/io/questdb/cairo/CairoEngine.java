@@ -29,6 +29,7 @@ import io.questdb.MessageBusImpl;
 import io.questdb.Metrics;
 import io.questdb.Telemetry;
 import io.questdb.cairo.mig.EngineMigration;
+import io.questdb.cairo.mv.MatViewGraph;
 import io.questdb.cairo.pool.AbstractMultiTenantPool;
 import io.questdb.cairo.pool.PoolListener;
 import io.questdb.cairo.pool.ReaderPool;
@@ -61,12 +62,15 @@ import io.questdb.griffin.CompiledQuery;
 import io.questdb.griffin.FunctionFactory;
 import io.questdb.griffin.FunctionFactoryCache;
 import io.questdb.griffin.QueryRegistry;
+import io.questdb.griffin.ScrollableCursorRegistry;
 import io.questdb.griffin.SqlCompiler;
 import io.questdb.griffin.SqlCompilerFactory;
 import io.questdb.griffin.SqlCompilerFactoryImpl;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.griffin.engine.QueryPlanPool;
+import io.questdb.griffin.engine.QueryResultCache;
 import io.questdb.griffin.engine.ops.UpdateOperation;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
@@ -118,13 +122,17 @@ public class CairoEngine implements Closeable, WriterSource {
     private final ConcurrentHashMap<TableToken> createTableLock = new ConcurrentHashMap<>();
     private final EngineMaintenanceJob engineMaintenanceJob;
     private final FunctionFactoryCache ffCache;
+    private final MatViewGraph matViewGraph = new MatViewGraph();
     private final MessageBusImpl messageBus;
     private final MetadataCache metadataCache;
     private final Metrics metrics;
     private final PartitionOverwriteControl partitionOverwriteControl = new PartitionOverwriteControl();
     private final QueryRegistry queryRegistry;
+    private final QueryPlanPool queryPlanPool;
+    private final QueryResultCache queryResultCache;
     private final ReaderPool readerPool;
     private final SqlExecutionContext rootExecutionContext;
+    private final ScrollableCursorRegistry scrollableCursorRegistry;
     private final SequencerMetadataPool sequencerMetadataPool;
     private final SqlCompilerPool sqlCompilerPool;
     private final TableFlagResolver tableFlagResolver;
@@ -172,6 +180,9 @@ public class CairoEngine implements Closeable, WriterSource {
             this.tableIdGenerator = new IDGenerator(configuration, TableUtils.TAB_INDEX_FILE_NAME);
             this.checkpointAgent = new DatabaseCheckpointAgent(this);
             this.queryRegistry = new QueryRegistry(configuration);
+            this.queryResultCache = new QueryResultCache(configuration);
+            this.queryPlanPool = new QueryPlanPool(configuration, metrics.queryPlanPool());
+            this.scrollableCursorRegistry = new ScrollableCursorRegistry(this);
             this.rootExecutionContext = new SqlExecutionContextImpl(this, 1)
                     .with(AllowAllSecurityContext.INSTANCE);
 
@@ -342,6 +353,8 @@ public class CairoEngine implements Closeable, WriterSource {
     public boolean clear() {
         checkpointAgent.clear();
         messageBus.clear();
+        // parked cursors hold table readers
+        scrollableCursorRegistry.clear();
         boolean b1 = readerPool.releaseAll();
         boolean b2 = writerPool.releaseAll();
         boolean b3 = tableSequencerAPI.releaseAll();
@@ -349,11 +362,16 @@ public class CairoEngine implements Closeable, WriterSource {
         boolean b5 = walWriterPool.releaseAll();
         boolean b6 = tableMetadataPool.releaseAll();
         partitionOverwriteControl.clear();
+        matViewGraph.clear();
+        queryResultCache.clear();
+        queryPlanPool.clear();
         return b1 & b2 & b3 & b4 & b5 & b6;
     }
 
     @Override
     public void close() {
+        Misc.free(scrollableCursorRegistry);
+        Misc.free(queryPlanPool);
         Misc.free(sqlCompilerPool);
         Misc.free(writerPool);
         Misc.free(readerPool);
@@ -368,6 +386,7 @@ public class CairoEngine implements Closeable, WriterSource {
         Misc.free(tableNameRegistry);
         Misc.free(checkpointAgent);
         Misc.free(metadataCache);
+        Misc.free(queryResultCache);
     }
 
     @TestOnly
@@ -557,6 +576,10 @@ public class CairoEngine implements Closeable, WriterSource {
         return getSequencerMetadata(tableToken, desiredVersion);
     }
 
+    public MatViewGraph getMatViewGraph() {
+        return matViewGraph;
+    }
+
     public MessageBus getMessageBus() {
         return messageBus;
     }
@@ -578,10 +601,18 @@ public class CairoEngine implements Closeable, WriterSource {
         return this.writerPool.getPoolListener();
     }
 
+    public QueryPlanPool getQueryPlanPool() {
+        return queryPlanPool;
+    }
+
     public QueryRegistry getQueryRegistry() {
         return queryRegistry;
     }
 
+    public QueryResultCache getQueryResultCache() {
+        return queryResultCache;
+    }
+
     public TableReader getReader(CharSequence tableName) {
         TableToken tableToken = verifyTableNameForRead(tableName);
         // Do not call getReader(TableToken tableToken), it will do unnecessary token verification
@@ -639,6 +670,10 @@ public class CairoEngine implements Closeable, WriterSource {
         }
     }
 
+    public ScrollableCursorRegistry getScrollableCursorRegistry() {
+        return scrollableCursorRegistry;
+    }
+
     public TableMetadata getSequencerMetadata(TableToken tableToken) {
         return getSequencerMetadata(tableToken, TableUtils.ANY_TABLE_VERSION);
     }
@@ -880,6 +915,7 @@ public class CairoEngine implements Closeable, WriterSource {
         // Convert tables to WAL/non-WAL, if necessary.
         final ObjList<TableToken> convertedTables = TableConverter.convertTables(this, tableSequencerAPI, tableFlagResolver);
         tableNameRegistry.reload(convertedTables);
+        matViewGraph.load(this);
     }
 
     public String lockAll(TableToken tableToken, String lockReason, boolean ignoreInProgressCheckpoint) {
@@ -1045,12 +1081,15 @@ public class CairoEngine implements Closeable, WriterSource {
     }
 
     public boolean releaseInactive() {
-        boolean useful = writerPool.releaseInactive();
+        // parked cursors hold table readers, so they are released ahead of the reader pool
+        boolean useful = scrollableCursorRegistry.releaseInactive();
+        useful |= writerPool.releaseInactive();
         useful |= readerPool.releaseInactive();
         useful |= tableSequencerAPI.releaseInactive();
         useful |= sequencerMetadataPool.releaseInactive();
         useful |= tableMetadataPool.releaseInactive();
         useful |= walWriterPool.releaseInactive();
+        useful |= queryPlanPool.releaseInactive();
         return useful;
     }
 
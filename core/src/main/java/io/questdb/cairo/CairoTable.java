@@ -43,6 +43,7 @@ public class CairoTable implements Sinkable {
     private int partitionBy;
     private int timestampIndex;
     private TableToken token;
+    private int ttlHoursOrMonths;
 
     public CairoTable() {
     }
@@ -135,6 +136,10 @@ public class CairoTable implements Sinkable {
         return null;
     }
 
+    public int getTtlHoursOrMonths() {
+        return ttlHoursOrMonths;
+    }
+
     public boolean getWalEnabled() {
         return getTableToken().isWal();
     }
@@ -171,6 +176,10 @@ public class CairoTable implements Sinkable {
         this.timestampIndex = timestampIndex;
     }
 
+    public void setTtlHoursOrMonths(int ttlHoursOrMonths) {
+        this.ttlHoursOrMonths = ttlHoursOrMonths;
+    }
+
     @Override
     public void toSink(@NotNull CharSink<?> sink) {
         sink.put("CairoTable [");
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.griffin.engine.functions.bind.BindVariableServiceImpl;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.Chars;
+import io.questdb.std.IntLongHashMap;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjHashSet;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.datetime.microtime.MicrosecondClock;
+import io.questdb.std.str.StringSink;
+
+/**
+ * Converts partitions to Parquet once all of their rows are older than the table's
+ * max timestamp minus the configured cold partition age. Parquet files are compressed
+ * with the configured codec, table readers decode them transparently. Partitions are
+ * converted via ALTER TABLE CONVERT PARTITION, so that WAL tables get the change through
+ * their WAL. The last partition is never converted.
+ */
+public class ColdPartitionConversionJob extends SynchronizedJob implements QuietCloseable {
+    private static final Log LOG = LogFactory.getLog(ColdPartitionConversionJob.class);
+    private final long age;
+    private final long checkInterval;
+    private final MicrosecondClock clock;
+    private final CairoEngine engine;
+    private final SqlExecutionContextImpl executionContext;
+    // table id -> the last cutoff we've issued CONVERT PARTITION for
+    private final IntLongHashMap issuedCutoffs = new IntLongHashMap();
+    private final StringSink sqlSink = new StringSink();
+    private final ObjHashSet<TableToken> tableTokens = new ObjHashSet<>();
+    private long last = 0;
+
+    public ColdPartitionConversionJob(CairoEngine engine) {
+        this.engine = engine;
+        final CairoConfiguration configuration = engine.getConfiguration();
+        this.clock = configuration.getMicrosecondClock();
+        this.age = configuration.getColdPartitionAge() * 1000;
+        this.checkInterval = configuration.getColdPartitionCheckInterval() * 1000;
+        this.executionContext = new SqlExecutionContextImpl(engine, 1);
+        executionContext.with(
+                configuration.getFactoryProvider().getSecurityContextFactory().getRootContext(),
+                new BindVariableServiceImpl(configuration),
+                null,
+                -1,
+                null
+        );
+    }
+
+    @Override
+    public void close() {
+        Misc.free(executionContext);
+    }
+
+    private boolean convertColdPartitions(TableToken tableToken) {
+        final int partitionBy;
+        final String timestampName;
+        try (MetadataCacheReader metadataRO = engine.getMetadataCache().readLock()) {
+            final CairoTable table = metadataRO.getTable(tableToken);
+            if (table == null) {
+                return false;
+            }
+            partitionBy = table.getPartitionBy();
+            timestampName = Chars.toString(table.getTimestampName());
+        }
+        if (!PartitionBy.isPartitioned(partitionBy) || timestampName == null) {
+            return false;
+        }
+
+        try {
+            final long cutoff = findCutoff(tableToken, partitionBy);
+            if (cutoff == Long.MIN_VALUE) {
+                return false;
+            }
+            final int index = issuedCutoffs.keyIndex(tableToken.getTableId());
+            if (index < 0 && issuedCutoffs.valueAt(index) >= cutoff) {
+                // WAL table didn't catch up with the previous conversion yet
+                return false;
+            }
+
+            sqlSink.clear();
+            sqlSink.put("alter table \"").put(tableToken.getTableName())
+                    .put("\" convert partition to parquet where \"").put(timestampName)
+                    .put("\" < '").putISODate(cutoff).put('\'');
+            engine.ddl(sqlSink, executionContext);
+            issuedCutoffs.putAt(index, tableToken.getTableId(), cutoff);
+            LOG.info().$("converted cold partitions to parquet [table=").$(tableToken)
+                    .$(", cutoff=").$ts(cutoff)
+                    .I$();
+            return true;
+        } catch (SqlException e) {
+            LOG.error().$("could not convert cold partitions [table=").$(tableToken)
+                    .$(", error=").$(e.getFlyweightMessage())
+                    .I$();
+        } catch (CairoException e) {
+            // the writer may be busy, we'll retry on the next run
+            LOG.info().$("could not convert cold partitions [table=").$(tableToken)
+                    .$(", error=").$(e.getFlyweightMessage())
+                    .$(", errno=").$(e.getErrno())
+                    .I$();
+        }
+        return false;
+    }
+
+    private long findCutoff(TableToken tableToken, int partitionBy) {
+        try (TableReader reader = engine.getReader(tableToken)) {
+            final int partitionCount = reader.getPartitionCount();
+            if (partitionCount < 2) {
+                return Long.MIN_VALUE;
+            }
+            final long coldTimestamp = reader.getMaxTimestamp() - age;
+            final PartitionBy.PartitionCeilMethod ceilMethod = PartitionBy.getPartitionCeilMethod(partitionBy);
+            assert ceilMethod != null;
+            final TxReader txFile = reader.getTxFile();
+            long cutoff = Long.MIN_VALUE;
+            boolean hasNativePartitions = false;
+            // the last partition is still being written to, it is never cold
+            for (int i = 0; i < partitionCount - 1; i++) {
+                final long ceil = ceilMethod.ceil(reader.getPartitionTimestampByIndex(i));
+                if (ceil > coldTimestamp) {
+                    break;
+                }
+                cutoff = ceil;
+                hasNativePartitions |= !txFile.isPartitionParquet(i);
+            }
+            return hasNativePartitions ? cutoff : Long.MIN_VALUE;
+        }
+    }
+
+    @Override
+    protected boolean runSerially() {
+        final long t = clock.getTicks();
+        if (age > 0 && last + checkInterval < t) {
+            last = t;
+            tableTokens.clear();
+            engine.getTableTokens(tableTokens, false);
+            boolean useful = false;
+            for (int i = 0, n = tableTokens.size(); i < n; i++) {
+                final TableToken tableToken = tableTokens.get(i);
+                if (!tableToken.isSystem() && !engine.isTableDropped(tableToken)) {
+                    useful |= convertColdPartitions(tableToken);
+                }
+            }
+            return useful;
+        }
+        return false;
+    }
+}
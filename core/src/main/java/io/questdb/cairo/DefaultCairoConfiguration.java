@@ -151,6 +151,16 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return circuitBreakerConfiguration;
     }
 
+    @Override
+    public long getColdPartitionAge() {
+        return 0;
+    }
+
+    @Override
+    public long getColdPartitionCheckInterval() {
+        return 60_000;
+    }
+
     @Override
     public int getColumnCastModelPoolCapacity() {
         return 32;
@@ -366,6 +376,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 128;
     }
 
+    @Override
+    public int getInactiveReaderMaxOpenParquetPartitions() {
+        return 2;
+    }
+
     @Override
     public long getInactiveReaderTTL() {
         return -10000;
@@ -834,6 +849,26 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 16;
     }
 
+    @Override
+    public int getSqlParquetFrameCacheCapacity() {
+        return 3;
+    }
+
+    @Override
+    public int getSqlPageFramePrefetchCount() {
+        return 0;
+    }
+
+    @Override
+    public int getSqlPartitionReadAheadWindow() {
+        return 0;
+    }
+
+    @Override
+    public int getSqlPlanPoolCapacity() {
+        return 256;
+    }
+
     @Override
     public int getSqlSmallMapKeyCapacity() {
         return 64;
@@ -974,6 +1009,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return textConfiguration;
     }
 
+    @Override
+    public long getTtlCheckInterval() {
+        return 60_000;
+    }
+
     @Override
     public int getTxnScoreboardEntryCount() {
         return 8192;
@@ -994,6 +1034,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return 20;
     }
 
+    @Override
+    public int getWalApplySquashMaxRows() {
+        return 100_000;
+    }
+
     @Override
     public long getWalApplyTableTimeQuota() {
         return 1000L;
@@ -1183,6 +1228,46 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return true;
     }
 
+    @Override
+    public boolean isSqlParallelHashJoinEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isSqlParallelOrderByEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isSqlPartitionReadAheadReleaseEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isSqlResultCacheEnabled() {
+        return false;
+    }
+
+    @Override
+    public long getSqlResultCacheSize() {
+        return 64 * Numbers.SIZE_1MB;
+    }
+
+    @Override
+    public long getSqlScrollableCursorIdleTimeout() {
+        return 60_000;
+    }
+
+    @Override
+    public int getSqlScrollableCursorMaxPerUser() {
+        return 4;
+    }
+
+    @Override
+    public boolean isZoneMapsEnabled() {
+        return false;
+    }
+
     @Override
     public boolean isTableTypeConversionEnabled() {
         return true;
@@ -1193,6 +1278,11 @@ public class DefaultCairoConfiguration implements CairoConfiguration {
         return true;
     }
 
+    @Override
+    public boolean isWalApplyParallelPartitionsEnabled() {
+        return true;
+    }
+
     @Override
     public boolean isWalSupported() {
         return true;
@@ -24,36 +24,25 @@
 
 package io.questdb.cairo;
 
-import io.questdb.MessageBus;
-import io.questdb.cutlass.http.HttpServer;
-import io.questdb.cutlass.pgwire.PGWireServer;
+import io.questdb.griffin.engine.QueryPlanPool;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.mp.AbstractQueueConsumerJob;
-import org.jetbrains.annotations.Nullable;
 
 public class FlushQueryCacheJob extends AbstractQueueConsumerJob<Object> {
     private static final Log LOG = LogFactory.getLog(FlushQueryCacheJob.class);
-    private final HttpServer httpServer;
-    private final PGWireServer pgWireServer;
+    private final QueryPlanPool planPool;
 
-    public FlushQueryCacheJob(MessageBus messageBus, @Nullable HttpServer httpServer, @Nullable PGWireServer pgWireServer) {
-        super(null, messageBus.getQueryCacheEventSubSeq());
-        this.httpServer = httpServer;
-        this.pgWireServer = pgWireServer;
+    public FlushQueryCacheJob(CairoEngine engine) {
+        super(null, engine.getMessageBus().getQueryCacheEventSubSeq());
+        this.planPool = engine.getQueryPlanPool();
     }
 
     @Override
     protected boolean doRun(int workerId, long cursor, RunStatus runStatus) {
         try {
-            if (httpServer != null) {
-                LOG.info().$("flushing HTTP server select cache").$();
-                httpServer.clearSelectCache();
-            }
-            if (pgWireServer != null) {
-                LOG.info().$("flushing PGWire server select cache").$();
-                pgWireServer.clearSelectCache();
-            }
+            LOG.info().$("flushing query plan pool").$();
+            planPool.clear();
         } finally {
             subSeq.done(cursor);
         }
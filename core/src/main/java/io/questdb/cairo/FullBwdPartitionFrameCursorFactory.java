@@ -43,7 +43,7 @@ public class FullBwdPartitionFrameCursorFactory extends AbstractPartitionFrameCu
         final TableReader reader = getReader(executionContext);
         try {
             if (order == ORDER_DESC || order == ORDER_ANY) {
-                return cursor.of(reader);
+                return cursor.of(reader, getZoneMapFilter());
             }
 
             // Create forward scanning cursor when needed. Factory requesting forward cursor must
@@ -51,7 +51,7 @@ public class FullBwdPartitionFrameCursorFactory extends AbstractPartitionFrameCu
             if (fwdCursor == null) {
                 fwdCursor = new FullFwdPartitionFrameCursor();
             }
-            return fwdCursor.of(reader);
+            return fwdCursor.of(reader, getZoneMapFilter());
         } catch (Throwable th) {
             Misc.free(reader);
             throw th;
@@ -25,14 +25,20 @@
 package io.questdb.cairo;
 
 import io.questdb.cairo.sql.PartitionFrame;
+import io.questdb.cairo.sql.PartitionFrameCursor;
 import io.questdb.cairo.sql.RecordCursor;
 import org.jetbrains.annotations.Nullable;
 
 public class FullFwdPartitionFrameCursor extends AbstractFullPartitionFrameCursor {
+    private PartitionReadAhead readAhead;
 
     @Override
     public void calculateSize(RecordCursor.Counter counter) {
         while (partitionIndex < partitionHi) {
+            if (isPartitionPruned(partitionIndex)) {
+                partitionIndex++;
+                continue;
+            }
             final long hi = getTableReader().openPartition(partitionIndex);
             if (hi > 0) {
                 counter.add(hi);
@@ -41,9 +47,18 @@ public class FullFwdPartitionFrameCursor extends AbstractFullPartitionFrameCurso
         }
     }
 
+    @Override
+    public @Nullable PartitionReadAhead getPartitionReadAhead() {
+        return readAhead;
+    }
+
     @Override
     public @Nullable PartitionFrame next() {
         while (partitionIndex < partitionHi) {
+            if (isPartitionPruned(partitionIndex)) {
+                partitionIndex++;
+                continue;
+            }
             final long hi = getTableReader().openPartition(partitionIndex);
             if (hi < 1) {
                 // this partition is missing, skip
@@ -52,6 +67,9 @@ public class FullFwdPartitionFrameCursor extends AbstractFullPartitionFrameCurso
                 frame.partitionIndex = partitionIndex;
                 frame.rowLo = 0;
                 frame.rowHi = hi;
+                if (readAhead != null && readAhead.isCursorDriven()) {
+                    readAhead.onPartition(partitionIndex, partitionHi);
+                }
                 partitionIndex++;
                 return frame;
             }
@@ -59,6 +77,20 @@ public class FullFwdPartitionFrameCursor extends AbstractFullPartitionFrameCurso
         return null;
     }
 
+    @Override
+    public PartitionFrameCursor of(TableReader reader, @Nullable ZoneMapFilter zoneMapFilter) {
+        return of(reader, zoneMapFilter, null);
+    }
+
+    public PartitionFrameCursor of(TableReader reader, @Nullable ZoneMapFilter zoneMapFilter, @Nullable PartitionReadAhead readAhead) {
+        this.readAhead = readAhead;
+        super.of(reader, zoneMapFilter);
+        if (readAhead != null) {
+            readAhead.of(reader, zoneMapFilter);
+        }
+        return this;
+    }
+
     @Override
     public boolean supportsSizeCalculation() {
         return true;
@@ -67,5 +99,8 @@ public class FullFwdPartitionFrameCursor extends AbstractFullPartitionFrameCurso
     @Override
     public void toTop() {
         partitionIndex = 0;
+        if (readAhead != null) {
+            readAhead.toTop();
+        }
     }
 }
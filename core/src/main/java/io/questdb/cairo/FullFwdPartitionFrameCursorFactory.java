@@ -42,7 +42,7 @@ public class FullFwdPartitionFrameCursorFactory extends AbstractPartitionFrameCu
         final TableReader reader = getReader(executionContext);
         try {
             if (order == ORDER_ASC || order == ORDER_ANY) {
-                return cursor.of(reader);
+                return cursor.of(reader, getZoneMapFilter(), getPartitionReadAhead(executionContext));
             }
 
             // Create backward scanning cursor when needed. Factory requesting backward cursor must
@@ -50,7 +50,7 @@ public class FullFwdPartitionFrameCursorFactory extends AbstractPartitionFrameCu
             if (bwdCursor == null) {
                 bwdCursor = new FullBwdPartitionFrameCursor();
             }
-            return bwdCursor.of(reader);
+            return bwdCursor.of(reader, getZoneMapFilter());
         } catch (Throwable th) {
             Misc.free(reader);
             throw th;
@@ -42,6 +42,8 @@ public class IndexBuilder extends RebuildColumnBase {
     private static final Log LOG = LogFactory.getLog(IndexBuilder.class);
     private final MemoryMAR ddlMem;
     private final SymbolColumnIndexer indexer;
+    private BloomIndexWriter bloomIndexWriter;
+    private SymbolMapReaderImpl symbolMapReader;
 
     public IndexBuilder(CairoConfiguration configuration) {
         super(configuration);
@@ -57,12 +59,35 @@ public class IndexBuilder extends RebuildColumnBase {
         // but we reuse Java object after memory is closed (method of() will reopen memory)
         ddlMem.close();
         indexer.clear();
+        Misc.free(symbolMapReader);
     }
 
     @Override
     public void close() {
         super.close();
         Misc.free(indexer);
+        bloomIndexWriter = Misc.free(bloomIndexWriter);
+        symbolMapReader = Misc.free(symbolMapReader);
+    }
+
+    @Override
+    public void reindexColumn(
+            FilesFacade ff,
+            ColumnVersionReader columnVersionReader,
+            RecordMetadata metadata,
+            int columnIndex,
+            long partitionNameTxn,
+            long partitionTimestamp,
+            int partitionBy,
+            long partitionSize
+    ) {
+        if (metadata.isColumnIndexed(columnIndex)) {
+            super.reindexColumn(ff, columnVersionReader, metadata, columnIndex, partitionNameTxn, partitionTimestamp, partitionBy, partitionSize);
+        }
+        // bloom filters are rebuilt by REINDEX only, table writer maintains them on commit
+        if (txReader != null && metadata.getColumnMetadata(columnIndex).isBloomIndexed() && PartitionBy.isPartitioned(partitionBy)) {
+            rebuildBloomIndex(ff, columnVersionReader, (TableReaderMetadata) metadata, columnIndex, partitionNameTxn, partitionTimestamp, partitionBy, partitionSize);
+        }
     }
 
     private void createIndexFiles(FilesFacade ff, CharSequence columnName, int indexValueBlockCapacity, int plen, long columnNameTxn) {
@@ -100,6 +125,56 @@ public class IndexBuilder extends RebuildColumnBase {
         }
     }
 
+    private void rebuildBloomIndex(
+            FilesFacade ff,
+            ColumnVersionReader columnVersionReader,
+            TableReaderMetadata metadata,
+            int columnIndex,
+            long partitionNameTxn,
+            long partitionTimestamp,
+            int partitionBy,
+            long partitionSize
+    ) {
+        final int writerIndex = metadata.getWriterIndex(columnIndex);
+        final CharSequence columnName = metadata.getColumnName(columnIndex);
+        final int columnType = metadata.getColumnType(columnIndex);
+        final int trimTo = path.size();
+        try {
+            if (ColumnType.isSymbol(columnType)) {
+                if (symbolMapReader == null) {
+                    symbolMapReader = new SymbolMapReaderImpl();
+                }
+                symbolMapReader.of(
+                        configuration,
+                        path,
+                        columnName,
+                        columnVersionReader.getDefaultColumnNameTxn(writerIndex),
+                        txReader.getSymbolValueCount(metadata.getDenseSymbolIndex(columnIndex))
+                );
+            }
+            TableUtils.setPathForPartition(path, partitionBy, partitionTimestamp, partitionNameTxn);
+            if (ff.exists(path.$())) {
+                LOG.info().$("rebuilding bloom index [path=").$(path).$(", column=").utf8(columnName).I$();
+                if (bloomIndexWriter == null) {
+                    bloomIndexWriter = new BloomIndexWriter(ff);
+                }
+                bloomIndexWriter.rebuild(
+                        path,
+                        columnName,
+                        columnType,
+                        columnVersionReader.getColumnNameTxn(partitionTimestamp, writerIndex),
+                        columnVersionReader.getColumnTop(partitionTimestamp, writerIndex),
+                        partitionSize,
+                        ColumnType.isSymbol(columnType) ? symbolMapReader : null
+                );
+            } else {
+                LOG.info().$("partition does not exist [path=").$(path).I$();
+            }
+        } finally {
+            path.trimTo(trimTo);
+        }
+    }
+
     private void removeFile(FilesFacade ff, LPSZ path) {
         LOG.info().$("deleting ").$(path).$();
         if (!ff.removeQuiet(path)) {
@@ -169,6 +244,6 @@ public class IndexBuilder extends RebuildColumnBase {
 
     @Override
     protected boolean isSupportedColumn(RecordMetadata metadata, int columnIndex) {
-        return metadata.isColumnIndexed(columnIndex);
+        return metadata.isColumnIndexed(columnIndex) || metadata.getColumnMetadata(columnIndex).isBloomIndexed();
     }
 }
@@ -58,7 +58,7 @@ public class IntervalBwdPartitionFrameCursorFactory extends AbstractPartitionFra
         if (order == ORDER_DESC || order == ORDER_ANY) {
             final TableReader reader = getReader(executionContext);
             try {
-                cursor.of(reader, executionContext);
+                cursor.of(reader, executionContext, getZoneMapFilter());
                 return cursor;
             } catch (Throwable th) {
                 Misc.free(reader);
@@ -26,12 +26,16 @@ package io.questdb.cairo;
 
 import io.questdb.cairo.sql.PartitionFrame;
 import io.questdb.cairo.vm.api.MemoryR;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.griffin.model.RuntimeIntrinsicIntervalModel;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
+import org.jetbrains.annotations.Nullable;
 
 public class IntervalFwdPartitionFrameCursor extends AbstractIntervalPartitionFrameCursor {
     private static final Log LOG = LogFactory.getLog(IntervalFwdPartitionFrameCursor.class);
+    private PartitionReadAhead readAhead;
 
     /**
      * Cursor for partition frames that chronologically intersect collection of intervals.
@@ -46,11 +50,21 @@ public class IntervalFwdPartitionFrameCursor extends AbstractIntervalPartitionFr
         super(intervalModel, timestampIndex);
     }
 
+    @Override
+    public @Nullable PartitionReadAhead getPartitionReadAhead() {
+        return readAhead;
+    }
+
     @Override
     public PartitionFrame next() {
         // order of logical operations is important
         // we are not calculating partition ranges when intervals are empty
         while (intervalsLo < intervalsHi && partitionLo < partitionHi) {
+            if (isPartitionPruned(partitionLo)) {
+                partitionLimit = 0;
+                partitionLo++;
+                continue;
+            }
             // We don't need to worry about column tops and null column because we
             // are working with timestamp. Timestamp column cannot be added to existing table.
             long rowCount = reader.openPartition(partitionLo);
@@ -109,6 +123,9 @@ public class IntervalFwdPartitionFrameCursor extends AbstractIntervalPartitionFr
                     partitionFrame.rowLo = lo;
                     partitionFrame.rowHi = hi;
                     sizeSoFar += (hi - lo);
+                    if (readAhead != null && readAhead.isCursorDriven()) {
+                        readAhead.onPartition(partitionLo, partitionHi);
+                    }
 
                     // we do have whole partition of fragment?
                     if (hi == rowCount) {
@@ -134,9 +151,35 @@ public class IntervalFwdPartitionFrameCursor extends AbstractIntervalPartitionFr
         return null;
     }
 
+    @Override
+    public AbstractIntervalPartitionFrameCursor of(
+            TableReader reader,
+            SqlExecutionContext sqlExecutionContext,
+            @Nullable ZoneMapFilter zoneMapFilter
+    ) throws SqlException {
+        return of(reader, sqlExecutionContext, zoneMapFilter, null);
+    }
+
+    public AbstractIntervalPartitionFrameCursor of(
+            TableReader reader,
+            SqlExecutionContext sqlExecutionContext,
+            @Nullable ZoneMapFilter zoneMapFilter,
+            @Nullable PartitionReadAhead readAhead
+    ) throws SqlException {
+        this.readAhead = readAhead;
+        super.of(reader, sqlExecutionContext, zoneMapFilter);
+        if (readAhead != null) {
+            readAhead.of(reader, zoneMapFilter);
+        }
+        return this;
+    }
+
     @Override
     public void toTop() {
         super.toTop();
         partitionLimit = 0;
+        if (readAhead != null) {
+            readAhead.toTop();
+        }
     }
 }
@@ -59,14 +59,14 @@ public class IntervalFwdPartitionFrameCursorFactory extends AbstractPartitionFra
         final TableReader reader = getReader(executionContext);
         try {
             if (order == ORDER_ASC || order == ORDER_ANY) {
-                cursor.of(reader, executionContext);
+                cursor.of(reader, executionContext, getZoneMapFilter(), getPartitionReadAhead(executionContext));
                 return cursor;
             }
 
             if (bwdCursor == null) {
                 bwdCursor = new IntervalBwdPartitionFrameCursor(intervalModel, cursor.getTimestampIndex());
             }
-            return bwdCursor.of(reader, executionContext);
+            return bwdCursor.of(reader, executionContext, getZoneMapFilter());
         } catch (Throwable th) {
             Misc.free(reader);
             throw th;
@@ -0,0 +1,252 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.cairo.vm.api.MemoryCMR;
+import io.questdb.griffin.engine.table.parquet.PartitionDecoder;
+import io.questdb.std.Chars;
+import io.questdb.std.LongList;
+import io.questdb.std.Misc;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+import io.questdb.std.str.Utf8Sequence;
+import io.questdb.std.str.Utf8SplitString;
+import io.questdb.std.str.Utf8StringSink;
+import io.questdb.std.str.Utf8s;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Decodes columns of a Parquet partition into contiguous memory laid out the same way
+ * as native column files, so that {@link TableReader} can serve Parquet partitions
+ * through the regular column and page frame API. Symbol values are stored as strings
+ * in Parquet files, they are mapped back to the table's symbol keys.
+ * <p>
+ * The decoder stays open on the last used file, it also serves column index lookups
+ * and row group statistics.
+ */
+class ParquetColumnLoader implements QuietCloseable {
+    private final PartitionDecoder decoder;
+    private final Utf8StringSink decoderPath = new Utf8StringSink();
+    private final StringSink symbolSink = new StringSink();
+    private final Utf8SplitString utf8SplitView = new Utf8SplitString();
+
+    ParquetColumnLoader(CairoConfiguration configuration) {
+        this.decoder = new PartitionDecoder(configuration.getFilesFacade());
+    }
+
+    @Override
+    public void close() {
+        Misc.free(decoder);
+        decoderPath.clear();
+    }
+
+    /**
+     * Finds the column in the Parquet file of the partition.
+     *
+     * @param path       path to the partition directory
+     * @param columnName name of the column
+     * @param columnType type of the column in the table metadata
+     * @return index of the column in the Parquet file or -1 when the file does not have the column
+     */
+    int findColumn(Path path, CharSequence columnName, int columnType) {
+        openDecoder(path);
+        final PartitionDecoder.Metadata parquetMetadata = decoder.getMetadata();
+        for (int i = 0, n = parquetMetadata.columnCount(); i < n; i++) {
+            if (Chars.equalsIgnoreCase(parquetMetadata.columnName(i), columnName)) {
+                final int parquetColumnType = parquetMetadata.getColumnType(i);
+                if (parquetColumnType != columnType) {
+                    throw CairoException.critical(0).put("column type mismatch in parquet partition [path=").put(path)
+                            .put(", column=").put(columnName)
+                            .put(", expected=").put(ColumnType.nameOf(columnType))
+                            .put(", actual=").put(ColumnType.nameOf(parquetColumnType))
+                            .put(']');
+                }
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns statistics of a column chunk, see {@link PartitionDecoder#getColumnChunkStats(long, long)}.
+     *
+     * @param path               path to the partition directory
+     * @param rowGroup           row group index
+     * @param parquetColumnIndex index of the column in the Parquet file
+     */
+    long getColumnChunkStats(Path path, int rowGroup, int parquetColumnIndex) {
+        openDecoder(path);
+        return decoder.getColumnChunkStats(rowGroup, parquetColumnIndex);
+    }
+
+    /**
+     * Decodes rows [columnTop, partitionRowCount) of the column into the given memory.
+     *
+     * @param path              path to the partition directory
+     * @param columnName        name of the column
+     * @param columnType        type of the column in the table metadata
+     * @param columnTop         number of leading rows to skip, these are nulls in the Parquet file
+     * @param partitionRowCount number of rows in the partition
+     * @param dataMem           memory for fixed size values or var size data
+     * @param auxMem            memory for var size offsets, ignored for fixed size columns
+     * @param symbolMapReader   symbol table of the column, used for symbol columns only
+     * @param rowGroupLos       when not null, receives the first partition row of each row group
+     *                          followed by the partition row count
+     * @return false when the Parquet file does not have the column
+     */
+    boolean load(
+            Path path,
+            CharSequence columnName,
+            int columnType,
+            long columnTop,
+            long partitionRowCount,
+            MemoryCMR dataMem,
+            MemoryCMR auxMem,
+            SymbolMapReader symbolMapReader,
+            @Nullable LongList rowGroupLos
+    ) {
+        final int parquetColumnIndex = findColumn(path, columnName, columnType);
+        if (parquetColumnIndex == -1) {
+            return false;
+        }
+
+        final long columnRowCount = partitionRowCount - columnTop;
+        final ColumnTypeDriver driver = ColumnType.isVarSize(columnType) ? ColumnType.getDriver(columnType) : null;
+        final int shl = ColumnType.isSymbol(columnType) ? 2 : ColumnType.pow2SizeOf(columnType);
+        if (driver != null) {
+            auxMem.changeSize(driver.getAuxVectorSize(columnRowCount));
+            dataMem.changeSize(Math.max(driver.getDataVectorMinEntrySize(), 1));
+        } else {
+            dataMem.changeSize(columnRowCount << shl);
+        }
+
+        if (rowGroupLos != null) {
+            rowGroupLos.clear();
+        }
+        long rowLo = 0; // partition row number of the first row in the row group
+        long dstRow = 0;
+        long dstDataOffset = 0;
+        for (int rowGroup = 0, n = decoder.getMetadata().rowGroupCount(); rowGroup < n; rowGroup++) {
+            final long chunkPtr = decoder.decodeColumnChunk(rowGroup, parquetColumnIndex, columnType);
+            final long rowGroupRowCount = PartitionDecoder.getRowGroupRowCount(chunkPtr);
+            final long lo = Math.max(columnTop - rowLo, 0);
+            if (rowGroupLos != null) {
+                rowGroupLos.add(rowLo);
+            }
+            rowLo += rowGroupRowCount;
+            if (rowLo > partitionRowCount) {
+                throw CairoException.critical(0).put("parquet partition has more rows than expected [path=").put(path)
+                        .put(", column=").put(columnName)
+                        .put(", expected=").put(partitionRowCount)
+                        .put(']');
+            }
+            if (lo >= rowGroupRowCount) {
+                continue;
+            }
+
+            final long srcDataAddr = PartitionDecoder.getChunkDataPtr(chunkPtr);
+            final long srcAuxAddr = PartitionDecoder.getChunkAuxPtr(chunkPtr);
+            final long count = rowGroupRowCount - lo;
+            if (ColumnType.isSymbol(columnType)) {
+                final long dstAddr = dataMem.addressOf(dstRow << shl);
+                for (long r = 0; r < count; r++) {
+                    Unsafe.getUnsafe().putInt(dstAddr + (r << shl), symbolKeyOf(srcAuxAddr, srcDataAddr, lo + r, symbolMapReader));
+                }
+            } else if (driver != null) {
+                final long srcDataLo = driver.getDataVectorOffset(srcAuxAddr, lo);
+                final long srcDataHi = driver.getDataVectorSizeAt(srcAuxAddr, rowGroupRowCount - 1);
+                final long dataSize = srcDataHi - srcDataLo;
+                if (dstDataOffset + dataSize > dataMem.size()) {
+                    dataMem.extend(Math.max(dstDataOffset + dataSize, dataMem.size() * 2));
+                }
+                if (dataSize > 0) {
+                    Vect.memcpy(dataMem.addressOf(dstDataOffset), srcDataAddr + srcDataLo, dataSize);
+                }
+                // rebase data offsets of the row group onto the concatenated data vector
+                final long dstAuxOffset = driver.getAuxVectorOffset(dstRow);
+                driver.shiftCopyAuxVector(
+                        srcDataLo - dstDataOffset,
+                        srcAuxAddr,
+                        lo,
+                        rowGroupRowCount - 1,
+                        auxMem.addressOf(dstAuxOffset),
+                        auxMem.size() - dstAuxOffset
+                );
+                dstDataOffset += dataSize;
+            } else {
+                Vect.memcpy(dataMem.addressOf(dstRow << shl), srcDataAddr + (lo << shl), count << shl);
+            }
+            dstRow += count;
+        }
+
+        if (dstRow != columnRowCount) {
+            throw CairoException.critical(0).put("parquet partition has fewer rows than expected [path=").put(path)
+                    .put(", column=").put(columnName)
+                    .put(", expected=").put(columnRowCount)
+                    .put(", actual=").put(dstRow)
+                    .put(']');
+        }
+        if (driver != null) {
+            dataMem.changeSize(dstDataOffset);
+        }
+        if (rowGroupLos != null) {
+            rowGroupLos.add(rowLo);
+        }
+        return true;
+    }
+
+    private void openDecoder(Path path) {
+        final int plen = path.size();
+        try {
+            path.concat(TableUtils.PARQUET_PARTITION_NAME);
+            if (!Utf8s.equals(decoderPath, path)) {
+                decoder.of(path.$());
+                decoderPath.clear();
+                decoderPath.put(path);
+            }
+        } finally {
+            path.trimTo(plen);
+        }
+    }
+
+    private int symbolKeyOf(long auxAddr, long dataAddr, long row, SymbolMapReader symbolMapReader) {
+        final Utf8Sequence value = VarcharTypeDriver.getSplitValue(auxAddr, Long.MAX_VALUE, dataAddr, Long.MAX_VALUE, row, utf8SplitView);
+        if (value == null) {
+            return SymbolTable.VALUE_IS_NULL;
+        }
+        symbolSink.clear();
+        Utf8s.utf8ToUtf16(value, symbolSink);
+        final int key = symbolMapReader.keyOf(symbolSink);
+        if (key == SymbolTable.VALUE_NOT_FOUND) {
+            throw CairoException.critical(0).put("symbol value is not found in symbol table [value=").put(symbolSink).put(']');
+        }
+        return key;
+    }
+}
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.vm.api.MemoryCR;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.IntList;
+import io.questdb.std.Misc;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Tells the kernel how a forward table scan is going to read partition column files.
+ * When the scan enters a partition, column files of the next window of partitions are
+ * advised with MADV_WILLNEED, so that the kernel reads them into the page cache while
+ * the current partition is being processed. Column files are mapped with sequential
+ * access advice already, see {@link TableUtils#mapRO}.
+ * <p>
+ * Optionally, partitions the scan has moved past are advised with MADV_COLD. Their pages
+ * become first candidates for reclaim, which keeps one-off scans over large tables from
+ * pushing the hot data set out of the page cache.
+ * <p>
+ * The cursor advises as it returns partition frames. Consumers that drain the cursor up
+ * front, such as page frame sequences of parallel queries, take over and advise as they
+ * process the frames instead.
+ * <p>
+ * Advice never affects query results. Partitions that fail to open ahead of the scan
+ * are left alone, the error surfaces when the scan reaches them.
+ */
+public class PartitionReadAhead {
+    // Linux madvise(2) advice values, posix_madvise() passes everything but
+    // POSIX_MADV_DONTNEED through to the system call; MADV_COLD requires kernel 5.4+
+    // and is ignored by older kernels
+    public static final int MADV_COLD = 20;
+    public static final int MADV_WILLNEED = 3;
+    private static final Log LOG = LogFactory.getLog(PartitionReadAhead.class);
+    private final FilesFacade ff;
+    private final PartitionReadAheadMetrics metrics;
+    private final boolean releaseEnabled;
+    private final int window;
+    private @Nullable IntList columnIndexes;
+    private int currentPartitionIndex;
+    private boolean cursorDriven;
+    private TableReader reader;
+    // partitions below this index have been read ahead or skipped already
+    private int readAheadHi;
+    private @Nullable ZoneMapFilter zoneMapFilter;
+
+    public PartitionReadAhead(CairoConfiguration configuration, PartitionReadAheadMetrics metrics) {
+        this.ff = configuration.getFilesFacade();
+        this.window = configuration.getSqlPartitionReadAheadWindow();
+        this.releaseEnabled = configuration.isSqlPartitionReadAheadReleaseEnabled();
+        this.metrics = metrics;
+    }
+
+    public boolean isCursorDriven() {
+        return cursorDriven;
+    }
+
+    public void of(TableReader reader, @Nullable ZoneMapFilter zoneMapFilter) {
+        this.reader = reader;
+        this.zoneMapFilter = zoneMapFilter;
+        this.columnIndexes = null;
+        this.cursorDriven = true;
+        toTop();
+    }
+
+    /**
+     * Called for every partition frame the scan processes, frames of the same partition
+     * are expected to be processed one after another.
+     *
+     * @param partitionIndex index of the partition the scan is in
+     * @param partitionHi    index of the partition past the last one the scan may visit
+     */
+    public void onPartition(int partitionIndex, int partitionHi) {
+        if (partitionIndex == currentPartitionIndex) {
+            return;
+        }
+        if (releaseEnabled && currentPartitionIndex > -1 && currentPartitionIndex < partitionIndex) {
+            metrics.addReleasedBytes(advise(currentPartitionIndex, MADV_COLD));
+        }
+        currentPartitionIndex = partitionIndex;
+
+        final int hi = (int) Math.min(partitionHi, (long) partitionIndex + window + 1);
+        for (int i = Math.max(readAheadHi, partitionIndex + 1); i < hi; i++) {
+            readAheadHi = i + 1;
+            if (reader.getTxFile().isPartitionParquet(i) || (zoneMapFilter != null && !zoneMapFilter.mayMatch(reader, i))) {
+                continue;
+            }
+            try {
+                if (reader.openPartition(i) < 1) {
+                    continue;
+                }
+            } catch (DataUnavailableException e) {
+                Misc.free(e.getEvent());
+                break;
+            } catch (CairoException e) {
+                LOG.info().$("could not open partition ahead of scan [table=").$(reader.getTableToken())
+                        .$(", partitionIndex=").$(i)
+                        .$(", msg=").$(e.getFlyweightMessage())
+                        .$(", errno=").$(e.getErrno())
+                        .I$();
+                break;
+            }
+            metrics.addReadAheadBytes(advise(i, MADV_WILLNEED));
+            metrics.incrementReadAheadPartitions();
+        }
+    }
+
+    /**
+     * Limits the advice to the given columns, all columns are advised when not set.
+     *
+     * @param columnIndexes reader column indexes, the list must not change while the scan runs
+     */
+    public void setColumnIndexes(@Nullable IntList columnIndexes) {
+        this.columnIndexes = columnIndexes;
+    }
+
+    /**
+     * Stops the cursor from advising on its own, the caller is to invoke {@link #onPartition(int, int)}
+     * as it processes partition frames. Reset by {@link #of(TableReader, ZoneMapFilter)}.
+     */
+    public void setCursorDriven(boolean cursorDriven) {
+        this.cursorDriven = cursorDriven;
+    }
+
+    public void toTop() {
+        currentPartitionIndex = -1;
+        readAheadHi = 0;
+    }
+
+    private long advise(int partitionIndex, int advice) {
+        final int columnBase = reader.getColumnBase(partitionIndex);
+        long bytes = 0;
+        if (columnIndexes != null) {
+            for (int i = 0, n = columnIndexes.size(); i < n; i++) {
+                bytes += adviseColumn(columnBase, columnIndexes.getQuick(i), advice);
+            }
+        } else {
+            for (int i = 0, n = reader.getColumnCount(); i < n; i++) {
+                bytes += adviseColumn(columnBase, i, advice);
+            }
+        }
+        return bytes;
+    }
+
+    private long adviseColumn(int columnBase, int columnIndex, int advice) {
+        if (reader.getMetadata().getColumnType(columnIndex) < 0) {
+            // deleted column
+            return 0;
+        }
+        final int primaryIndex = TableReader.getPrimaryColumnIndex(columnBase, columnIndex);
+        return adviseMemory(reader.getColumn(primaryIndex), advice) + adviseMemory(reader.getColumn(primaryIndex + 1), advice);
+    }
+
+    private long adviseMemory(MemoryCR mem, int advice) {
+        if (mem == null || !mem.isFileBased()) {
+            return 0;
+        }
+        final long size = mem.size();
+        final long address = mem.getPageAddress(0);
+        if (size < 1 || address == 0) {
+            return 0;
+        }
+        ff.madvise(address, size, advice);
+        return size;
+    }
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.metrics.Counter;
+import io.questdb.metrics.MetricsRegistry;
+
+public class PartitionReadAheadMetrics {
+
+    // Bytes of column files asked to be read ahead, the kernel may read fewer
+    private final Counter readAheadBytesCounter;
+    private final Counter readAheadPartitionCounter;
+    // Bytes of column files marked cold after a scan moved past their partition
+    private final Counter releasedBytesCounter;
+
+    public PartitionReadAheadMetrics(MetricsRegistry metricsRegistry) {
+        this.readAheadPartitionCounter = metricsRegistry.newCounter("partition_read_ahead_partitions");
+        this.readAheadBytesCounter = metricsRegistry.newCounter("partition_read_ahead_bytes");
+        this.releasedBytesCounter = metricsRegistry.newCounter("partition_read_ahead_released_bytes");
+    }
+
+    public void addReadAheadBytes(long bytes) {
+        readAheadBytesCounter.add(bytes);
+    }
+
+    public void addReleasedBytes(long bytes) {
+        releasedBytesCounter.add(bytes);
+    }
+
+    public long getReadAheadBytes() {
+        return readAheadBytesCounter.getValue();
+    }
+
+    public long getReadAheadPartitionCount() {
+        return readAheadPartitionCounter.getValue();
+    }
+
+    public long getReleasedBytes() {
+        return releasedBytesCounter.getValue();
+    }
+
+    public void incrementReadAheadPartitions() {
+        readAheadPartitionCounter.inc();
+    }
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.griffin.engine.functions.bind.BindVariableServiceImpl;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.Chars;
+import io.questdb.std.IntLongHashMap;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjHashSet;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.datetime.microtime.MicrosecondClock;
+import io.questdb.std.datetime.microtime.Timestamps;
+import io.questdb.std.str.StringSink;
+
+/**
+ * Drops partitions of tables with TTL once all of their rows are older than
+ * the table's max timestamp minus the TTL. Partitions are dropped via
+ * ALTER TABLE DROP PARTITION, so that WAL tables get the change through their WAL.
+ * The last partition is never dropped.
+ */
+public class PartitionTtlJob extends SynchronizedJob implements QuietCloseable {
+    private static final Log LOG = LogFactory.getLog(PartitionTtlJob.class);
+    private final long checkInterval;
+    private final MicrosecondClock clock;
+    private final CairoEngine engine;
+    private final SqlExecutionContextImpl executionContext;
+    // table id -> the last cutoff we've issued DROP PARTITION for
+    private final IntLongHashMap issuedCutoffs = new IntLongHashMap();
+    private final StringSink sqlSink = new StringSink();
+    private final ObjHashSet<TableToken> tableTokens = new ObjHashSet<>();
+    private long last = 0;
+
+    public PartitionTtlJob(CairoEngine engine) {
+        this.engine = engine;
+        final CairoConfiguration configuration = engine.getConfiguration();
+        this.clock = configuration.getMicrosecondClock();
+        this.checkInterval = configuration.getTtlCheckInterval() * 1000;
+        this.executionContext = new SqlExecutionContextImpl(engine, 1);
+        executionContext.with(
+                configuration.getFactoryProvider().getSecurityContextFactory().getRootContext(),
+                new BindVariableServiceImpl(configuration),
+                null,
+                -1,
+                null
+        );
+    }
+
+    @Override
+    public void close() {
+        Misc.free(executionContext);
+    }
+
+    private long findCutoff(TableToken tableToken, int partitionBy, int ttlHoursOrMonths) {
+        try (TableReader reader = engine.getReader(tableToken)) {
+            final int partitionCount = reader.getPartitionCount();
+            if (partitionCount < 2) {
+                return Long.MIN_VALUE;
+            }
+            final long maxTimestamp = reader.getMaxTimestamp();
+            final long expiry = ttlHoursOrMonths > 0
+                    ? maxTimestamp - ttlHoursOrMonths * Timestamps.HOUR_MICROS
+                    : Timestamps.addMonths(maxTimestamp, ttlHoursOrMonths);
+            final PartitionBy.PartitionCeilMethod ceilMethod = PartitionBy.getPartitionCeilMethod(partitionBy);
+            assert ceilMethod != null;
+            long cutoff = Long.MIN_VALUE;
+            // the last partition holds the max timestamp, it never expires
+            for (int i = 0; i < partitionCount - 1; i++) {
+                final long ceil = ceilMethod.ceil(reader.getPartitionTimestampByIndex(i));
+                if (ceil > expiry) {
+                    break;
+                }
+                cutoff = ceil;
+            }
+            return cutoff;
+        }
+    }
+
+    private boolean dropExpiredPartitions(TableToken tableToken) {
+        final int partitionBy;
+        final int ttlHoursOrMonths;
+        final String timestampName;
+        try (MetadataCacheReader metadataRO = engine.getMetadataCache().readLock()) {
+            final CairoTable table = metadataRO.getTable(tableToken);
+            if (table == null) {
+                return false;
+            }
+            partitionBy = table.getPartitionBy();
+            ttlHoursOrMonths = table.getTtlHoursOrMonths();
+            timestampName = Chars.toString(table.getTimestampName());
+        }
+        if (ttlHoursOrMonths == 0 || !PartitionBy.isPartitioned(partitionBy) || timestampName == null) {
+            return false;
+        }
+
+        try {
+            final long cutoff = findCutoff(tableToken, partitionBy, ttlHoursOrMonths);
+            if (cutoff == Long.MIN_VALUE) {
+                return false;
+            }
+            final int index = issuedCutoffs.keyIndex(tableToken.getTableId());
+            if (index < 0 && issuedCutoffs.valueAt(index) >= cutoff) {
+                // WAL table didn't catch up with the previous drop yet
+                return false;
+            }
+
+            sqlSink.clear();
+            sqlSink.put("alter table \"").put(tableToken.getTableName())
+                    .put("\" drop partition where \"").put(timestampName)
+                    .put("\" < '").putISODate(cutoff).put('\'');
+            engine.ddl(sqlSink, executionContext);
+            issuedCutoffs.putAt(index, tableToken.getTableId(), cutoff);
+            LOG.info().$("dropped expired partitions [table=").$(tableToken)
+                    .$(", cutoff=").$ts(cutoff)
+                    .I$();
+            return true;
+        } catch (SqlException e) {
+            LOG.error().$("could not drop expired partitions [table=").$(tableToken)
+                    .$(", error=").$(e.getFlyweightMessage())
+                    .I$();
+        } catch (CairoException e) {
+            // the writer may be busy, we'll retry on the next run
+            LOG.info().$("could not drop expired partitions [table=").$(tableToken)
+                    .$(", error=").$(e.getFlyweightMessage())
+                    .$(", errno=").$(e.getErrno())
+                    .I$();
+        }
+        return false;
+    }
+
+    @Override
+    protected boolean runSerially() {
+        final long t = clock.getTicks();
+        if (last + checkInterval < t) {
+            last = t;
+            tableTokens.clear();
+            engine.getTableTokens(tableTokens, false);
+            boolean useful = false;
+            for (int i = 0, n = tableTokens.size(); i < n; i++) {
+                final TableToken tableToken = tableTokens.get(i);
+                if (!tableToken.isSystem() && !engine.isTableDropped(tableToken)) {
+                    useful |= dropExpiredPartitions(tableToken);
+                }
+            }
+            return useful;
+        }
+        return false;
+    }
+}
@@ -48,6 +48,8 @@ public abstract class RebuildColumnBase implements Closeable, Mutable {
     private final StringSink tempStringSink = new StringSink();
     protected Path path = new Path(255, MemoryTag.NATIVE_SQL_COMPILER);
     protected int rootLen;
+    // transaction file of the table being rebuilt, null outside of reindex()
+    protected TxReader txReader;
     protected String unsupportedColumnMessage = "Wrong column type";
     private long lockFd;
 
@@ -207,6 +209,7 @@ public abstract class RebuildColumnBase implements Closeable, Mutable {
             try (TxReader txReader = new TxReader(ff).ofRO(path.concat(TXN_FILE_NAME).$(), partitionBy)) {
                 txReader.unsafeLoadAll();
                 path.trimTo(rootLen);
+                this.txReader = txReader;
 
                 if (PartitionBy.isPartitioned(partitionBy)) {
                     // Resolve partition timestamp if partition name specified
@@ -254,6 +257,7 @@ public abstract class RebuildColumnBase implements Closeable, Mutable {
                 }
             }
         } finally {
+            this.txReader = null;
             path.trimTo(rootLen);
         }
     }
@@ -126,6 +126,10 @@ public class RecordChain implements Closeable, RecordCursor, Mutable, RecordSink
         return addressOf(getOffsetOfColumn(recordOffset, columnIndex));
     }
 
+    public long getMemorySize() {
+        return mem.size();
+    }
+
     public long getOffsetOfColumn(long recordOffset, int columnIndex) {
         return rowToDataOffset(recordOffset) + varOffset + columnOffsets[columnIndex];
     }
@@ -495,11 +499,18 @@ public class RecordChain implements Closeable, RecordCursor, Mutable, RecordSink
 
         @Override
         public CharSequence getSymA(int col) {
+            if (symbolTableResolver == null) {
+                // symbols were written as strings
+                return getStrA(col);
+            }
             return symbolTableResolver.getSymbolTable(col).valueOf(getInt(col));
         }
 
         @Override
         public CharSequence getSymB(int col) {
+            if (symbolTableResolver == null) {
+                return getStrB(col);
+            }
             return symbolTableResolver.getSymbolTable(col).valueBOf(getInt(col));
         }
 
@@ -0,0 +1,282 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.RowCursor;
+import io.questdb.cairo.vm.api.MemoryR;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.Path;
+
+/**
+ * Index reader for symbol columns that have no index files on disk, e.g. columns
+ * of Parquet partitions decoded into memory. Lookups scan the column keys, so this
+ * is only meant to keep index-based queries working on such partitions. Consumers of
+ * the raw index memory, such as native LATEST BY, get an in-memory image of the index
+ * in the bitmap index file format, which is built on first access.
+ * <p>
+ * Cursors returned by this class are not thread-safe.
+ */
+public class SymbolColumnScanIndexReader implements BitmapIndexReader {
+    private static final long FRAME_SIZE = 1024;
+    // must be a power of 2
+    private static final int VALUE_BLOCK_COUNT = 256;
+    private static final long VALUE_BLOCK_SIZE = VALUE_BLOCK_COUNT * 8L + BitmapIndexUtils.VALUE_BLOCK_FILE_RESERVED;
+    private final Cursor cursor = new Cursor();
+    private final int direction;
+    private MemoryR columnMem;
+    private long columnTop;
+    private DirectLongList frameRows;
+    private long indexKeyAddr;
+    private long indexKeySize;
+    private long indexValueAddr;
+    private long indexValueSize;
+    private int keyCount;
+    private long rowCount;
+
+    public SymbolColumnScanIndexReader(int direction) {
+        this.direction = direction;
+    }
+
+    @Override
+    public void close() {
+        frameRows = Misc.free(frameRows);
+        freeIndexImage();
+        columnMem = null;
+    }
+
+    @Override
+    public RowCursor getCursor(boolean cachedInstance, int key, long minValue, long maxValue) {
+        final Cursor cursor = cachedInstance ? this.cursor : new Cursor();
+        cursor.of(key, minValue, Math.min(maxValue, rowCount - 1));
+        return cursor;
+    }
+
+    @Override
+    public IndexFrameCursor getFrameCursor(int key, long minValue, long maxValue) {
+        assert direction == DIR_FORWARD;
+        if (frameRows == null) {
+            frameRows = new DirectLongList(FRAME_SIZE, MemoryTag.NATIVE_INDEX_READER);
+        }
+        final Cursor cursor = new Cursor();
+        cursor.of(key, minValue, Math.min(maxValue, rowCount - 1));
+        return cursor;
+    }
+
+    @Override
+    public long getKeyBaseAddress() {
+        buildIndexImage();
+        return indexKeyAddr;
+    }
+
+    @Override
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    @Override
+    public long getKeyMemorySize() {
+        buildIndexImage();
+        return indexKeySize;
+    }
+
+    @Override
+    public long getUnIndexedNullCount() {
+        return columnTop;
+    }
+
+    @Override
+    public long getValueBaseAddress() {
+        buildIndexImage();
+        return indexValueAddr;
+    }
+
+    @Override
+    public int getValueBlockCapacity() {
+        return VALUE_BLOCK_COUNT - 1;
+    }
+
+    @Override
+    public long getValueMemorySize() {
+        buildIndexImage();
+        return indexValueSize;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return columnMem != null;
+    }
+
+    @Override
+    public void of(CairoConfiguration configuration, Path path, CharSequence name, long columnNameTxn, long unIndexedNullCount) {
+        // there are no index files to open
+    }
+
+    /**
+     * @param columnMem symbol keys of the rows below the column top
+     * @param columnTop number of leading null rows that are not present in columnMem
+     * @param rowCount  total number of rows in the partition
+     * @param keyCount  number of index keys, i.e. symbol count + 1
+     */
+    public SymbolColumnScanIndexReader of(MemoryR columnMem, long columnTop, long rowCount, int keyCount) {
+        freeIndexImage();
+        this.columnMem = columnMem;
+        this.columnTop = columnTop;
+        this.rowCount = rowCount;
+        this.keyCount = keyCount;
+        return this;
+    }
+
+    private void buildIndexImage() {
+        if (indexKeyAddr != 0) {
+            return;
+        }
+        indexKeySize = BitmapIndexUtils.getKeyEntryOffset(keyCount);
+        indexKeyAddr = Unsafe.calloc(indexKeySize, MemoryTag.NATIVE_INDEX_READER);
+
+        // count values per key, rows above the column top are un-indexed nulls
+        for (long row = columnTop; row < rowCount; row++) {
+            final long entry = indexKeyAddr + BitmapIndexUtils.getKeyEntryOffset(rowKey(row));
+            Unsafe.getUnsafe().putLong(entry, Unsafe.getUnsafe().getLong(entry) + 1);
+        }
+
+        // lay out value blocks of each key back to back
+        long valueMemSize = 0;
+        for (int key = 0; key < keyCount; key++) {
+            final long entry = indexKeyAddr + BitmapIndexUtils.getKeyEntryOffset(key);
+            final long valueCount = Unsafe.getUnsafe().getLong(entry);
+            if (valueCount > 0) {
+                final long blockCount = (valueCount + VALUE_BLOCK_COUNT - 1) / VALUE_BLOCK_COUNT;
+                Unsafe.getUnsafe().putLong(entry + BitmapIndexUtils.KEY_ENTRY_OFFSET_FIRST_VALUE_BLOCK_OFFSET, valueMemSize);
+                Unsafe.getUnsafe().putLong(entry + BitmapIndexUtils.KEY_ENTRY_OFFSET_LAST_VALUE_BLOCK_OFFSET, valueMemSize + (blockCount - 1) * VALUE_BLOCK_SIZE);
+                Unsafe.getUnsafe().putLong(entry + BitmapIndexUtils.KEY_ENTRY_OFFSET_COUNT_CHECK, valueCount);
+                // value count is restored when values are written
+                Unsafe.getUnsafe().putLong(entry, 0);
+                valueMemSize += blockCount * VALUE_BLOCK_SIZE;
+            }
+        }
+        indexValueSize = valueMemSize;
+        indexValueAddr = valueMemSize > 0 ? Unsafe.calloc(valueMemSize, MemoryTag.NATIVE_INDEX_READER) : 0;
+
+        for (long row = columnTop; row < rowCount; row++) {
+            final long entry = indexKeyAddr + BitmapIndexUtils.getKeyEntryOffset(rowKey(row));
+            final long valueCount = Unsafe.getUnsafe().getLong(entry);
+            final long firstBlockOffset = Unsafe.getUnsafe().getLong(entry + BitmapIndexUtils.KEY_ENTRY_OFFSET_FIRST_VALUE_BLOCK_OFFSET);
+            final long blockOffset = firstBlockOffset + (valueCount / VALUE_BLOCK_COUNT) * VALUE_BLOCK_SIZE;
+            final int cell = (int) (valueCount & (VALUE_BLOCK_COUNT - 1));
+            Unsafe.getUnsafe().putLong(indexValueAddr + blockOffset + cell * 8L, row);
+            if (cell == 0 && blockOffset > firstBlockOffset) {
+                // link the new block with the previous one
+                final long prevBlockOffset = blockOffset - VALUE_BLOCK_SIZE;
+                Unsafe.getUnsafe().putLong(indexValueAddr + blockOffset + VALUE_BLOCK_SIZE - BitmapIndexUtils.VALUE_BLOCK_FILE_RESERVED, prevBlockOffset);
+                Unsafe.getUnsafe().putLong(indexValueAddr + prevBlockOffset + VALUE_BLOCK_SIZE - BitmapIndexUtils.VALUE_BLOCK_FILE_RESERVED + 8, blockOffset);
+            }
+            Unsafe.getUnsafe().putLong(entry, valueCount + 1);
+        }
+
+        Unsafe.getUnsafe().putByte(indexKeyAddr + BitmapIndexUtils.KEY_RESERVED_OFFSET_SIGNATURE, BitmapIndexUtils.SIGNATURE);
+        Unsafe.getUnsafe().putLong(indexKeyAddr + BitmapIndexUtils.KEY_RESERVED_OFFSET_SEQUENCE, 1);
+        Unsafe.getUnsafe().putLong(indexKeyAddr + BitmapIndexUtils.KEY_RESERVED_OFFSET_VALUE_MEM_SIZE, valueMemSize);
+        Unsafe.getUnsafe().putInt(indexKeyAddr + BitmapIndexUtils.KEY_RESERVED_OFFSET_BLOCK_VALUE_COUNT, VALUE_BLOCK_COUNT);
+        Unsafe.getUnsafe().putInt(indexKeyAddr + BitmapIndexUtils.KEY_RESERVED_OFFSET_KEY_COUNT, keyCount);
+        Unsafe.getUnsafe().putLong(indexKeyAddr + BitmapIndexUtils.KEY_RESERVED_OFFSET_SEQUENCE_CHECK, 1);
+    }
+
+    private void freeIndexImage() {
+        indexKeyAddr = Unsafe.free(indexKeyAddr, indexKeySize, MemoryTag.NATIVE_INDEX_READER);
+        indexValueAddr = Unsafe.free(indexValueAddr, indexValueSize, MemoryTag.NATIVE_INDEX_READER);
+        indexKeySize = 0;
+        indexValueSize = 0;
+    }
+
+    private boolean matches(long row, int key) {
+        if (row < columnTop) {
+            return key == 0;
+        }
+        return rowKey(row) == key;
+    }
+
+    private int rowKey(long row) {
+        return TableUtils.toIndexKey(columnMem.getInt((row - columnTop) * Integer.BYTES));
+    }
+
+    private class Cursor implements RowCursor, IndexFrameCursor {
+        private final IndexFrame indexFrame = new IndexFrame();
+        private int key;
+        private long maxValue;
+        private long minValue;
+        private long next;
+        private long row;
+
+        @Override
+        public boolean hasNext() {
+            if (direction == DIR_FORWARD) {
+                while (row <= maxValue) {
+                    if (matches(row, key)) {
+                        next = row++;
+                        return true;
+                    }
+                    row++;
+                }
+            } else {
+                while (row >= minValue) {
+                    if (matches(row, key)) {
+                        next = row--;
+                        return true;
+                    }
+                    row--;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public long next() {
+            return next - minValue;
+        }
+
+        @Override
+        public IndexFrame nextIndexFrame() {
+            frameRows.clear();
+            while (frameRows.size() < FRAME_SIZE && hasNext()) {
+                frameRows.add(next);
+            }
+            if (frameRows.size() > 0) {
+                return indexFrame.of(frameRows.getAddress(), frameRows.size());
+            }
+            return IndexFrame.NULL_INSTANCE;
+        }
+
+        void of(int key, long minValue, long maxValue) {
+            this.key = key;
+            this.minValue = minValue;
+            this.maxValue = maxValue;
+            this.row = direction == DIR_FORWARD ? minValue : maxValue;
+        }
+    }
+}
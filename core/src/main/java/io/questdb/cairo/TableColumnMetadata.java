@@ -35,6 +35,7 @@ public class TableColumnMetadata implements Plannable {
     private final int replacingIndex;
     private final boolean symbolTableStatic;
     private final int writerIndex;
+    private boolean bloomIndexed;
     private int indexValueBlockCapacity;
     private boolean indexed;
     private boolean isDedupKey;
@@ -123,6 +124,10 @@ public class TableColumnMetadata implements Plannable {
         return writerIndex;
     }
 
+    public boolean isBloomIndexed() {
+        return bloomIndexed;
+    }
+
     public boolean isDedupKey() {
         return isDedupKey;
     }
@@ -143,6 +148,10 @@ public class TableColumnMetadata implements Plannable {
         type = -Math.abs(type);
     }
 
+    public void setBloomIndexed(boolean value) {
+        bloomIndexed = value;
+    }
+
     public void setDedupKeyFlag(boolean dedupKeyFlag) {
         isDedupKey = dedupKeyFlag;
     }
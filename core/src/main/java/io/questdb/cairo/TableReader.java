@@ -25,20 +25,24 @@
 package io.questdb.cairo;
 
 import io.questdb.MessageBus;
+import io.questdb.cairo.sql.PageFrame;
 import io.questdb.cairo.sql.StaticSymbolTable;
 import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.cairo.vm.MemoryCMRNativeImpl;
 import io.questdb.cairo.vm.NullMemoryCMR;
 import io.questdb.cairo.vm.Vm;
 import io.questdb.cairo.vm.api.MemoryCMR;
 import io.questdb.cairo.vm.api.MemoryCR;
 import io.questdb.cairo.vm.api.MemoryMR;
 import io.questdb.cairo.vm.api.MemoryR;
+import io.questdb.griffin.engine.table.parquet.PartitionDecoder;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.std.*;
 import io.questdb.std.datetime.millitime.MillisecondClock;
 import io.questdb.std.str.Path;
 import io.questdb.std.str.Utf16Sink;
+import io.questdb.std.str.Utf8Sink;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
@@ -51,18 +55,25 @@ public class TableReader implements Closeable, SymbolTableSource {
     private static final Log LOG = LogFactory.getLog(TableReader.class);
     private static final int PARTITIONS_SLOT_OFFSET_COLUMN_VERSION = 3;
     private static final int PARTITIONS_SLOT_OFFSET_NAME_TXN = 2;
+    // size of the Parquet file the partition was decoded from, -1 for native partitions
+    private static final int PARTITIONS_SLOT_OFFSET_PARQUET_FILE_SIZE = 4;
     private static final int PARTITIONS_SLOT_OFFSET_SIZE = 1;
-    private static final int PARTITIONS_SLOT_SIZE = 4;
+    // must be a power of 2
+    private static final int PARTITIONS_SLOT_SIZE = 8;
     private static final int PARTITIONS_SLOT_SIZE_MSB = Numbers.msb(PARTITIONS_SLOT_SIZE);
     private final MillisecondClock clock;
     private final ColumnVersionReader columnVersionReader;
     private final CairoConfiguration configuration;
     private final int dbRootSize;
     private final FilesFacade ff;
+    private final int maxOpenParquetPartitions;
     private final int maxOpenPartitions;
     private final MessageBus messageBus;
     private final TableReaderMetadata metadata;
     private final LongList openPartitionInfo;
+    private final ParquetColumnLoader parquetColumnLoader;
+    // per partition, first row of each row group followed by the partition row count
+    private final ObjList<LongList> parquetRowGroupLos = new ObjList<>();
     private final int partitionBy;
     private final PartitionOverwriteControl partitionOverwriteControl;
     private final Path path;
@@ -77,6 +88,8 @@ public class TableReader implements Closeable, SymbolTableSource {
     private LongList columnTops;
     private ObjList<MemoryCMR> columns;
     private int openPartitionCount;
+    // index of the column in the Parquet file when column data is decoded per page frame, -1 otherwise
+    private LongList parquetColumnIndexes;
     private int partitionCount;
     private long rowCount;
     private TableToken tableToken;
@@ -100,6 +113,8 @@ public class TableReader implements Closeable, SymbolTableSource {
         this.configuration = configuration;
         this.clock = configuration.getMillisecondClock();
         this.maxOpenPartitions = configuration.getInactiveReaderMaxOpenPartitions();
+        this.maxOpenParquetPartitions = configuration.getInactiveReaderMaxOpenParquetPartitions();
+        this.parquetColumnLoader = new ParquetColumnLoader(configuration);
         this.ff = configuration.getFilesFacade();
         this.tableToken = tableToken;
         this.messageBus = messageBus;
@@ -151,9 +166,13 @@ public class TableReader implements Closeable, SymbolTableSource {
                 openPartitionInfo.setQuick(baseOffset + PARTITIONS_SLOT_OFFSET_NAME_TXN, txFile.getPartitionNameTxn(i));
                 // -2 means it is not open, -1 is reserved as a valid not-found result of columnVersionReader.getMaxPartitionVersion()
                 openPartitionInfo.setQuick(baseOffset + PARTITIONS_SLOT_OFFSET_COLUMN_VERSION, -2);
+                openPartitionInfo.setQuick(baseOffset + PARTITIONS_SLOT_OFFSET_PARQUET_FILE_SIZE, -1L);
             }
             columnTops = new LongList(capacity / 2);
             columnTops.setPos(capacity / 2);
+            parquetColumnIndexes = new LongList(capacity / 2);
+            parquetColumnIndexes.setPos(capacity / 2);
+            parquetRowGroupLos.setPos(partitionCount);
 
             this.partitionOverwriteControl = partitionOverwriteControl;
             if (partitionOverwriteControl != null) {
@@ -196,6 +215,7 @@ public class TableReader implements Closeable, SymbolTableSource {
             Misc.free(txnScoreboard);
             Misc.free(path);
             Misc.free(columnVersionReader);
+            Misc.free(parquetColumnLoader);
             LOG.debug().$("closed '").utf8(tableToken.getTableName()).$('\'').$();
         }
     }
@@ -204,10 +224,30 @@ public class TableReader implements Closeable, SymbolTableSource {
         txFile.dumpRawTxPartitionInfo(container);
     }
 
+    /**
+     * Finds the row group of a Parquet partition that contains the given row.
+     *
+     * @param partitionIndex index of an open Parquet partition
+     * @param rowIndex       row index within the partition
+     * @return row group index
+     */
+    public int findParquetRowGroup(int partitionIndex, long rowIndex) {
+        final int index = parquetRowGroupLos.getQuick(partitionIndex).binarySearch(rowIndex, BinarySearch.SCAN_DOWN);
+        return index < 0 ? -index - 2 : index;
+    }
+
     public long floorToPartitionTimestamp(long timestamp) {
         return txFile.getPartitionTimestampByTimestamp(timestamp);
     }
 
+    public void formatParquetPartitionPath(int partitionIndex, Utf8Sink sink) {
+        try {
+            sink.put(pathGenPartitioned(partitionIndex).concat(TableUtils.PARQUET_PARTITION_NAME));
+        } finally {
+            path.trimTo(rootLen);
+        }
+    }
+
     public BitmapIndexReader getBitmapIndexReader(int partitionIndex, int columnIndex, int direction) {
         int columnBase = getColumnBase(partitionIndex);
         return getBitmapIndexReader(partitionIndex, columnBase, columnIndex, direction);
@@ -247,6 +287,14 @@ public class TableReader implements Closeable, SymbolTableSource {
         return columnCount;
     }
 
+    /**
+     * Returns descriptor of the file the column is mapped from or -1 when the column
+     * memory is not file-based, e.g. for columns missing in the partition.
+     */
+    public long getColumnFd(int absoluteIndex) {
+        return columns.getQuick(absoluteIndex).getFd();
+    }
+
     public long getColumnTop(int base, int columnIndex) {
         return columnTops.getQuick(base / 2 + columnIndex);
     }
@@ -287,11 +335,60 @@ public class TableReader implements Closeable, SymbolTableSource {
         return openPartitionCount;
     }
 
+    /**
+     * Returns statistics of a column chunk in a Parquet partition, see
+     * {@link PartitionDecoder#getColumnChunkStats(long, long)}.
+     *
+     * @param partitionIndex index of an open Parquet partition
+     * @param rowGroup       row group index
+     * @param columnIndex    index of the column in the reader metadata
+     * @return pointer to the stats or 0 when the Parquet file does not have the column
+     */
+    public long getParquetColumnChunkStats(int partitionIndex, int rowGroup, int columnIndex) {
+        final Path path = pathGenPartitioned(partitionIndex);
+        try {
+            final int parquetColumnIndex = parquetColumnLoader.findColumn(path, metadata.getColumnName(columnIndex), metadata.getColumnType(columnIndex));
+            return parquetColumnIndex > -1 ? parquetColumnLoader.getColumnChunkStats(path, rowGroup, parquetColumnIndex) : 0;
+        } finally {
+            path.trimTo(rootLen);
+        }
+    }
+
+    /**
+     * Columns of Parquet partitions, apart from symbols and the designated timestamp,
+     * are not decoded by the reader. Page frames carry the index of such columns
+     * in the Parquet file instead of the column memory.
+     *
+     * @return index of the column in the Parquet file or -1 when the column is served from the reader memory
+     */
+    public int getParquetColumnIndex(int base, int columnIndex) {
+        return (int) parquetColumnIndexes.getQuick(base / 2 + columnIndex);
+    }
+
+    public int getParquetRowGroupCount(int partitionIndex) {
+        return parquetRowGroupLos.getQuick(partitionIndex).size() - 1;
+    }
+
+    /**
+     * @return first row of the row group within the partition, the row count of the partition
+     * when the row group index is equal to the row group count
+     */
+    public long getParquetRowGroupLo(int partitionIndex, int rowGroup) {
+        return parquetRowGroupLos.getQuick(partitionIndex).getQuick(rowGroup);
+    }
+
     public int getPartitionCount() {
         return partitionCount;
     }
 
     @TestOnly
+    /**
+     * @return {@link PageFrame#PARQUET_FORMAT} for open Parquet partitions, {@link PageFrame#NATIVE_FORMAT} otherwise
+     */
+    public byte getPartitionFormat(int partitionIndex) {
+        return isParquetPartitionOpen(partitionIndex) ? PageFrame.PARQUET_FORMAT : PageFrame.NATIVE_FORMAT;
+    }
+
     public int getPartitionIndex(int columnBase) {
         return columnBase >>> columnCountShl;
     }
@@ -388,6 +485,19 @@ public class TableReader implements Closeable, SymbolTableSource {
                 }
             }
         }
+        // Parquet partitions are decoded into memory rather than mapped, keep fewer of them
+        if (PartitionBy.isPartitioned(partitionBy)) {
+            int openParquetCount = 0;
+            for (int partitionIndex = partitionCount - 1; partitionIndex > -1; partitionIndex--) {
+                final int offset = partitionIndex * PARTITIONS_SLOT_SIZE;
+                if (openPartitionInfo.getQuick(offset + PARTITIONS_SLOT_OFFSET_SIZE) > -1L
+                        && openPartitionInfo.getQuick(offset + PARTITIONS_SLOT_OFFSET_PARQUET_FILE_SIZE) > -1L
+                        && ++openParquetCount > maxOpenParquetPartitions) {
+                    closePartition(partitionIndex);
+                }
+            }
+        }
+        parquetColumnLoader.close();
     }
 
     public boolean isActive() {
@@ -635,6 +745,8 @@ public class TableReader implements Closeable, SymbolTableSource {
         int colTopStart = columnBase / 2;
         int columnSlotSize = getColumnBase(1);
         columnTops.removeIndexBlock(colTopStart, columnSlotSize / 2);
+        parquetColumnIndexes.removeIndexBlock(colTopStart, columnSlotSize / 2);
+        parquetRowGroupLos.remove(partitionIndex);
 
         openPartitionInfo.removeIndexBlock(offset, PARTITIONS_SLOT_SIZE);
         LOG.info().$("closed deleted partition [table=").$(tableToken).$(", ts=").$ts(partitionTimestamp).$(", partitionIndex=").$(partitionIndex).I$();
@@ -690,6 +802,7 @@ public class TableReader implements Closeable, SymbolTableSource {
             int fromColumnIndex,
             ObjList<MemoryCMR> toColumns,
             LongList toColumnTops,
+            LongList toParquetColumnIndexes,
             ObjList<BitmapIndexReader> toIndexReaders,
             int toBase,
             int toColumnIndex
@@ -700,6 +813,7 @@ public class TableReader implements Closeable, SymbolTableSource {
         toColumns.setQuick(toIndex, columns.getAndSetQuick(fromIndex, null));
         toColumns.setQuick(toIndex + 1, columns.getAndSetQuick(fromIndex + 1, null));
         toColumnTops.setQuick(toBase / 2 + toColumnIndex, columnTops.getQuick(fromBase / 2 + fromColumnIndex));
+        toParquetColumnIndexes.setQuick(toBase / 2 + toColumnIndex, parquetColumnIndexes.getQuick(fromBase / 2 + fromColumnIndex));
         toIndexReaders.setQuick(toIndex, bitmapIndexes.getAndSetQuick(fromIndex, null));
         toIndexReaders.setQuick(toIndex + 1, bitmapIndexes.getAndSetQuick(fromIndex + 1, null));
     }
@@ -719,6 +833,15 @@ public class TableReader implements Closeable, SymbolTableSource {
                 reader = new BitmapIndexFwdNullReader();
                 bitmapIndexes.setQuick(globalIndex + 1, reader);
             }
+        } else if (isParquetPartitionOpen(getPartitionIndex(columnBase))) {
+            // there are no index files in Parquet partitions
+            reader = new SymbolColumnScanIndexReader(direction).of(
+                    col,
+                    getColumnTop(columnBase, columnIndex),
+                    getPartitionRowCount(getPartitionIndex(columnBase)),
+                    symbolMapReaders.getQuick(columnIndex).getSymbolCount() + 1
+            );
+            bitmapIndexes.setQuick(direction == BitmapIndexReader.DIR_BACKWARD ? globalIndex : globalIndex + 1, reader);
         } else {
             Path path = pathGenPartitioned(getPartitionIndex(columnBase), txn);
             try {
@@ -753,11 +876,13 @@ public class TableReader implements Closeable, SymbolTableSource {
         int capacity = partitionCount << columnCountShl;
         final ObjList<MemoryCMR> toColumns = new ObjList<>(capacity + 2);
         final LongList toColumnTops = new LongList(capacity / 2);
+        final LongList toParquetColumnIndexes = new LongList(capacity / 2);
         final ObjList<BitmapIndexReader> toIndexReaders = new ObjList<>(capacity);
         toColumns.setPos(capacity + 2);
         toColumns.setQuick(0, NullMemoryCMR.INSTANCE);
         toColumns.setQuick(1, NullMemoryCMR.INSTANCE);
         toColumnTops.setPos(capacity / 2);
+        toParquetColumnIndexes.setPos(capacity / 2);
         toIndexReaders.setPos(capacity + 2);
         int iterateCount = Math.max(columnCount, this.columnCount);
 
@@ -775,11 +900,11 @@ public class TableReader implements Closeable, SymbolTableSource {
 
                         if (transitionIndex.replaceWithNew(i)) {
                             // new instance
-                            reloadColumnAt(partitionIndex, path, toColumns, toColumnTops, toIndexReaders, toBase, i, partitionRowCount);
+                            reloadColumnAt(partitionIndex, path, toColumns, toColumnTops, toParquetColumnIndexes, toIndexReaders, toBase, i, partitionRowCount);
                         } else {
                             final int fromColumnIndex = transitionIndex.getCopyFromIndex(i);
                             assert fromColumnIndex < this.columnCount;
-                            copyColumns(fromBase, fromColumnIndex, toColumns, toColumnTops, toIndexReaders, toBase, i);
+                            copyColumns(fromBase, fromColumnIndex, toColumns, toColumnTops, toParquetColumnIndexes, toIndexReaders, toBase, i);
                         }
                     }
                 }
@@ -789,6 +914,7 @@ public class TableReader implements Closeable, SymbolTableSource {
         }
         this.columns = toColumns;
         this.columnTops = toColumnTops;
+        this.parquetColumnIndexes = toParquetColumnIndexes;
         this.columnCountShl = columnCountShl;
         this.bitmapIndexes = toIndexReaders;
     }
@@ -844,6 +970,9 @@ public class TableReader implements Closeable, SymbolTableSource {
         final int topSlotSize = columnSlotSize / 2;
         columnTops.insert(topBase, topSlotSize);
         columnTops.seed(topBase, topSlotSize, 0);
+        parquetColumnIndexes.insert(topBase, topSlotSize);
+        parquetColumnIndexes.seed(topBase, topSlotSize, -1);
+        parquetRowGroupLos.insert(partitionIndex, 1, null);
 
         final int offset = partitionIndex * PARTITIONS_SLOT_SIZE;
         openPartitionInfo.insert(offset, PARTITIONS_SLOT_SIZE);
@@ -851,12 +980,17 @@ public class TableReader implements Closeable, SymbolTableSource {
         openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_SIZE, -1L);
         openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_NAME_TXN, -1L);
         openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_COLUMN_VERSION, -1L);
+        openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_PARQUET_FILE_SIZE, -1L);
         partitionCount++;
         LOG.debug().$("inserted partition [index=").$(partitionIndex).$(", table=").$(tableToken).$(", timestamp=").$ts(timestamp).I$();
     }
 
     // this method is not thread safe
     @NotNull
+    private boolean isParquetPartitionOpen(int partitionIndex) {
+        return openPartitionInfo.getQuick(partitionIndex * PARTITIONS_SLOT_SIZE + PARTITIONS_SLOT_OFFSET_PARQUET_FILE_SIZE) > -1L;
+    }
+
     private SymbolMapReaderImpl newSymbolMapReader(int symbolColumnIndex, int columnIndex) {
         // symbol column index is the index of symbol column in dense array of symbol columns, e.g.
         // if table has only one symbol columns, the symbolColumnIndex is 0 regardless of column position
@@ -889,9 +1023,11 @@ public class TableReader implements Closeable, SymbolTableSource {
             @Nullable MemoryCMR mem,
             long columnSize
     ) {
-        if (mem != null && mem != NullMemoryCMR.INSTANCE) {
+        if (mem != null && mem != NullMemoryCMR.INSTANCE && mem.isFileBased()) {
             mem.of(ff, path.$(), columnSize, columnSize, MemoryTag.MMAP_TABLE_READER);
         } else {
+            // the partition might have been decoded from Parquet before
+            Misc.free(mem);
             mem = Vm.getCMRInstance(ff, path.$(), columnSize, MemoryTag.MMAP_TABLE_READER);
             columns.setQuick(primaryIndex, mem);
         }
@@ -924,8 +1060,11 @@ public class TableReader implements Closeable, SymbolTableSource {
                             .$(", rowCount=").$(partitionSize)
                             .$(", partitionIndex=").$(partitionIndex)
                             .$(", partitionCount=").$(partitionCount)
+                            .$(", parquet=").$(txFile.isPartitionParquet(partitionIndex))
                             .I$();
 
+                    final long parquetFileSize = txFile.isPartitionParquet(partitionIndex) ? txFile.getPartitionParquetFileSize(partitionIndex) : -1L;
+                    openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_PARQUET_FILE_SIZE, parquetFileSize);
                     openPartitionColumns(partitionIndex, path, getColumnBase(partitionIndex), partitionSize);
                     openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_SIZE, partitionSize);
                     openPartitionInfo.setQuick(offset + PARTITIONS_SLOT_OFFSET_NAME_TXN, partitionNameTxn);
@@ -967,6 +1106,7 @@ public class TableReader implements Closeable, SymbolTableSource {
                     path,
                     columns,
                     columnTops,
+                    parquetColumnIndexes,
                     bitmapIndexes,
                     columnBase,
                     i,
@@ -1106,12 +1246,14 @@ public class TableReader implements Closeable, SymbolTableSource {
             Path path,
             ObjList<MemoryCMR> columns,
             LongList columnTops,
+            LongList parquetColumnIndexes,
             ObjList<BitmapIndexReader> indexReaders,
             int columnBase,
             int columnIndex,
             long partitionRowCount
     ) {
         final int plen = path.size();
+        parquetColumnIndexes.setQuick(columnBase / 2 + columnIndex, -1);
         try {
             final CharSequence name = metadata.getColumnName(columnIndex);
             final int primaryIndex = getPrimaryColumnIndex(columnBase, columnIndex);
@@ -1132,7 +1274,26 @@ public class TableReader implements Closeable, SymbolTableSource {
             // created in the current partition. Older partitions would simply have no
             // column file. This makes it necessary to check the partition timestamp in Column Version file
             // of when the column was added.
-            if (columnRowCount > 0 && (versionRecordIndex > -1 || columnVersionReader.getColumnTopPartitionTimestamp(writerIndex) <= partitionTimestamp)) {
+            boolean columnExists = columnRowCount > 0 && (versionRecordIndex > -1 || columnVersionReader.getColumnTopPartitionTimestamp(writerIndex) <= partitionTimestamp);
+            if (columnExists && isParquetPartitionOpen(partitionIndex)) {
+                // column absent from the Parquet file is all nulls
+                columnExists = reloadParquetColumnAt(
+                        partitionIndex,
+                        path,
+                        columns,
+                        parquetColumnIndexes,
+                        indexReaders,
+                        columnBase,
+                        columnIndex,
+                        columnTop,
+                        partitionRowCount
+                );
+                if (columnExists) {
+                    columnTops.setQuick(columnBase / 2 + columnIndex, columnTop);
+                    return;
+                }
+            }
+            if (columnExists) {
                 final int columnType = metadata.getColumnType(columnIndex);
 
                 final MemoryCMR dataMem = columns.getQuick(primaryIndex);
@@ -1165,7 +1326,11 @@ public class TableReader implements Closeable, SymbolTableSource {
 
                 if (metadata.isColumnIndexed(columnIndex)) {
                     BitmapIndexReader indexReader = indexReaders.getQuick(primaryIndex);
-                    if (indexReader != null) {
+                    if (indexReader instanceof SymbolColumnScanIndexReader) {
+                        // the partition used to be in Parquet format, index files are created lazily
+                        Misc.free(indexReaders.getAndSetQuick(primaryIndex, null));
+                        Misc.free(indexReaders.getAndSetQuick(secondaryIndex, null));
+                    } else if (indexReader != null) {
                         indexReader.of(configuration, path.trimTo(plen), name, columnTxn, columnTop);
                     }
                 } else {
@@ -1240,6 +1405,74 @@ public class TableReader implements Closeable, SymbolTableSource {
         }
     }
 
+    private boolean reloadParquetColumnAt(
+            int partitionIndex,
+            Path path,
+            ObjList<MemoryCMR> columns,
+            LongList parquetColumnIndexes,
+            ObjList<BitmapIndexReader> indexReaders,
+            int columnBase,
+            int columnIndex,
+            long columnTop,
+            long partitionRowCount
+    ) {
+        final CharSequence columnName = metadata.getColumnName(columnIndex);
+        final int columnType = metadata.getColumnType(columnIndex);
+        final int parquetColumnIndex = parquetColumnLoader.findColumn(path, columnName, columnType);
+        if (parquetColumnIndex == -1) {
+            return false;
+        }
+
+        final int primaryIndex = getPrimaryColumnIndex(columnBase, columnIndex);
+        MemoryCMR dataMem = columns.getQuick(primaryIndex);
+        if (!(dataMem instanceof MemoryCMRNativeImpl)) {
+            Misc.free(dataMem);
+            columns.setQuick(primaryIndex, dataMem = new MemoryCMRNativeImpl(MemoryTag.NATIVE_TABLE_READER));
+        }
+        MemoryCMR auxMem = null;
+        if (ColumnType.isVarSize(columnType)) {
+            auxMem = columns.getQuick(primaryIndex + 1);
+            if (!(auxMem instanceof MemoryCMRNativeImpl)) {
+                Misc.free(auxMem);
+                columns.setQuick(primaryIndex + 1, auxMem = new MemoryCMRNativeImpl(MemoryTag.NATIVE_TABLE_READER));
+            }
+        } else {
+            Misc.free(columns.getAndSetQuick(primaryIndex + 1, null));
+        }
+        // scan index readers point at the column memory, they are created lazily
+        Misc.free(indexReaders.getAndSetQuick(primaryIndex, null));
+        Misc.free(indexReaders.getAndSetQuick(primaryIndex + 1, null));
+
+        final boolean isTimestamp = columnIndex == metadata.getTimestampIndex();
+        if (isTimestamp || ColumnType.isSymbol(columnType)) {
+            // symbol keys and row group bounds are needed up front,
+            // the rest of the columns is decoded per page frame, see PageFrameMemoryPool
+            LongList rowGroupLos = null;
+            if (isTimestamp) {
+                rowGroupLos = parquetRowGroupLos.getQuick(partitionIndex);
+                if (rowGroupLos == null) {
+                    parquetRowGroupLos.setQuick(partitionIndex, rowGroupLos = new LongList());
+                }
+            }
+            parquetColumnLoader.load(
+                    path,
+                    columnName,
+                    columnType,
+                    columnTop,
+                    partitionRowCount,
+                    dataMem,
+                    auxMem,
+                    symbolMapReaders.getQuick(columnIndex),
+                    rowGroupLos
+            );
+        } else {
+            dataMem.close();
+            Misc.free(auxMem);
+            parquetColumnIndexes.setQuick(columnBase / 2 + columnIndex, parquetColumnIndex);
+        }
+        return true;
+    }
+
     /**
      * Updates boundaries of all columns in partition.
      *
@@ -1247,6 +1480,12 @@ public class TableReader implements Closeable, SymbolTableSource {
      * @param rowCount       number of rows in partition
      */
     private boolean reloadPartitionFiles(int partitionIndex, long rowCount, long openPartitionNameTxn) {
+        if (isParquetPartitionOpen(partitionIndex)) {
+            // Parquet partitions are immutable, any change means the partition has been rewritten
+            return txFile.isPartitionParquet(partitionIndex)
+                    && txFile.getPartitionParquetFileSize(partitionIndex) == openPartitionInfo.getQuick(partitionIndex * PARTITIONS_SLOT_SIZE + PARTITIONS_SLOT_OFFSET_PARQUET_FILE_SIZE)
+                    && rowCount == getPartitionRowCount(partitionIndex);
+        }
         Path path = pathGenPartitioned(partitionIndex, openPartitionNameTxn);
         try {
             int columnBase = getColumnBase(partitionIndex);
@@ -1348,6 +1587,7 @@ public class TableReader implements Closeable, SymbolTableSource {
                                             path,
                                             columns,
                                             columnTops,
+                                            parquetColumnIndexes,
                                             bitmapIndexes,
                                             base,
                                             i,
@@ -1355,7 +1595,7 @@ public class TableReader implements Closeable, SymbolTableSource {
                                     );
                                 }
                             } else if (copyFrom > -1) {
-                                copyColumns(base, copyFrom, columns, columnTops, bitmapIndexes, base, i);
+                                copyColumns(base, copyFrom, columns, columnTops, parquetColumnIndexes, bitmapIndexes, base, i);
                             } else if (copyFrom != Integer.MIN_VALUE) {
                                 // new instance
                                 reloadColumnAt(
@@ -1363,6 +1603,7 @@ public class TableReader implements Closeable, SymbolTableSource {
                                         path,
                                         columns,
                                         columnTops,
+                                        parquetColumnIndexes,
                                         bitmapIndexes,
                                         base,
                                         i,
@@ -52,6 +52,7 @@ public class TableReaderMetadata extends AbstractRecordMetadata implements Table
     private TableToken tableToken;
     private TableReaderMetadataTransitionIndex transitionIndex;
     private MemoryMR transitionMeta;
+    private int ttlHoursOrMonths;
     private boolean walEnabled;
 
     public TableReaderMetadata(CairoConfiguration configuration, TableToken tableToken) {
@@ -96,6 +97,7 @@ public class TableReaderMetadata extends AbstractRecordMetadata implements Table
         this.maxUncommittedRows = metaMem.getInt(TableUtils.META_OFFSET_MAX_UNCOMMITTED_ROWS);
         this.o3MaxLag = metaMem.getLong(TableUtils.META_OFFSET_O3_MAX_LAG);
         this.walEnabled = metaMem.getBool(TableUtils.META_OFFSET_WAL_ENABLED);
+        this.ttlHoursOrMonths = metaMem.getInt(TableUtils.META_OFFSET_TTL_HOURS_OR_MONTHS);
 
         int shiftLeft = 0, existingIndex = 0;
         buildWriterOrderMap(metaMem, columnCount);
@@ -121,6 +123,7 @@ public class TableReaderMetadata extends AbstractRecordMetadata implements Table
             int columnType = TableUtils.getColumnType(metaMem, writerIndex);
             boolean isIndexed = TableUtils.isColumnIndexed(metaMem, writerIndex);
             boolean isDedupKey = TableUtils.isColumnDedupKey(metaMem, writerIndex);
+            boolean isBloomIndexed = TableUtils.isColumnBloomIndexed(metaMem, writerIndex);
             int indexBlockCapacity = TableUtils.getIndexBlockCapacity(metaMem, writerIndex);
             TableReaderMetadataColumn existing = null;
             String newName;
@@ -157,6 +160,7 @@ public class TableReaderMetadata extends AbstractRecordMetadata implements Table
                         || existing.isIndexed() != isIndexed
                         || existing.getIndexValueBlockCapacity() != indexBlockCapacity
                         || existing.isDedupKey() != isDedupKey
+                        || existing.isBloomIndexed() != isBloomIndexed
                         || existing.getDenseSymbolIndex() != denseSymbolIndex
                         || existing.getStableIndex() != stableIndex
                 ) {
@@ -176,6 +180,7 @@ public class TableReaderMetadata extends AbstractRecordMetadata implements Table
                                     stableIndex
                             )
                     );
+                    columnMetadata.getQuick(outIndex).setBloomIndexed(isBloomIndexed);
                     if (existing != null) {
                         // column deleted at existingIndex
                         transitionIndex.markDeleted(existingIndex);
@@ -267,6 +272,11 @@ public class TableReaderMetadata extends AbstractRecordMetadata implements Table
         return tableToken;
     }
 
+    @Override
+    public int getTtlHoursOrMonths() {
+        return ttlHoursOrMonths;
+    }
+
     public boolean isSoftLink() {
         return isSoftLink;
     }
@@ -288,6 +298,7 @@ public class TableReaderMetadata extends AbstractRecordMetadata implements Table
             this.o3MaxLag = metaMem.getLong(TableUtils.META_OFFSET_O3_MAX_LAG);
             this.metadataVersion = metaMem.getInt(TableUtils.META_OFFSET_METADATA_VERSION);
             this.walEnabled = metaMem.getBool(TableUtils.META_OFFSET_WAL_ENABLED);
+            this.ttlHoursOrMonths = metaMem.getInt(TableUtils.META_OFFSET_TTL_HOURS_OR_MONTHS);
             this.columnMetadata.clear();
             this.timestampIndex = -1;
 
@@ -323,6 +334,7 @@ public class TableReaderMetadata extends AbstractRecordMetadata implements Table
                             )
                     );
                     int denseIndex = columnMetadata.size() - 1;
+                    columnMetadata.getQuick(denseIndex).setBloomIndexed(TableUtils.isColumnBloomIndexed(metaMem, writerIndex));
                     if (!columnNameIndexMap.put(colName, denseIndex)) {
                         throw validationException(metaMem).put("Duplicate column [name=").put(name).put("] at ").put(i);
                     }
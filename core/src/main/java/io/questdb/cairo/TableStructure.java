@@ -40,6 +40,14 @@ public interface TableStructure extends TableDescriptor {
 
     CharSequence getTableName();
 
+    default int getTtlHoursOrMonths() {
+        return 0;
+    }
+
+    default boolean isBloomIndexed(int columnIndex) {
+        return false;
+    }
+
     boolean isDedupKey(int columnIndex);
 
     boolean isIndexed(int columnIndex);
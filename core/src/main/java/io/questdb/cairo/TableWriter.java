@@ -53,6 +53,7 @@ import io.questdb.cairo.wal.O3JobParallelismRegulator;
 import io.questdb.cairo.wal.SymbolMapDiff;
 import io.questdb.cairo.wal.SymbolMapDiffCursor;
 import io.questdb.cairo.wal.SymbolMapDiffEntry;
+import io.questdb.cairo.wal.WalEventCursor;
 import io.questdb.cairo.wal.WalTxnDetails;
 import io.questdb.cairo.wal.WriterRowUtils;
 import io.questdb.cairo.wal.seq.TableSequencer;
@@ -178,6 +179,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     // Publisher source is identified by a long value
     private final AlterOperation alterOp = new AlterOperation();
     private final LongConsumer appendTimestampSetter;
+    private final BloomIndexWriter bloomIndexWriter;
     private final DatabaseCheckpointStatus checkpointStatus;
     private final ColumnVersionWriter columnVersionWriter;
     private final MPSequence commandPubSeq;
@@ -232,6 +234,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private final AtomicLong physicallyWrittenRowsSinceLastCommit = new AtomicLong();
     private final Row row = new RowImpl();
     private final LongList rowValueIsNotNull = new LongList();
+    // partitions rewritten by O3, squash or UPDATE since the last skip index update
+    private final LongList skipIndexDirtyPartitions = new LongList();
     private final TxReader slaveTxReader;
     private final ObjList<MapWriter> symbolMapWriters;
     private final IntList symbolRewriteMap = new IntList();
@@ -247,6 +251,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private final WeakClosableObjectPool<LongList> walFdCacheListPool = new WeakClosableObjectPool<>(LongList::new, 5, true);
     private final LongObjHashMap.LongObjConsumer<LongList> walFdCloseCachedFdAction;
     private final ObjList<MemoryCMOR> walMappedColumns = new ObjList<>();
+    private final ZoneMapWriter zoneMapWriter;
     private ObjList<? extends MemoryA> activeColumns;
     private ObjList<Runnable> activeNullSetters;
     private ColumnVersionReader attachColumnVersionReader;
@@ -299,6 +304,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     private PurgingOperator purgingOperator;
     private boolean removeDirOnCancelRow = true;
     private int rowAction = ROW_ACTION_OPEN_PARTITION;
+    // partitions from this timestamp onwards may have been appended to since the last skip index update
+    private long skipIndexPartitionTimestampLo;
     private TableToken tableToken;
     private final ColumnTaskHandler cthAppendWalColumnToLastPartition = this::cthAppendWalColumnToLastPartition;
     private final ColumnTaskHandler cthO3SortColumnRef = this::cthO3SortColumn;
@@ -434,6 +441,9 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             configureAppendPosition();
             purgeUnusedPartitions();
             minSplitPartitionTimestamp = findMinSplitPartitionTimestamp();
+            this.zoneMapWriter = configuration.isZoneMapsEnabled() && PartitionBy.isPartitioned(partitionBy) ? new ZoneMapWriter(ff) : null;
+            this.bloomIndexWriter = PartitionBy.isPartitioned(partitionBy) ? new BloomIndexWriter(ff) : null;
+            this.skipIndexPartitionTimestampLo = txWriter.getPartitionCount() > 0 ? txWriter.getLastPartitionTimestamp() : Long.MIN_VALUE;
             clearTodoLog();
             this.slaveTxReader = new TxReader(ff);
             commandQueue = new RingQueue<>(
@@ -492,6 +502,45 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return Unsafe.getUnsafe().getLong(timestampIndex + indexRow * 16);
     }
 
+    @Override
+    public void addBloomIndex(@NotNull CharSequence columnName) {
+        checkDistressed();
+
+        final int columnIndex = getColumnIndexQuiet(metaMem, columnName, columnCount);
+
+        if (columnIndex == -1) {
+            throw CairoException.invalidMetadataRecoverable("column does not exist", columnName);
+        }
+
+        commit();
+
+        if (isColumnBloomIndexed(metaMem, columnIndex)) {
+            throw CairoException.invalidMetadataRecoverable("column already has bloom index", columnName);
+        }
+
+        final int existingType = getColumnType(metaMem, columnIndex);
+        if (!BloomIndexWriter.isSupported(existingType)) {
+            throw CairoException.invalidMetadataRecoverable("cannot create bloom index, column type is not SYMBOL or VARCHAR", columnName);
+        }
+        if (bloomIndexWriter == null) {
+            throw CairoException.invalidMetadataRecoverable("cannot create bloom index, table is not partitioned", columnName);
+        }
+
+        LOG.info().$("adding bloom index to '").utf8(columnName).$("' [").$(ColumnType.nameOf(existingType)).$(", path=").$substr(pathRootSize, path).I$();
+
+        // set bloom index flag in metadata and create new _meta.swp
+        metaSwapIndex = copyMetadataAndSetIndexAttrs(columnIndex, META_FLAG_BIT_BLOOM_INDEX, true, getIndexBlockCapacity(metaMem, columnIndex));
+        swapMetaFile(columnName);
+        metadata.getColumnMetadata(columnIndex).setBloomIndexed(true);
+
+        try (MetadataCacheWriter metadataRW = engine.getMetadataCache().writeLock()) {
+            metadataRW.hydrateTable(metadata);
+        }
+
+        rebuildBloomIndex(columnIndex);
+        LOG.info().$("ADDED bloom index to '").utf8(columnName).$('[').$(ColumnType.nameOf(existingType)).$("]' to ").$substr(pathRootSize, path).$();
+    }
+
     @Override
     public void addColumn(@NotNull CharSequence columnName, int columnType, SecurityContext securityContext) {
         addColumn(
@@ -684,7 +733,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         final SymbolColumnIndexer indexer = new SymbolColumnIndexer(configuration);
         writeIndex(columnName, indexValueBlockSize, columnIndex, indexer);
         // set index flag in metadata and  create new _meta.swp
-        metaSwapIndex = copyMetadataAndSetIndexAttrs(columnIndex, true, indexValueBlockSize);
+        metaSwapIndex = copyMetadataAndSetIndexAttrs(columnIndex, META_FLAG_BIT_INDEXED, true, indexValueBlockSize);
 
         swapMetaFile(columnName);
 
@@ -1085,6 +1134,23 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         txWriter.commit(denseSymbolMapWriters);
     }
 
+    /**
+     * Applies one or more consecutive data transactions of the same WAL segment to the table.
+     * The transactions must occupy a contiguous range of WAL rows, the event cursor must be
+     * positioned at the first of them.
+     *
+     * @param walPath        path to the WAL segment
+     * @param inOrder        true if rows of all the transactions are in timestamp order
+     * @param rowLo          first WAL row of the first transaction
+     * @param rowHi          last WAL row (exclusive) of the last transaction
+     * @param o3TimestampMin min timestamp of all the transactions
+     * @param o3TimestampMax max timestamp of all the transactions
+     * @param walEventCursor WAL event cursor positioned at the first transaction
+     * @param seqTxn         sequencer txn of the first transaction
+     * @param seqTxnHi       sequencer txn of the last transaction, same as seqTxn when a single transaction is applied
+     * @param regulator      O3 job parallelism regulator
+     * @return number of rows added to the table
+     */
     public long commitWalTransaction(
             @Transient Path walPath,
             boolean inOrder,
@@ -1092,8 +1158,9 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             long rowHi,
             long o3TimestampMin,
             long o3TimestampMax,
-            SymbolMapDiffCursor mapDiffCursor,
+            WalEventCursor walEventCursor,
             long seqTxn,
+            long seqTxnHi,
             O3JobParallelismRegulator regulator
     ) {
         if (hasO3() || columnVersionWriter.hasChanges()) {
@@ -1105,18 +1172,20 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
 
         physicallyWrittenRowsSinceLastCommit.set(0);
         txWriter.beginPartitionSizeUpdate();
-        long commitToTimestamp = walTxnDetails.getCommitToTimestamp(seqTxn);
+        // squashed transactions are committed up to the point the last of them allows
+        long commitToTimestamp = walTxnDetails.getCommitToTimestamp(seqTxnHi);
 
         LOG.info().$("processing WAL [path=").$substr(pathRootSize, walPath).$(", roLo=").$(rowLo)
                 .$(", roHi=").$(rowHi)
                 .$(", seqTxn=").$(seqTxn)
+                .$(", seqTxnHi=").$(seqTxnHi)
                 .$(", tsMin=").$ts(o3TimestampMin).$(", tsMax=").$ts(o3TimestampMax)
                 .$(", commitToTs=").$ts(commitToTimestamp)
                 .I$();
 
         final long committedRowCount = txWriter.getRowCount();
         final long walSegmentId = walTxnDetails.getWalSegmentId(seqTxn);
-        boolean isLastSegmentUsage = walTxnDetails.isLastSegmentUsage(seqTxn);
+        boolean isLastSegmentUsage = walTxnDetails.isLastSegmentUsage(seqTxnHi);
         boolean committed;
         try {
             committed = processWalBlock(
@@ -1127,7 +1196,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                     rowHi,
                     o3TimestampMin,
                     o3TimestampMax,
-                    mapDiffCursor,
+                    walEventCursor,
+                    (int) (seqTxnHi - seqTxn + 1),
                     commitToTimestamp,
                     walSegmentId,
                     isLastSegmentUsage,
@@ -1148,7 +1218,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
 
             updateIndexes();
             columnVersionWriter.commit();
-            txWriter.setSeqTxn(seqTxn);
+            txWriter.setSeqTxn(seqTxnHi);
             txWriter.setLagTxnCount(0);
             txWriter.setLagOrdered(true);
 
@@ -1158,6 +1228,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             lastWalCommitTimestampMicros = configuration.getMicrosecondClock().getTicks();
 
             squashSplitPartitions(minSplitPartitionTimestamp, txWriter.maxTimestamp, configuration.getO3LastPartitionMaxSplits());
+            updateSkipIndexes();
 
             // Bookmark masterRef to track how many rows is in uncommitted state
             committedMasterRef = masterRef;
@@ -1171,7 +1242,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         // Nothing was committed to the table, only copied to LAG.
         // Sometimes data from LAG made visible to the table using fast commit that increment transient row count.
         // Keep in memory last committed seq txn, but do not write it to _txn file.
-        assert txWriter.getLagTxnCount() == (seqTxn - txWriter.getSeqTxn());
+        assert txWriter.getLagTxnCount() == (seqTxnHi - txWriter.getSeqTxn());
         metrics.tableWriter().addCommittedRows(rowsAdded);
         return rowsAdded;
     }
@@ -1199,6 +1270,12 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             throw CairoException.nonCritical().put("cannot convert partition to parquet, partition does not exist [table=").put(tableToken.getTableName())
                     .put(", partition=").put(utf8Sink).put(']');
         }
+        if (txWriter.isPartitionParquet(partitionIndex)) {
+            LOG.info().$("partition is already in parquet format [table=").utf8(tableToken.getTableName())
+                    .$(", partition=").$ts(partitionTimestamp)
+                    .I$();
+            return true;
+        }
         lastPartitionTimestamp = txWriter.getLastPartitionTimestamp();
         boolean lastPartitionConverted = lastPartitionTimestamp == partitionTimestamp;
         squashPartitionForce(partitionIndex);
@@ -1579,6 +1656,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             throw CairoException.invalidMetadataRecoverable("column does not exist", columnName);
         }
         if (!isColumnIndexed(metaMem, columnIndex)) {
+            if (isColumnBloomIndexed(metaMem, columnIndex)) {
+                dropBloomIndex(columnName, columnIndex);
+                return;
+            }
             // if a column is indexed, it is also of type SYMBOL
             throw CairoException.invalidMetadataRecoverable("column is not indexed", columnName);
         }
@@ -1604,7 +1685,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             }
             dropIndexOperator.executeDropIndex(columnName, columnIndex); // upserts column version in partitions
             // swap meta commit
-            metaSwapIndex = copyMetadataAndSetIndexAttrs(columnIndex, false, defaultIndexValueBlockSize);
+            metaSwapIndex = copyMetadataAndSetIndexAttrs(columnIndex, META_FLAG_BIT_INDEXED, false, defaultIndexValueBlockSize);
             swapMetaFile(columnName); // bumps structure version, this is in effect a commit
             // refresh metadata
             TableColumnMetadata columnMetadata = metadata.getColumnMetadata(columnIndex);
@@ -2036,7 +2117,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             long rowHi,
             final long o3TimestampMin,
             final long o3TimestampMax,
-            SymbolMapDiffCursor mapDiffCursor,
+            WalEventCursor walEventCursor,
+            int txnCount,
             long commitToTimestamp,
             long walSegmentId,
             boolean isLastSegmentUsage,
@@ -2122,7 +2204,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                     // to squash several of them together before writing anything to all the partitions.
                     LOG.debug().$("all WAL rows copied to LAG [table=").$(tableToken).I$();
 
-                    o3Columns = remapWalSymbols(mapDiffCursor, rowLo, rowHi, walPath);
+                    o3Columns = remapWalSymbols(walEventCursor, txnCount, rowLo, rowHi, walPath);
                     // This will copy data from mmap files to memory.
                     // Symbols are already mapped to the correct destination.
                     dispatchColumnTasks(
@@ -2139,7 +2221,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                     txWriter.setLagOrdered(lagOrderedNew);
                     txWriter.setLagMinTimestamp(newMinLagTimestamp);
                     txWriter.setLagMaxTimestamp(Math.max(o3TimestampMax, txWriter.getLagMaxTimestamp()));
-                    txWriter.setLagTxnCount(txWriter.getLagTxnCount() + 1);
+                    txWriter.setLagTxnCount(txWriter.getLagTxnCount() + txnCount);
 
                     if (canFastCommitNew) {
                         applyFromWalLagToLastPartition(commitToTimestamp, false);
@@ -2163,7 +2245,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
 
                 long timestampAddr = 0;
                 MemoryCR walTimestampColumn = walMappedColumns.getQuick(getPrimaryColumnIndex(timestampIndex));
-                o3Columns = remapWalSymbols(mapDiffCursor, rowLo, rowHi, walPath);
+                o3Columns = remapWalSymbols(walEventCursor, txnCount, rowLo, rowHi, walPath);
 
                 if (needsOrdering || needsDedup) {
                     if (needsOrdering) {
@@ -2516,6 +2598,11 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         finishColumnPurge();
         metadata.renameColumn(currentName, newName);
 
+        if (metadata.getColumnMetadata(index).isBloomIndexed() && bloomIndexWriter != null) {
+            removeBloomIndexFiles(currentName);
+            rebuildBloomIndex(index);
+        }
+
         if (index == metadata.getTimestampIndex()) {
             designatedTimestampColumnName = Chars.toString(newName);
         }
@@ -2641,6 +2728,31 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    @Override
+    public void setMetaTtlHoursOrMonths(int ttlHoursOrMonths) {
+        try {
+            commit();
+            long metaSize = copyMetadataAndUpdateVersion();
+            openMetaSwapFileByIndex(ff, ddlMem, path, pathSize, this.metaSwapIndex);
+            try {
+                ddlMem.jumpTo(META_OFFSET_TTL_HOURS_OR_MONTHS);
+                ddlMem.putInt(ttlHoursOrMonths);
+                ddlMem.jumpTo(metaSize);
+            } finally {
+                ddlMem.close();
+            }
+
+            finishMetaSwapUpdate();
+            metadata.setTtlHoursOrMonths(ttlHoursOrMonths);
+
+            try (MetadataCacheWriter metadataRW = engine.getMetadataCache().writeLock()) {
+                metadataRW.hydrateTable(metadata);
+            }
+        } finally {
+            ddlMem.close();
+        }
+    }
+
     public void setSeqTxn(long seqTxn) {
         assert txWriter.getLagRowCount() == 0 && txWriter.getLagTxnCount() == 0;
         txWriter.setSeqTxn(seqTxn);
@@ -2735,6 +2847,10 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
 
     public void upsertColumnVersion(long partitionTimestamp, int columnIndex, long columnTop) {
         columnVersionWriter.upsert(partitionTimestamp, columnIndex, txWriter.txn, columnTop);
+        // UPDATE rewrites the column in the partition
+        if (isSkipIndexEnabled()) {
+            skipIndexDirtyPartitions.add(partitionTimestamp);
+        }
     }
 
     /**
@@ -3690,6 +3806,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
 
             // Check if partitions are split into too many pieces and merge few of them back.
             squashSplitPartitions(minSplitPartitionTimestamp, txWriter.getMaxTimestamp(), configuration.getO3LastPartitionMaxSplits());
+            updateSkipIndexes();
 
             // Bookmark masterRef to track how many rows is in uncommitted state
             this.committedMasterRef = masterRef;
@@ -3837,7 +3954,7 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         checkO3Errors();
     }
 
-    private int copyMetadataAndSetIndexAttrs(int columnIndex, boolean indexedFlag, int indexValueBlockSize) {
+    private int copyMetadataAndSetIndexAttrs(int columnIndex, int indexFlagBit, boolean indexedFlag, int indexValueBlockSize) {
         try {
             int index = openMetaSwapFile(ff, ddlMem, path, pathSize, configuration.getMaxSwapFileCount());
             int columnCount = metaMem.getInt(META_OFFSET_COUNT);
@@ -3853,9 +3970,9 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                     ddlMem.putInt(getColumnType(metaMem, i));
                     long flags = getColumnFlags(metaMem, columnIndex);
                     if (indexedFlag) {
-                        flags |= META_FLAG_BIT_INDEXED;
+                        flags |= indexFlagBit;
                     } else {
-                        flags &= ~META_FLAG_BIT_INDEXED;
+                        flags &= ~indexFlagBit;
                     }
                     ddlMem.putLong(flags);
                     ddlMem.putInt(indexValueBlockSize);
@@ -3922,6 +4039,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         ddlMem.putLong(metaMem.getLong(META_OFFSET_O3_MAX_LAG));
         ddlMem.putLong(txWriter.getMetadataVersion() + 1);
         ddlMem.putBool(metaMem.getBool(META_OFFSET_WAL_ENABLED));
+        ddlMem.jumpTo(META_OFFSET_TTL_HOURS_OR_MONTHS);
+        ddlMem.putInt(metaMem.getInt(META_OFFSET_TTL_HOURS_OR_MONTHS));
         metadata.setMetadataVersion(txWriter.getMetadataVersion() + 1);
     }
 
@@ -4826,6 +4945,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         Misc.free(slaveTxReader);
         Misc.free(commandQueue);
         Misc.free(dedupColumnCommitAddresses);
+        Misc.free(zoneMapWriter);
+        Misc.free(bloomIndexWriter);
         closeWalFiles();
         updateOperatorImpl = Misc.free(updateOperatorImpl);
         convertOperatorImpl = Misc.free(convertOperatorImpl);
@@ -4851,6 +4972,25 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    private void dropBloomIndex(CharSequence columnName, int columnIndex) {
+        commit();
+        LOG.info().$("removing bloom index [txn=").$(txWriter.getTxn())
+                .$(", table=").utf8(tableToken.getTableName())
+                .$(", column=").utf8(columnName)
+                .I$();
+        metaSwapIndex = copyMetadataAndSetIndexAttrs(columnIndex, META_FLAG_BIT_BLOOM_INDEX, false, getIndexBlockCapacity(metaMem, columnIndex));
+        swapMetaFile(columnName);
+        metadata.getColumnMetadata(columnIndex).setBloomIndexed(false);
+
+        try (MetadataCacheWriter metadataRW = engine.getMetadataCache().writeLock()) {
+            metadataRW.hydrateTable(metadata);
+        }
+
+        // readers of the new metadata version no longer look for the files
+        removeBloomIndexFiles(columnName);
+        LOG.info().$("REMOVED bloom index [txn=").$(txWriter.getTxn()).$();
+    }
+
     private boolean dropPartitionByExactTimestamp(long timestamp) {
         final long minTimestamp = txWriter.getMinTimestamp(); // table min timestamp
         final long maxTimestamp = txWriter.getMaxTimestamp(); // table max timestamp
@@ -5344,6 +5484,20 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         return false;
     }
 
+    private boolean isSkipIndexEnabled() {
+        if (zoneMapWriter != null) {
+            return true;
+        }
+        if (bloomIndexWriter != null) {
+            for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+                if (metadata.getColumnType(i) > -1 && metadata.getColumnMetadata(i).isBloomIndexed()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     private void lock() {
         try {
             path.trimTo(pathSize);
@@ -5783,6 +5937,12 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
                     partitionTimestamp = txWriter.getPartitionTimestampByTimestamp(partitionTimestamp);
                     partitionIndexRaw = txWriter.findAttachedPartitionRawIndexByLoTimestamp(partitionTimestamp);
                 }
+                if (isSkipIndexEnabled()) {
+                    skipIndexDirtyPartitions.add(partitionTimestamp);
+                    if (newPartitionTimestamp != partitionTimestamp) {
+                        skipIndexDirtyPartitions.add(newPartitionTimestamp);
+                    }
+                }
 
                 if (partitionTimestamp == lastPartitionTimestamp && newPartitionTimestamp == partitionTimestamp) {
                     if (partitionMutates) {
@@ -6916,6 +7076,25 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         );
     }
 
+    private void rebuildBloomIndex(int columnIndex) {
+        try {
+            for (int i = 0, n = txWriter.getPartitionCount(); i < n; i++) {
+                if (txWriter.isPartitionParquet(i)) {
+                    continue;
+                }
+                final long partitionTimestamp = txWriter.getPartitionTimestampByIndex(i);
+                final long rowCount = i == n - 1 ? txWriter.getTransientRowCount() : txWriter.getPartitionSize(i);
+                if (rowCount > 0) {
+                    setPathForPartition(path, partitionBy, partitionTimestamp, txWriter.getPartitionNameTxn(i));
+                    bloomIndexWriter.rebuild(path, metadata, columnVersionWriter, symbolMapWriters, partitionTimestamp, rowCount, columnIndex);
+                    path.trimTo(pathSize);
+                }
+            }
+        } finally {
+            path.trimTo(pathSize);
+        }
+    }
+
     private boolean reconcileOptimisticPartitions() {
         if (txWriter.getPartitionTimestampByIndex(txWriter.getPartitionCount() - 1) > txWriter.getMaxTimestamp()) {
             int maxTimestampPartitionIndex = txWriter.getPartitionIndex(txWriter.getMaxTimestamp());
@@ -6988,76 +7167,111 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
     }
 
     private ReadOnlyObjList<? extends MemoryCR> remapWalSymbols(
-            SymbolMapDiffCursor symbolMapDiffCursor,
+            WalEventCursor walEventCursor,
+            int txnCount,
             long rowLo,
             long rowHi,
             Path walPath
     ) {
         o3ColumnOverrides.clear();
-        if (symbolMapDiffCursor != null) {
-            SymbolMapDiff symbolMapDiff;
-            while ((symbolMapDiff = symbolMapDiffCursor.nextSymbolMapDiff()) != null) {
-                int columnIndex = symbolMapDiff.getColumnIndex();
-                int columnType = metadata.getColumnType(columnIndex);
-                if (columnType == -ColumnType.SYMBOL) {
-                    // Scroll the cursor, don't apply, symbol is deleted
-                    symbolMapDiff.drain();
-                    continue;
-                }
+        for (int i = 0; i < txnCount; i++) {
+            if (i > 0 && !walEventCursor.hasNext()) {
+                throw CairoException.critical(0).put("WAL event of squashed transaction not found [walPath=").put(walPath)
+                        .put(", txnCount=").put(txnCount)
+                        .put(", txnIndex=").put(i)
+                        .put(']');
+            }
+            final WalEventCursor.DataInfo dataInfo = walEventCursor.getDataInfo();
+            remapWalSymbols(dataInfo, dataInfo.getStartRowID(), dataInfo.getEndRowID(), rowLo, rowHi, walPath);
+        }
 
-                if (!ColumnType.isSymbol(columnType)) {
-                    throw CairoException.critical(0).put("WAL column and table writer column types don't match [columnIndex=").put(columnIndex)
-                            .put(", walPath=").put(walPath)
-                            .put(']');
-                }
-                boolean identical = createWalSymbolMapping(symbolMapDiff, columnIndex, symbolRewriteMap);
+        if (o3ColumnOverrides.size() == 0) {
+            // No mappings were made.
+            return o3Columns;
+        }
 
-                if (!identical) {
-                    int primaryColumnIndex = getPrimaryColumnIndex(columnIndex);
-                    MemoryCR o3SymbolColumn = o3Columns.getQuick(primaryColumnIndex);
-                    final MemoryCARW symbolColumnDest;
+        for (int i = 0, n = o3ColumnOverrides.size(); i < n; i++) {
+            final MemoryCR override = o3ColumnOverrides.getQuick(i);
+            if (override != o3Columns.getQuick(i)) {
+                // Remapped keys are written from the start of the buffer, make them addressable by WAL row offsets
+                ((MemoryCARW) override).shiftAddressRight(rowLo << 2);
+            }
+        }
+        return o3ColumnOverrides;
+    }
 
-                    // Column is read-only mapped memory, so we need to take in RAM column and remap values into it
-                    if (o3ColumnOverrides.size() == 0) {
-                        o3ColumnOverrides.addAll(o3Columns);
-                    }
+    private void remapWalSymbols(
+            SymbolMapDiffCursor symbolMapDiffCursor,
+            long txnRowLo,
+            long txnRowHi,
+            long rowLo,
+            long rowHi,
+            Path walPath
+    ) {
+        SymbolMapDiff symbolMapDiff;
+        while ((symbolMapDiff = symbolMapDiffCursor.nextSymbolMapDiff()) != null) {
+            int columnIndex = symbolMapDiff.getColumnIndex();
+            int columnType = metadata.getColumnType(columnIndex);
+            if (columnType == -ColumnType.SYMBOL) {
+                // Scroll the cursor, don't apply, symbol is deleted
+                symbolMapDiff.drain();
+                continue;
+            }
+
+            if (!ColumnType.isSymbol(columnType)) {
+                throw CairoException.critical(0).put("WAL column and table writer column types don't match [columnIndex=").put(columnIndex)
+                        .put(", walPath=").put(walPath)
+                        .put(']');
+            }
+            boolean identical = createWalSymbolMapping(symbolMapDiff, columnIndex, symbolRewriteMap);
 
-                    symbolColumnDest = o3MemColumns1.get(primaryColumnIndex);
-                    // If rowLo != 0 then we
+            if (!identical) {
+                int primaryColumnIndex = getPrimaryColumnIndex(columnIndex);
+                MemoryCR o3SymbolColumn = o3Columns.getQuick(primaryColumnIndex);
+
+                // Column is read-only mapped memory, so we need to take in RAM column and remap values into it
+                if (o3ColumnOverrides.size() == 0) {
+                    o3ColumnOverrides.addAll(o3Columns);
+                }
+
+                final MemoryCARW symbolColumnDest = o3MemColumns1.get(primaryColumnIndex);
+                if (o3ColumnOverrides.getQuick(primaryColumnIndex) != symbolColumnDest) {
                     symbolColumnDest.shiftAddressRight(0);
                     symbolColumnDest.jumpTo((rowHi - rowLo) << 2);
-
                     o3ColumnOverrides.setQuick(primaryColumnIndex, symbolColumnDest);
-                    final int cleanSymbolCount = symbolMapDiff.getCleanSymbolCount();
-                    for (long rowId = rowLo; rowId < rowHi; rowId++) {
-
-                        int symKey = o3SymbolColumn.getInt(rowId << 2);
-                        assert (symKey >= 0 || symKey == SymbolTable.VALUE_IS_NULL);
-                        if (symKey >= cleanSymbolCount) {
-                            int newKey = symbolRewriteMap.getQuick(symKey - cleanSymbolCount);
-                            if (newKey < 0) {
-                                // This symbol was not mapped in WAL
-                                // WAL is invalid
-                                throw CairoException.critical(0).put("WAL symbol key not mapped [columnIndex=").put(columnIndex)
-                                        .put(", columnKey=").put(symKey)
-                                        .put(", walPath=").put(walPath)
-                                        .put(", walRowId=").put(rowId)
-                                        .put(']');
-                            }
-                            symKey = newKey;
+
+                    // Keys of other squashed transactions are copied as is,
+                    // they are overwritten if these transactions need remapping too
+                    if (txnRowLo > rowLo) {
+                        Vect.memcpy(symbolColumnDest.addressOf(0), o3SymbolColumn.addressOf(rowLo << 2), (txnRowLo - rowLo) << 2);
+                    }
+                    if (rowHi > txnRowHi) {
+                        Vect.memcpy(symbolColumnDest.addressOf((txnRowHi - rowLo) << 2), o3SymbolColumn.addressOf(txnRowHi << 2), (rowHi - txnRowHi) << 2);
+                    }
+                }
+
+                final int cleanSymbolCount = symbolMapDiff.getCleanSymbolCount();
+                for (long rowId = txnRowLo; rowId < txnRowHi; rowId++) {
+
+                    int symKey = o3SymbolColumn.getInt(rowId << 2);
+                    assert (symKey >= 0 || symKey == SymbolTable.VALUE_IS_NULL);
+                    if (symKey >= cleanSymbolCount) {
+                        int newKey = symbolRewriteMap.getQuick(symKey - cleanSymbolCount);
+                        if (newKey < 0) {
+                            // This symbol was not mapped in WAL
+                            // WAL is invalid
+                            throw CairoException.critical(0).put("WAL symbol key not mapped [columnIndex=").put(columnIndex)
+                                    .put(", columnKey=").put(symKey)
+                                    .put(", walPath=").put(walPath)
+                                    .put(", walRowId=").put(rowId)
+                                    .put(']');
                         }
-                        symbolColumnDest.putInt((rowId - rowLo) << 2, symKey);
+                        symKey = newKey;
                     }
-                    symbolColumnDest.shiftAddressRight(rowLo << 2);
+                    symbolColumnDest.putInt((rowId - rowLo) << 2, symKey);
                 }
             }
         }
-
-        if (o3ColumnOverrides.size() == 0) {
-            // No mappings were made.
-            return o3Columns;
-        }
-        return o3ColumnOverrides;
     }
 
     private void removeColumnFiles(int columnIndex, int columnType) {
@@ -7131,6 +7345,18 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    private void removeBloomIndexFiles(CharSequence columnName) {
+        try {
+            for (int i = txWriter.getPartitionCount() - 1; i > -1; i--) {
+                setPathForPartition(path, partitionBy, txWriter.getPartitionTimestampByIndex(i), txWriter.getPartitionNameTxn(i));
+                removeFileOrLog(ff, BloomIndexWriter.bloomFile(path, columnName));
+                path.trimTo(pathSize);
+            }
+        } finally {
+            path.trimTo(pathSize);
+        }
+    }
+
     private void removeIndexFiles(CharSequence columnName, int columnIndex) {
         try {
             for (int i = txWriter.getPartitionCount() - 1; i > -1L; i--) {
@@ -7755,6 +7981,9 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
             return;
         }
 
+        if (isSkipIndexEnabled()) {
+            skipIndexDirtyPartitions.add(targetPartition);
+        }
         long targetPartitionNameTxn = txWriter.getPartitionNameTxnByPartitionTimestamp(targetPartition);
         TableUtils.setPathForPartition(path, partitionBy, targetPartition, targetPartitionNameTxn);
         final long originalSize = txWriter.getPartitionRowCountByTimestamp(targetPartition);
@@ -7971,6 +8200,8 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         txWriter.resetTimestamp();
         columnVersionWriter.truncate();
         txWriter.truncate(columnVersionWriter.getVersion(), denseSymbolMapWriters);
+        skipIndexDirtyPartitions.clear();
+        skipIndexPartitionTimestampLo = Long.MIN_VALUE;
         try {
             clearTodoLog();
         } catch (CairoException e) {
@@ -8212,6 +8443,71 @@ public class TableWriter implements TableWriterAPI, MetadataService, Closeable {
         }
     }
 
+    private void updateSkipIndex(int partitionIndex, boolean rebuild) {
+        if (txWriter.isPartitionParquet(partitionIndex)) {
+            return;
+        }
+        final long partitionTimestamp = txWriter.getPartitionTimestampByIndex(partitionIndex);
+        final long rowCount = partitionIndex == txWriter.getPartitionCount() - 1
+                ? txWriter.getTransientRowCount()
+                : txWriter.getPartitionSize(partitionIndex);
+        if (rowCount < 1) {
+            return;
+        }
+        path.trimTo(pathSize);
+        try {
+            TableUtils.setPathForPartition(path, partitionBy, partitionTimestamp, txWriter.getPartitionNameTxn(partitionIndex));
+            if (zoneMapWriter != null) {
+                zoneMapWriter.update(path, metadata, columnVersionWriter, partitionTimestamp, rowCount, rebuild);
+            }
+            if (bloomIndexWriter != null) {
+                bloomIndexWriter.update(path, metadata, columnVersionWriter, symbolMapWriters, partitionTimestamp, rowCount, rebuild);
+            }
+        } catch (CairoException e) {
+            // the transaction is already committed, partition stays without skip index and won't be pruned
+            LOG.error().$("could not update skip index [table=").utf8(tableToken.getTableName())
+                    .$(", partition=").$ts(partitionTimestamp)
+                    .$(", msg=").$(e.getFlyweightMessage())
+                    .$(", errno=").$(e.getErrno())
+                    .I$();
+        } finally {
+            path.trimTo(pathSize);
+        }
+    }
+
+    // brings zone maps and bloom indexes up to date with the committed data
+    private void updateSkipIndexes() {
+        if (!isSkipIndexEnabled()) {
+            return;
+        }
+
+        skipIndexDirtyPartitions.sort();
+        long prevTimestamp = Long.MIN_VALUE;
+        for (int i = 0, n = skipIndexDirtyPartitions.size(); i < n; i++) {
+            final long partitionTimestamp = skipIndexDirtyPartitions.getQuick(i);
+            if (partitionTimestamp != prevTimestamp) {
+                final int partitionIndexRaw = txWriter.findAttachedPartitionRawIndexByLoTimestamp(partitionTimestamp);
+                if (partitionIndexRaw > -1) {
+                    updateSkipIndex(partitionIndexRaw / LONGS_PER_TX_ATTACHED_PARTITION, true);
+                }
+                prevTimestamp = partitionTimestamp;
+            }
+        }
+
+        // partitions appended to in order, last partition may have been dropped since the last update
+        final int partitionCount = txWriter.getPartitionCount();
+        final long timestampLo = partitionCount > 0 ? Math.min(skipIndexPartitionTimestampLo, txWriter.getLastPartitionTimestamp()) : Long.MAX_VALUE;
+        for (int i = 0; i < partitionCount; i++) {
+            final long partitionTimestamp = txWriter.getPartitionTimestampByIndex(i);
+            if (partitionTimestamp >= timestampLo && skipIndexDirtyPartitions.binarySearch(partitionTimestamp, BinarySearch.SCAN_UP) < 0) {
+                updateSkipIndex(i, false);
+            }
+        }
+
+        skipIndexDirtyPartitions.clear();
+        skipIndexPartitionTimestampLo = partitionCount > 0 ? txWriter.getLastPartitionTimestamp() : Long.MIN_VALUE;
+    }
+
     private void validateSwapMeta(CharSequence columnName) {
         try {
             try {
@@ -40,6 +40,7 @@ public class TableWriterMetadata extends AbstractRecordMetadata implements Table
     private int symbolMapCount;
     private int tableId;
     private TableToken tableToken;
+    private int ttlHoursOrMonths;
     private boolean walEnabled;
 
     public TableWriterMetadata(TableToken tableToken, MemoryMR metaMem) {
@@ -106,6 +107,16 @@ public class TableWriterMetadata extends AbstractRecordMetadata implements Table
         return tableToken;
     }
 
+    @Override
+    public int getTtlHoursOrMonths() {
+        return ttlHoursOrMonths;
+    }
+
+    @Override
+    public boolean isBloomIndexed(int columnIndex) {
+        return getColumnMetadata(columnIndex).isBloomIndexed();
+    }
+
     @Override
     public boolean isIndexed(int columnIndex) {
         return getColumnMetadata(columnIndex).isIndexed();
@@ -138,6 +149,7 @@ public class TableWriterMetadata extends AbstractRecordMetadata implements Table
         this.columnMetadata.clear();
         this.metadataVersion = metaMem.getLong(TableUtils.META_OFFSET_METADATA_VERSION);
         this.walEnabled = metaMem.getBool(TableUtils.META_OFFSET_WAL_ENABLED);
+        this.ttlHoursOrMonths = metaMem.getInt(TableUtils.META_OFFSET_TTL_HOURS_OR_MONTHS);
 
         long offset = TableUtils.getColumnNameOffset(columnCount);
         this.symbolMapCount = 0;
@@ -164,6 +176,7 @@ public class TableWriterMetadata extends AbstractRecordMetadata implements Table
                             TableUtils.isSymbolCached(metaMem, i)
                     )
             );
+            columnMetadata.getLast().setBloomIndexed(TableUtils.isColumnBloomIndexed(metaMem, i));
             if (type > -1) {
                 columnNameIndexMap.put(nameStr, i);
                 if (ColumnType.isSymbol(type)) {
@@ -186,6 +199,10 @@ public class TableWriterMetadata extends AbstractRecordMetadata implements Table
         this.o3MaxLag = o3MaxLagUs;
     }
 
+    public void setTtlHoursOrMonths(int ttlHoursOrMonths) {
+        this.ttlHoursOrMonths = ttlHoursOrMonths;
+    }
+
     public void updateTableToken(TableToken tableToken) {
         this.tableToken = tableToken;
     }
@@ -0,0 +1,431 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.Plannable;
+import io.questdb.griffin.engine.table.parquet.PartitionDecoder;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.IntList;
+import io.questdb.std.LongList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Numbers;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.Utf8StringSink;
+
+/**
+ * Conjunction of "column op constant" predicates taken from the WHERE clause of a table
+ * scan. Partition frame cursors consult it before opening a partition and skip partitions
+ * whose zone map, see {@link ZoneMapWriter}, proves that no row can satisfy the predicates.
+ * Equality and IN predicates on bloom indexed columns, see {@link BloomIndexWriter}, are
+ * checked against the bloom filter of the partition instead. Partitions without a valid
+ * zone map or bloom filter are never skipped. Row groups of Parquet partitions are checked
+ * against the column chunk statistics of the Parquet file.
+ */
+public class ZoneMapFilter implements QuietCloseable, Plannable {
+    public static final int OP_EQ = 0;
+    public static final int OP_GE = 4;
+    public static final int OP_GT = 3;
+    public static final int OP_LE = 2;
+    public static final int OP_LT = 1;
+    private static final String[] OP_NAMES = {"=", "<", "<=", ">", ">="};
+    private final ObjList<CharSequence> bloomColumnNames = new ObjList<>();
+    private final IntList bloomColumnTypes = new IntList();
+    private final LongList bloomHashes = new LongList();
+    // predicate i owns hashes and values in range [bloomValueLo[i], bloomValueLo[i + 1])
+    private final IntList bloomValueLo = new IntList();
+    private final ObjList<CharSequence> bloomValues = new ObjList<>();
+    private final IntList bloomWriterIndexes = new IntList();
+    private final ObjList<CharSequence> columnNames = new ObjList<>();
+    private final IntList columnTypes = new IntList();
+    private final FilesFacade ff;
+    private final IntList ops = new IntList();
+    private final Path path = new Path();
+    private final CharSequence root;
+    private final Utf8StringSink utf8Sink = new Utf8StringSink();
+    private final LongList values = new LongList();
+    private final IntList writerIndexes = new IntList();
+    private long buf;
+    private long bufCapacity;
+    private int maxWriterIndex = -1;
+
+    public ZoneMapFilter(CairoConfiguration configuration) {
+        this.ff = configuration.getFilesFacade();
+        this.root = configuration.getRoot();
+        this.bloomValueLo.add(0);
+    }
+
+    /**
+     * Adds predicate on an integer column, i.e. BYTE, SHORT, INT, LONG, DATE or TIMESTAMP.
+     */
+    public void add(CharSequence columnName, int writerIndex, int columnType, int op, long value) {
+        addPredicate(columnName, writerIndex, columnType, op, value);
+    }
+
+    /**
+     * Adds predicate on a FLOAT or DOUBLE column.
+     */
+    public void add(CharSequence columnName, int writerIndex, int columnType, int op, double value) {
+        addPredicate(columnName, writerIndex, columnType, op, Double.doubleToLongBits(value));
+    }
+
+    /**
+     * Adds "column = value" or "column IN (values)" predicate on a bloom indexed column.
+     *
+     * @param values non-null values, the predicate holds when the column is equal to any of them
+     */
+    public void addBloom(CharSequence columnName, int writerIndex, int columnType, ObjList<CharSequence> values) {
+        for (int i = 0, n = values.size(); i < n; i++) {
+            final CharSequence value = values.getQuick(i);
+            utf8Sink.clear();
+            utf8Sink.put(value);
+            bloomHashes.add(BloomIndexWriter.hash(utf8Sink));
+            bloomValues.add(value);
+        }
+        bloomColumnNames.add(columnName);
+        bloomWriterIndexes.add(writerIndex);
+        bloomColumnTypes.add(columnType);
+        bloomValueLo.add(bloomHashes.size());
+    }
+
+    @Override
+    public void close() {
+        if (buf != 0) {
+            buf = Unsafe.free(buf, bufCapacity, MemoryTag.NATIVE_DEFAULT);
+            bufCapacity = 0;
+        }
+        path.close();
+    }
+
+    public boolean isEmpty() {
+        return ops.size() == 0 && bloomWriterIndexes.size() == 0;
+    }
+
+    /**
+     * @param reader         table reader
+     * @param partitionIndex index of the partition in the reader
+     * @return false when the zone map or a bloom filter of the partition proves that none of its rows match the predicates
+     */
+    public boolean mayMatch(TableReader reader, int partitionIndex) {
+        final TxReader txFile = reader.getTxFile();
+        if (txFile.isPartitionParquet(partitionIndex)) {
+            return true;
+        }
+
+        final long partitionTimestamp = reader.getPartitionTimestampByIndex(partitionIndex);
+        final ColumnVersionReader columnVersionReader = reader.getColumnVersionReader();
+        for (int i = 0, n = ops.size(); i < n; i++) {
+            if (columnVersionReader.getColumnTop(partitionTimestamp, writerIndexes.getQuick(i)) < 0) {
+                // column was added after the partition was written, it is all nulls
+                return false;
+            }
+        }
+        for (int i = 0, n = bloomWriterIndexes.size(); i < n; i++) {
+            if (columnVersionReader.getColumnTop(partitionTimestamp, bloomWriterIndexes.getQuick(i)) < 0) {
+                return false;
+            }
+        }
+
+        path.of(root).concat(reader.getTableToken());
+        TableUtils.setPathForPartition(path, reader.getPartitionedBy(), partitionTimestamp, txFile.getPartitionNameTxn(partitionIndex));
+        final int partitionPathLen = path.size();
+        final long rowCount = txFile.getPartitionSize(partitionIndex);
+        for (int i = 0, n = bloomWriterIndexes.size(); i < n; i++) {
+            final boolean match = mayMatchBloom(i, partitionTimestamp, columnVersionReader, rowCount);
+            path.trimTo(partitionPathLen);
+            if (!match) {
+                return false;
+            }
+        }
+        return ops.size() == 0 || mayMatchZoneMap(partitionTimestamp, columnVersionReader, rowCount);
+    }
+
+    /**
+     * Checks the predicates against min values in the column chunk statistics of a Parquet
+     * row group. Max values are not available, so only "=", "<" and "<=" predicates can
+     * rule a row group out.
+     *
+     * @param reader         table reader
+     * @param partitionIndex index of an open Parquet partition in the reader
+     * @param rowGroup       row group index
+     * @return false when the statistics prove that none of the row group rows match the predicates
+     */
+    public boolean mayMatchRowGroup(TableReader reader, int partitionIndex, int rowGroup) {
+        final TableReaderMetadata metadata = reader.getMetadata();
+        for (int i = 0, n = ops.size(); i < n; i++) {
+            final int op = ops.getQuick(i);
+            if (op == OP_GT || op == OP_GE) {
+                continue;
+            }
+            final int columnIndex = metadata.getColumnIndexQuiet(columnNames.getQuick(i));
+            final int columnType = columnTypes.getQuick(i);
+            if (columnIndex < 0 || metadata.getColumnType(columnIndex) != columnType) {
+                continue;
+            }
+            final long statsPtr = reader.getParquetColumnChunkStats(partitionIndex, rowGroup, columnIndex);
+            if (statsPtr == 0) {
+                continue;
+            }
+            final long minPtr = PartitionDecoder.getChunkStatsMinValuePtr(statsPtr);
+            final long minSize = PartitionDecoder.getChunkStatsMinValueSize(statsPtr);
+            final boolean match;
+            switch (ColumnType.tagOf(columnType)) {
+                case ColumnType.BYTE:
+                case ColumnType.SHORT:
+                case ColumnType.INT:
+                    // Parquet stores small integers as INT32
+                    if (minSize != Integer.BYTES) {
+                        continue;
+                    }
+                    match = mayMatch(op, Unsafe.getUnsafe().getInt(minPtr), Long.MAX_VALUE, values.getQuick(i));
+                    break;
+                case ColumnType.LONG:
+                case ColumnType.DATE:
+                case ColumnType.TIMESTAMP:
+                    if (minSize != Long.BYTES) {
+                        continue;
+                    }
+                    match = mayMatch(op, Unsafe.getUnsafe().getLong(minPtr), Long.MAX_VALUE, values.getQuick(i));
+                    break;
+                case ColumnType.FLOAT:
+                    if (minSize != Float.BYTES) {
+                        continue;
+                    }
+                    match = mayMatch(op, Unsafe.getUnsafe().getFloat(minPtr), Double.MAX_VALUE, Double.longBitsToDouble(values.getQuick(i)));
+                    break;
+                case ColumnType.DOUBLE:
+                    if (minSize != Double.BYTES) {
+                        continue;
+                    }
+                    match = mayMatch(op, Unsafe.getUnsafe().getDouble(minPtr), Double.MAX_VALUE, Double.longBitsToDouble(values.getQuick(i)));
+                    break;
+                default:
+                    continue;
+            }
+            if (!match) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        for (int i = 0, n = ops.size(); i < n; i++) {
+            if (i > 0) {
+                sink.val(" and ");
+            }
+            sink.val(columnNames.getQuick(i)).val(OP_NAMES[ops.getQuick(i)]);
+            if (ZoneMapWriter.isFloatingPoint(columnTypes.getQuick(i))) {
+                sink.val(Double.longBitsToDouble(values.getQuick(i)));
+            } else {
+                sink.val(values.getQuick(i));
+            }
+        }
+        for (int i = 0, n = bloomWriterIndexes.size(); i < n; i++) {
+            if (i > 0 || ops.size() > 0) {
+                sink.val(" and ");
+            }
+            sink.val(bloomColumnNames.getQuick(i));
+            final int lo = bloomValueLo.getQuick(i);
+            final int hi = bloomValueLo.getQuick(i + 1);
+            if (hi - lo == 1) {
+                sink.val("='").val(bloomValues.getQuick(lo)).val('\'');
+            } else {
+                sink.val(" in [");
+                for (int k = lo; k < hi; k++) {
+                    if (k > lo) {
+                        sink.val(',');
+                    }
+                    sink.val('\'').val(bloomValues.getQuick(k)).val('\'');
+                }
+                sink.val(']');
+            }
+        }
+    }
+
+    private static boolean mayMatch(int op, long min, long max, long value) {
+        switch (op) {
+            case OP_EQ:
+                return value >= min && value <= max;
+            case OP_LT:
+                return min < value;
+            case OP_LE:
+                return min <= value;
+            case OP_GT:
+                return max > value;
+            default:
+                return max >= value;
+        }
+    }
+
+    private static boolean mayMatch(int op, double min, double max, double value) {
+        // double comparisons are tolerant, see Numbers.equals()
+        switch (op) {
+            case OP_EQ:
+                return value >= min - Numbers.DOUBLE_TOLERANCE && value <= max + Numbers.DOUBLE_TOLERANCE;
+            case OP_LT:
+                return min < value;
+            case OP_LE:
+                return min <= value + Numbers.DOUBLE_TOLERANCE;
+            case OP_GT:
+                return max > value;
+            default:
+                return max >= value - Numbers.DOUBLE_TOLERANCE;
+        }
+    }
+
+    private void addPredicate(CharSequence columnName, int writerIndex, int columnType, int op, long value) {
+        columnNames.add(columnName);
+        writerIndexes.add(writerIndex);
+        columnTypes.add(columnType);
+        ops.add(op);
+        values.add(value);
+        maxWriterIndex = Math.max(maxWriterIndex, writerIndex);
+    }
+
+    private void ensureCapacity(long size) {
+        if (bufCapacity < size) {
+            buf = Unsafe.realloc(buf, bufCapacity, size, MemoryTag.NATIVE_DEFAULT);
+            bufCapacity = size;
+        }
+    }
+
+    private boolean mayMatchBloom(int predicateIndex, long partitionTimestamp, ColumnVersionReader columnVersionReader, long rowCount) {
+        final long fd = ff.openRO(BloomIndexWriter.bloomFile(path, bloomColumnNames.getQuick(predicateIndex)));
+        if (fd < 0) {
+            return true;
+        }
+        try {
+            ensureCapacity(BloomIndexWriter.HEADER_SIZE);
+            if (ff.read(fd, buf, BloomIndexWriter.HEADER_SIZE, 0) != BloomIndexWriter.HEADER_SIZE) {
+                return true;
+            }
+            final long bitCount = Unsafe.getUnsafe().getLong(buf + BloomIndexWriter.HEADER_BIT_COUNT_OFFSET);
+            final long fileSize = BloomIndexWriter.HEADER_SIZE + bitCount / Byte.SIZE;
+            // filter may cover more rows than this reader sees, extra bits only make it less selective
+            if (
+                    Unsafe.getUnsafe().getLong(buf + BloomIndexWriter.HEADER_COLUMN_TYPE_OFFSET) != bloomColumnTypes.getQuick(predicateIndex)
+                            || Unsafe.getUnsafe().getLong(buf + BloomIndexWriter.HEADER_COLUMN_NAME_TXN_OFFSET) != columnVersionReader.getColumnNameTxn(partitionTimestamp, bloomWriterIndexes.getQuick(predicateIndex))
+                            || Unsafe.getUnsafe().getLong(buf + BloomIndexWriter.HEADER_ROW_COUNT_OFFSET) < rowCount
+                            || ff.length(fd) != fileSize
+            ) {
+                return true;
+            }
+
+            final long address = ff.mmap(fd, fileSize, 0, Files.MAP_RO, MemoryTag.MMAP_DEFAULT);
+            if (address == FilesFacade.MAP_FAILED) {
+                return true;
+            }
+            try {
+                for (int i = bloomValueLo.getQuick(predicateIndex), n = bloomValueLo.getQuick(predicateIndex + 1); i < n; i++) {
+                    if (BloomIndexWriter.mightContain(address + BloomIndexWriter.HEADER_SIZE, bitCount, bloomHashes.getQuick(i))) {
+                        return true;
+                    }
+                }
+                return false;
+            } finally {
+                ff.munmap(address, fileSize, MemoryTag.MMAP_DEFAULT);
+            }
+        } finally {
+            ff.close(fd);
+        }
+    }
+
+    private boolean mayMatchZoneMap(long partitionTimestamp, ColumnVersionReader columnVersionReader, long partitionRowCount) {
+        final long fd = ff.openRO(path.concat(TableUtils.ZONE_MAP_FILE_NAME).$());
+        if (fd < 0) {
+            return true;
+        }
+
+        final long fileSize;
+        try {
+            fileSize = Math.min(ff.length(fd), ZoneMapWriter.HEADER_SIZE + (maxWriterIndex + 1) * ZoneMapWriter.ENTRY_SIZE);
+            if (fileSize < ZoneMapWriter.HEADER_SIZE) {
+                return true;
+            }
+            ensureCapacity(fileSize);
+            if (ff.read(fd, buf, fileSize, 0) != fileSize) {
+                return true;
+            }
+        } finally {
+            ff.close(fd);
+        }
+
+        // zone map must describe exactly the rows visible to this reader
+        final long rowCount = Unsafe.getUnsafe().getLong(buf);
+        if (rowCount != partitionRowCount) {
+            return true;
+        }
+        final long columnCount = Math.min(Unsafe.getUnsafe().getLong(buf + Long.BYTES), (fileSize - ZoneMapWriter.HEADER_SIZE) / ZoneMapWriter.ENTRY_SIZE);
+
+        for (int i = 0, n = ops.size(); i < n; i++) {
+            final int writerIndex = writerIndexes.getQuick(i);
+            final int columnType = columnTypes.getQuick(i);
+            if (writerIndex >= columnCount) {
+                // column was added after the zone map was written
+                continue;
+            }
+            final long entry = buf + ZoneMapWriter.HEADER_SIZE + writerIndex * ZoneMapWriter.ENTRY_SIZE;
+            if (
+                    Unsafe.getUnsafe().getLong(entry + ZoneMapWriter.ENTRY_TYPE_OFFSET) != columnType
+                            || Unsafe.getUnsafe().getLong(entry + ZoneMapWriter.ENTRY_COLUMN_NAME_TXN_OFFSET) != columnVersionReader.getColumnNameTxn(partitionTimestamp, writerIndex)
+            ) {
+                // column was rewritten since the zone map was written
+                continue;
+            }
+
+            final boolean match;
+            if (Unsafe.getUnsafe().getLong(entry + ZoneMapWriter.ENTRY_NULL_COUNT_OFFSET) >= rowCount) {
+                // comparison with null is false
+                match = false;
+            } else if (ZoneMapWriter.isFloatingPoint(columnType)) {
+                match = mayMatch(
+                        ops.getQuick(i),
+                        Double.longBitsToDouble(Unsafe.getUnsafe().getLong(entry + ZoneMapWriter.ENTRY_MIN_OFFSET)),
+                        Double.longBitsToDouble(Unsafe.getUnsafe().getLong(entry + ZoneMapWriter.ENTRY_MAX_OFFSET)),
+                        Double.longBitsToDouble(values.getQuick(i))
+                );
+            } else {
+                match = mayMatch(
+                        ops.getQuick(i),
+                        Unsafe.getUnsafe().getLong(entry + ZoneMapWriter.ENTRY_MIN_OFFSET),
+                        Unsafe.getUnsafe().getLong(entry + ZoneMapWriter.ENTRY_MAX_OFFSET),
+                        values.getQuick(i)
+                );
+            }
+
+            if (!match) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,337 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo;
+
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.Files;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Numbers;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+import io.questdb.std.str.Path;
+
+/**
+ * Maintains zone maps, i.e. min/max values and null counts of numeric columns, one file
+ * per partition. The statistics are extended incrementally as rows are appended to the
+ * partition and rebuilt from the column files when the partition or the column has been
+ * rewritten.
+ * <p>
+ * File layout is the partition row count and the column count followed by an entry per
+ * writer column index: column type (-1 when there are no statistics for the column),
+ * column name txn, column top, null count, min and max. Min and max of FLOAT and DOUBLE
+ * columns are stored as double bits.
+ */
+public class ZoneMapWriter implements QuietCloseable {
+    public static final int ENTRY_COLUMN_NAME_TXN_OFFSET = 8;
+    public static final int ENTRY_COLUMN_TOP_OFFSET = 16;
+    public static final int ENTRY_MAX_OFFSET = 40;
+    public static final int ENTRY_MIN_OFFSET = 32;
+    public static final int ENTRY_NULL_COUNT_OFFSET = 24;
+    public static final long ENTRY_SIZE = 6 * Long.BYTES;
+    public static final int ENTRY_TYPE_OFFSET = 0;
+    public static final long HEADER_SIZE = 2 * Long.BYTES;
+    private static final Log LOG = LogFactory.getLog(ZoneMapWriter.class);
+    private final FilesFacade ff;
+    private final Path other = new Path();
+    private long buf;
+    private long bufCapacity;
+
+    public ZoneMapWriter(FilesFacade ff) {
+        this.ff = ff;
+    }
+
+    public static boolean isFloatingPoint(int columnType) {
+        final short tag = ColumnType.tagOf(columnType);
+        return tag == ColumnType.FLOAT || tag == ColumnType.DOUBLE;
+    }
+
+    public static boolean isSupported(int columnType) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.BYTE:
+            case ColumnType.SHORT:
+            case ColumnType.INT:
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+            case ColumnType.FLOAT:
+            case ColumnType.DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (buf != 0) {
+            buf = Unsafe.free(buf, bufCapacity, MemoryTag.NATIVE_TABLE_WRITER);
+            bufCapacity = 0;
+        }
+        other.close();
+    }
+
+    /**
+     * Brings the zone map of the partition up to date with the given row count.
+     *
+     * @param partitionPath      path to the partition directory, left unchanged on return
+     * @param metadata           table metadata, columns are addressed by writer index
+     * @param columnVersions     column versions of the table
+     * @param partitionTimestamp timestamp of the partition
+     * @param rowCount           committed row count of the partition
+     * @param rebuild            true to ignore existing statistics, e.g. after O3 rewrote the partition
+     */
+    public void update(
+            Path partitionPath,
+            RecordMetadata metadata,
+            ColumnVersionReader columnVersions,
+            long partitionTimestamp,
+            long rowCount,
+            boolean rebuild
+    ) {
+        final int partitionPathLen = partitionPath.size();
+        final int columnCount = metadata.getColumnCount();
+        final long fileSize = HEADER_SIZE + columnCount * ENTRY_SIZE;
+        ensureCapacity(fileSize);
+
+        long prevRowCount = rebuild ? -1 : readExisting(partitionPath, columnCount, fileSize);
+        if (prevRowCount > rowCount) {
+            // partition shrank
+            prevRowCount = -1;
+        }
+
+        try {
+            boolean changed = prevRowCount != rowCount;
+            for (int i = 0; i < columnCount; i++) {
+                final long entry = buf + HEADER_SIZE + i * ENTRY_SIZE;
+                final int columnType = metadata.getColumnType(i);
+                if (columnType < 0 || !isSupported(columnType)) {
+                    Unsafe.getUnsafe().putLong(entry + ENTRY_TYPE_OFFSET, -1);
+                    continue;
+                }
+
+                final long columnNameTxn = columnVersions.getColumnNameTxn(partitionTimestamp, i);
+                long columnTop = columnVersions.getColumnTop(partitionTimestamp, i);
+                if (columnTop < 0 || columnTop > rowCount) {
+                    // column does not exist in the partition, all values are null
+                    columnTop = rowCount;
+                }
+
+                long lo = prevRowCount;
+                if (
+                        lo < 0
+                                || Unsafe.getUnsafe().getLong(entry + ENTRY_TYPE_OFFSET) != columnType
+                                || Unsafe.getUnsafe().getLong(entry + ENTRY_COLUMN_NAME_TXN_OFFSET) != columnNameTxn
+                                || Unsafe.getUnsafe().getLong(entry + ENTRY_COLUMN_TOP_OFFSET) != columnTop
+                ) {
+                    Unsafe.getUnsafe().putLong(entry + ENTRY_TYPE_OFFSET, columnType);
+                    Unsafe.getUnsafe().putLong(entry + ENTRY_COLUMN_NAME_TXN_OFFSET, columnNameTxn);
+                    Unsafe.getUnsafe().putLong(entry + ENTRY_COLUMN_TOP_OFFSET, columnTop);
+                    Unsafe.getUnsafe().putLong(entry + ENTRY_NULL_COUNT_OFFSET, 0);
+                    lo = 0;
+                    changed = true;
+                }
+
+                if (lo < rowCount) {
+                    final long valueCount = lo - Unsafe.getUnsafe().getLong(entry + ENTRY_NULL_COUNT_OFFSET);
+                    scanColumn(partitionPath, metadata.getColumnName(i), columnType, columnNameTxn, columnTop, lo, rowCount, valueCount, entry);
+                    partitionPath.trimTo(partitionPathLen);
+                }
+            }
+
+            if (changed) {
+                Unsafe.getUnsafe().putLong(buf, rowCount);
+                Unsafe.getUnsafe().putLong(buf + Long.BYTES, columnCount);
+                writeFile(partitionPath, fileSize);
+            }
+        } finally {
+            partitionPath.trimTo(partitionPathLen);
+        }
+    }
+
+    private static void updateMinMax(long entry, long valueCount, long min, long max) {
+        if (valueCount == 0) {
+            Unsafe.getUnsafe().putLong(entry + ENTRY_MIN_OFFSET, min);
+            Unsafe.getUnsafe().putLong(entry + ENTRY_MAX_OFFSET, max);
+        } else {
+            Unsafe.getUnsafe().putLong(entry + ENTRY_MIN_OFFSET, Math.min(min, Unsafe.getUnsafe().getLong(entry + ENTRY_MIN_OFFSET)));
+            Unsafe.getUnsafe().putLong(entry + ENTRY_MAX_OFFSET, Math.max(max, Unsafe.getUnsafe().getLong(entry + ENTRY_MAX_OFFSET)));
+        }
+    }
+
+    private static void updateMinMax(long entry, long valueCount, double min, double max) {
+        if (valueCount > 0) {
+            min = Math.min(min, Double.longBitsToDouble(Unsafe.getUnsafe().getLong(entry + ENTRY_MIN_OFFSET)));
+            max = Math.max(max, Double.longBitsToDouble(Unsafe.getUnsafe().getLong(entry + ENTRY_MAX_OFFSET)));
+        }
+        Unsafe.getUnsafe().putLong(entry + ENTRY_MIN_OFFSET, Double.doubleToLongBits(min));
+        Unsafe.getUnsafe().putLong(entry + ENTRY_MAX_OFFSET, Double.doubleToLongBits(max));
+    }
+
+    private void ensureCapacity(long size) {
+        if (bufCapacity < size) {
+            buf = Unsafe.realloc(buf, bufCapacity, size, MemoryTag.NATIVE_TABLE_WRITER);
+            bufCapacity = size;
+        }
+    }
+
+    private long readExisting(Path partitionPath, int columnCount, long fileSize) {
+        final int partitionPathLen = partitionPath.size();
+        final long fd = ff.openRO(partitionPath.concat(TableUtils.ZONE_MAP_FILE_NAME).$());
+        partitionPath.trimTo(partitionPathLen);
+        if (fd < 0) {
+            return -1;
+        }
+        try {
+            if (ff.length(fd) != fileSize || ff.read(fd, buf, fileSize, 0) != fileSize) {
+                return -1;
+            }
+            if (Unsafe.getUnsafe().getLong(buf + Long.BYTES) != columnCount) {
+                return -1;
+            }
+            return Unsafe.getUnsafe().getLong(buf);
+        } finally {
+            ff.close(fd);
+        }
+    }
+
+    private void scanColumn(
+            Path partitionPath,
+            CharSequence columnName,
+            int columnType,
+            long columnNameTxn,
+            long columnTop,
+            long lo,
+            long hi,
+            long valueCount,
+            long entry
+    ) {
+        // rows above column top are nulls
+        long nullCount = Unsafe.getUnsafe().getLong(entry + ENTRY_NULL_COUNT_OFFSET) + Math.max(0, Math.min(columnTop, hi) - lo);
+        final long dataLo = Math.max(lo, columnTop) - columnTop;
+        final long dataHi = hi - columnTop;
+        final long count = dataHi - dataLo;
+        if (count > 0) {
+            final int shift = ColumnType.pow2SizeOf(columnType);
+            final long byteLo = dataLo << shift;
+            final long mapOffset = byteLo - byteLo % Files.PAGE_SIZE;
+            final long mapSize = (dataHi << shift) - mapOffset;
+            final long fd = TableUtils.openRO(ff, TableUtils.dFile(partitionPath, columnName, columnNameTxn), LOG);
+            final long address;
+            try {
+                address = TableUtils.mapRO(ff, fd, mapSize, mapOffset, MemoryTag.MMAP_TABLE_WRITER);
+            } finally {
+                ff.close(fd);
+            }
+            try {
+                final long p = address + byteLo - mapOffset;
+                long n;
+                switch (ColumnType.tagOf(columnType)) {
+                    case ColumnType.BYTE: {
+                        long min = Byte.MAX_VALUE;
+                        long max = Byte.MIN_VALUE;
+                        for (long i = 0; i < count; i++) {
+                            final byte v = Unsafe.getUnsafe().getByte(p + i);
+                            min = Math.min(min, v);
+                            max = Math.max(max, v);
+                        }
+                        updateMinMax(entry, valueCount, min, max);
+                        break;
+                    }
+                    case ColumnType.SHORT:
+                        updateMinMax(entry, valueCount, (long) Vect.minShort(p, count), (long) Vect.maxShort(p, count));
+                        break;
+                    case ColumnType.INT:
+                        n = Vect.countInt(p, count);
+                        nullCount += count - n;
+                        if (n > 0) {
+                            updateMinMax(entry, valueCount, (long) Vect.minInt(p, count), (long) Vect.maxInt(p, count));
+                        }
+                        break;
+                    case ColumnType.FLOAT: {
+                        double min = Double.POSITIVE_INFINITY;
+                        double max = Double.NEGATIVE_INFINITY;
+                        n = 0;
+                        for (long i = 0; i < count; i++) {
+                            final float v = Unsafe.getUnsafe().getFloat(p + (i << 2));
+                            if (v == v) {
+                                min = Math.min(min, v);
+                                max = Math.max(max, v);
+                                n++;
+                            }
+                        }
+                        nullCount += count - n;
+                        if (n > 0) {
+                            updateMinMax(entry, valueCount, min, max);
+                        }
+                        break;
+                    }
+                    case ColumnType.DOUBLE:
+                        n = Vect.countDouble(p, count);
+                        nullCount += count - n;
+                        if (n > 0) {
+                            updateMinMax(entry, valueCount, Vect.minDouble(p, count), Vect.maxDouble(p, count));
+                        }
+                        break;
+                    default:
+                        // LONG, DATE and TIMESTAMP
+                        n = Vect.countLong(p, count);
+                        nullCount += count - n;
+                        if (n > 0) {
+                            updateMinMax(entry, valueCount, Vect.minLong(p, count), Vect.maxLong(p, count));
+                        }
+                        break;
+                }
+            } finally {
+                ff.munmap(address, mapSize, MemoryTag.MMAP_TABLE_WRITER);
+            }
+        }
+        Unsafe.getUnsafe().putLong(entry + ENTRY_NULL_COUNT_OFFSET, nullCount);
+    }
+
+    private void writeFile(Path partitionPath, long fileSize) {
+        // write a copy and rename it over the existing file, readers never observe partial statistics
+        final int partitionPathLen = partitionPath.size();
+        other.of(partitionPath).concat(TableUtils.ZONE_MAP_FILE_NAME).put(".tmp");
+        final long fd = TableUtils.openRW(ff, other.$(), LOG, CairoConfiguration.O_NONE);
+        try {
+            if (ff.write(fd, buf, fileSize, 0) != fileSize || !ff.truncate(fd, fileSize)) {
+                throw CairoException.critical(ff.errno()).put("could not write zone map [path=").put(other).put(']');
+            }
+        } finally {
+            ff.close(fd);
+        }
+        if (ff.rename(other.$(), partitionPath.concat(TableUtils.ZONE_MAP_FILE_NAME).$()) != Files.FILES_RENAME_OK) {
+            final int errno = ff.errno();
+            partitionPath.trimTo(partitionPathLen);
+            throw CairoException.critical(errno).put("could not rename zone map [path=").put(other).put(']');
+        }
+        partitionPath.trimTo(partitionPathLen);
+    }
+}
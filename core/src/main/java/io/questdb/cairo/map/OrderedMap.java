@@ -257,6 +257,35 @@ public class OrderedMap implements Map, Reopenable {
         }
     }
 
+    /**
+     * Looks up the key pending in the given map, i.e. the one written via the key map's
+     * {@link #withKey()}, in this map. Both maps must have the same key and value types.
+     * <p>
+     * Unlike {@link MapKey#findValue()}, this method doesn't write anything to this map's
+     * memory, so it's safe to call it concurrently from multiple threads, each with its own
+     * key map, as long as no thread modifies this map.
+     *
+     * @param keyMap map holding the pending key
+     * @return value of the found key or null if there is no such key; the returned value
+     * object belongs to the key map
+     */
+    public MapValue findValue(OrderedMap keyMap) {
+        assert keyMap != this && keyMap.keySize == keySize && keyMap.valueSize == valueSize;
+        final Key srcKey = keyMap.key;
+        final long srcKeySize = srcKey.commit();
+        final int hashCodeLo = Numbers.decodeLowInt(srcKey.hash());
+        int index = hashCodeLo & mask;
+        long offset;
+        while ((offset = getOffset(offsets, index)) > -1) {
+            if (hashCodeLo == getHashCodeLo(offsets, index) && eqRawKey(offset, srcKey.startAddress, srcKeySize)) {
+                final long startAddress = heapStart + offset;
+                return keyMap.value.of(startAddress, startAddress + keyOffset + srcKeySize, heapLimit, false);
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
     public long getAppendOffset() {
         return kPos;
     }
@@ -399,6 +428,18 @@ public class OrderedMap implements Map, Reopenable {
         return valueOf(keyWriter.startAddress, keyWriter.appendAddress, true, value);
     }
 
+    private boolean eqRawKey(long offset, long srcStartAddress, long srcKeySize) {
+        final long a = heapStart + offset;
+        if (keySize != -1) {
+            return Vect.memeq(a, srcStartAddress, keySize);
+        }
+        // Var-size keys start with the length.
+        if (Unsafe.getUnsafe().getInt(a) != (int) srcKeySize) {
+            return false;
+        }
+        return Vect.memeq(a + keyOffset, srcStartAddress + keyOffset, srcKeySize);
+    }
+
     private void mergeFixedSizeKey(OrderedMap srcMap, MapValueMergeFunction mergeFunc) {
         assert keySize >= 0;
 
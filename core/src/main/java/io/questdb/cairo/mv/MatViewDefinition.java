@@ -0,0 +1,179 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo.mv;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryMA;
+import io.questdb.cairo.vm.api.MemoryMR;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.engine.groupby.TimestampSamplerFactory;
+import io.questdb.std.Chars;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.datetime.microtime.Timestamps;
+import io.questdb.std.str.LPSZ;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Materialized view is a WAL table that holds the result of a calendar aligned SAMPLE BY
+ * query over a single WAL base table. The table deduplicates rows on the timestamp and
+ * the key columns, so a refresh only has to re-insert the buckets that were touched by
+ * new base table transactions.
+ * <p>
+ * The refresh query is the view query with the base table replaced by a sub-query
+ * that filters base table timestamps by the [$1, $2) interval.
+ */
+public class MatViewDefinition {
+    public static final String MAT_VIEW_FILE_NAME = "_mv";
+    private final String baseTableName;
+    private final String refreshSql;
+    private final int samplingInterval;
+    private final char samplingIntervalUnit;
+    private final TableToken viewToken;
+
+    public MatViewDefinition(
+            @NotNull TableToken viewToken,
+            @NotNull String baseTableName,
+            @NotNull String refreshSql,
+            int samplingInterval,
+            char samplingIntervalUnit
+    ) {
+        this.viewToken = viewToken;
+        this.baseTableName = baseTableName;
+        this.refreshSql = refreshSql;
+        this.samplingInterval = samplingInterval;
+        this.samplingIntervalUnit = samplingIntervalUnit;
+    }
+
+    public static MatViewDefinition of(
+            @NotNull TableToken viewToken,
+            @NotNull CharSequence baseTableName,
+            @NotNull CharSequence refreshSql,
+            @NotNull CharSequence samplingInterval,
+            int samplingIntervalPosition
+    ) throws SqlException {
+        final int unitIndex = TimestampSamplerFactory.findIntervalEndIndex(samplingInterval, samplingIntervalPosition);
+        final long interval = TimestampSamplerFactory.parseInterval(samplingInterval, unitIndex, samplingIntervalPosition);
+        final char unit = samplingInterval.charAt(unitIndex);
+        // validate the unit, sampler is not used otherwise
+        TimestampSamplerFactory.getInstance(interval, unit, samplingIntervalPosition);
+        if (interval > Integer.MAX_VALUE) {
+            throw SqlException.$(samplingIntervalPosition, "sampling interval is too large");
+        }
+        return new MatViewDefinition(
+                viewToken,
+                Chars.toString(baseTableName),
+                Chars.toString(refreshSql),
+                (int) interval,
+                unit
+        );
+    }
+
+    public static MatViewDefinition read(@NotNull TableToken viewToken, MemoryMR mem, FilesFacade ff, LPSZ path) {
+        try {
+            mem.smallFile(ff, path, MemoryTag.MMAP_DEFAULT);
+            long offset = 0;
+            final CharSequence baseTableName = mem.getStrA(offset);
+            if (baseTableName == null) {
+                throw CairoException.critical(0).put("invalid materialized view file [path=").put(path).put(']');
+            }
+            final String baseTableNameStr = Chars.toString(baseTableName);
+            offset += Vm.getStorageLength(baseTableName);
+            final int samplingInterval = mem.getInt(offset);
+            offset += Integer.BYTES;
+            final char samplingIntervalUnit = mem.getChar(offset);
+            offset += Character.BYTES;
+            final CharSequence refreshSql = mem.getStrA(offset);
+            if (refreshSql == null) {
+                throw CairoException.critical(0).put("invalid materialized view file [path=").put(path).put(']');
+            }
+            return new MatViewDefinition(viewToken, baseTableNameStr, Chars.toString(refreshSql), samplingInterval, samplingIntervalUnit);
+        } finally {
+            mem.close();
+        }
+    }
+
+    public String getBaseTableName() {
+        return baseTableName;
+    }
+
+    public String getRefreshSql() {
+        return refreshSql;
+    }
+
+    public TableToken getViewToken() {
+        return viewToken;
+    }
+
+    /**
+     * Returns start of the first bucket after the given one.
+     */
+    public long nextBucket(long bucket) {
+        return Timestamps.addPeriod(bucket, samplingIntervalUnit == 'U' ? 'u' : samplingIntervalUnit, samplingInterval);
+    }
+
+    public void store(MemoryMA mem, FilesFacade ff, LPSZ path) {
+        try {
+            mem.smallFile(ff, path, MemoryTag.MMAP_DEFAULT);
+            mem.putStr(baseTableName);
+            mem.putInt(samplingInterval);
+            mem.putChar(samplingIntervalUnit);
+            mem.putStr(refreshSql);
+            mem.sync(false);
+        } finally {
+            mem.close(true, Vm.TRUNCATE_TO_POINTER);
+        }
+    }
+
+    /**
+     * Returns start of the bucket the timestamp belongs to. Mirrors timestamp_floor(),
+     * which is what calendar aligned SAMPLE BY is rewritten to.
+     */
+    public long toBucket(long timestamp) {
+        switch (samplingIntervalUnit) {
+            case 'M':
+                return Timestamps.floorMM(timestamp, samplingInterval);
+            case 'y':
+                return Timestamps.floorYYYY(timestamp, samplingInterval);
+            case 'w':
+                return Timestamps.floorWW(timestamp, samplingInterval);
+            case 'd':
+                return Timestamps.floorDD(timestamp, samplingInterval);
+            case 'h':
+                return Timestamps.floorHH(timestamp, samplingInterval);
+            case 'm':
+                return Timestamps.floorMI(timestamp, samplingInterval);
+            case 's':
+                return Timestamps.floorSS(timestamp, samplingInterval);
+            case 'T':
+                return Timestamps.floorMS(timestamp, samplingInterval);
+            default:
+                return Timestamps.floorMC(timestamp, samplingInterval);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo.mv;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCMR;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.Chars;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.Mutable;
+import io.questdb.std.ObjHashSet;
+import io.questdb.std.ObjList;
+import io.questdb.std.str.Path;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Registry of materialized views. WAL apply notifies the graph about base table commits
+ * and the graph marks dependent views dirty for {@link MatViewRefreshJob} to pick up.
+ */
+public class MatViewGraph implements Mutable {
+    private static final Log LOG = LogFactory.getLog(MatViewGraph.class);
+    private final ObjList<MatViewRefreshState> views = new ObjList<>();
+    private volatile int viewCount;
+
+    @Override
+    public synchronized void clear() {
+        views.clear();
+        viewCount = 0;
+    }
+
+    public synchronized void createView(@NotNull MatViewDefinition definition) {
+        views.add(new MatViewRefreshState(definition));
+        viewCount = views.size();
+    }
+
+    public synchronized void dropView(@NotNull TableToken viewToken) {
+        for (int i = 0, n = views.size(); i < n; i++) {
+            if (views.getQuick(i).getDefinition().getViewToken().equals(viewToken)) {
+                views.remove(i);
+                viewCount = views.size();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Copies all views into the sink, so that they can be refreshed without holding the graph lock.
+     */
+    public synchronized void getViews(@NotNull ObjList<MatViewRefreshState> sink) {
+        sink.clear();
+        sink.addAll(views);
+    }
+
+    /**
+     * Registers views persisted in table directories. Base table commits made while
+     * the database was down are not tracked, so loaded views are refreshed in full.
+     */
+    public void load(@NotNull CairoEngine engine) {
+        final CairoConfiguration configuration = engine.getConfiguration();
+        final FilesFacade ff = configuration.getFilesFacade();
+        final ObjHashSet<TableToken> tableTokens = new ObjHashSet<>();
+        engine.getTableTokens(tableTokens, false);
+        try (MemoryCMR mem = Vm.getCMRInstance()) {
+            final Path path = Path.getThreadLocal(configuration.getRoot());
+            final int rootLen = path.size();
+            for (int i = 0, n = tableTokens.size(); i < n; i++) {
+                final TableToken tableToken = tableTokens.get(i);
+                if (!tableToken.isWal()) {
+                    continue;
+                }
+                path.trimTo(rootLen).concat(tableToken).concat(MatViewDefinition.MAT_VIEW_FILE_NAME);
+                if (!ff.exists(path.$())) {
+                    continue;
+                }
+                try {
+                    final MatViewDefinition definition = MatViewDefinition.read(tableToken, mem, ff, path.$());
+                    final MatViewRefreshState state = new MatViewRefreshState(definition);
+                    state.markFullyDirty();
+                    synchronized (this) {
+                        views.add(state);
+                        viewCount = views.size();
+                    }
+                } catch (CairoException e) {
+                    LOG.error().$("could not load materialized view [view=").$(tableToken)
+                            .$(", error=").$(e.getFlyweightMessage())
+                            .I$();
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks views over the base table dirty for the given range of base table timestamps, both inclusive.
+     */
+    public void notifyBaseTableCommit(@NotNull TableToken baseTableToken, long minTimestamp, long maxTimestamp) {
+        if (viewCount == 0) {
+            return;
+        }
+        synchronized (this) {
+            for (int i = 0, n = views.size(); i < n; i++) {
+                final MatViewRefreshState state = views.getQuick(i);
+                if (Chars.equalsIgnoreCase(state.getDefinition().getBaseTableName(), baseTableToken.getTableName())) {
+                    state.markDirty(minTimestamp, maxTimestamp);
+                }
+            }
+        }
+    }
+}
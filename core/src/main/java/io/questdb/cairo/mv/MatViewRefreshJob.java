@@ -0,0 +1,133 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo.mv;
+
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.sql.BindVariableService;
+import io.questdb.griffin.SqlCompiler;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.griffin.engine.functions.bind.BindVariableServiceImpl;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.mp.SynchronizedJob;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.str.StringSink;
+
+/**
+ * Refreshes dirty materialized views. Base table rows in the dirty range are widened to
+ * whole SAMPLE BY buckets, aggregated by the view query and inserted into the view table,
+ * where they replace the previous version of the buckets thanks to deduplication.
+ */
+public class MatViewRefreshJob extends SynchronizedJob implements QuietCloseable {
+    private static final Log LOG = LogFactory.getLog(MatViewRefreshJob.class);
+    private final BindVariableService bindVariableService;
+    private final CairoEngine engine;
+    private final SqlExecutionContextImpl executionContext;
+    private final StringSink sqlSink = new StringSink();
+    private final ObjList<MatViewRefreshState> views = new ObjList<>();
+
+    public MatViewRefreshJob(CairoEngine engine, int workerCount, int sharedWorkerCount) {
+        this.engine = engine;
+        this.bindVariableService = new BindVariableServiceImpl(engine.getConfiguration());
+        this.executionContext = new SqlExecutionContextImpl(engine, workerCount, sharedWorkerCount);
+        executionContext.with(
+                engine.getConfiguration().getFactoryProvider().getSecurityContextFactory().getRootContext(),
+                bindVariableService,
+                null,
+                -1,
+                null
+        );
+    }
+
+    @Override
+    public void close() {
+        Misc.free(executionContext);
+    }
+
+    private boolean refresh(MatViewRefreshState state) {
+        if (!state.startRefresh()) {
+            return false;
+        }
+
+        final MatViewDefinition definition = state.getDefinition();
+        final TableToken viewToken = engine.getUpdatedTableToken(definition.getViewToken());
+        if (viewToken == null || engine.isTableDropped(viewToken)) {
+            LOG.info().$("materialized view is dropped [view=").$(definition.getViewToken()).I$();
+            engine.getMatViewGraph().dropView(definition.getViewToken());
+            return true;
+        }
+
+        // Long.MIN_VALUE is the null timestamp, so the full range starts one tick later.
+        final long lo = state.getRefreshLo() == Long.MIN_VALUE ? Long.MIN_VALUE + 1 : definition.toBucket(state.getRefreshLo());
+        final long hi = state.getRefreshHi() == Long.MAX_VALUE ? Long.MAX_VALUE : definition.nextBucket(definition.toBucket(state.getRefreshHi()));
+
+        sqlSink.clear();
+        sqlSink.put("insert into \"").put(viewToken.getTableName()).put("\" select * from (").put(definition.getRefreshSql()).put(')');
+        try (SqlCompiler compiler = engine.getSqlCompiler()) {
+            bindVariableService.clear();
+            bindVariableService.setTimestamp(0, lo);
+            bindVariableService.setTimestamp(1, hi);
+            CairoEngine.insert(compiler, sqlSink, executionContext);
+            LOG.info().$("refreshed materialized view [view=").$(viewToken)
+                    .$(", from=").$ts(lo)
+                    .$(", to=").$ts(hi)
+                    .I$();
+        } catch (SqlException e) {
+            LOG.error().$("could not refresh materialized view [view=").$(viewToken)
+                    .$(", error=").$(e.getFlyweightMessage())
+                    .I$();
+        } catch (CairoException e) {
+            LOG.error().$("could not refresh materialized view [view=").$(viewToken)
+                    .$(", error=").$(e.getFlyweightMessage())
+                    .$(", errno=").$(e.getErrno())
+                    .I$();
+        }
+        return true;
+    }
+
+    @Override
+    protected boolean runSerially() {
+        engine.getMatViewGraph().getViews(views);
+        boolean useful = false;
+        for (int i = 0, n = views.size(); i < n; i++) {
+            final MatViewRefreshState state = views.getQuick(i);
+            if (state.tryLock()) {
+                try {
+                    useful |= refresh(state);
+                } finally {
+                    state.unlock();
+                }
+            }
+        }
+        views.clear();
+        return useful;
+    }
+}
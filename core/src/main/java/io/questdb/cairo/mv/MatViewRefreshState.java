@@ -0,0 +1,99 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo.mv;
+
+import io.questdb.std.Unsafe;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Accumulates base table timestamp ranges that the materialized view has not seen yet.
+ * Only one refresh job may refresh the view at a time, see {@link #tryLock()}.
+ */
+public class MatViewRefreshState {
+    private static final long LOCKED_OFFSET = Unsafe.getFieldOffset(MatViewRefreshState.class, "locked");
+    private final MatViewDefinition definition;
+    private long dirtyHi = Long.MIN_VALUE;
+    private long dirtyLo = Long.MAX_VALUE;
+    @SuppressWarnings("FieldMayBeFinal")
+    private volatile int locked = 0;
+    private long refreshHi;
+    private long refreshLo;
+
+    public MatViewRefreshState(@NotNull MatViewDefinition definition) {
+        this.definition = definition;
+    }
+
+    public MatViewDefinition getDefinition() {
+        return definition;
+    }
+
+    /**
+     * Max base table timestamp to refresh, inclusive. Valid after {@link #startRefresh()}.
+     */
+    public long getRefreshHi() {
+        return refreshHi;
+    }
+
+    /**
+     * Min base table timestamp to refresh, inclusive. Valid after {@link #startRefresh()}.
+     */
+    public long getRefreshLo() {
+        return refreshLo;
+    }
+
+    public synchronized void markDirty(long minTimestamp, long maxTimestamp) {
+        dirtyLo = Math.min(dirtyLo, minTimestamp);
+        dirtyHi = Math.max(dirtyHi, maxTimestamp);
+    }
+
+    public void markFullyDirty() {
+        markDirty(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Moves accumulated dirty range to the refresh range.
+     *
+     * @return false when there is nothing to refresh
+     */
+    public synchronized boolean startRefresh() {
+        if (dirtyLo > dirtyHi) {
+            return false;
+        }
+        refreshLo = dirtyLo;
+        refreshHi = dirtyHi;
+        dirtyLo = Long.MAX_VALUE;
+        dirtyHi = Long.MIN_VALUE;
+        return true;
+    }
+
+    public boolean tryLock() {
+        return Unsafe.getUnsafe().compareAndSwapInt(this, LOCKED_OFFSET, 0, 1);
+    }
+
+    public void unlock() {
+        locked = 0;
+    }
+}
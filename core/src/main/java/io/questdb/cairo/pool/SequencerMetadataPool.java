@@ -105,6 +105,11 @@ public class SequencerMetadataPool extends AbstractMultiTenantPool<MetadataPoolT
             throw new UnsupportedOperationException();
         }
 
+        @Override
+        public int getTtlHoursOrMonths() {
+            throw new UnsupportedOperationException();
+        }
+
         public void goodbye() {
             entry = null;
             pool = null;
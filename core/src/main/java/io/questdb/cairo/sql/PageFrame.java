@@ -25,6 +25,7 @@
 package io.questdb.cairo.sql;
 
 import io.questdb.cairo.BitmapIndexReader;
+import io.questdb.std.str.Utf8Sequence;
 
 /**
  * Represents a contiguous fragment of a table partition.
@@ -54,6 +55,31 @@ public interface PageFrame {
      */
     long getAuxPageAddress(int columnIndex);
 
+    /**
+     * Return descriptor of the column file the aux page is mapped from or -1 when
+     * the page is not backed by a file.
+     * <p>
+     * Can be called only for frames in native format.
+     *
+     * @param columnIndex index of variable length column
+     * @return file descriptor or -1
+     */
+    default long getAuxPageFd(int columnIndex) {
+        return -1;
+    }
+
+    /**
+     * Return offset of the aux page within its column file, see {@link #getAuxPageFd(int)}.
+     * <p>
+     * Can be called only for frames in native format.
+     *
+     * @param columnIndex index of variable length column
+     * @return offset in bytes
+     */
+    default long getAuxPageFileOffset(int columnIndex) {
+        return 0;
+    }
+
     /**
      * Return the size of the page frame aux vector in bytes.
      * <p>
@@ -93,6 +119,32 @@ public interface PageFrame {
      */
     long getPageAddress(int columnIndex);
 
+    /**
+     * Return descriptor of the column file the page is mapped from or -1 when the page
+     * is not backed by a file, e.g. for column tops. The page memory may be read from
+     * the file directly, see {@link PageFrameMemoryPool}.
+     * <p>
+     * Can be called only for frames in native format.
+     *
+     * @param columnIndex index of column
+     * @return file descriptor or -1
+     */
+    default long getPageFd(int columnIndex) {
+        return -1;
+    }
+
+    /**
+     * Return offset of the page within its column file, see {@link #getPageFd(int)}.
+     * <p>
+     * Can be called only for frames in native format.
+     *
+     * @param columnIndex index of column
+     * @return offset in bytes
+     */
+    default long getPageFileOffset(int columnIndex) {
+        return 0;
+    }
+
     /**
      * Return the size of the page frame data vector in bytes.
      * <p>
@@ -103,6 +155,40 @@ public interface PageFrame {
      */
     long getPageSize(int columnIndex);
 
+    /**
+     * Return index of the column in the Parquet file of the frame's partition or -1
+     * when the column data is provided by the frame itself, e.g. for symbol columns
+     * and column tops.
+     * <p>
+     * Can be called only for frames in Parquet format.
+     *
+     * @param columnIndex index of column
+     * @return Parquet column index or -1
+     */
+    int getParquetColumnIndex(int columnIndex);
+
+    /**
+     * Return path to the Parquet file of the frame's partition.
+     * <p>
+     * Can be called only for frames in Parquet format.
+     */
+    Utf8Sequence getParquetPath();
+
+    /**
+     * Return index of the Parquet row group the frame belongs to. Page frames
+     * never span multiple row groups.
+     * <p>
+     * Can be called only for frames in Parquet format.
+     */
+    int getParquetRowGroup();
+
+    /**
+     * Return low row index of the frame's row group within the partition, inclusive.
+     * <p>
+     * Can be called only for frames in Parquet format.
+     */
+    long getParquetRowGroupLo();
+
     /**
      * Return high row index within the frame's partition, exclusive.
      */
@@ -27,9 +27,15 @@ package io.questdb.cairo.sql;
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.ColumnType;
 import io.questdb.std.*;
+import io.questdb.std.str.Utf8Sequence;
+import io.questdb.std.str.Utf8StringSink;
+import io.questdb.std.str.Utf8s;
 
 /**
- * Holds formats, addresses and sizes for native (mmapped) page frames.
+ * Holds formats, addresses and sizes for page frames. For Parquet page frames,
+ * it also holds the file, row group and column indexes the frame is decoded from.
+ * When page frame read-ahead is enabled, it also holds the column file descriptors
+ * and offsets native pages can be read from, see {@link #getPrefetchCount()}.
  * <p>
  * Once initialized, this cache is thread-safe.
  * <p>
@@ -37,22 +43,48 @@ import io.questdb.std.*;
  */
 public class PageFrameAddressCache implements Mutable {
     private final ObjList<LongList> auxPageAddresses = new ObjList<>();
+    // null for Parquet frames and when read-ahead is disabled
+    private final ObjList<LongList> auxPageFds = new ObjList<>();
+    private final ObjList<LongList> auxPageFileOffsets = new ObjList<>();
     private final ObjList<LongList> auxPageSizes = new ObjList<>();
     private final IntList columnTypes = new IntList();
+    private final FilesFacade ff;
     private final ByteList frameFormats = new ByteList();
     private final LongList frameSizes = new LongList();
+    private final ObjectPool<IntList> intListPool = new ObjectPool<>(IntList::new, 16);
+    private final IOURingFacade ioURingFacade;
     private final ObjectPool<LongList> longListPool = new ObjectPool<>(LongList::new, 64);
     private final long nativeCacheSizeThreshold;
     private final ObjList<LongList> pageAddresses = new ObjList<>();
+    // null for Parquet frames and when read-ahead is disabled
+    private final ObjList<LongList> pageFds = new ObjList<>();
+    private final ObjList<LongList> pageFileOffsets = new ObjList<>();
     private final ObjList<LongList> pageSizes = new ObjList<>();
+    // null for native frames
+    private final ObjList<IntList> parquetColumnIndexes = new ObjList<>();
+    private final int parquetFrameCacheCapacity;
+    // index in parquetPaths list, -1 for native frames
+    private final IntList parquetPathIndexes = new IntList();
+    // frames of a partition are added one after another, so each path is stored once
+    private final ObjList<Utf8StringSink> parquetPaths = new ObjList<>();
+    private final LongList parquetRowGroupLos = new LongList();
+    private final IntList parquetRowGroups = new IntList();
+    private final int prefetchCount;
     // Makes it possible to determine real row id, not the one relative to the page.
     private final LongList rowIdOffsets = new LongList();
     // Sum of all LongList sizes.
     private long cacheSize;
     private int columnCount;
+    private int parquetPathCount;
 
     public PageFrameAddressCache(CairoConfiguration configuration) {
         this.nativeCacheSizeThreshold = configuration.getSqlJitPageAddressCacheThreshold() / Long.BYTES;
+        this.ff = configuration.getFilesFacade();
+        this.parquetFrameCacheCapacity = configuration.getSqlParquetFrameCacheCapacity();
+        this.ioURingFacade = configuration.getIOURingFacade();
+        this.prefetchCount = configuration.isIOURingEnabled() && ioURingFacade.isAvailable()
+                ? configuration.getSqlPageFramePrefetchCount()
+                : 0;
     }
 
     public void add(int frameIndex, @Transient PageFrame frame) {
@@ -60,35 +92,58 @@ public class PageFrameAddressCache implements Mutable {
             return; // The page frame is already cached
         }
 
-        if (frame.getFormat() == PageFrame.NATIVE_FORMAT) {
-            final LongList framePageAddresses = longListPool.next();
-            final LongList framePageSizes = longListPool.next();
-            final LongList frameAuxPageAddresses = longListPool.next();
-            final LongList frameAuxPageSizes = longListPool.next();
+        final LongList framePageAddresses = longListPool.next();
+        final LongList framePageSizes = longListPool.next();
+        final LongList frameAuxPageAddresses = longListPool.next();
+        final LongList frameAuxPageSizes = longListPool.next();
+        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+            framePageAddresses.add(frame.getPageAddress(columnIndex));
+            framePageSizes.add(frame.getPageSize(columnIndex));
+            if (ColumnType.isVarSize(columnTypes.getQuick(columnIndex))) {
+                frameAuxPageAddresses.add(frame.getAuxPageAddress(columnIndex));
+                frameAuxPageSizes.add(frame.getAuxPageSize(columnIndex));
+            } else {
+                frameAuxPageAddresses.add(0);
+                frameAuxPageSizes.add(0);
+            }
+        }
+        pageAddresses.add(framePageAddresses);
+        cacheSize += framePageAddresses.capacity();
+        pageSizes.add(framePageSizes);
+        cacheSize += framePageSizes.capacity();
+        auxPageAddresses.add(frameAuxPageAddresses);
+        cacheSize += frameAuxPageAddresses.capacity();
+        auxPageSizes.add(frameAuxPageSizes);
+        cacheSize += frameAuxPageSizes.capacity();
+
+        if (frame.getFormat() == PageFrame.PARQUET_FORMAT) {
+            // columns with zero addresses are decoded from the Parquet file, apart from column tops
+            final IntList frameParquetColumnIndexes = intListPool.next();
             for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
-                framePageAddresses.add(frame.getPageAddress(columnIndex));
-                framePageSizes.add(frame.getPageSize(columnIndex));
-                if (ColumnType.isVarSize(columnTypes.getQuick(columnIndex))) {
-                    frameAuxPageAddresses.add(frame.getAuxPageAddress(columnIndex));
-                    frameAuxPageSizes.add(frame.getAuxPageSize(columnIndex));
-                } else {
-                    frameAuxPageAddresses.add(0);
-                    frameAuxPageSizes.add(0);
-                }
+                frameParquetColumnIndexes.add(frame.getParquetColumnIndex(columnIndex));
             }
-            pageAddresses.add(framePageAddresses);
-            cacheSize += framePageAddresses.capacity();
-            pageSizes.add(framePageSizes);
-            cacheSize += framePageSizes.capacity();
-            auxPageAddresses.add(frameAuxPageAddresses);
-            cacheSize += frameAuxPageAddresses.capacity();
-            auxPageSizes.add(frameAuxPageSizes);
-            cacheSize += frameAuxPageSizes.capacity();
+            parquetColumnIndexes.add(frameParquetColumnIndexes);
+            cacheSize += frameParquetColumnIndexes.capacity() / 2;
+            parquetPathIndexes.add(addParquetPath(frame.getParquetPath()));
+            parquetRowGroups.add(frame.getParquetRowGroup());
+            parquetRowGroupLos.add(frame.getParquetRowGroupLo());
+            pageFds.add(null);
+            pageFileOffsets.add(null);
+            auxPageFds.add(null);
+            auxPageFileOffsets.add(null);
         } else {
-            pageAddresses.add(null);
-            pageSizes.add(null);
-            auxPageAddresses.add(null);
-            auxPageSizes.add(null);
+            parquetColumnIndexes.add(null);
+            parquetPathIndexes.add(-1);
+            parquetRowGroups.add(-1);
+            parquetRowGroupLos.add(-1);
+            if (prefetchCount > 0) {
+                addPageFiles(frame);
+            } else {
+                pageFds.add(null);
+                pageFileOffsets.add(null);
+                auxPageFds.add(null);
+                auxPageFileOffsets.add(null);
+            }
         }
 
         frameSizes.add(frame.getPartitionHi() - frame.getPartitionLo());
@@ -105,10 +160,21 @@ public class PageFrameAddressCache implements Mutable {
         pageSizes.clear();
         auxPageSizes.clear();
         rowIdOffsets.clear();
+        parquetColumnIndexes.clear();
+        parquetPathIndexes.clear();
+        parquetRowGroups.clear();
+        parquetRowGroupLos.clear();
+        pageFds.clear();
+        pageFileOffsets.clear();
+        auxPageFds.clear();
+        auxPageFileOffsets.clear();
+        parquetPathCount = 0;
         if (cacheSize < nativeCacheSizeThreshold) {
             longListPool.clear();
+            intListPool.clear();
         } else {
             longListPool.resetCapacity();
+            intListPool.resetCapacity();
         }
         cacheSize = 0;
     }
@@ -117,6 +183,18 @@ public class PageFrameAddressCache implements Mutable {
         return auxPageAddresses.getQuick(frameIndex);
     }
 
+    /**
+     * Returns descriptors of the files aux pages of a native frame can be read from
+     * or null when read-ahead is disabled, see {@link PageFrame#getAuxPageFd(int)}.
+     */
+    public LongList getAuxPageFds(int frameIndex) {
+        return auxPageFds.getQuick(frameIndex);
+    }
+
+    public LongList getAuxPageFileOffsets(int frameIndex) {
+        return auxPageFileOffsets.getQuick(frameIndex);
+    }
+
     public LongList getAuxPageSizes(int frameIndex) {
         return auxPageSizes.getQuick(frameIndex);
     }
@@ -129,6 +207,14 @@ public class PageFrameAddressCache implements Mutable {
         return columnTypes;
     }
 
+    public FilesFacade getFilesFacade() {
+        return ff;
+    }
+
+    public int getFrameCount() {
+        return frameSizes.size();
+    }
+
     public byte getFrameFormat(int frameIndex) {
         return frameFormats.getQuick(frameIndex);
     }
@@ -137,26 +223,77 @@ public class PageFrameAddressCache implements Mutable {
         return frameSizes.getQuick(frameIndex);
     }
 
+    public IOURingFacade getIOURingFacade() {
+        return ioURingFacade;
+    }
+
     public LongList getPageAddresses(int frameIndex) {
         return pageAddresses.getQuick(frameIndex);
     }
 
+    /**
+     * Returns descriptors of the files pages of a native frame can be read from
+     * or null when read-ahead is disabled, see {@link PageFrame#getPageFd(int)}.
+     */
+    public LongList getPageFds(int frameIndex) {
+        return pageFds.getQuick(frameIndex);
+    }
+
+    public LongList getPageFileOffsets(int frameIndex) {
+        return pageFileOffsets.getQuick(frameIndex);
+    }
+
     public LongList getPageSizes(int frameIndex) {
         return pageSizes.getQuick(frameIndex);
     }
 
+    /**
+     * Returns Parquet column indexes of a Parquet frame, see {@link PageFrame#getParquetColumnIndex(int)}.
+     */
+    public IntList getParquetColumnIndexes(int frameIndex) {
+        return parquetColumnIndexes.getQuick(frameIndex);
+    }
+
+    /**
+     * Returns the number of decoded Parquet frames {@link PageFrameMemoryPool} keeps in memory.
+     */
+    public int getParquetFrameCacheCapacity() {
+        return parquetFrameCacheCapacity;
+    }
+
+    public Utf8Sequence getParquetPath(int frameIndex) {
+        return parquetPaths.getQuick(parquetPathIndexes.getQuick(frameIndex));
+    }
+
+    public int getParquetRowGroup(int frameIndex) {
+        return parquetRowGroups.getQuick(frameIndex);
+    }
+
+    public long getParquetRowGroupLo(int frameIndex) {
+        return parquetRowGroupLos.getQuick(frameIndex);
+    }
+
+    /**
+     * Returns the number of native frames {@link PageFramePrefetcher} reads ahead with
+     * io_uring, 0 when read-ahead is disabled or io_uring is not available.
+     */
+    public int getPrefetchCount() {
+        return prefetchCount;
+    }
+
     public long getRowIdOffset(int frameIndex) {
         return rowIdOffsets.getQuick(frameIndex);
     }
 
     public boolean hasColumnTops(int frameIndex) {
-        final byte frameFormat = frameFormats.getQuick(frameIndex);
-        assert frameFormat == PageFrame.NATIVE_FORMAT;
+        final IntList frameParquetColumnIndexes = parquetColumnIndexes.getQuick(frameIndex);
         for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
             if (pageAddresses.getQuick(frameIndex).getQuick(columnIndex) == 0
                     // VARCHAR column that contains short strings will have zero data vector,
                     // so for such columns we also need to check that the aux (index) vector is zero.
-                    && auxPageAddresses.getQuick(frameIndex).getQuick(columnIndex) == 0) {
+                    && auxPageAddresses.getQuick(frameIndex).getQuick(columnIndex) == 0
+                    // Parquet columns get their addresses once the frame is decoded
+                    && (frameParquetColumnIndexes == null || frameParquetColumnIndexes.getQuick(columnIndex) == -1)) {
                 return true;
             }
         }
@@ -175,4 +312,43 @@ public class PageFrameAddressCache implements Mutable {
         }
         clear();
     }
+
+    private void addPageFiles(PageFrame frame) {
+        final LongList framePageFds = longListPool.next();
+        final LongList framePageFileOffsets = longListPool.next();
+        final LongList frameAuxPageFds = longListPool.next();
+        final LongList frameAuxPageFileOffsets = longListPool.next();
+        for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+            framePageFds.add(frame.getPageFd(columnIndex));
+            framePageFileOffsets.add(frame.getPageFileOffset(columnIndex));
+            if (ColumnType.isVarSize(columnTypes.getQuick(columnIndex))) {
+                frameAuxPageFds.add(frame.getAuxPageFd(columnIndex));
+                frameAuxPageFileOffsets.add(frame.getAuxPageFileOffset(columnIndex));
+            } else {
+                frameAuxPageFds.add(-1);
+                frameAuxPageFileOffsets.add(0);
+            }
+        }
+        pageFds.add(framePageFds);
+        cacheSize += framePageFds.capacity();
+        pageFileOffsets.add(framePageFileOffsets);
+        cacheSize += framePageFileOffsets.capacity();
+        auxPageFds.add(frameAuxPageFds);
+        cacheSize += frameAuxPageFds.capacity();
+        auxPageFileOffsets.add(frameAuxPageFileOffsets);
+        cacheSize += frameAuxPageFileOffsets.capacity();
+    }
+
+    private int addParquetPath(Utf8Sequence path) {
+        if (parquetPathCount > 0 && Utf8s.equals(parquetPaths.getQuick(parquetPathCount - 1), path)) {
+            return parquetPathCount - 1;
+        }
+        Utf8StringSink sink = parquetPaths.getQuiet(parquetPathCount);
+        if (sink == null) {
+            parquetPaths.extendAndSet(parquetPathCount, sink = new Utf8StringSink());
+        }
+        sink.clear();
+        sink.put(path);
+        return parquetPathCount++;
+    }
 }
@@ -24,6 +24,7 @@
 
 package io.questdb.cairo.sql;
 
+import io.questdb.cairo.PartitionReadAhead;
 import io.questdb.cairo.TableReader;
 import io.questdb.std.QuietCloseable;
 import org.jetbrains.annotations.Nullable;
@@ -32,6 +33,15 @@ public interface PageFrameCursor extends QuietCloseable, SymbolTableSource {
 
     void calculateSize(RecordCursor.Counter counter);
 
+    /**
+     * @return read-ahead of the underlying partition frame cursor, null when the
+     * cursor does not read partitions ahead
+     */
+    @Nullable
+    default PartitionReadAhead getPartitionReadAhead() {
+        return null;
+    }
+
     @Override
     StaticSymbolTable getSymbolTable(int columnIndex);
 
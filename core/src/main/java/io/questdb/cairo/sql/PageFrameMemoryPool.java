@@ -24,9 +24,21 @@
 
 package io.questdb.cairo.sql;
 
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.ColumnTypeDriver;
+import io.questdb.griffin.engine.table.parquet.PartitionDecoder;
+import io.questdb.std.IntList;
 import io.questdb.std.LongList;
+import io.questdb.std.Misc;
 import io.questdb.std.Mutable;
+import io.questdb.std.ObjList;
 import io.questdb.std.QuietCloseable;
+import io.questdb.std.Rows;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.Utf8Sequence;
+import io.questdb.std.str.Utf8StringSink;
+import io.questdb.std.str.Utf8s;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Provides addresses for page frames in both native and Parquet formats.
@@ -36,18 +48,32 @@ import io.questdb.std.QuietCloseable;
  * Thus, a {@link #navigateTo(int)} call is required before accessing memory
  * that belongs to a page frame.
  * <p>
+ * Parquet frames are decoded one row group at a time. Decoded frames stay pinned
+ * while there is a record navigated to them, and a few most recently used frames
+ * are kept decoded on top of that, see {@link PageFrameAddressCache#getParquetFrameCacheCapacity()}.
+ * <p>
+ * Native frames read ahead by a {@link PageFramePrefetcher} are accessed via its buffers.
+ * <p>
  * This pool is thread-unsafe as it may hold navigated Parquet partition data,
  * so it shouldn't be shared between multiple threads.
  */
-// TODO: add LRU cache for multiple frames
 public class PageFrameMemoryPool implements QuietCloseable {
     private final PageFrameMemoryImpl frameMemory = new PageFrameMemoryImpl();
+    // most recently used buffers go first
+    private final ObjList<ParquetBuffers> parquetBuffers = new ObjList<>();
     private PageFrameAddressCache addressCache;
+    private Path path;
+    private PageFramePrefetcher prefetcher;
 
     @Override
     public void close() {
         frameMemory.clear();
+        for (int i = 0, n = parquetBuffers.size(); i < n; i++) {
+            parquetBuffers.getQuick(i).close();
+        }
+        path = Misc.free(path);
         addressCache = null;
+        prefetcher = null;
     }
 
     /**
@@ -56,19 +82,33 @@ public class PageFrameMemoryPool implements QuietCloseable {
      * any row within the frame.
      */
     public void navigateTo(int frameIndex, PageFrameMemoryRecord record) {
-        if (record.getFrameIndex() == frameIndex) {
+        final byte frameFormat = addressCache.getFrameFormat(frameIndex);
+        if (frameFormat == PageFrame.PARQUET_FORMAT) {
+            final ParquetBuffers buffers = acquireParquetFrame(frameIndex, record);
+            record.init(
+                    frameIndex,
+                    frameFormat,
+                    addressCache.getRowIdOffset(frameIndex),
+                    buffers.pageAddresses,
+                    buffers.auxPageAddresses,
+                    buffers.pageSizes,
+                    buffers.auxPageSizes
+            );
             return;
         }
 
-        final byte frameFormat = addressCache.getFrameFormat(frameIndex);
-        assert frameFormat != PageFrame.PARQUET_FORMAT;
+        if (record.getFrameIndex() == frameIndex) {
+            return;
+        }
 
+        releaseParquetFrame(record);
+        final int prefetchedIndex = prefetcher != null ? prefetcher.findFrame(frameIndex) : -1;
         record.init(
                 frameIndex,
                 frameFormat,
                 addressCache.getRowIdOffset(frameIndex),
-                addressCache.getPageAddresses(frameIndex),
-                addressCache.getAuxPageAddresses(frameIndex),
+                prefetchedIndex != -1 ? prefetcher.getPageAddresses(prefetchedIndex) : addressCache.getPageAddresses(frameIndex),
+                prefetchedIndex != -1 ? prefetcher.getAuxPageAddresses(prefetchedIndex) : addressCache.getAuxPageAddresses(frameIndex),
                 addressCache.getPageSizes(frameIndex),
                 addressCache.getAuxPageSizes(frameIndex)
         );
@@ -84,26 +124,114 @@ public class PageFrameMemoryPool implements QuietCloseable {
      * {@link #navigateTo(int, PageFrameMemoryRecord)} method.
      */
     public PageFrameMemory navigateTo(int frameIndex) {
+        final byte frameFormat = addressCache.getFrameFormat(frameIndex);
+        if (frameFormat == PageFrame.PARQUET_FORMAT) {
+            final ParquetBuffers buffers = acquireParquetFrame(frameIndex, frameMemory);
+            frameMemory.frameIndex = frameIndex;
+            frameMemory.frameFormat = frameFormat;
+            frameMemory.pageAddresses = buffers.pageAddresses;
+            frameMemory.auxPageAddresses = buffers.auxPageAddresses;
+            frameMemory.pageSizes = buffers.pageSizes;
+            frameMemory.auxPageSizes = buffers.auxPageSizes;
+            return frameMemory;
+        }
+
         if (frameMemory.frameIndex == frameIndex) {
             return frameMemory;
         }
 
+        releaseParquetFrame(frameMemory);
+        final int prefetchedIndex = prefetcher != null ? prefetcher.findFrame(frameIndex) : -1;
         frameMemory.frameIndex = frameIndex;
-        frameMemory.frameFormat = addressCache.getFrameFormat(frameIndex);
-        assert frameMemory.frameFormat != PageFrame.PARQUET_FORMAT;
-
-        frameMemory.pageAddresses = addressCache.getPageAddresses(frameIndex);
-        frameMemory.auxPageAddresses = addressCache.getAuxPageAddresses(frameIndex);
+        frameMemory.frameFormat = frameFormat;
+        if (prefetchedIndex != -1) {
+            frameMemory.pageAddresses = prefetcher.getPageAddresses(prefetchedIndex);
+            frameMemory.auxPageAddresses = prefetcher.getAuxPageAddresses(prefetchedIndex);
+        } else {
+            frameMemory.pageAddresses = addressCache.getPageAddresses(frameIndex);
+            frameMemory.auxPageAddresses = addressCache.getAuxPageAddresses(frameIndex);
+        }
         frameMemory.pageSizes = addressCache.getPageSizes(frameIndex);
         frameMemory.auxPageSizes = addressCache.getAuxPageSizes(frameIndex);
-        frameMemory.frameIndex = frameIndex;
 
         return frameMemory;
     }
 
     public void of(PageFrameAddressCache addressCache) {
+        of(addressCache, null);
+    }
+
+    /**
+     * Initializes the pool with the given address cache. Native frames whose data has been
+     * read ahead by the given prefetcher are accessed via the prefetcher's buffers.
+     */
+    public void of(PageFrameAddressCache addressCache, @Nullable PageFramePrefetcher prefetcher) {
         this.addressCache = addressCache;
+        this.prefetcher = prefetcher;
         frameMemory.clear();
+        for (int i = 0, n = parquetBuffers.size(); i < n; i++) {
+            parquetBuffers.getQuick(i).clear();
+        }
+    }
+
+    private ParquetBuffers acquireParquetFrame(int frameIndex, Object owner) {
+        ParquetBuffers buffers = null;
+        for (int i = 0, n = parquetBuffers.size(); i < n; i++) {
+            final ParquetBuffers candidate = parquetBuffers.getQuick(i);
+            if (candidate.frameIndex == frameIndex) {
+                buffers = candidate;
+            } else {
+                // the owner leaves its previous frame
+                candidate.owners.remove(owner);
+            }
+        }
+
+        if (buffers == null) {
+            buffers = evictParquetFrame(frameIndex);
+            buffers.decode(frameIndex, addressCache.getParquetPath(frameIndex), addressCache.getParquetRowGroup(frameIndex));
+        }
+        if (buffers.owners.indexOf(owner) == -1) {
+            buffers.owners.add(owner);
+        }
+
+        // move the buffers to the head of the LRU list
+        final int index = parquetBuffers.indexOf(buffers);
+        for (int i = index; i > 0; i--) {
+            parquetBuffers.setQuick(i, parquetBuffers.getQuick(i - 1));
+        }
+        parquetBuffers.setQuick(0, buffers);
+        return buffers;
+    }
+
+    // Returns buffers to decode the given frame to. Buffers pinned by a record
+    // are never reused as the record may still read the memory.
+    private ParquetBuffers evictParquetFrame(int frameIndex) {
+        final Utf8Sequence parquetPath = addressCache.getParquetPath(frameIndex);
+        final int rowGroup = addressCache.getParquetRowGroup(frameIndex);
+        ParquetBuffers lruBuffers = null;
+        int unpinnedCount = 0;
+        for (int i = 0, n = parquetBuffers.size(); i < n; i++) {
+            final ParquetBuffers buffers = parquetBuffers.getQuick(i);
+            if (buffers.owners.size() == 0) {
+                if (buffers.isDecoded(parquetPath, rowGroup)) {
+                    // column chunks of the row group are decoded already
+                    return buffers;
+                }
+                lruBuffers = buffers;
+                unpinnedCount++;
+            }
+        }
+        if (lruBuffers == null || unpinnedCount < addressCache.getParquetFrameCacheCapacity()) {
+            lruBuffers = new ParquetBuffers();
+            parquetBuffers.add(lruBuffers);
+        }
+        return lruBuffers;
+    }
+
+    private void releaseParquetFrame(Object owner) {
+        for (int i = 0, n = parquetBuffers.size(); i < n; i++) {
+            parquetBuffers.getQuick(i).owners.remove(owner);
+        }
     }
 
     private class PageFrameMemoryImpl implements PageFrameMemory, Mutable {
@@ -179,4 +307,116 @@ public class PageFrameMemoryPool implements QuietCloseable {
             return addressCache.getRowIdOffset(frameIndex);
         }
     }
+
+    /**
+     * Decoder of a Parquet file along with the addresses of the last decoded frame.
+     * The decoder holds decoded chunks of a single row group.
+     */
+    private class ParquetBuffers implements QuietCloseable, Mutable {
+        private final LongList auxPageAddresses = new LongList();
+        private final LongList auxPageSizes = new LongList();
+        // records and flyweights navigated to the frame
+        private final ObjList<Object> owners = new ObjList<>();
+        // decoded chunk per frame column, 0 when the column has not been decoded yet
+        private final LongList chunkPtrs = new LongList();
+        private final Utf8StringSink decoderPath = new Utf8StringSink();
+        private final LongList pageAddresses = new LongList();
+        private final LongList pageSizes = new LongList();
+        private PartitionDecoder decoder;
+        private int frameIndex = -1;
+        private int rowGroup = -1;
+
+        @Override
+        public void clear() {
+            // frame indexes are specific to the address cache, decoded chunks are still valid
+            frameIndex = -1;
+            owners.clear();
+        }
+
+        @Override
+        public void close() {
+            decoder = Misc.free(decoder);
+            decoderPath.clear();
+            chunkPtrs.clear();
+            owners.clear();
+            frameIndex = -1;
+            rowGroup = -1;
+        }
+
+        private void decode(int frameIndex, Utf8Sequence parquetPath, int rowGroup) {
+            this.frameIndex = -1;
+            if (!Utf8s.equals(decoderPath, parquetPath)) {
+                if (decoder == null) {
+                    decoder = new PartitionDecoder(addressCache.getFilesFacade());
+                }
+                decoderPath.clear();
+                this.rowGroup = -1;
+                if (path == null) {
+                    path = new Path();
+                }
+                decoder.of(path.of(parquetPath).$());
+                decoderPath.put(parquetPath);
+            }
+            final int columnCount = addressCache.getColumnCount();
+            if (this.rowGroup != rowGroup || chunkPtrs.size() != columnCount) {
+                chunkPtrs.setAll(columnCount, 0);
+                this.rowGroup = rowGroup;
+            }
+
+            final LongList framePageAddresses = addressCache.getPageAddresses(frameIndex);
+            final LongList framePageSizes = addressCache.getPageSizes(frameIndex);
+            final LongList frameAuxPageAddresses = addressCache.getAuxPageAddresses(frameIndex);
+            final LongList frameAuxPageSizes = addressCache.getAuxPageSizes(frameIndex);
+            final IntList parquetColumnIndexes = addressCache.getParquetColumnIndexes(frameIndex);
+            final IntList columnTypes = addressCache.getColumnTypes();
+            // row offset of the frame within the row group
+            final long rowOffset = Rows.toLocalRowID(addressCache.getRowIdOffset(frameIndex)) - addressCache.getParquetRowGroupLo(frameIndex);
+            final long rowCount = addressCache.getFrameSize(frameIndex);
+
+            pageAddresses.setAll(columnCount, 0);
+            pageSizes.setAll(columnCount, 0);
+            auxPageAddresses.setAll(columnCount, 0);
+            auxPageSizes.setAll(columnCount, 0);
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                final int parquetColumnIndex = parquetColumnIndexes.getQuick(columnIndex);
+                if (parquetColumnIndex == -1) {
+                    // symbols and column tops are provided by the frame
+                    pageAddresses.setQuick(columnIndex, framePageAddresses.getQuick(columnIndex));
+                    pageSizes.setQuick(columnIndex, framePageSizes.getQuick(columnIndex));
+                    auxPageAddresses.setQuick(columnIndex, frameAuxPageAddresses.getQuick(columnIndex));
+                    auxPageSizes.setQuick(columnIndex, frameAuxPageSizes.getQuick(columnIndex));
+                    continue;
+                }
+
+                final int columnType = columnTypes.getQuick(columnIndex);
+                long chunkPtr = chunkPtrs.getQuick(columnIndex);
+                if (chunkPtr == 0) {
+                    chunkPtr = decoder.decodeColumnChunk(rowGroup, parquetColumnIndex, columnType);
+                    chunkPtrs.setQuick(columnIndex, chunkPtr);
+                }
+                final long dataPtr = PartitionDecoder.getChunkDataPtr(chunkPtr);
+                if (ColumnType.isVarSize(columnType)) {
+                    final ColumnTypeDriver columnTypeDriver = ColumnType.getDriver(columnType);
+                    final long auxPtr = PartitionDecoder.getChunkAuxPtr(chunkPtr);
+                    final long auxOffsetLo = columnTypeDriver.getAuxVectorOffset(rowOffset);
+                    final long auxOffsetHi = columnTypeDriver.getAuxVectorOffset(rowOffset + rowCount);
+                    final long dataSize = columnTypeDriver.getDataVectorSizeAt(auxPtr, rowOffset + rowCount - 1);
+                    // some var-size columns may not have data memory (fully inlined)
+                    pageAddresses.setQuick(columnIndex, dataSize > 0 ? dataPtr : 0);
+                    pageSizes.setQuick(columnIndex, dataSize);
+                    auxPageAddresses.setQuick(columnIndex, auxPtr + auxOffsetLo);
+                    auxPageSizes.setQuick(columnIndex, auxOffsetHi - auxOffsetLo);
+                } else {
+                    final int shl = ColumnType.pow2SizeOf(columnType);
+                    pageAddresses.setQuick(columnIndex, dataPtr + (rowOffset << shl));
+                    pageSizes.setQuick(columnIndex, rowCount << shl);
+                }
+            }
+            this.frameIndex = frameIndex;
+        }
+
+        private boolean isDecoded(Utf8Sequence parquetPath, int rowGroup) {
+            return this.rowGroup == rowGroup && Utf8s.equals(decoderPath, parquetPath);
+        }
+    }
 }
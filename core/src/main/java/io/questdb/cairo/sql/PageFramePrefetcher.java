@@ -0,0 +1,364 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo.sql;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.IOURing;
+import io.questdb.std.LongList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.Mutable;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+
+/**
+ * Reads column data of native page frames into pooled buffers with io_uring ahead
+ * of the reduce workers, so that scans over cold partitions don't stall the workers
+ * on page faults. The number of frames read ahead is set by
+ * {@link PageFrameAddressCache#getPrefetchCount()}.
+ * <p>
+ * Reads are issued and completed by the query owner thread as it dispatches and collects
+ * frames, see {@link io.questdb.cairo.sql.async.PageFrameSequence}. The buffers of a frame
+ * are reused once the frame is collected. Reduce workers use the buffers of frames
+ * whose reads have completed, see {@link PageFrameMemoryPool#of(PageFrameAddressCache, PageFramePrefetcher)},
+ * and access the rest of the frames via mmapped memory. Var-size data vectors and column
+ * tops are always accessed via mmapped memory.
+ * <p>
+ * Apart from {@link #findFrame(int)} and the address getters, the methods of this class
+ * are thread-unsafe and must be called on the query owner thread.
+ */
+public class PageFramePrefetcher implements QuietCloseable, Mutable {
+    private static final Log LOG = LogFactory.getLog(PageFramePrefetcher.class);
+    // reads larger than that are split into multiple sqes
+    private static final int MAX_READ_SIZE = 1 << 30;
+    private static final int RING_CAPACITY = 64;
+    // the list doesn't change while frames are dispatched, so it's safe to read it concurrently
+    private final ObjList<FrameBuffers> frameBuffers = new ObjList<>();
+    private PageFrameAddressCache addressCache;
+    // count of enqueued reads with no consumed cqe
+    private int inflightReadCount;
+    private long readBytes;
+    private IOURing ring;
+    private boolean ringFailed;
+
+    @Override
+    public void clear() {
+        awaitReads();
+        for (int i = 0, n = frameBuffers.size(); i < n; i++) {
+            frameBuffers.getQuick(i).clear();
+        }
+        addressCache = null;
+    }
+
+    @Override
+    public void close() {
+        // buffers can't be freed while the kernel may still write to them
+        awaitReads();
+        for (int i = 0, n = frameBuffers.size(); i < n; i++) {
+            frameBuffers.getQuick(i).close();
+        }
+        ring = Misc.free(ring);
+        addressCache = null;
+    }
+
+    /**
+     * Returns index of the buffers holding data of the given frame or -1 if the frame
+     * data hasn't been read yet. This method is thread-safe.
+     */
+    public int findFrame(int frameIndex) {
+        for (int i = 0, n = frameBuffers.size(); i < n; i++) {
+            if (frameBuffers.getQuick(i).readyFrameIndex == frameIndex) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public LongList getAuxPageAddresses(int bufferIndex) {
+        return frameBuffers.getQuick(bufferIndex).auxPageAddresses;
+    }
+
+    public LongList getPageAddresses(int bufferIndex) {
+        return frameBuffers.getQuick(bufferIndex).pageAddresses;
+    }
+
+    /**
+     * Returns the number of bytes read ahead since the prefetcher was created.
+     */
+    public long getReadBytes() {
+        return readBytes;
+    }
+
+    public void of(PageFrameAddressCache addressCache) {
+        clear();
+        this.addressCache = addressCache;
+        for (int i = frameBuffers.size(), n = addressCache.getPrefetchCount(); i < n; i++) {
+            frameBuffers.add(new FrameBuffers());
+        }
+    }
+
+    /**
+     * Completes finished reads and issues reads for the frames following the last
+     * collected frame, skipping the frames that are reduced already.
+     *
+     * @param collectedFrameIndex index of the last collected frame
+     * @param startedFrameCount   number of frames reduce workers have started on
+     */
+    public void readAhead(int collectedFrameIndex, int startedFrameCount) {
+        if (addressCache == null || ringFailed) {
+            return;
+        }
+        final int prefetchCount = addressCache.getPrefetchCount();
+        if (prefetchCount == 0) {
+            return;
+        }
+        if (ring == null) {
+            try {
+                ring = addressCache.getIOURingFacade().newInstance(RING_CAPACITY);
+            } catch (CairoException e) {
+                LOG.error().$("could not create io_uring instance, page frame read-ahead is disabled [errno=").$(e.getErrno())
+                        .$(", msg=").$(e.getFlyweightMessage())
+                        .I$();
+                ringFailed = true;
+                return;
+            }
+        }
+
+        consumeCqes();
+
+        final int frameIndexLo = Math.max(collectedFrameIndex + 1, startedFrameCount);
+        final int frameIndexHi = Math.min(collectedFrameIndex + prefetchCount, addressCache.getFrameCount() - 1);
+        boolean enqueued = false;
+        for (int frameIndex = frameIndexLo; frameIndex <= frameIndexHi; frameIndex++) {
+            if (addressCache.getFrameFormat(frameIndex) != PageFrame.NATIVE_FORMAT || isPrefetched(frameIndex)) {
+                continue;
+            }
+            final FrameBuffers buffers = findFreeBuffers(collectedFrameIndex, prefetchCount);
+            if (buffers == null) {
+                break;
+            }
+            enqueued |= buffers.read(frameIndex);
+        }
+        if (enqueued) {
+            ring.submit();
+        }
+    }
+
+    private static long alignedSize(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    private void awaitReads() {
+        while (inflightReadCount > 0) {
+            ring.submitAndWait();
+            consumeCqes();
+        }
+    }
+
+    private void consumeCqes() {
+        while (ring.nextCqe()) {
+            final long id = ring.getCqeId();
+            final int res = ring.getCqeRes();
+            inflightReadCount--;
+            for (int i = 0, n = frameBuffers.size(); i < n; i++) {
+                if (frameBuffers.getQuick(i).onCqe(id, res)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private long enqueueRead(long fd, long offset, long bufPtr, int len) {
+        if (inflightReadCount == RING_CAPACITY) {
+            // don't let completions outnumber cq entries
+            ring.submitAndWait();
+            consumeCqes();
+        }
+        long id = ring.enqueueRead(fd, offset, bufPtr, len);
+        if (id == -1) {
+            // sq is full
+            ring.submit();
+            id = ring.enqueueRead(fd, offset, bufPtr, len);
+            assert id != -1;
+        }
+        inflightReadCount++;
+        return id;
+    }
+
+    // Buffers of the frames that may be reduced or consumed at the moment are never reused.
+    private FrameBuffers findFreeBuffers(int collectedFrameIndex, int prefetchCount) {
+        for (int i = 0, n = frameBuffers.size(); i < n; i++) {
+            final FrameBuffers buffers = frameBuffers.getQuick(i);
+            if (buffers.pendingReadCount == 0
+                    && (buffers.frameIndex <= collectedFrameIndex || buffers.frameIndex > collectedFrameIndex + prefetchCount)) {
+                return buffers;
+            }
+        }
+        return null;
+    }
+
+    private boolean isPrefetched(int frameIndex) {
+        for (int i = 0, n = frameBuffers.size(); i < n; i++) {
+            if (frameBuffers.getQuick(i).frameIndex == frameIndex) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Buffer holding column data of a native frame along with the frame addresses
+     * pointing to the buffer.
+     */
+    private class FrameBuffers implements QuietCloseable, Mutable {
+        private final LongList auxPageAddresses = new LongList();
+        private final LongList pageAddresses = new LongList();
+        // expected result per enqueued read, starting with readIdLo
+        private final LongList readSizes = new LongList();
+        private long bufPtr;
+        private long bufSize;
+        private boolean failed;
+        private int frameIndex = -1;
+        private int pendingReadCount;
+        private long readIdLo;
+        private long readSize;
+        // set once all reads of the frame have succeeded, -1 otherwise
+        private volatile int readyFrameIndex = -1;
+
+        @Override
+        public void clear() {
+            assert pendingReadCount == 0;
+            readyFrameIndex = -1;
+            frameIndex = -1;
+            failed = false;
+            readSizes.clear();
+        }
+
+        @Override
+        public void close() {
+            clear();
+            bufPtr = Unsafe.free(bufPtr, bufSize, MemoryTag.NATIVE_TABLE_READER);
+            bufSize = 0;
+        }
+
+        private void enqueueReads(long fd, long offset, long ptr, long size) {
+            for (long lo = 0; lo < size; lo += MAX_READ_SIZE) {
+                final int len = (int) Math.min(MAX_READ_SIZE, size - lo);
+                final long id = enqueueRead(fd, offset + lo, ptr + lo, len);
+                if (readSizes.size() == 0) {
+                    readIdLo = id;
+                }
+                readSizes.add(len);
+                pendingReadCount++;
+            }
+        }
+
+        private boolean onCqe(long id, int res) {
+            final long index = id - readIdLo;
+            if (pendingReadCount == 0 || index < 0 || index >= readSizes.size()) {
+                return false;
+            }
+            if (res != readSizes.getQuick((int) index)) {
+                // the frame will be accessed via mmapped memory
+                failed = true;
+            }
+            onReadDone();
+            return true;
+        }
+
+        private void onReadDone() {
+            if (--pendingReadCount == 0 && !failed) {
+                readBytes += readSize;
+                // publishes the addresses to reduce workers
+                readyFrameIndex = frameIndex;
+            }
+        }
+
+        private boolean read(int frameIndex) {
+            clear();
+            // frames with nothing to read are never read again
+            this.frameIndex = frameIndex;
+
+            final int columnCount = addressCache.getColumnCount();
+            final LongList framePageSizes = addressCache.getPageSizes(frameIndex);
+            final LongList framePageFds = addressCache.getPageFds(frameIndex);
+            final LongList frameAuxPageSizes = addressCache.getAuxPageSizes(frameIndex);
+            final LongList frameAuxPageFds = addressCache.getAuxPageFds(frameIndex);
+
+            long size = 0;
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                // var-size data vector addresses point to the start of the column file,
+                // so these vectors stay mmapped
+                if (framePageFds.getQuick(columnIndex) != -1 && !addressCache.isVarSizeColumn(columnIndex)) {
+                    size += alignedSize(framePageSizes.getQuick(columnIndex));
+                }
+                if (frameAuxPageFds.getQuick(columnIndex) != -1) {
+                    size += alignedSize(frameAuxPageSizes.getQuick(columnIndex));
+                }
+            }
+            if (size == 0) {
+                return false;
+            }
+            if (bufSize < size) {
+                bufPtr = Unsafe.realloc(bufPtr, bufSize, size, MemoryTag.NATIVE_TABLE_READER);
+                bufSize = size;
+            }
+            readSize = size;
+
+            final LongList framePageFileOffsets = addressCache.getPageFileOffsets(frameIndex);
+            final LongList frameAuxPageFileOffsets = addressCache.getAuxPageFileOffsets(frameIndex);
+            pageAddresses.clear();
+            pageAddresses.add(addressCache.getPageAddresses(frameIndex));
+            auxPageAddresses.clear();
+            auxPageAddresses.add(addressCache.getAuxPageAddresses(frameIndex));
+            // reads may complete while we are still enqueueing them, so we hold
+            // an extra pending read until all of them are enqueued
+            pendingReadCount = 1;
+            long ptr = bufPtr;
+            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+                final long fd = framePageFds.getQuick(columnIndex);
+                if (fd != -1 && !addressCache.isVarSizeColumn(columnIndex)) {
+                    final long pageSize = framePageSizes.getQuick(columnIndex);
+                    pageAddresses.setQuick(columnIndex, ptr);
+                    enqueueReads(fd, framePageFileOffsets.getQuick(columnIndex), ptr, pageSize);
+                    ptr += alignedSize(pageSize);
+                }
+                final long auxFd = frameAuxPageFds.getQuick(columnIndex);
+                if (auxFd != -1) {
+                    final long auxPageSize = frameAuxPageSizes.getQuick(columnIndex);
+                    auxPageAddresses.setQuick(columnIndex, ptr);
+                    enqueueReads(auxFd, frameAuxPageFileOffsets.getQuick(columnIndex), ptr, auxPageSize);
+                    ptr += alignedSize(auxPageSize);
+                }
+            }
+            onReadDone();
+            return true;
+        }
+    }
+}
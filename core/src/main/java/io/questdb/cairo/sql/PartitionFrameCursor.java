@@ -24,7 +24,9 @@
 
 package io.questdb.cairo.sql;
 
+import io.questdb.cairo.PartitionReadAhead;
 import io.questdb.cairo.TableReader;
+import io.questdb.cairo.ZoneMapFilter;
 import io.questdb.std.QuietCloseable;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
@@ -37,9 +39,27 @@ public interface PartitionFrameCursor extends QuietCloseable, SymbolTableSource
     default void calculateSize(RecordCursor.Counter counter) {
     }
 
+    /**
+     * @return advice given to the kernel on partitions ahead of the cursor, null when
+     * the cursor does not read partitions ahead
+     */
+    @Nullable
+    default PartitionReadAhead getPartitionReadAhead() {
+        return null;
+    }
+
     // same TableReader is available on each partition frame
     TableReader getTableReader();
 
+    /**
+     * @return predicates used to skip partitions, page frame cursors use them
+     * to skip row groups of Parquet partitions
+     */
+    @Nullable
+    default ZoneMapFilter getZoneMapFilter() {
+        return null;
+    }
+
     /**
      * @return the next element in the partition frame
      * @throws io.questdb.cairo.DataUnavailableException when the queried partition is in cold storage
@@ -31,5 +31,7 @@ public interface TableMetadata extends TableRecordMetadata {
 
     int getPartitionBy();
 
+    int getTtlHoursOrMonths();
+
     boolean isSoftLink();
 }
@@ -41,12 +41,14 @@ public class PageFrameReduceTask implements Closeable {
     public static final byte TYPE_FILTER = 0;
     public static final byte TYPE_GROUP_BY = 1;
     public static final byte TYPE_GROUP_BY_NOT_KEYED = 2;
+    public static final byte TYPE_HASH_JOIN = 3;
+    public static final byte TYPE_ORDER_BY = 4;
     private static final String exceptionMessage = "unexpected filter error";
 
     private final DirectLongList auxAddresses;
     private final DirectLongList dataAddresses;
     private final StringSink errorMsg = new StringSink();
-    private final DirectLongList filteredRows; // Used for TYPE_FILTER.
+    private final DirectLongList filteredRows; // Used for TYPE_FILTER, TYPE_HASH_JOIN and TYPE_ORDER_BY.
     private final PageFrameMemoryPool frameMemoryPool;
     private final long frameQueueCapacity;
     private int errorMessagePosition;
@@ -143,7 +145,7 @@ public class PageFrameReduceTask implements Closeable {
 
     public void of(PageFrameSequence<?> frameSequence, int frameIndex) {
         this.frameSequence = frameSequence;
-        this.frameMemoryPool.of(frameSequence.getPageFrameAddressCache());
+        this.frameMemoryPool.of(frameSequence.getPageFrameAddressCache(), frameSequence.getPageFramePrefetcher());
         this.frameSequenceId = frameSequence.getId();
         this.type = frameSequence.getTaskType();
         this.frameIndex = frameIndex;
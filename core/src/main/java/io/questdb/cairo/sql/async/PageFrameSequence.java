@@ -27,10 +27,12 @@ package io.questdb.cairo.sql.async;
 import io.questdb.MessageBus;
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.CairoException;
+import io.questdb.cairo.PartitionReadAhead;
 import io.questdb.cairo.sql.PageFrame;
 import io.questdb.cairo.sql.PageFrameAddressCache;
 import io.questdb.cairo.sql.PageFrameCursor;
 import io.questdb.cairo.sql.PageFrameMemoryRecord;
+import io.questdb.cairo.sql.PageFramePrefetcher;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
 import io.questdb.cairo.sql.SqlExecutionCircuitBreakerWrapper;
@@ -47,6 +49,7 @@ import io.questdb.mp.SCSequence;
 import io.questdb.std.LongList;
 import io.questdb.std.Misc;
 import io.questdb.std.Os;
+import io.questdb.std.Rows;
 import io.questdb.std.Rnd;
 import io.questdb.std.datetime.millitime.MillisecondClock;
 
@@ -64,6 +67,7 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
     private final AtomicInteger cancelReason = new AtomicInteger(SqlExecutionCircuitBreaker.STATE_OK);
     private final MillisecondClock clock;
     private final PageFrameAddressCache frameAddressCache;
+    private final PageFramePrefetcher framePrefetcher = new PageFramePrefetcher();
     private final LongList frameRowCounts = new LongList();
     private final PageFrameReduceTaskFactory localTaskFactory;
     private final MessageBus messageBus;
@@ -85,6 +89,7 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
     private PageFrameMemoryRecord localRecord;
     // Local reduce task used when there is no slots in the queue to dispatch tasks.
     private PageFrameReduceTask localTask;
+    private PartitionReadAhead partitionReadAhead;
     private boolean readyToDispatch;
     private RingQueue<PageFrameReduceTask> reduceQueue;
     private int shard;
@@ -194,8 +199,11 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         collectedFrameIndex = -1;
         readyToDispatch = false;
         frameRowCounts.clear();
+        // in-flight reads must complete before the frame cursor releases column files
+        framePrefetcher.clear();
         frameAddressCache.clear();
         atom.clear();
+        partitionReadAhead = null;
         frameCursor = Misc.freeIfCloseable(frameCursor);
         // collect sequence may not be set here when
         // factory is closed without using cursor
@@ -214,6 +222,7 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         localRecord = Misc.free(localRecord);
         circuitBreaker = Misc.free(circuitBreaker);
         localTask = Misc.free(localTask);
+        Misc.free(framePrefetcher);
         Misc.free(atom);
     }
 
@@ -262,6 +271,10 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         return frameAddressCache;
     }
 
+    public PageFramePrefetcher getPageFramePrefetcher() {
+        return framePrefetcher;
+    }
+
     public AtomicInteger getReduceFinishedCounter() {
         return reduceFinishedCounter;
     }
@@ -332,6 +345,15 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
         }
 
         assert collectedFrameIndex < frameCount - 1;
+        framePrefetcher.readAhead(collectedFrameIndex, reduceStartedCounter.get());
+        if (partitionReadAhead != null) {
+            // frames are collected in order, the next one tells the partition being scanned;
+            // the cursor has opened all partitions up to the last frame's one already
+            partitionReadAhead.onPartition(
+                    Rows.toPartitionIndex(frameAddressCache.getRowIdOffset(collectedFrameIndex + 1)),
+                    Rows.toPartitionIndex(frameAddressCache.getRowIdOffset(frameCount - 1)) + 1
+            );
+        }
         while (true) {
             long cursor = collectSubSeq.next();
             if (cursor > -1) {
@@ -385,6 +407,11 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
 
             assert frameCursor == null;
             frameCursor = base.getPageFrameCursor(executionContext, order);
+            // frames are counted up front, so partitions are advised as frames get collected
+            partitionReadAhead = frameCursor.getPartitionReadAhead();
+            if (partitionReadAhead != null) {
+                partitionReadAhead.setCursorDriven(false);
+            }
             this.collectSubSeq = collectSubSeq;
             id = ID_SEQ.incrementAndGet();
             done = false;
@@ -446,6 +473,9 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
             id = newId;
             dispatchStartFrameIndex = 0;
             collectedFrameIndex = -1;
+            if (partitionReadAhead != null) {
+                partitionReadAhead.toTop();
+            }
             reduceFinishedCounter.set(0);
             reduceStartedCounter.set(0);
             workStealingStrategy.of(reduceStartedCounter);
@@ -463,6 +493,7 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
 
         // dispatch tasks only if there is anything to dispatch
         if (frameCount > 0) {
+            framePrefetcher.of(frameAddressCache);
             // We need to subscribe publisher sequence before we return
             // control to the caller of this method. However, this sequence
             // will be unsubscribed asynchronously.
@@ -578,6 +609,8 @@ public class PageFrameSequence<T extends StatefulAtom> implements Closeable {
             PageFrameMemoryRecord record,
             SqlExecutionCircuitBreakerWrapper circuitBreaker
     ) {
+        // keep reading ahead while we help reduce workers
+        framePrefetcher.readAhead(collectedFrameIndex, reduceStartedCounter.get());
         if (PageFrameReduceJob.consumeQueue(queue, reduceSubSeq, record, circuitBreaker, this)) {
             Os.pause();
             return false;
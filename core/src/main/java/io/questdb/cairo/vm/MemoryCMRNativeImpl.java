@@ -0,0 +1,115 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cairo.vm;
+
+import io.questdb.cairo.vm.api.MemoryCMR;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.Unsafe;
+import io.questdb.std.str.LPSZ;
+
+// contiguous readable, backed by allocated native memory rather than a mapped file,
+// e.g. column data decoded from a Parquet partition
+public class MemoryCMRNativeImpl extends AbstractMemoryCR implements MemoryCMR {
+    private final int memoryTag;
+    private boolean open;
+
+    public MemoryCMRNativeImpl(int memoryTag) {
+        this.memoryTag = memoryTag;
+    }
+
+    @Override
+    public long addressHi() {
+        return pageAddress + size;
+    }
+
+    @Override
+    public void changeSize(long dataSize) {
+        assert dataSize >= 0;
+        open = true;
+        if (dataSize == 0) {
+            free();
+        } else if (pageAddress == 0) {
+            pageAddress = Unsafe.malloc(dataSize, memoryTag);
+            size = dataSize;
+        } else if (dataSize != size) {
+            pageAddress = Unsafe.realloc(pageAddress, size, dataSize, memoryTag);
+            size = dataSize;
+        }
+    }
+
+    @Override
+    public void close() {
+        clear();
+        free();
+        open = false;
+    }
+
+    @Override
+    public long detachFdClose() {
+        close();
+        return -1;
+    }
+
+    @Override
+    public void extend(long newSize) {
+        if (newSize > size) {
+            changeSize(newSize);
+        }
+    }
+
+    @Override
+    public long getFd() {
+        return -1;
+    }
+
+    @Override
+    public boolean isDeleted() {
+        return false;
+    }
+
+    @Override
+    public boolean isFileBased() {
+        return false;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void of(FilesFacade ff, LPSZ name, long extendSegmentSize, long size, int memoryTag, long opts, int madviseOpts) {
+        throw new UnsupportedOperationException();
+    }
+
+    private void free() {
+        if (pageAddress != 0) {
+            Unsafe.free(pageAddress, size, memoryTag);
+            pageAddress = 0;
+        }
+        size = 0;
+    }
+}
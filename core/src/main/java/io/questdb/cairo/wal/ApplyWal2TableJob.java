@@ -72,6 +72,8 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
     private final MicrosecondClock microClock;
     private final OperationExecutor operationExecutor;
     private final Rnd rnd = new Rnd();
+    private final int squashMaxRows;
+    private final int squashMaxTxnCount;
     private final long tableTimeQuotaMicros;
     private final Telemetry<TelemetryTask> telemetry;
     private final TelemetryFacade telemetryFacade;
@@ -79,6 +81,9 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
     private final Telemetry<TelemetryWalTask> walTelemetry;
     private final WalTelemetryFacade walTelemetryFacade;
     private long lastAttemptSeqTxn;
+    // range of base table timestamps written by the applied transactions, used to refresh materialized views
+    private long matViewMaxTimestamp;
+    private long matViewMinTimestamp;
 
     public ApplyWal2TableJob(CairoEngine engine, int workerCount, int sharedWorkerCount) {
         super(engine.getMessageBus().getWalTxnNotificationQueue(), engine.getMessageBus().getWalTxnNotificationSubSequence());
@@ -93,6 +98,9 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
         walEventReader = new WalEventReader(configuration.getFilesFacade());
         metrics = engine.getMetrics().walMetrics();
         lookAheadTransactionCount = configuration.getWalApplyLookAheadTransactionCount();
+        squashMaxRows = configuration.getWalApplySquashMaxRows();
+        // squashed transactions end up in the same LAG, don't squash more of them than LAG can hold
+        squashMaxTxnCount = configuration.getWalMaxLagTxnCount() > 0 ? configuration.getWalMaxLagTxnCount() : Integer.MAX_VALUE;
         tableTimeQuotaMicros = configuration.getWalApplyTableTimeQuota() >= 0 ? configuration.getWalApplyTableTimeQuota() * 1000L : Timestamps.DAY_MICROS;
     }
 
@@ -335,7 +343,14 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
                                 // Read more transactions from the sequencer into readWalTxnDetails to continue
                                 writer.readWalTxnDetails(transactionLogCursor);
                                 transactionLogCursor.setPosition(seqTxn);
+                                lastLoadedTxnDetails = writer.getWalTnxDetails().getLastSeqTxn();
                             }
+                            // Don't squash up to the last loaded transaction when the sequencer has more of them,
+                            // the last loaded transaction is always fully committed.
+                            // Transaction details are re-read before that instead.
+                            final long squashSeqTxnLimit = transactionLogCursor.getMaxTxn() > lastLoadedTxnDetails
+                                    ? lastLoadedTxnDetails - lookAheadTransactionCount
+                                    : lastLoadedTxnDetails;
 
                             long walSegment = writer.getWalTnxDetails().getWalSegmentId(seqTxn);
                             assert walId == Numbers.decodeHighInt(walSegment);
@@ -349,6 +364,7 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
                                     segmentTxn,
                                     operationExecutor,
                                     seqTxn,
+                                    squashSeqTxnLimit,
                                     commitTimestamp,
                                     regulator
                             );
@@ -358,6 +374,13 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
                                 rowsAdded += added;
                                 iTransaction++;
                                 physicalRowsAdded += writer.getPhysicallyWrittenRowsSinceLastCommit();
+
+                                final long appliedSeqTxn = writer.getAppliedSeqTxn();
+                                if (appliedSeqTxn > seqTxn) {
+                                    // Following transactions were squashed and applied together with this one
+                                    iTransaction += (int) (appliedSeqTxn - seqTxn);
+                                    transactionLogCursor.setPosition(appliedSeqTxn);
+                                }
                             }
                             if (added == -2L || isTerminating) {
                                 // transaction cursor goes beyond prepared transactionMeta or termination requested. Re-run the loop.
@@ -446,34 +469,79 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
             long segmentTxn,
             OperationExecutor operationExecutor,
             long seqTxn,
+            long squashSeqTxnLimit,
             long commitTimestamp,
             O3JobParallelismRegulator regulator
     ) {
         try (WalEventReader eventReader = walEventReader) {
-            final WalEventCursor walEventCursor = eventReader.of(walPath, WAL_FORMAT_VERSION, segmentTxn);
+            WalEventCursor walEventCursor = eventReader.of(walPath, WAL_FORMAT_VERSION, segmentTxn);
             final byte walTxnType = walEventCursor.getType();
             switch (walTxnType) {
                 case DATA:
                     final WalEventCursor.DataInfo dataInfo = walEventCursor.getDataInfo();
-                    if (writer.getWalTnxDetails().hasRecord(seqTxn)) {
-                        long rowCount = dataInfo.getEndRowID() - dataInfo.getStartRowID();
+                    final WalTxnDetails walTxnDetails = writer.getWalTnxDetails();
+                    if (walTxnDetails.hasRecord(seqTxn)) {
+                        final long rowLo = dataInfo.getStartRowID();
+                        long rowHi = dataInfo.getEndRowID();
+                        long minTimestamp = dataInfo.getMinTimestamp();
+                        long maxTimestamp = dataInfo.getMaxTimestamp();
+                        boolean inOrder = !dataInfo.isOutOfOrder();
+
+                        // Squash the following data transactions of the same WAL segment into one block,
+                        // they are applied to the table in one go, saving the per-transaction cost
+                        // of mapping WAL columns, remapping symbols and dispatching LAG copy tasks.
+                        long seqTxnHi = seqTxn;
+                        if (rowHi - rowLo < squashMaxRows) {
+                            final long walSegmentId = walTxnDetails.getWalSegmentId(seqTxn);
+                            boolean cursorMoved = false;
+                            while (seqTxnHi < squashSeqTxnLimit
+                                    && seqTxnHi - seqTxn + 1 < squashMaxTxnCount
+                                    && walTxnDetails.getWalSegmentId(seqTxnHi + 1) == walSegmentId
+                            ) {
+                                cursorMoved = true;
+                                if (!walEventCursor.hasNext()
+                                        || walEventCursor.getType() != DATA
+                                        || walEventCursor.getTxn() != segmentTxn + seqTxnHi - seqTxn + 1
+                                        || dataInfo.getStartRowID() != rowHi
+                                        || dataInfo.getEndRowID() - rowLo > squashMaxRows
+                                ) {
+                                    break;
+                                }
+                                inOrder &= !dataInfo.isOutOfOrder() && maxTimestamp <= dataInfo.getMinTimestamp();
+                                minTimestamp = Math.min(minTimestamp, dataInfo.getMinTimestamp());
+                                maxTimestamp = Math.max(maxTimestamp, dataInfo.getMaxTimestamp());
+                                rowHi = dataInfo.getEndRowID();
+                                seqTxnHi++;
+                            }
+                            if (cursorMoved) {
+                                // Rewind to the first transaction, its symbol diffs are not read yet
+                                walEventCursor = eventReader.of(walPath, WAL_FORMAT_VERSION, segmentTxn);
+                            }
+                        }
+
+                        long rowCount = rowHi - rowLo;
                         final long start = microClock.getTicks();
                         walTelemetryFacade.store(WAL_TXN_APPLY_START, writer.getTableToken(), walId, seqTxn, -1L, -1L, start - commitTimestamp);
                         final long rowsAdded = writer.commitWalTransaction(
                                 walPath,
-                                !dataInfo.isOutOfOrder(),
-                                dataInfo.getStartRowID(),
-                                dataInfo.getEndRowID(),
-                                dataInfo.getMinTimestamp(),
-                                dataInfo.getMaxTimestamp(),
-                                dataInfo,
+                                inOrder,
+                                rowLo,
+                                rowHi,
+                                minTimestamp,
+                                maxTimestamp,
+                                walEventCursor,
                                 seqTxn,
+                                seqTxnHi,
                                 regulator
                         );
                         final long latency = microClock.getTicks() - start;
+                        if (rowCount > 0) {
+                            matViewMinTimestamp = Math.min(matViewMinTimestamp, minTimestamp);
+                            matViewMaxTimestamp = Math.max(matViewMaxTimestamp, maxTimestamp);
+                        }
                         long physicalRowCount = writer.getPhysicallyWrittenRowsSinceLastCommit();
                         metrics.addApplyRowsWritten(rowCount, physicalRowCount, latency);
-                        walTelemetryFacade.store(WAL_TXN_DATA_APPLIED, writer.getTableToken(), walId, seqTxn, rowsAdded, physicalRowCount, latency);
+                        walTelemetryFacade.store(WAL_TXN_DATA_APPLIED, writer.getTableToken(), walId, seqTxnHi, rowsAdded, physicalRowCount, latency);
                         return rowCount;
                     } else {
                         // re-build wal transaction details
@@ -485,6 +553,11 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
                     final long start = microClock.getTicks();
                     walTelemetryFacade.store(WAL_TXN_APPLY_START, writer.getTableToken(), walId, seqTxn, -1L, -1L, start - commitTimestamp);
                     final long rowsAffected = processWalSql(writer, sqlInfo, operationExecutor, seqTxn);
+                    if (rowsAffected > 0) {
+                        // updated rows can be anywhere in the table
+                        matViewMinTimestamp = Long.MIN_VALUE;
+                        matViewMaxTimestamp = Long.MAX_VALUE;
+                    }
                     walTelemetryFacade.store(WAL_TXN_SQL_APPLIED, writer.getTableToken(), walId, seqTxn, -1L, -1L, microClock.getTicks() - start);
                     return rowsAffected;
                 case TRUNCATE:
@@ -557,6 +630,8 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
         final Path tempPath = Path.PATH.get();
         SeqTxnTracker txnTracker = null;
         this.lastAttemptSeqTxn = -1;
+        this.matViewMinTimestamp = Long.MAX_VALUE;
+        this.matViewMaxTimestamp = Long.MIN_VALUE;
         try {
             // security context is checked on writing to the WAL and can be ignored here
             final TableToken updatedToken = engine.getUpdatedTableToken(tableToken);
@@ -596,6 +671,9 @@ public class ApplyWal2TableJob extends AbstractQueueConsumerJob<WalTxnNotificati
                 if (engine.getTableSequencerAPI().notifyCommitReadable(tableToken, lastWriterTxn)) {
                     engine.notifyWalTxnCommitted(tableToken);
                 }
+                if (matViewMinTimestamp <= matViewMaxTimestamp) {
+                    engine.getMatViewGraph().notifyBaseTableCommit(updatedToken, matViewMinTimestamp, matViewMaxTimestamp);
+                }
             }
         } catch (CairoException ex) {
             if (ex.isTableDropped() || engine.isTableDropped(tableToken)) {
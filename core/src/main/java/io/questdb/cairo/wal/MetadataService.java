@@ -83,6 +83,8 @@ public interface MetadataService {
         addColumn(name, type, symbolCapacity, symbolCacheFlag, isIndexed, indexValueBlockCapacity, isSequential, null);
     }
 
+    void addBloomIndex(@NotNull CharSequence columnName);
+
     void addIndex(@NotNull CharSequence columnName, int indexValueBlockSize);
 
     AttachDetachStatus attachPartition(long partitionTimestamp);
@@ -127,6 +129,8 @@ public interface MetadataService {
 
     void setMetaO3MaxLag(long o3MaxLagUs);
 
+    void setMetaTtlHoursOrMonths(int ttlHoursOrMonths);
+
     void squashPartitions();
 
     void tick();
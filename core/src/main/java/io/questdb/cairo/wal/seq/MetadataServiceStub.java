@@ -33,6 +33,11 @@ import org.jetbrains.annotations.NotNull;
 
 public interface MetadataServiceStub extends MetadataService {
 
+    @Override
+    default void addBloomIndex(@NotNull CharSequence columnName) {
+        throw CairoException.critical(0).put("add bloom index does not update sequencer metadata");
+    }
+
     @Override
     default void addIndex(@NotNull CharSequence columnName, int indexValueBlockSize) {
         throw CairoException.critical(0).put("add index does not update sequencer metadata");
@@ -106,6 +111,11 @@ public interface MetadataServiceStub extends MetadataService {
         throw CairoException.critical(0).put("change of o3MaxLag does not update sequencer metadata");
     }
 
+    @Override
+    default void setMetaTtlHoursOrMonths(int ttlHoursOrMonths) {
+        throw CairoException.critical(0).put("change of TTL does not update sequencer metadata");
+    }
+
     @Override
     default void squashPartitions() {
         throw CairoException.critical(0).put("partition squash does not update sequencer metadata");
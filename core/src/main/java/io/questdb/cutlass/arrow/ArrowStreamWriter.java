@@ -0,0 +1,725 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.arrow;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.GeoHashes;
+import io.questdb.cairo.sql.PageFrameMemory;
+import io.questdb.cairo.sql.PageFrameMemoryRecord;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cairo.vm.Vm;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.std.BinarySequence;
+import io.questdb.std.IntList;
+import io.questdb.std.Interval;
+import io.questdb.std.Long256;
+import io.questdb.std.Long256Impl;
+import io.questdb.std.LongList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.Mutable;
+import io.questdb.std.Numbers;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Uuid;
+import io.questdb.std.Vect;
+import io.questdb.std.str.DirectUtf8Sink;
+import io.questdb.std.str.Utf8Sequence;
+import io.questdb.std.str.Utf8StringSink;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Encodes query results as an <a href="https://arrow.apache.org/docs/format/Columnar.html">Arrow IPC stream</a>:
+ * the schema message, followed by record batches and the end-of-stream marker.
+ * <p>
+ * Messages are exposed as a list of memory segments rather than copied into a single buffer. This lets
+ * record batches built from a page frame refer to the column memory of fixed-size columns directly,
+ * only the validity bitmaps are computed. Other columns, as well as the batches built record by record,
+ * are encoded into the buffers owned by the writer.
+ * <p>
+ * Columns are mapped to Arrow types as follows: BOOLEAN to Bool, BYTE, SHORT, INT and LONG to signed Int,
+ * FLOAT and DOUBLE to FloatingPoint, DATE to Date(MILLISECOND), TIMESTAMP to Timestamp(MICROSECOND, UTC),
+ * BINARY to Binary. All other types are written as their text representation in Utf8 columns.
+ */
+public class ArrowStreamWriter implements Mutable, QuietCloseable {
+    private static final int CONTINUATION_MARKER = -1;
+    private static final short DATE_UNIT_MILLISECOND = 1;
+    private static final short ENDIANNESS_LITTLE = 0;
+    private static final byte MESSAGE_HEADER_RECORD_BATCH = 3;
+    private static final byte MESSAGE_HEADER_SCHEMA = 1;
+    private static final short METADATA_VERSION_V5 = 4;
+    private static final long PAGE_SIZE = 64 * 1024;
+    private static final short PRECISION_DOUBLE = 2;
+    private static final short PRECISION_SINGLE = 1;
+    private static final short TIME_UNIT_MICROSECOND = 2;
+    private static final String TIMEZONE_UTC = "UTC";
+    private static final byte TYPE_BINARY = 4;
+    private static final byte TYPE_BOOL = 6;
+    private static final byte TYPE_DATE = 8;
+    private static final byte TYPE_FLOATING_POINT = 3;
+    private static final byte TYPE_INT = 2;
+    private static final byte TYPE_TIMESTAMP = 10;
+    private static final byte TYPE_UTF8 = 5;
+    // pairs of address and size of the record batch body buffers
+    private final LongList bodyBuffers = new LongList();
+    private final FlatBufferBuilder builder = new FlatBufferBuilder(MemoryTag.NATIVE_DEFAULT);
+    private final ObjList<ColumnBuffers> columnBuffers = new ObjList<>();
+    private final IntList columnIndexes = new IntList();
+    private final ObjList<String> columnNames = new ObjList<>();
+    private final IntList columnTypes = new IntList();
+    private final IntList fieldOffsets = new IntList();
+    // metadata message, followed by zeroes used to pad the body buffers
+    private final MemoryCARW messageMem = Vm.getCARWInstance(PAGE_SIZE, Integer.MAX_VALUE, MemoryTag.NATIVE_DEFAULT);
+    // pairs of address and size
+    private final LongList segments = new LongList();
+    private final Utf8StringSink utf8Sink = new Utf8StringSink();
+    private int columnCount;
+    private long rowCount;
+
+    /**
+     * Fills an empty batch with the rows of a page frame. Fixed-size columns are not copied,
+     * the batch refers to the frame memory, so the frame must stay in memory until the batch is sent.
+     *
+     * @param frameMemory memory of the current frame, also used to init the record
+     * @param record      record of the current frame, used to read variable-size columns
+     * @param rowLo       first row in the frame, inclusive
+     * @param rowHi       last row in the frame, exclusive
+     */
+    public void appendPageFrame(PageFrameMemory frameMemory, PageFrameMemoryRecord record, long rowLo, long rowHi) {
+        assert rowCount == 0;
+        final long rows = rowHi - rowLo;
+        for (int i = 0; i < columnCount; i++) {
+            final ColumnBuffers buffers = columnBuffers.getQuick(i);
+            final int columnType = columnTypes.getQuick(i);
+            final int columnIndex = columnIndexes.getQuick(i);
+            if (isFixedSize(columnType)) {
+                final int size = ColumnType.sizeOf(columnType);
+                final long pageAddress = frameMemory.getPageAddress(columnIndex);
+                buffers.dataSize = rows * size;
+                if (pageAddress != 0) {
+                    buffers.dataAddress = pageAddress + rowLo * size;
+                    buildValidity(buffers, columnType, buffers.dataAddress, rows);
+                } else {
+                    // column top, the rows are nulls
+                    buffers.dataAddress = buffers.dataMem.appendAddressFor(buffers.dataSize);
+                    buildNullValidity(buffers, columnType, buffers.dataAddress, rows);
+                }
+            } else {
+                for (long r = rowLo; r < rowHi; r++) {
+                    record.setRowIndex(r);
+                    appendValue(buffers, columnType, record, columnIndex, r - rowLo);
+                }
+            }
+        }
+        rowCount = rows;
+    }
+
+    /**
+     * Appends the record to the batch.
+     */
+    public void appendRecord(Record record) {
+        for (int i = 0; i < columnCount; i++) {
+            appendValue(columnBuffers.getQuick(i), columnTypes.getQuick(i), record, columnIndexes.getQuick(i), rowCount);
+        }
+        rowCount++;
+    }
+
+    @Override
+    public void clear() {
+        clearRecordBatch();
+        columnCount = 0;
+        columnIndexes.clear();
+        columnNames.clear();
+        columnTypes.clear();
+        bodyBuffers.clear();
+        segments.clear();
+        builder.clear();
+        messageMem.truncate();
+    }
+
+    /**
+     * Releases the rows of the batch once it has been sent.
+     */
+    public void clearRecordBatch() {
+        for (int i = 0; i < columnCount; i++) {
+            columnBuffers.getQuick(i).clear(columnTypes.getQuick(i));
+        }
+        rowCount = 0;
+    }
+
+    @Override
+    public void close() {
+        Misc.freeObjListAndClear(columnBuffers);
+        Misc.free(builder);
+        Misc.free(messageMem);
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getSegmentAddress(int index) {
+        return segments.getQuick(2 * index);
+    }
+
+    public int getSegmentCount() {
+        return segments.size() / 2;
+    }
+
+    public long getSegmentSize(int index) {
+        return segments.getQuick(2 * index + 1);
+    }
+
+    /**
+     * Prepares to write the given columns of the metadata.
+     *
+     * @param metadata      metadata of the records
+     * @param columnIndexes indexes of the columns to write, all columns are written when null or empty
+     */
+    public void of(RecordMetadata metadata, @Nullable IntList columnIndexes) {
+        clear();
+        final boolean allColumns = columnIndexes == null || columnIndexes.size() == 0;
+        final int columnCount = allColumns ? metadata.getColumnCount() : columnIndexes.size();
+        for (int i = 0; i < columnCount; i++) {
+            final int columnIndex = allColumns ? i : columnIndexes.getQuick(i);
+            final int columnType = metadata.getColumnType(columnIndex);
+            switch (ColumnType.tagOf(columnType)) {
+                case ColumnType.BOOLEAN:
+                case ColumnType.BYTE:
+                case ColumnType.SHORT:
+                case ColumnType.CHAR:
+                case ColumnType.INT:
+                case ColumnType.LONG:
+                case ColumnType.DATE:
+                case ColumnType.TIMESTAMP:
+                case ColumnType.FLOAT:
+                case ColumnType.DOUBLE:
+                case ColumnType.STRING:
+                case ColumnType.VARCHAR:
+                case ColumnType.SYMBOL:
+                case ColumnType.BINARY:
+                case ColumnType.LONG256:
+                case ColumnType.GEOBYTE:
+                case ColumnType.GEOSHORT:
+                case ColumnType.GEOINT:
+                case ColumnType.GEOLONG:
+                case ColumnType.RECORD:
+                case ColumnType.NULL:
+                case ColumnType.UUID:
+                case ColumnType.IPv4:
+                case ColumnType.INTERVAL:
+                    break;
+                default:
+                    throw CairoException.nonCritical().put("column type not supported [column=").put(metadata.getColumnName(columnIndex))
+                            .put(", type=").put(ColumnType.nameOf(columnType)).put(']');
+            }
+            this.columnIndexes.add(columnIndex);
+            this.columnNames.add(metadata.getColumnName(columnIndex));
+            this.columnTypes.add(columnType);
+            if (i == columnBuffers.size()) {
+                columnBuffers.add(new ColumnBuffers());
+            }
+        }
+        this.columnCount = columnCount;
+        for (int i = 0; i < columnCount; i++) {
+            columnBuffers.getQuick(i).clear(columnTypes.getQuick(i));
+        }
+    }
+
+    public void prepareEndOfStream() {
+        segments.clear();
+        messageMem.jumpTo(0);
+        messageMem.putInt(CONTINUATION_MARKER);
+        messageMem.putInt(0);
+        addSegment(messageMem.addressOf(0), 2 * Integer.BYTES);
+    }
+
+    /**
+     * Prepares the record batch message of the appended rows. The rows stay in the batch until
+     * {@link #clearRecordBatch()} is called.
+     */
+    public void prepareRecordBatch() {
+        // body buffers of each column, in the order of the schema fields
+        bodyBuffers.clear();
+        for (int i = 0; i < columnCount; i++) {
+            final ColumnBuffers buffers = columnBuffers.getQuick(i);
+            final int columnType = columnTypes.getQuick(i);
+            if (buffers.nullCount > 0) {
+                bodyBuffers.add(buffers.validityMem.addressOf(0), (rowCount + 7) >>> 3);
+            } else {
+                bodyBuffers.add(0L, 0L);
+            }
+            if (buffers.dataAddress != 0) {
+                // page frame memory
+                bodyBuffers.add(buffers.dataAddress, buffers.dataSize);
+            } else if (isFixedSize(columnType)) {
+                bodyBuffers.add(buffers.dataMem.addressOf(0), buffers.dataMem.getAppendOffset());
+            } else if (ColumnType.tagOf(columnType) == ColumnType.BOOLEAN) {
+                bodyBuffers.add(buffers.dataMem.addressOf(0), (rowCount + 7) >>> 3);
+            } else {
+                bodyBuffers.add(buffers.dataMem.addressOf(0), buffers.dataMem.getAppendOffset());
+                bodyBuffers.add(buffers.varDataSink.ptr(), buffers.varDataSink.size());
+            }
+        }
+
+        builder.clear();
+        final int bufferCount = bodyBuffers.size() / 2;
+        long bodySize = 0;
+        for (int i = 0; i < bufferCount; i++) {
+            bodySize += align8(bodyBuffers.getQuick(2 * i + 1));
+        }
+        builder.startVector(2 * Long.BYTES, bufferCount, Long.BYTES);
+        long bufferOffset = bodySize;
+        for (int i = bufferCount - 1; i >= 0; i--) {
+            final long size = bodyBuffers.getQuick(2 * i + 1);
+            bufferOffset -= align8(size);
+            builder.addStruct(bufferOffset, size);
+        }
+        final int buffersOffset = builder.endVector(bufferCount);
+
+        builder.startVector(2 * Long.BYTES, columnCount, Long.BYTES);
+        for (int i = columnCount - 1; i >= 0; i--) {
+            builder.addStruct(rowCount, columnBuffers.getQuick(i).nullCount);
+        }
+        final int nodesOffset = builder.endVector(columnCount);
+
+        builder.startTable(3);
+        builder.addLong(0, rowCount);
+        builder.addOffset(1, nodesOffset);
+        builder.addOffset(2, buffersOffset);
+        final int recordBatchOffset = builder.endTable();
+
+        finishMessage(MESSAGE_HEADER_RECORD_BATCH, recordBatchOffset, bodySize);
+    }
+
+    public void prepareSchema() {
+        builder.clear();
+        fieldOffsets.clear();
+        for (int i = 0; i < columnCount; i++) {
+            utf8Sink.clear();
+            utf8Sink.put(columnNames.getQuick(i));
+            final int nameOffset = builder.createString(utf8Sink);
+            final int columnType = columnTypes.getQuick(i);
+            final byte arrowType = arrowTypeOf(columnType);
+            final int typeOffset = addType(arrowType, columnType);
+            builder.startVector(Integer.BYTES, 0, Integer.BYTES);
+            final int childrenOffset = builder.endVector(0);
+
+            builder.startTable(6);
+            builder.addOffset(0, nameOffset);
+            builder.addBool(1, true);
+            builder.addByte(2, arrowType);
+            builder.addOffset(3, typeOffset);
+            builder.addOffset(5, childrenOffset);
+            fieldOffsets.add(builder.endTable());
+        }
+        builder.startVector(Integer.BYTES, columnCount, Integer.BYTES);
+        for (int i = columnCount - 1; i >= 0; i--) {
+            builder.addOffset(fieldOffsets.getQuick(i));
+        }
+        final int fieldsOffset = builder.endVector(columnCount);
+
+        builder.startTable(2);
+        builder.addShort(0, ENDIANNESS_LITTLE);
+        builder.addOffset(1, fieldsOffset);
+        final int schemaOffset = builder.endTable();
+
+        bodyBuffers.clear();
+        finishMessage(MESSAGE_HEADER_SCHEMA, schemaOffset, 0);
+    }
+
+    private static long align8(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    private static byte arrowTypeOf(int columnType) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.BOOLEAN:
+                return TYPE_BOOL;
+            case ColumnType.BYTE:
+            case ColumnType.SHORT:
+            case ColumnType.INT:
+            case ColumnType.LONG:
+                return TYPE_INT;
+            case ColumnType.FLOAT:
+            case ColumnType.DOUBLE:
+                return TYPE_FLOATING_POINT;
+            case ColumnType.DATE:
+                return TYPE_DATE;
+            case ColumnType.TIMESTAMP:
+                return TYPE_TIMESTAMP;
+            case ColumnType.BINARY:
+                return TYPE_BINARY;
+            default:
+                return TYPE_UTF8;
+        }
+    }
+
+    private static void buildNullValidity(ColumnBuffers buffers, int columnType, long address, long rows) {
+        final short tag = ColumnType.tagOf(columnType);
+        // byte and short columns have no nulls, column tops read as zeroes
+        Vect.memset(address, rows * ColumnType.sizeOf(columnType), 0);
+        if (tag != ColumnType.BYTE && tag != ColumnType.SHORT) {
+            final long validitySize = (rows + 7) >>> 3;
+            Vect.memset(buffers.validityMem.appendAddressFor(validitySize), validitySize, 0);
+            buffers.nullCount = rows;
+        }
+    }
+
+    private static void buildValidity(ColumnBuffers buffers, int columnType, long address, long rows) {
+        final short tag = ColumnType.tagOf(columnType);
+        if (tag == ColumnType.BYTE || tag == ColumnType.SHORT) {
+            return;
+        }
+        final int size = ColumnType.sizeOf(columnType);
+        final long validityAddress = buffers.validityMem.appendAddressFor((rows + 7) >>> 3);
+        long nullCount = 0;
+        for (long r = 0; r < rows; r += 8) {
+            final long hi = Math.min(r + 8, rows);
+            int bits = 0;
+            for (long i = r; i < hi; i++) {
+                if (!isNull(tag, address + i * size)) {
+                    bits |= 1 << (i - r);
+                } else {
+                    nullCount++;
+                }
+            }
+            Unsafe.getUnsafe().putByte(validityAddress + (r >>> 3), (byte) bits);
+        }
+        buffers.nullCount = nullCount;
+    }
+
+    private static boolean isFixedSize(int columnType) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.BYTE:
+            case ColumnType.SHORT:
+            case ColumnType.INT:
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+            case ColumnType.FLOAT:
+            case ColumnType.DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isNull(short tag, long address) {
+        switch (tag) {
+            case ColumnType.INT:
+                return Unsafe.getUnsafe().getInt(address) == Numbers.INT_NULL;
+            case ColumnType.FLOAT:
+                return Float.isNaN(Unsafe.getUnsafe().getFloat(address));
+            case ColumnType.DOUBLE:
+                return Double.isNaN(Unsafe.getUnsafe().getDouble(address));
+            default:
+                return Unsafe.getUnsafe().getLong(address) == Numbers.LONG_NULL;
+        }
+    }
+
+    private static void setBit(MemoryCARW mem, long row, boolean value) {
+        if ((row & 7) == 0) {
+            mem.putByte((byte) 0);
+        }
+        if (value) {
+            final long address = mem.addressOf(row >>> 3);
+            Unsafe.getUnsafe().putByte(address, (byte) (Unsafe.getUnsafe().getByte(address) | (1 << (row & 7))));
+        }
+    }
+
+    private int addType(byte arrowType, int columnType) {
+        switch (arrowType) {
+            case TYPE_INT:
+                builder.startTable(2);
+                builder.addInt(0, ColumnType.sizeOf(columnType) * Byte.SIZE);
+                builder.addBool(1, true);
+                return builder.endTable();
+            case TYPE_FLOATING_POINT:
+                builder.startTable(1);
+                builder.addShort(0, ColumnType.tagOf(columnType) == ColumnType.FLOAT ? PRECISION_SINGLE : PRECISION_DOUBLE);
+                return builder.endTable();
+            case TYPE_DATE:
+                builder.startTable(1);
+                builder.addShort(0, DATE_UNIT_MILLISECOND);
+                return builder.endTable();
+            case TYPE_TIMESTAMP:
+                utf8Sink.clear();
+                utf8Sink.put(TIMEZONE_UTC);
+                final int timezoneOffset = builder.createString(utf8Sink);
+                builder.startTable(2);
+                builder.addShort(0, TIME_UNIT_MICROSECOND);
+                builder.addOffset(1, timezoneOffset);
+                return builder.endTable();
+            default:
+                // Bool, Binary and Utf8 types have no fields
+                builder.startTable(0);
+                return builder.endTable();
+        }
+    }
+
+    private void addSegment(long address, long size) {
+        if (size > 0) {
+            segments.add(address, size);
+        }
+    }
+
+    private void appendValue(ColumnBuffers buffers, int columnType, Record record, int columnIndex, long row) {
+        final DirectUtf8Sink sink = buffers.varDataSink;
+        boolean valid = true;
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.BOOLEAN:
+                setBit(buffers.dataMem, row, record.getBool(columnIndex));
+                break;
+            case ColumnType.BYTE:
+                buffers.dataMem.putByte(record.getByte(columnIndex));
+                break;
+            case ColumnType.SHORT:
+                buffers.dataMem.putShort(record.getShort(columnIndex));
+                break;
+            case ColumnType.INT: {
+                final int value = record.getInt(columnIndex);
+                buffers.dataMem.putInt(value);
+                valid = value != Numbers.INT_NULL;
+                break;
+            }
+            case ColumnType.LONG: {
+                final long value = record.getLong(columnIndex);
+                buffers.dataMem.putLong(value);
+                valid = value != Numbers.LONG_NULL;
+                break;
+            }
+            case ColumnType.DATE: {
+                final long value = record.getDate(columnIndex);
+                buffers.dataMem.putLong(value);
+                valid = value != Numbers.LONG_NULL;
+                break;
+            }
+            case ColumnType.TIMESTAMP: {
+                final long value = record.getTimestamp(columnIndex);
+                buffers.dataMem.putLong(value);
+                valid = value != Numbers.LONG_NULL;
+                break;
+            }
+            case ColumnType.FLOAT: {
+                final float value = record.getFloat(columnIndex);
+                buffers.dataMem.putFloat(value);
+                valid = !Float.isNaN(value);
+                break;
+            }
+            case ColumnType.DOUBLE: {
+                final double value = record.getDouble(columnIndex);
+                buffers.dataMem.putDouble(value);
+                valid = !Double.isNaN(value);
+                break;
+            }
+            case ColumnType.CHAR: {
+                final char value = record.getChar(columnIndex);
+                if (value != 0) {
+                    sink.put(value);
+                } else {
+                    valid = false;
+                }
+                break;
+            }
+            case ColumnType.STRING: {
+                final CharSequence value = record.getStrA(columnIndex);
+                if (value != null) {
+                    sink.put(value);
+                } else {
+                    valid = false;
+                }
+                break;
+            }
+            case ColumnType.VARCHAR: {
+                final Utf8Sequence value = record.getVarcharA(columnIndex);
+                if (value != null) {
+                    sink.put(value);
+                } else {
+                    valid = false;
+                }
+                break;
+            }
+            case ColumnType.SYMBOL: {
+                final CharSequence value = record.getSymA(columnIndex);
+                if (value != null) {
+                    sink.put(value);
+                } else {
+                    valid = false;
+                }
+                break;
+            }
+            case ColumnType.BINARY: {
+                final BinarySequence value = record.getBin(columnIndex);
+                if (value != null) {
+                    for (long i = 0, n = value.length(); i < n; i++) {
+                        sink.putAny(value.byteAt(i));
+                    }
+                } else {
+                    valid = false;
+                }
+                break;
+            }
+            case ColumnType.LONG256: {
+                final Long256 value = record.getLong256A(columnIndex);
+                if (!Long256Impl.isNull(value)) {
+                    Numbers.appendLong256(value.getLong0(), value.getLong1(), value.getLong2(), value.getLong3(), sink);
+                } else {
+                    valid = false;
+                }
+                break;
+            }
+            case ColumnType.GEOBYTE:
+                valid = appendGeoHash(sink, record.getGeoByte(columnIndex), columnType);
+                break;
+            case ColumnType.GEOSHORT:
+                valid = appendGeoHash(sink, record.getGeoShort(columnIndex), columnType);
+                break;
+            case ColumnType.GEOINT:
+                valid = appendGeoHash(sink, record.getGeoInt(columnIndex), columnType);
+                break;
+            case ColumnType.GEOLONG:
+                valid = appendGeoHash(sink, record.getGeoLong(columnIndex), columnType);
+                break;
+            case ColumnType.UUID: {
+                final long lo = record.getLong128Lo(columnIndex);
+                final long hi = record.getLong128Hi(columnIndex);
+                if (!Uuid.isNull(lo, hi)) {
+                    Numbers.appendUuid(lo, hi, sink);
+                } else {
+                    valid = false;
+                }
+                break;
+            }
+            case ColumnType.IPv4: {
+                final int value = record.getIPv4(columnIndex);
+                if (value != Numbers.IPv4_NULL) {
+                    Numbers.intToIPv4Sink(sink, value);
+                } else {
+                    valid = false;
+                }
+                break;
+            }
+            case ColumnType.INTERVAL: {
+                final Interval value = record.getInterval(columnIndex);
+                if (!Interval.NULL.equals(value)) {
+                    sink.put(value);
+                } else {
+                    valid = false;
+                }
+                break;
+            }
+            default:
+                // RECORD and NULL columns
+                valid = false;
+                break;
+        }
+        if (!isFixedSize(columnType) && ColumnType.tagOf(columnType) != ColumnType.BOOLEAN) {
+            // variable-size value ends where the next one starts
+            buffers.dataMem.putInt(sink.size());
+        }
+        setBit(buffers.validityMem, row, valid);
+        if (!valid) {
+            buffers.nullCount++;
+        }
+    }
+
+    private boolean appendGeoHash(DirectUtf8Sink sink, long hash, int columnType) {
+        if (hash == GeoHashes.NULL) {
+            return false;
+        }
+        final int bits = GeoHashes.getBitFlags(columnType);
+        if (bits < 0) {
+            GeoHashes.appendCharsUnsafe(hash, -bits, sink);
+        } else {
+            GeoHashes.appendBinaryStringUnsafe(hash, bits, sink);
+        }
+        return true;
+    }
+
+    private void finishMessage(byte headerType, int headerOffset, long bodySize) {
+        builder.startTable(4);
+        builder.addLong(3, bodySize);
+        builder.addOffset(2, headerOffset);
+        builder.addShort(0, METADATA_VERSION_V5);
+        builder.addByte(1, headerType);
+        builder.finish(builder.endTable());
+
+        // the body that follows the metadata must be 8-byte aligned
+        final int metadataSize = (int) align8(builder.size());
+        messageMem.jumpTo(0);
+        messageMem.putInt(CONTINUATION_MARKER);
+        messageMem.putInt(metadataSize);
+        messageMem.putBlockOfBytes(builder.getAddress(), builder.size());
+        for (int i = builder.size(); i < metadataSize; i++) {
+            messageMem.putByte((byte) 0);
+        }
+        final long zeroesOffset = messageMem.getAppendOffset();
+        messageMem.putLong(0);
+
+        segments.clear();
+        addSegment(messageMem.addressOf(0), 2 * Integer.BYTES + metadataSize);
+        // buffers are padded with zeroes to keep the next buffer aligned
+        final long zeroes = messageMem.addressOf(zeroesOffset);
+        for (int i = 0, n = bodyBuffers.size() / 2; i < n; i++) {
+            final long size = bodyBuffers.getQuick(2 * i + 1);
+            addSegment(bodyBuffers.getQuick(2 * i), size);
+            addSegment(zeroes, align8(size) - size);
+        }
+    }
+
+    private static class ColumnBuffers implements QuietCloseable {
+        // values of fixed-size and boolean columns, or offsets of variable-size columns
+        private final MemoryCARW dataMem = Vm.getCARWInstance(PAGE_SIZE, Integer.MAX_VALUE, MemoryTag.NATIVE_DEFAULT);
+        private final MemoryCARW validityMem = Vm.getCARWInstance(PAGE_SIZE, Integer.MAX_VALUE, MemoryTag.NATIVE_DEFAULT);
+        private final DirectUtf8Sink varDataSink = new DirectUtf8Sink(PAGE_SIZE);
+        private long dataAddress;
+        private long dataSize;
+        private long nullCount;
+
+        @Override
+        public void close() {
+            Misc.free(dataMem);
+            Misc.free(validityMem);
+            Misc.free(varDataSink);
+        }
+
+        private void clear(int columnType) {
+            dataMem.jumpTo(0);
+            validityMem.jumpTo(0);
+            varDataSink.clear();
+            dataAddress = 0;
+            dataSize = 0;
+            nullCount = 0;
+            if (!isFixedSize(columnType) && ColumnType.tagOf(columnType) != ColumnType.BOOLEAN) {
+                dataMem.putInt(0);
+            }
+        }
+    }
+}
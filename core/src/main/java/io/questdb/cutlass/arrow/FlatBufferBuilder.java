@@ -0,0 +1,250 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.cutlass.arrow;
+
+import io.questdb.std.IntList;
+import io.questdb.std.Mutable;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+import io.questdb.std.str.Utf8Sequence;
+
+/**
+ * Minimal native FlatBuffers builder, enough to encode Arrow IPC metadata messages.
+ * Same as the reference implementation, the buffer is filled back to front, so
+ * children are created before the tables that refer to them. Offsets returned by
+ * the builder are measured from the end of the buffer.
+ */
+class FlatBufferBuilder implements Mutable, QuietCloseable {
+    private static final int INITIAL_CAPACITY = 1024;
+    private final int memoryTag;
+    private final IntList vtable = new IntList();
+    private long address;
+    private int capacity;
+    private int minAlign = 1;
+    private int objectStart;
+    // bytes left at the front of the buffer
+    private int space;
+
+    FlatBufferBuilder(int memoryTag) {
+        this.memoryTag = memoryTag;
+        this.capacity = INITIAL_CAPACITY;
+        this.address = Unsafe.malloc(capacity, memoryTag);
+        this.space = capacity;
+    }
+
+    public void addBool(int slot, boolean value) {
+        addByte(slot, (byte) (value ? 1 : 0));
+    }
+
+    public void addByte(int slot, byte value) {
+        prep(Byte.BYTES, 0);
+        putByte(value);
+        vtable.setQuick(slot, offset());
+    }
+
+    public void addInt(int slot, int value) {
+        prep(Integer.BYTES, 0);
+        putInt(value);
+        vtable.setQuick(slot, offset());
+    }
+
+    public void addLong(int slot, long value) {
+        prep(Long.BYTES, 0);
+        putLong(value);
+        vtable.setQuick(slot, offset());
+    }
+
+    public void addOffset(int slot, int offset) {
+        addOffset(offset);
+        vtable.setQuick(slot, offset());
+    }
+
+    /**
+     * Adds a reference to the vector that is being built.
+     */
+    public void addOffset(int offset) {
+        prep(Integer.BYTES, 0);
+        assert offset <= offset();
+        putInt(offset() - offset + Integer.BYTES);
+    }
+
+    public void addShort(int slot, short value) {
+        prep(Short.BYTES, 0);
+        putShort(value);
+        vtable.setQuick(slot, offset());
+    }
+
+    /**
+     * Adds a struct of two longs, such as Arrow's FieldNode and Buffer, to the vector that is being built.
+     */
+    public void addStruct(long first, long second) {
+        prep(Long.BYTES, 2 * Long.BYTES);
+        putLong(second);
+        putLong(first);
+    }
+
+    @Override
+    public void clear() {
+        space = capacity;
+        minAlign = 1;
+        vtable.clear();
+    }
+
+    @Override
+    public void close() {
+        if (address != 0) {
+            address = Unsafe.free(address, capacity, memoryTag);
+            capacity = 0;
+            space = 0;
+        }
+    }
+
+    public int createString(Utf8Sequence value) {
+        final int size = value.size();
+        prep(Byte.BYTES, 0);
+        putByte((byte) 0);
+        startVector(Byte.BYTES, size, Byte.BYTES);
+        space -= size;
+        for (int i = 0; i < size; i++) {
+            Unsafe.getUnsafe().putByte(address + space + i, value.byteAt(i));
+        }
+        return endVector(size);
+    }
+
+    public int endTable() {
+        addInt(0);
+        final int tableOffset = offset();
+        int n = vtable.size() - 1;
+        while (n >= 0 && vtable.getQuick(n) == 0) {
+            n--;
+        }
+        final int fieldCount = n + 1;
+        for (; n >= 0; n--) {
+            final int fieldOffset = vtable.getQuick(n);
+            addShort(fieldOffset != 0 ? (short) (tableOffset - fieldOffset) : 0);
+        }
+        addShort((short) (tableOffset - objectStart));
+        addShort((short) ((fieldCount + 2) * Short.BYTES));
+        // the table starts with the signed offset back to its vtable
+        Unsafe.getUnsafe().putInt(address + capacity - tableOffset, offset() - tableOffset);
+        vtable.clear();
+        return tableOffset;
+    }
+
+    public int endVector(int length) {
+        // startVector() has aligned the length prefix
+        putInt(length);
+        return offset();
+    }
+
+    /**
+     * Writes the root offset. The finished buffer is {@link #size()} bytes long and starts at {@link #getAddress()}.
+     */
+    public void finish(int rootTable) {
+        prep(minAlign, Integer.BYTES);
+        addOffset(rootTable);
+    }
+
+    public long getAddress() {
+        return address + space;
+    }
+
+    public int size() {
+        return capacity - space;
+    }
+
+    public void startTable(int fieldCount) {
+        vtable.setAll(fieldCount, 0);
+        objectStart = offset();
+    }
+
+    public void startVector(int elementSize, int length, int alignment) {
+        prep(Integer.BYTES, elementSize * length);
+        prep(alignment, elementSize * length);
+    }
+
+    private void addInt(int value) {
+        prep(Integer.BYTES, 0);
+        putInt(value);
+    }
+
+    private void addShort(short value) {
+        prep(Short.BYTES, 0);
+        putShort(value);
+    }
+
+    private void grow(int minSpace) {
+        final int used = capacity - space;
+        int newCapacity = capacity;
+        while (newCapacity - used < minSpace) {
+            newCapacity *= 2;
+        }
+        final long newAddress = Unsafe.malloc(newCapacity, memoryTag);
+        Vect.memcpy(newAddress + newCapacity - used, address + space, used);
+        Unsafe.free(address, capacity, memoryTag);
+        address = newAddress;
+        capacity = newCapacity;
+        space = newCapacity - used;
+    }
+
+    private int offset() {
+        return capacity - space;
+    }
+
+    // aligns the buffer so that a value of the given size is aligned after additionalBytes are written
+    private void prep(int size, int additionalBytes) {
+        if (size > minAlign) {
+            minAlign = size;
+        }
+        final int alignSize = (~(capacity - space + additionalBytes) + 1) & (size - 1);
+        if (space < alignSize + size + additionalBytes) {
+            grow(alignSize + size + additionalBytes);
+        }
+        for (int i = 0; i < alignSize; i++) {
+            putByte((byte) 0);
+        }
+    }
+
+    private void putByte(byte value) {
+        Unsafe.getUnsafe().putByte(address + --space, value);
+    }
+
+    private void putInt(int value) {
+        space -= Integer.BYTES;
+        Unsafe.getUnsafe().putInt(address + space, value);
+    }
+
+    private void putLong(long value) {
+        space -= Long.BYTES;
+        Unsafe.getUnsafe().putLong(address + space, value);
+    }
+
+    private void putShort(short value) {
+        space -= Short.BYTES;
+        Unsafe.getUnsafe().putShort(address + space, value);
+    }
+}
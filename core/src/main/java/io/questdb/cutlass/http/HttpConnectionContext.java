@@ -29,7 +29,6 @@ import io.questdb.cairo.CairoException;
 import io.questdb.cairo.SecurityContext;
 import io.questdb.cairo.security.DenyAllSecurityContext;
 import io.questdb.cairo.security.SecurityContextFactory;
-import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.cutlass.http.ex.*;
 import io.questdb.cutlass.http.processors.RejectProcessor;
 import io.questdb.log.Log;
@@ -72,7 +71,7 @@ public class HttpConnectionContext extends IOContext<HttpConnectionContext> impl
         LOG.info().$("Retry is requested after successful writer allocation. Retry will be re-scheduled [thread=").$(Thread.currentThread().getId()).I$();
         throw RetryOperationException.INSTANCE;
     };
-    private final AssociativeCache<RecordCursorFactory> selectCache;
+    private final boolean selectCacheEnabled;
     private long authenticationNanos = 0L;
     private int nCompletedRequests;
     private boolean pendingRetry = false;
@@ -97,7 +96,7 @@ public class HttpConnectionContext extends IOContext<HttpConnectionContext> impl
                 socketFactory,
                 DefaultHttpCookieHandler.INSTANCE,
                 DefaultHttpHeaderParserFactory.INSTANCE,
-                HttpServer.NO_OP_CACHE
+                false
         );
     }
 
@@ -107,7 +106,7 @@ public class HttpConnectionContext extends IOContext<HttpConnectionContext> impl
             SocketFactory socketFactory,
             HttpCookieHandler cookieHandler,
             HttpHeaderParserFactory headerParserFactory,
-            AssociativeCache<RecordCursorFactory> selectCache
+            boolean selectCacheEnabled
     ) {
         super(
                 socketFactory,
@@ -138,7 +137,7 @@ public class HttpConnectionContext extends IOContext<HttpConnectionContext> impl
         this.authenticator = contextConfiguration.getFactoryProvider().getHttpAuthenticatorFactory().getHttpAuthenticator();
         this.rejectProcessor = contextConfiguration.getFactoryProvider().getRejectProcessorFactory().getRejectProcessor(this);
         this.forceFragmentationReceiveChunkSize = contextConfiguration.getForceRecvFragmentationChunkSize();
-        this.selectCache = selectCache;
+        this.selectCacheEnabled = selectCacheEnabled;
     }
 
     @Override
@@ -183,7 +182,6 @@ public class HttpConnectionContext extends IOContext<HttpConnectionContext> impl
         this.receivedBytes = 0;
         this.securityContext = DenyAllSecurityContext.INSTANCE;
         this.authenticator.close();
-        Misc.free(selectCache);
         LOG.debug().$("closed [fd=").$(fd).I$();
     }
 
@@ -244,10 +242,6 @@ public class HttpConnectionContext extends IOContext<HttpConnectionContext> impl
         return securityContext;
     }
 
-    public AssociativeCache<RecordCursorFactory> getSelectCache() {
-        return selectCache;
-    }
-
     @Override
     public SuspendEvent getSuspendEvent() {
         return suspendEvent;
@@ -304,6 +298,14 @@ public class HttpConnectionContext extends IOContext<HttpConnectionContext> impl
         return pendingRetry || receivedBytes > 0 || this.socket == null;
     }
 
+    /**
+     * Tells whether compiled SELECTs are checked out of and returned to the engine's
+     * {@link io.questdb.griffin.engine.QueryPlanPool}.
+     */
+    public boolean isSelectCacheEnabled() {
+        return selectCacheEnabled;
+    }
+
     @Override
     public HttpConnectionContext of(long fd, @NotNull IODispatcher<HttpConnectionContext> dispatcher) {
         super.of(fd, dispatcher);
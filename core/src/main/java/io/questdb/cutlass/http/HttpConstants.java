@@ -27,6 +27,7 @@ package io.questdb.cutlass.http;
 import io.questdb.std.str.Utf8String;
 
 public final class HttpConstants {
+    public static final String CONTENT_TYPE_ARROW_STREAM = "application/vnd.apache.arrow.stream";
     public static final String CONTENT_TYPE_CSV = "text/csv; charset=utf-8";
     public static final String CONTENT_TYPE_HTML = "text/html; charset=utf-8";
     public static final String CONTENT_TYPE_JSON = "application/json; charset=utf-8";
@@ -50,6 +51,7 @@ public final class HttpConstants {
     public static final Utf8String URL_PARAM_COLS = new Utf8String("cols");
     public static final Utf8String URL_PARAM_COUNT = new Utf8String("count");
     public static final Utf8String URL_PARAM_CREATE = new Utf8String("create");
+    public static final Utf8String URL_PARAM_CURSOR = new Utf8String("cursor");
     public static final Utf8String URL_PARAM_DELIMITER = new Utf8String("delimiter");
     public static final Utf8String URL_PARAM_EXPLAIN = new Utf8String("explain");
     public static final Utf8String URL_PARAM_FILENAME = new Utf8String("filename");
@@ -64,6 +66,7 @@ public final class HttpConstants {
     public static final Utf8String URL_PARAM_PARTITION_BY = new Utf8String("partitionBy");
     public static final Utf8String URL_PARAM_QUERY = new Utf8String("query");
     public static final Utf8String URL_PARAM_QUOTE_LARGE_NUM = new Utf8String("quoteLargeNum");
+    public static final Utf8String URL_PARAM_SCROLL = new Utf8String("scroll");
     public static final Utf8String URL_PARAM_SKIP_LEV = new Utf8String("skipLev");
     public static final Utf8String URL_PARAM_SRC = new Utf8String("src");
     public static final Utf8String URL_PARAM_STATUS_FORMAT = new Utf8String("f");
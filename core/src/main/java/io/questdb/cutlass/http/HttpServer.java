@@ -27,7 +27,6 @@ package io.questdb.cutlass.http;
 import io.questdb.Metrics;
 import io.questdb.ServerConfiguration;
 import io.questdb.cairo.CairoEngine;
-import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.cutlass.http.processors.*;
 import io.questdb.mp.Job;
 import io.questdb.mp.WorkerPool;
@@ -40,12 +39,10 @@ import org.jetbrains.annotations.NotNull;
 import java.io.Closeable;
 
 public class HttpServer implements Closeable {
-    static final NoOpAssociativeCache<RecordCursorFactory> NO_OP_CACHE = new NoOpAssociativeCache<>();
     private final ObjList<Closeable> closeables = new ObjList<>();
     private final IODispatcher<HttpConnectionContext> dispatcher;
     private final HttpContextFactory httpContextFactory;
     private final WaitProcessor rescheduleContext;
-    private final AssociativeCache<RecordCursorFactory> selectCache;
     private final ObjList<HttpRequestProcessorSelectorImpl> selectors;
     private final int workerCount;
 
@@ -81,25 +78,11 @@ public class HttpServer implements Closeable {
             selectors.add(new HttpRequestProcessorSelectorImpl());
         }
 
-        if (configuration instanceof HttpServerConfiguration) {
-            final HttpServerConfiguration serverConfiguration = (HttpServerConfiguration) configuration;
-            if (serverConfiguration.isQueryCacheEnabled()) {
-                this.selectCache = new ConcurrentAssociativeCache<>(
-                        serverConfiguration.getQueryCacheBlockCount(),
-                        serverConfiguration.getQueryCacheRowCount(),
-                        metrics.jsonQuery().cachedQueriesGauge(),
-                        metrics.jsonQuery().cacheHitCounter(),
-                        metrics.jsonQuery().cacheMissCounter()
-                );
-            } else {
-                this.selectCache = NO_OP_CACHE;
-            }
-        } else {
-            // Min server doesn't need select cache, so we use no-op impl.
-            this.selectCache = NO_OP_CACHE;
-        }
+        // compiled SELECTs are pooled by the engine, min server doesn't run queries
+        final boolean selectCacheEnabled = configuration instanceof HttpServerConfiguration
+                && ((HttpServerConfiguration) configuration).isQueryCacheEnabled();
 
-        this.httpContextFactory = new HttpContextFactory(configuration, metrics, socketFactory, cookieHandler, headerParserFactory, selectCache);
+        this.httpContextFactory = new HttpContextFactory(configuration, metrics, socketFactory, cookieHandler, headerParserFactory, selectCacheEnabled);
         this.dispatcher = IODispatchers.create(configuration.getDispatcherConfiguration(), httpContextFactory);
         pool.assign(dispatcher);
         this.rescheduleContext = new WaitProcessor(configuration.getWaitProcessorConfiguration(), dispatcher);
@@ -294,10 +277,6 @@ public class HttpServer implements Closeable {
         }
     }
 
-    public void clearSelectCache() {
-        selectCache.clear();
-    }
-
     @Override
     public void close() {
         Misc.free(dispatcher);
@@ -305,7 +284,6 @@ public class HttpServer implements Closeable {
         Misc.freeObjListAndClear(selectors);
         Misc.freeObjListAndClear(closeables);
         Misc.free(httpContextFactory);
-        Misc.free(selectCache);
     }
 
     public int getPort() {
@@ -343,10 +321,10 @@ public class HttpServer implements Closeable {
                 Metrics metrics, SocketFactory socketFactory,
                 HttpCookieHandler cookieHandler,
                 HttpHeaderParserFactory headerParserFactory,
-                AssociativeCache<RecordCursorFactory> selectCache
+                boolean selectCacheEnabled
         ) {
             super(
-                    () -> new HttpConnectionContext(configuration, metrics, socketFactory, cookieHandler, headerParserFactory, selectCache),
+                    () -> new HttpConnectionContext(configuration, metrics, socketFactory, cookieHandler, headerParserFactory, selectCacheEnabled),
                     configuration.getHttpContextConfiguration().getConnectionPoolInitialCapacity()
             );
         }
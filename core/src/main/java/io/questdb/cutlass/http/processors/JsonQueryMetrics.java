@@ -33,7 +33,6 @@ public class JsonQueryMetrics {
 
     private final Counter cacheHitCounter;
     private final Counter cacheMissCounter;
-    private final LongGauge cachedQueriesGauge;
     private final Counter completedQueriesCounter;
     private final LongGauge connectionCountGauge;
     private final Counter startedQueriesCounter;
@@ -42,7 +41,6 @@ public class JsonQueryMetrics {
         this.connectionCountGauge = metricsRegistry.newLongGauge("http_connections");
         this.startedQueriesCounter = metricsRegistry.newCounter("json_queries");
         this.completedQueriesCounter = metricsRegistry.newCounter("json_queries_completed");
-        this.cachedQueriesGauge = metricsRegistry.newLongGauge("json_queries_cached");
         this.cacheHitCounter = metricsRegistry.newCounter("json_queries_cache_hits");
         this.cacheMissCounter = metricsRegistry.newCounter("json_queries_cache_misses");
     }
@@ -55,10 +53,6 @@ public class JsonQueryMetrics {
         return cacheMissCounter;
     }
 
-    public LongGauge cachedQueriesGauge() {
-        return cachedQueriesGauge;
-    }
-
     @TestOnly
     public long completedQueriesCount() {
         return completedQueriesCounter.getValue();
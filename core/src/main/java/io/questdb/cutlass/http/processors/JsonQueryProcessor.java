@@ -47,11 +47,13 @@ import io.questdb.cutlass.http.LocalValue;
 import io.questdb.cutlass.http.ex.RetryOperationException;
 import io.questdb.cutlass.text.Utf8Exception;
 import io.questdb.griffin.CompiledQuery;
+import io.questdb.griffin.ScrollableCursorRegistry;
 import io.questdb.griffin.SqlCompiler;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.griffin.SqlExecutionContextImpl;
 import io.questdb.griffin.SqlTimeoutException;
+import io.questdb.griffin.engine.QueryPlanPool;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.network.NoSpaceLeftInResponseBufferException;
@@ -92,6 +94,7 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
     private final Metrics metrics;
     private final NanosecondClock nanosecondClock;
     private final Path path;
+    private final QueryPlanPool planPool;
     private final byte requiredAuthType;
     private final SqlExecutionContextImpl sqlExecutionContext;
 
@@ -126,6 +129,7 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
             this.configuration = configuration;
             this.path = new Path();
             this.engine = engine;
+            this.planPool = engine.getQueryPlanPool();
             requiredAuthType = configuration.getRequiredAuthType();
             final QueryExecutor sendConfirmation = this::updateMetricsAndSendConfirmation;
             this.queryExecutors.extendAndSet(CompiledQuery.SELECT, this::executeNewSelect);
@@ -206,7 +210,11 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
                 return;
             }
 
-            final RecordCursorFactory factory = context.getSelectCache().poll(state.getQuery());
+            if (state.isScrollable() && resumeScrollableCursor(state)) {
+                return;
+            }
+
+            final RecordCursorFactory factory = pollSelectCache(context, state.getQuery());
             if (factory != null) {
                 // queries with sensitive info are not cached, doLog = true
                 try {
@@ -215,6 +223,8 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
                 } catch (TableReferenceOutOfDateException e) {
                     LOG.info().$(e.getFlyweightMessage()).$();
                     Misc.free(factory);
+                    // the other pooled copies of the query were compiled against the same metadata
+                    planPool.invalidate(state.getQuery());
                     compileAndExecuteQuery(state);
                 }
             } else {
@@ -280,6 +290,7 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
         if (state == null) {
             LV.set(context, state = new JsonQueryProcessorState(
                     context,
+                    planPool,
                     nanosecondClock,
                     configuration.getFloatScale(),
                     configuration.getDoubleScale(),
@@ -530,7 +541,9 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
                 final long nanos = nanosecondClock.getTicks();
                 final CompiledQuery cc = compiler.compile(state.getQuery(), sqlExecutionContext);
                 sqlExecutionContext.storeTelemetry(cc.getType(), TelemetryOrigin.HTTP_JSON);
-                state.setCompilerNanos(nanosecondClock.getTicks() - nanos);
+                final long compilerNanos = nanosecondClock.getTicks() - nanos;
+                state.setCompilerNanos(compilerNanos);
+                planPool.onCompiled(compilerNanos);
                 state.setQueryType(cc.getType());
                 // todo: reconsider whether we need to keep the SqlCompiler instance open while executing the query
                 // the problem is the each instance of the compiler has just a single instance of the CompilerQuery object.
@@ -652,9 +665,14 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
 
     private void executeSelect(JsonQueryProcessorState state, RecordCursorFactory factory) throws PeerDisconnectedException, PeerIsSlowToReadException, QueryPausedException, SqlException {
         final HttpConnectionContext context = state.getHttpConnectionContext();
+        final ScrollableCursorRegistry.Entry scrollableCursor = state.getScrollableCursor();
+        // cursor that may outlive the request runs in the execution context of its own
+        final SqlExecutionContextImpl executionContext = scrollableCursor != null
+                ? scrollableCursor.of(context.getSecurityContext(), context.getFd(), state.getStatementTimeout())
+                : sqlExecutionContext;
         try {
-            if (state.of(factory, sqlExecutionContext)) {
-                doResumeSend(state, context, sqlExecutionContext);
+            if (state.of(factory, executionContext)) {
+                doResumeSend(state, context, executionContext);
                 metrics.jsonQuery().markComplete();
             } else {
                 readyForNextRequest(context);
@@ -791,6 +809,56 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
         return true;
     }
 
+    private RecordCursorFactory pollSelectCache(HttpConnectionContext context, CharSequence query) {
+        if (!context.isSelectCacheEnabled()) {
+            return null;
+        }
+        final RecordCursorFactory factory = planPool.poll(query);
+        if (factory != null) {
+            metrics.jsonQuery().cacheHitCounter().inc();
+        } else {
+            metrics.jsonQuery().cacheMissCounter().inc();
+        }
+        return factory;
+    }
+
+    private boolean resumeScrollableCursor(
+            JsonQueryProcessorState state
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException, QueryPausedException {
+        final ScrollableCursorRegistry registry = engine.getScrollableCursorRegistry();
+        if (!registry.isEnabled()) {
+            return false;
+        }
+
+        final HttpConnectionContext context = state.getHttpConnectionContext();
+        ScrollableCursorRegistry.Entry entry = state.getScrollableCursor();
+        if (entry == null) {
+            if (state.getScrollableCursorId() > -1) {
+                entry = registry.take(state.getScrollableCursorId(), context.getSecurityContext().getPrincipal());
+            }
+            if (entry == null) {
+                entry = registry.newEntry(sqlExecutionContext.getWorkerCount(), sqlExecutionContext.getSharedWorkerCount());
+            }
+            state.setScrollableCursor(entry);
+        }
+
+        if (!entry.canResume(state.getQuery(), state.getSkip())) {
+            // the query is re-run, the new cursor is parked in the same entry
+            entry.clear();
+            return false;
+        }
+
+        final SqlExecutionContextImpl executionContext = entry.of(context.getSecurityContext(), context.getFd(), state.getStatementTimeout());
+        state.setCompilerNanos(0);
+        if (state.ofScrollableCursor(executionContext)) {
+            doResumeSend(state, context, executionContext);
+            metrics.jsonQuery().markComplete();
+        } else {
+            readyForNextRequest(context);
+        }
+        return true;
+    }
+
     private void retryQueryExecution(
             JsonQueryProcessorState state,
             OperationFuture fut
@@ -841,7 +909,17 @@ public class JsonQueryProcessor implements HttpRequestProcessor, Closeable {
             CharSequence keepAliveHeader,
             int statusCode
     ) throws PeerDisconnectedException, PeerIsSlowToReadException {
-        response.status(statusCode, HttpConstants.CONTENT_TYPE_JSON);
+        header(response, context, keepAliveHeader, statusCode, HttpConstants.CONTENT_TYPE_JSON);
+    }
+
+    protected static void header(
+            HttpChunkedResponse response,
+            HttpConnectionContext context,
+            CharSequence keepAliveHeader,
+            int statusCode,
+            CharSequence contentType
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        response.status(statusCode, contentType);
         response.headers().setKeepAlive(keepAliveHeader);
         context.getCookieHandler().setCookie(response.headers(), context.getSecurityContext());
         response.sendHeader();
@@ -24,24 +24,35 @@
 
 package io.questdb.cutlass.http.processors;
 
+import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.CairoException;
 import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.DataUnavailableException;
 import io.questdb.cairo.EntryUnavailableException;
 import io.questdb.cairo.GeoHashes;
 import io.questdb.cairo.sql.OperationFuture;
+import io.questdb.cairo.sql.PageFrame;
+import io.questdb.cairo.sql.PageFrameAddressCache;
+import io.questdb.cairo.sql.PageFrameCursor;
+import io.questdb.cairo.sql.PageFrameMemory;
+import io.questdb.cairo.sql.PageFrameMemoryPool;
+import io.questdb.cairo.sql.PageFrameMemoryRecord;
+import io.questdb.cairo.sql.PartitionFrameCursorFactory;
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.cairo.sql.RecordMetadata;
 import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cutlass.arrow.ArrowStreamWriter;
 import io.questdb.cutlass.http.HttpChunkedResponse;
 import io.questdb.cutlass.http.HttpConnectionContext;
 import io.questdb.cutlass.http.HttpRequestHeader;
 import io.questdb.cutlass.http.HttpResponseSink;
 import io.questdb.cutlass.text.Utf8Exception;
+import io.questdb.griffin.ScrollableCursorRegistry;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.griffin.engine.QueryPlanPool;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.log.LogRecord;
@@ -71,6 +82,12 @@ import static io.questdb.cutlass.http.HttpConstants.*;
 
 public class JsonQueryProcessorState implements Mutable, Closeable {
     public static final String HIDDEN = "hidden";
+    static final int QUERY_ARROW_BATCH_SENT = 14;
+    static final int QUERY_ARROW_FIRST_BATCH = 10;
+    static final int QUERY_ARROW_NEXT_BATCH = 15;
+    static final int QUERY_ARROW_RECORD_BATCH = 12;
+    static final int QUERY_ARROW_SCHEMA = 11;
+    static final int QUERY_ARROW_SEND = 13;
     static final int QUERY_METADATA = 2;
     static final int QUERY_METADATA_SUFFIX = 3;
     static final int QUERY_PREFIX = 1;
@@ -94,10 +111,18 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
     private final HttpConnectionContext httpConnectionContext;
     private final CharSequence keepAliveHeader;
     private final NanosecondClock nanosecondClock;
+    private final QueryPlanPool planPool;
     private final StringSink query = new StringSink();
     private final ObjList<StateResumeAction> resumeActions = new ObjList<>();
     private final long statementTimeout;
     private byte apiVersion = DEFAULT_API_VERSION;
+    private int arrowBatchSize;
+    private boolean arrowFormat;
+    // state to move to once the segments of the current arrow message are sent
+    private int arrowNextState;
+    private int arrowSegmentIndex;
+    private long arrowSegmentOffset;
+    private ArrowStreamWriter arrowWriter;
     private SqlExecutionCircuitBreaker circuitBreaker;
     private int columnCount;
     private int columnIndex;
@@ -106,11 +131,22 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
     private long count;
     private boolean countRows = false;
     private RecordCursor cursor;
+    // number of rows fetched from the cursor, -1 when the cursor was moved to the end to count rows
+    private long cursorFetchedRows;
+    private boolean cursorHasMoreRows;
     private boolean cursorHasRows;
+    private long cursorRowCount = -1;
     private long executeStartNanos;
     private boolean explain = false;
+    private PageFrameAddressCache frameAddressCache;
+    private int frameIndex;
+    private PageFrameMemoryPool frameMemoryPool;
+    private PageFrameMemoryRecord frameRecord;
     private boolean noMeta = false;
     private OperationFuture operationFuture;
+    private PageFrameCursor pageFrameCursor;
+    // id of the cursor parked after the page has been sent
+    private long parkedCursorId = -1;
     private boolean pausedQuery = false;
     private boolean queryCacheable = false;
     private boolean queryJitCompiled = false;
@@ -122,18 +158,23 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
     private long recordCountNanos;
     private RecordCursorFactory recordCursorFactory;
     private Rnd rnd;
+    private boolean scrollable;
+    private ScrollableCursorRegistry.Entry scrollableCursor;
+    private long scrollableCursorId = -1;
     private long skip;
     private long stop;
     private boolean timings = false;
 
     public JsonQueryProcessorState(
             HttpConnectionContext httpConnectionContext,
+            QueryPlanPool planPool,
             NanosecondClock nanosecondClock,
             int floatScale,
             int doubleScale,
             CharSequence keepAliveHeader
     ) {
         this.httpConnectionContext = httpConnectionContext;
+        this.planPool = planPool;
         resumeActions.extendAndSet(QUERY_SETUP_FIRST_RECORD, this::onSetupFirstRecord);
         resumeActions.extendAndSet(QUERY_PREFIX, this::onQueryPrefix);
         resumeActions.extendAndSet(QUERY_METADATA, this::onQueryMetadata);
@@ -143,6 +184,12 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         resumeActions.extendAndSet(QUERY_RECORD, this::onQueryRecord);
         resumeActions.extendAndSet(QUERY_RECORD_SUFFIX, this::onQueryRecordSuffix);
         resumeActions.extendAndSet(QUERY_SUFFIX, this::doQuerySuffix);
+        resumeActions.extendAndSet(QUERY_ARROW_FIRST_BATCH, this::onArrowFirstBatch);
+        resumeActions.extendAndSet(QUERY_ARROW_SCHEMA, this::onArrowStream);
+        resumeActions.extendAndSet(QUERY_ARROW_RECORD_BATCH, this::onArrowStream);
+        resumeActions.extendAndSet(QUERY_ARROW_SEND, this::onArrowStream);
+        resumeActions.extendAndSet(QUERY_ARROW_NEXT_BATCH, this::onArrowStream);
+        resumeActions.extendAndSet(QUERY_ARROW_BATCH_SENT, this::onArrowStream);
 
         this.nanosecondClock = nanosecondClock;
         this.floatScale = floatScale;
@@ -160,11 +207,13 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         columnNames.clear();
         queryTimestampIndex = -1;
         cursor = Misc.free(cursor);
+        freePageFrameCursor();
+        scrollableCursor = Misc.free(scrollableCursor);
         circuitBreaker = null;
         record = null;
         if (recordCursorFactory != null) {
-            if (queryCacheable) {
-                httpConnectionContext.getSelectCache().put(query, recordCursorFactory);
+            if (queryCacheable && httpConnectionContext.isSelectCacheEnabled()) {
+                planPool.put(query, recordCursorFactory);
             } else {
                 recordCursorFactory.close();
             }
@@ -187,14 +236,29 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         counter.clear();
         stop = 0;
         containsSecret = false;
+        cursorFetchedRows = 0;
+        cursorHasMoreRows = false;
+        cursorRowCount = -1;
+        parkedCursorId = -1;
+        scrollable = false;
+        scrollableCursorId = -1;
+        arrowFormat = false;
+        if (arrowWriter != null) {
+            arrowWriter.clear();
+        }
     }
 
     @Override
     public void close() {
         cursor = Misc.free(cursor);
+        freePageFrameCursor();
+        scrollableCursor = Misc.free(scrollableCursor);
         recordCursorFactory = Misc.free(recordCursorFactory);
         circuitBreaker = null;
         freeAsyncOperation();
+        arrowWriter = Misc.free(arrowWriter);
+        frameMemoryPool = Misc.free(frameMemoryPool);
+        frameRecord = Misc.free(frameRecord);
     }
 
     public void configure(
@@ -213,6 +277,22 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         this.stop = stop;
         count = 0L;
         counter.clear();
+        cursorFetchedRows = 0;
+        cursorHasMoreRows = false;
+        cursorRowCount = -1;
+        parkedCursorId = -1;
+        scrollableCursorId = -1;
+        final DirectUtf8Sequence cursorId = request.getUrlParam(URL_PARAM_CURSOR);
+        if (cursorId != null) {
+            try {
+                scrollableCursorId = Numbers.parseLong(cursorId);
+            } catch (NumericException e) {
+                // the query is re-run when the cursor id is invalid
+            }
+        }
+        arrowFormat = Utf8s.equalsNcAscii("arrow", request.getUrlParam(URL_PARAM_FMT));
+        // arrow stream is sent in full, there is no next page to scroll to
+        scrollable = !arrowFormat && (scrollableCursorId > -1 || Utf8s.equalsNcAscii("true", request.getUrlParam(URL_PARAM_SCROLL)));
         noMeta = Utf8s.equalsNcAscii("true", request.getUrlParam(URL_PARAM_NM));
         countRows = Utf8s.equalsNcAscii("true", request.getUrlParam(URL_PARAM_COUNT));
         timings = Utf8s.equalsNcAscii("true", request.getUrlParam(URL_PARAM_TIMINGS));
@@ -281,6 +361,18 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         return rnd;
     }
 
+    public ScrollableCursorRegistry.Entry getScrollableCursor() {
+        return scrollableCursor;
+    }
+
+    public long getScrollableCursorId() {
+        return scrollableCursorId;
+    }
+
+    public long getSkip() {
+        return skip;
+    }
+
     public long getStatementTimeout() {
         return statementTimeout;
     }
@@ -293,6 +385,10 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         return pausedQuery;
     }
 
+    public boolean isScrollable() {
+        return scrollable;
+    }
+
     public void logBufferTooSmall() {
         info().$("response buffer is too small, state=").$(queryState).$();
     }
@@ -330,6 +426,13 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         this.rnd = rnd;
     }
 
+    /**
+     * Hands the entry over to this state, it runs the cursor of the current request.
+     */
+    public void setScrollableCursor(ScrollableCursorRegistry.Entry scrollableCursor) {
+        this.scrollableCursor = scrollableCursor;
+    }
+
     public void startExecutionTimer() {
         this.executeStartNanos = nanosecondClock.getTicks();
     }
@@ -602,6 +705,9 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
             if (count < stop) {
                 return true;
             } else {
+                // the cursor stays on the first row of the next page
+                cursorHasMoreRows = true;
+                cursorFetchedRows = count + 1;
                 onNoMoreData();
             }
         }
@@ -756,26 +862,121 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         doQuerySuffix(response, columnCount);
     }
 
+    private void fetchArrowBatch() {
+        final ArrowStreamWriter writer = arrowWriter;
+        if (pageFrameCursor != null) {
+            // a batch per page frame, so that fixed-size columns are sent straight from the frame memory
+            PageFrame frame;
+            while (count < stop && (frame = pageFrameCursor.next()) != null) {
+                circuitBreaker.statefulThrowExceptionIfTripped();
+                final long frameRows = frame.getPartitionHi() - frame.getPartitionLo();
+                if (frameRows > 0) {
+                    frameAddressCache.add(frameIndex, frame);
+                    final PageFrameMemory frameMemory = frameMemoryPool.navigateTo(frameIndex++);
+                    frameRecord.init(frameMemory);
+                    final long rows = Math.min(frameRows, stop - count);
+                    writer.appendPageFrame(frameMemory, frameRecord, 0, rows);
+                    count += rows;
+                    return;
+                }
+            }
+            return;
+        }
+
+        while (writer.getRowCount() < arrowBatchSize && count < stop) {
+            // the first record of the result is fetched by setupFirstRecord()
+            if (!cursorHasRows) {
+                if (!cursor.hasNext()) {
+                    return;
+                }
+                cursorHasRows = true;
+            }
+            writer.appendRecord(record);
+            cursorHasRows = false;
+            count++;
+        }
+    }
+
+    private void freePageFrameCursor() {
+        if (pageFrameCursor != null) {
+            pageFrameCursor = Misc.free(pageFrameCursor);
+            frameAddressCache.clear();
+            Misc.free(frameMemoryPool);
+            Misc.free(frameRecord);
+        }
+    }
+
     private long getFd() {
         return httpConnectionContext.getFd();
     }
 
+    private void onArrowFirstBatch(HttpChunkedResponse response, int columnCount) throws PeerIsSlowToReadException, PeerDisconnectedException {
+        // same as with JSON, errors in the first batch are sent as an HTTP error,
+        // while later errors can only break the stream
+        fetchArrowBatch();
+        queryState = QUERY_ARROW_SCHEMA;
+        JsonQueryProcessor.header(response, getHttpConnectionContext(), keepAliveHeader, 200, CONTENT_TYPE_ARROW_STREAM);
+        onArrowStream(response, columnCount);
+    }
+
+    private void onArrowStream(
+            HttpChunkedResponse response,
+            int columnCount
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        final ArrowStreamWriter writer = arrowWriter;
+        while (true) {
+            switch (queryState) {
+                case QUERY_ARROW_SCHEMA:
+                    writer.prepareSchema();
+                    startArrowSend(QUERY_ARROW_RECORD_BATCH);
+                    break;
+                case QUERY_ARROW_RECORD_BATCH:
+                    if (writer.getRowCount() > 0) {
+                        writer.prepareRecordBatch();
+                        startArrowSend(QUERY_ARROW_BATCH_SENT);
+                    } else {
+                        writer.prepareEndOfStream();
+                        startArrowSend(QUERY_SUFFIX);
+                    }
+                    break;
+                case QUERY_ARROW_SEND:
+                    sendArrowSegments(response);
+                    queryState = arrowNextState;
+                    break;
+                case QUERY_ARROW_BATCH_SENT:
+                    // the batch may refer to the frame memory, it is released only once sent
+                    writer.clearRecordBatch();
+                    queryState = QUERY_ARROW_NEXT_BATCH;
+                    break;
+                case QUERY_ARROW_NEXT_BATCH:
+                    fetchArrowBatch();
+                    queryState = QUERY_ARROW_RECORD_BATCH;
+                    break;
+                default:
+                    doQuerySuffix(response, columnCount);
+                    return;
+            }
+        }
+    }
+
     private void onNoMoreData() {
         long nanos = nanosecondClock.getTicks();
         if (countRows) {
             // this is the tail end of the cursor
             // we don't need to read records, just round up record count
             final RecordCursor cursor = this.cursor;
-            long size = cursor.size();
+            long size = cursorRowCount > -1 ? cursorRowCount : cursor.size();
             counter.clear();
             if (size < 0) {
                 try {
+                    cursorFetchedRows = -1;
                     cursor.calculateSize(circuitBreaker, counter);
                     this.count += counter.get() + 1;
                 } catch (DataUnavailableException e) {
                     this.count += counter.get();
                     throw e;
                 }
+                cursorRowCount = count;
             } else {
                 this.count = size;
             }
@@ -840,6 +1041,10 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
     }
 
     private void onSetupFirstRecord(HttpChunkedResponse response, int columnCount) throws PeerIsSlowToReadException, PeerDisconnectedException {
+        if (arrowFormat) {
+            onSetupFirstArrowBatch(response, columnCount);
+            return;
+        }
         // If there is an exception in the first record setup then upper layers will handle it:
         // Either they will send error or pause execution on DataUnavailableException
         setupFirstRecord();
@@ -856,6 +1061,39 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         onQueryPrefix(response, columnCount);
     }
 
+    private void onSetupFirstArrowBatch(HttpChunkedResponse response, int columnCount) throws PeerIsSlowToReadException, PeerDisconnectedException {
+        if (pageFrameCursor == null) {
+            setupFirstRecord();
+        }
+        queryState = QUERY_ARROW_FIRST_BATCH;
+        onArrowFirstBatch(response, columnCount);
+    }
+
+    private void parkScrollableCursor() {
+        // a page that stopped short of the end of the cursor leaves it on the first row of the next page
+        if (scrollableCursor == null || cursor == null || !cursorHasMoreRows || !queryCacheable || stop == 0) {
+            return;
+        }
+        try {
+            if (cursorFetchedRows < 0) {
+                // rows were counted till the end of the cursor, move it back to the next page
+                cursor.toTop();
+                counter.set(stop);
+                cursor.skipRows(counter);
+                cursorFetchedRows = stop - counter.get();
+            }
+        } catch (CairoException e) {
+            // the next page re-runs the query
+            info().$("could not park scrollable cursor [msg=").$(e.getFlyweightMessage()).I$();
+            return;
+        }
+        final ScrollableCursorRegistry.Entry entry = scrollableCursor;
+        scrollableCursor = null;
+        parkedCursorId = entry.park(query, recordCursorFactory, cursor, cursorFetchedRows, stop, cursorRowCount);
+        recordCursorFactory = null;
+        cursor = null;
+    }
+
     private void putBinValue(HttpChunkedResponse response) {
         response.putAscii('[');
         response.putAscii(']');
@@ -869,6 +1107,28 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         response.put(rec.getFloat(col), floatScale);
     }
 
+    private void ofArrow(RecordCursorFactory factory, SqlExecutionContextImpl sqlExecutionContext) throws SqlException {
+        final CairoConfiguration configuration = sqlExecutionContext.getCairoEngine().getConfiguration();
+        if (arrowWriter == null) {
+            arrowWriter = new ArrowStreamWriter();
+            frameAddressCache = new PageFrameAddressCache(configuration);
+            frameMemoryPool = new PageFrameMemoryPool();
+            frameRecord = new PageFrameMemoryRecord();
+        }
+        arrowBatchSize = configuration.getSqlPageFrameMaxRows();
+        if (skip == 0 && factory.supportsPageFrameCursor() && factory.getScanDirection() == RecordCursorFactory.SCAN_DIRECTION_FORWARD) {
+            pageFrameCursor = factory.getPageFrameCursor(sqlExecutionContext, PartitionFrameCursorFactory.ORDER_ASC);
+        }
+        if (pageFrameCursor != null) {
+            frameAddressCache.of(factory.getMetadata());
+            frameMemoryPool.of(frameAddressCache);
+            frameRecord.of(pageFrameCursor);
+            frameIndex = 0;
+        } else {
+            cursor = factory.getCursor(sqlExecutionContext);
+        }
+    }
+
     private void putVarcharValue(HttpChunkedResponse response, int columnIdx) {
         Utf8Sequence str = record.getVarcharA(columnIdx);
         if (str == null) {
@@ -878,10 +1138,78 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         }
     }
 
+    private void sendArrowSegments(HttpChunkedResponse response) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        final ArrowStreamWriter writer = arrowWriter;
+        for (int n = writer.getSegmentCount(); arrowSegmentIndex < n; ) {
+            final long size = writer.getSegmentSize(arrowSegmentIndex);
+            final int len = (int) Math.min(size - arrowSegmentOffset, Integer.MAX_VALUE);
+            final int written = response.writeBytes(writer.getSegmentAddress(arrowSegmentIndex) + arrowSegmentOffset, len);
+            response.bookmark();
+            arrowSegmentOffset += written;
+            if (arrowSegmentOffset == size) {
+                arrowSegmentIndex++;
+                arrowSegmentOffset = 0;
+            }
+            if (written < len) {
+                // the response buffer is full
+                response.sendChunk(false);
+            }
+        }
+    }
+
+    private boolean setupColumns(RecordMetadata metadata) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        this.queryTimestampIndex = metadata.getTimestampIndex();
+        HttpRequestHeader header = httpConnectionContext.getRequestHeader();
+        DirectUtf8Sequence columnNames = header.getUrlParam(URL_PARAM_COLS);
+
+        int columnCount;
+        columnSkewList.clear();
+        if (columnNames != null) {
+            columnsQueryParameter.clear();
+            if (!Utf8s.utf8ToUtf16(columnNames.lo(), columnNames.hi(), columnsQueryParameter)) {
+                info().$("utf8 error when decoding column list '").$(columnNames).$('\'').$();
+                HttpChunkedResponse response = getHttpConnectionContext().getChunkedResponse();
+                JsonQueryProcessor.header(response, getHttpConnectionContext(), "", 400);
+                response.putAscii('{')
+                        .putAsciiQuoted("error").putAscii(':').putAsciiQuoted("utf8 error in column list")
+                        .putAscii('}');
+                response.sendChunk(true);
+                return false;
+            }
+
+            columnCount = 1;
+            int start = 0;
+            int comma = 0;
+            while (comma > -1) {
+                comma = Chars.indexOf(columnsQueryParameter, start, ',');
+                if (comma > -1) {
+                    if (addColumnToOutput(metadata, columnsQueryParameter, start, comma)) {
+                        return false;
+                    }
+                    start = comma + 1;
+                    columnCount++;
+                } else {
+                    int hi = columnsQueryParameter.length();
+                    if (addColumnToOutput(metadata, columnsQueryParameter, start, hi)) {
+                        return false;
+                    }
+                }
+            }
+        } else {
+            columnCount = metadata.getColumnCount();
+            for (int i = 0; i < columnCount; i++) {
+                addColumnTypeAndName(metadata, i);
+            }
+        }
+        this.columnCount = columnCount;
+        return true;
+    }
+
     private void setupFirstRecord() {
         if (skip > 0) {
             final RecordCursor cursor = this.cursor;
-            long target = skip + 1;
+            // rows fetched by previous pages of a scrollable cursor are not fetched again
+            long target = skip + 1 - cursorFetchedRows;
             while (target > 0 && cursor.hasNext()) {
                 target--;
             }
@@ -903,6 +1231,13 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         cursorHasRows = true;
     }
 
+    private void startArrowSend(int nextState) {
+        arrowSegmentIndex = 0;
+        arrowSegmentOffset = 0;
+        arrowNextState = nextState;
+        queryState = QUERY_ARROW_SEND;
+    }
+
     static void prepareExceptionJson(
             HttpChunkedResponse response,
             int position,
@@ -935,54 +1270,37 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
         // Enable column pre-touch in REST API only when LIMIT K,N is not specified since when limit is defined
         // we do a no-op loop over the cursor to calculate the total row count and pre-touch only slows things down.
         sqlExecutionContext.setColumnPreTouchEnabled(stop == Long.MAX_VALUE);
-        this.cursor = factory.getCursor(sqlExecutionContext);
-        this.circuitBreaker = sqlExecutionContext.getCircuitBreaker();
-        final RecordMetadata metadata = factory.getMetadata();
-        this.queryTimestampIndex = metadata.getTimestampIndex();
-        HttpRequestHeader header = httpConnectionContext.getRequestHeader();
-        DirectUtf8Sequence columnNames = header.getUrlParam(URL_PARAM_COLS);
-
-        int columnCount;
-        columnSkewList.clear();
-        if (columnNames != null) {
-            columnsQueryParameter.clear();
-            if (!Utf8s.utf8ToUtf16(columnNames.lo(), columnNames.hi(), columnsQueryParameter)) {
-                info().$("utf8 error when decoding column list '").$(columnNames).$('\'').$();
-                HttpChunkedResponse response = getHttpConnectionContext().getChunkedResponse();
-                JsonQueryProcessor.header(response, getHttpConnectionContext(), "", 400);
-                response.putAscii('{')
-                        .putAsciiQuoted("error").putAscii(':').putAsciiQuoted("utf8 error in column list")
-                        .putAscii('}');
-                response.sendChunk(true);
-                return false;
-            }
-
-            columnCount = 1;
-            int start = 0;
-            int comma = 0;
-            while (comma > -1) {
-                comma = Chars.indexOf(columnsQueryParameter, start, ',');
-                if (comma > -1) {
-                    if (addColumnToOutput(metadata, columnsQueryParameter, start, comma)) {
-                        return false;
-                    }
-                    start = comma + 1;
-                    columnCount++;
-                } else {
-                    int hi = columnsQueryParameter.length();
-                    if (addColumnToOutput(metadata, columnsQueryParameter, start, hi)) {
-                        return false;
-                    }
-                }
-            }
+        if (arrowFormat) {
+            ofArrow(factory, sqlExecutionContext);
         } else {
-            columnCount = metadata.getColumnCount();
-            for (int i = 0; i < columnCount; i++) {
-                addColumnTypeAndName(metadata, i);
+            this.cursor = factory.getCursor(sqlExecutionContext);
+        }
+        this.circuitBreaker = sqlExecutionContext.getCircuitBreaker();
+        if (setupColumns(factory.getMetadata())) {
+            if (arrowFormat) {
+                arrowWriter.of(factory.getMetadata(), columnSkewList);
             }
+            return true;
         }
-        this.columnCount = columnCount;
-        return true;
+        return false;
+    }
+
+    /**
+     * Resumes the parked cursor of the entry set via {@link #setScrollableCursor(ScrollableCursorRegistry.Entry)}.
+     */
+    boolean ofScrollableCursor(
+            SqlExecutionContextImpl sqlExecutionContext
+    ) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        final RecordCursorFactory factory = scrollableCursor.getFactory();
+        this.recordCursorFactory = factory;
+        this.cursor = scrollableCursor.getCursor();
+        this.cursorFetchedRows = scrollableCursor.getFetchedRows();
+        this.cursorRowCount = scrollableCursor.getRowCount();
+        scrollableCursor.detach();
+        this.queryCacheable = true;
+        this.queryJitCompiled = factory.usesCompiledFilter();
+        this.circuitBreaker = sqlExecutionContext.getCircuitBreaker();
+        return setupColumns(factory.getMetadata());
     }
 
     void querySuffixWithError(
@@ -990,12 +1308,28 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
             int code,
             CharSequence message
     ) throws PeerDisconnectedException, PeerIsSlowToReadException {
+        if (code == 0) {
+            parkScrollableCursor();
+        }
         // we no longer need cursor when we reached query suffix
         // closing cursor here guarantees that by the time http client finished reading response the table
         // is released
         cursor = Misc.free(cursor);
+        freePageFrameCursor();
         circuitBreaker = null;
         queryState = QUERY_SUFFIX;
+        if (count > -1 && arrowFormat) {
+            logTimings();
+            count = -1;
+            counter.set(-1);
+            if (code > 0) {
+                // the stream is cut short, so that the client doesn't take it for a complete one
+                response.shutdownWrite();
+                return;
+            }
+            response.sendChunk(true);
+            return;
+        }
         if (count > -1) {
             logTimings();
             response.bookmark();
@@ -1006,6 +1340,9 @@ public class JsonQueryProcessorState implements Mutable, Closeable {
             // always close the dataset
             response.putAscii(']');
             response.putAscii(',').putAsciiQuoted("count").putAscii(':').put(count);
+            if (parkedCursorId > -1) {
+                response.putAscii(',').putAsciiQuoted("cursor").putAscii(':').put(parkedCursorId);
+            }
             if (code > 0) {
                 response.putAscii(',').putAsciiQuoted("error").putAscii(':').putQuote()
                         .putAscii("HTTP ").put(code).putAscii(" (").putAscii(HttpResponseSink.getStatusMessage(code))
@@ -35,6 +35,7 @@ import io.questdb.cairo.GeoHashes;
 import io.questdb.cairo.ImplicitCastException;
 import io.questdb.cairo.sql.NetworkSqlExecutionCircuitBreaker;
 import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.cairo.sql.TableReferenceOutOfDateException;
 import io.questdb.cutlass.http.HttpChunkedResponse;
 import io.questdb.cutlass.http.HttpConnectionContext;
@@ -46,6 +47,7 @@ import io.questdb.griffin.CompiledQuery;
 import io.questdb.griffin.SqlCompiler;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContextImpl;
+import io.questdb.griffin.engine.QueryPlanPool;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.log.LogRecord;
@@ -58,6 +60,7 @@ import io.questdb.std.FlyweightMessageContainer;
 import io.questdb.std.Interval;
 import io.questdb.std.MemoryTag;
 import io.questdb.std.Misc;
+import io.questdb.std.NanosecondClock;
 import io.questdb.std.Numbers;
 import io.questdb.std.NumericException;
 import io.questdb.std.Uuid;
@@ -88,6 +91,8 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
     private final int floatScale;
     private final int maxSqlRecompileAttempts;
     private final Metrics metrics;
+    private final NanosecondClock nanosecondClock;
+    private final QueryPlanPool planPool;
     private final byte requiredAuthType;
     private final SqlExecutionContextImpl sqlExecutionContext;
 
@@ -114,6 +119,8 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
         this.circuitBreaker = new NetworkSqlExecutionCircuitBreaker(engine.getConfiguration().getCircuitBreakerConfiguration(), MemoryTag.NATIVE_CB4);
         this.metrics = engine.getMetrics();
         this.engine = engine;
+        this.planPool = engine.getQueryPlanPool();
+        this.nanosecondClock = configuration.getNanosecondClock();
         maxSqlRecompileAttempts = engine.getConfiguration().getMaxSqlRecompileAttempts();
         requiredAuthType = configuration.getRequiredAuthType();
     }
@@ -131,7 +138,7 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
             boolean isExpRequest = isExpUrl(context.getRequestHeader().getUrl());
 
             circuitBreaker.resetTimer();
-            state.recordCursorFactory = context.getSelectCache().poll(state.query);
+            state.recordCursorFactory = pollSelectCache(context, state.query);
             state.setQueryCacheable(true);
             sqlExecutionContext.with(
                     context.getSecurityContext(),
@@ -143,7 +150,9 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
             sqlExecutionContext.initNow();
             if (state.recordCursorFactory == null) {
                 try (SqlCompiler compiler = engine.getSqlCompiler()) {
+                    final long nanos = nanosecondClock.getTicks();
                     final CompiledQuery cc = compiler.compile(state.query, sqlExecutionContext);
+                    planPool.onCompiled(nanosecondClock.getTicks() - nanos);
                     if (cc.getType() == CompiledQuery.SELECT || cc.getType() == CompiledQuery.EXPLAIN) {
                         state.recordCursorFactory = cc.getRecordCursorFactory();
                     } else if (isExpRequest) {
@@ -169,6 +178,8 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
                             }
                             info(state).$(e.getFlyweightMessage()).$();
                             state.recordCursorFactory = Misc.free(state.recordCursorFactory);
+                            // other instances pooled under this text are stale too
+                            planPool.invalidate(state.query);
                             try (SqlCompiler compiler = engine.getSqlCompiler()) {
                                 final CompiledQuery cc = compiler.compile(state.query, sqlExecutionContext);
                                 if (cc.getType() != CompiledQuery.SELECT && isExpRequest) {
@@ -211,7 +222,7 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
     ) throws PeerDisconnectedException, PeerIsSlowToReadException, ServerDisconnectException, QueryPausedException {
         TextQueryProcessorState state = LV.get(context);
         if (state == null) {
-            LV.set(context, state = new TextQueryProcessorState(context));
+            LV.set(context, state = new TextQueryProcessorState(context, planPool));
         }
         // new request clears random
         state.rnd = null;
@@ -572,6 +583,19 @@ public class TextQueryProcessor implements HttpRequestProcessor, Closeable {
         return true;
     }
 
+    private RecordCursorFactory pollSelectCache(HttpConnectionContext context, CharSequence query) {
+        if (!context.isSelectCacheEnabled()) {
+            return null;
+        }
+        final RecordCursorFactory factory = planPool.poll(query);
+        if (factory != null) {
+            metrics.jsonQuery().cacheHitCounter().inc();
+        } else {
+            metrics.jsonQuery().cacheMissCounter().inc();
+        }
+        return factory;
+    }
+
     private void putValue(HttpChunkedResponse response, int type, Record rec, int col) {
         long l;
         switch (ColumnType.tagOf(type)) {
@@ -29,6 +29,7 @@ import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
 import io.questdb.cairo.sql.RecordMetadata;
 import io.questdb.cutlass.http.HttpConnectionContext;
+import io.questdb.griffin.engine.QueryPlanPool;
 import io.questdb.std.Misc;
 import io.questdb.std.Mutable;
 import io.questdb.std.Rnd;
@@ -39,6 +40,7 @@ import java.io.Closeable;
 public class TextQueryProcessorState implements Mutable, Closeable {
     final StringSink query = new StringSink();
     private final HttpConnectionContext httpConnectionContext;
+    private final QueryPlanPool planPool;
     boolean hasNext;
     int columnIndex;
     long count;
@@ -57,8 +59,9 @@ public class TextQueryProcessorState implements Mutable, Closeable {
     long stop;
     private boolean queryCacheable = false;
 
-    public TextQueryProcessorState(HttpConnectionContext httpConnectionContext) {
+    public TextQueryProcessorState(HttpConnectionContext httpConnectionContext, QueryPlanPool planPool) {
         this.httpConnectionContext = httpConnectionContext;
+        this.planPool = planPool;
         clear();
     }
 
@@ -71,8 +74,8 @@ public class TextQueryProcessorState implements Mutable, Closeable {
         record = null;
         cursor = Misc.free(cursor);
         if (null != recordCursorFactory) {
-            if (queryCacheable) {
-                httpConnectionContext.getSelectCache().put(query, recordCursorFactory);
+            if (queryCacheable && httpConnectionContext.isSelectCacheEnabled()) {
+                planPool.put(query, recordCursorFactory);
             } else {
                 recordCursorFactory.close();
             }
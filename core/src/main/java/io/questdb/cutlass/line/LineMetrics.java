@@ -24,25 +24,36 @@
 
 package io.questdb.cutlass.line;
 
+import io.questdb.metrics.Counter;
 import io.questdb.metrics.LongGauge;
 import io.questdb.metrics.MetricsRegistry;
+import io.questdb.metrics.VirtualLongGaugeWithOneLabel;
 
 public class LineMetrics {
 
     private final LongGauge connectionCountGauge;
+    private final Counter tableMigrationCounter;
     private final LongGauge totalIlpTcpBytesGauge;
     private final LongGauge totalIlpHttpBytesGauge;
+    private final VirtualLongGaugeWithOneLabel writerQueueDepthGauge;
 
     public LineMetrics(MetricsRegistry metricsRegistry) {
         this.connectionCountGauge = metricsRegistry.newLongGauge("line_tcp_connections");
         this.totalIlpTcpBytesGauge = metricsRegistry.newLongGauge("line_tcp_recv_bytes");
         this.totalIlpHttpBytesGauge = metricsRegistry.newLongGauge("line_http_recv_bytes");
+        this.tableMigrationCounter = metricsRegistry.newCounter("line_tcp_writer_table_migrations");
+        this.writerQueueDepthGauge = new VirtualLongGaugeWithOneLabel("line_tcp_writer_queue_depth", "writer");
+        metricsRegistry.addScrapable(writerQueueDepthGauge);
     }
 
     public LongGauge connectionCountGauge() {
         return connectionCountGauge;
     }
 
+    public Counter tableMigrationCounter() {
+        return tableMigrationCounter;
+    }
+
     public LongGauge totalIlpTcpBytesGauge() {
         return totalIlpTcpBytesGauge;
     }
@@ -50,4 +61,8 @@ public class LineMetrics {
     public LongGauge totalIlpHttpBytesGauge() {
         return totalIlpHttpBytesGauge;
     }
+
+    public VirtualLongGaugeWithOneLabel writerQueueDepthGauge() {
+        return writerQueueDepthGauge;
+    }
 }
@@ -188,6 +188,16 @@ public class DefaultLineTcpReceiverConfiguration implements LineTcpReceiverConfi
         return 64;
     }
 
+    @Override
+    public long getWriterRebalanceInterval() {
+        return 10_000;
+    }
+
+    @Override
+    public double getWriterRebalanceMaxLoadRatio() {
+        return 2.0;
+    }
+
     @Override
     public WorkerPoolConfiguration getWriterWorkerPoolConfiguration() {
         return SHARED_CONFIGURATION;
@@ -54,6 +54,7 @@ class LineTcpMeasurementEvent implements Closeable {
     private final boolean stringToCharCastAllowed;
     private final LineTcpTimestampAdapter timestampAdapter;
     private boolean commitOnWriterClose;
+    private int migrationWriterThreadId;
     private TableUpdateDetails tableUpdateDetails;
     private int writerWorkerId;
 
@@ -83,6 +84,10 @@ class LineTcpMeasurementEvent implements Closeable {
         tableUpdateDetails = Misc.free(tableUpdateDetails);
     }
 
+    public int getMigrationWriterThreadId() {
+        return migrationWriterThreadId;
+    }
+
     public TableUpdateDetails getTableUpdateDetails() {
         return tableUpdateDetails;
     }
@@ -275,11 +280,21 @@ class LineTcpMeasurementEvent implements Closeable {
         }
     }
 
-    void createMeasurementEvent(
+    void createIncompleteEvent() {
+        writerWorkerId = LineTcpMeasurementEventType.ALL_WRITERS_INCOMPLETE_EVENT;
+    }
+
+    /**
+     * Serializes the measurement into the event.
+     *
+     * @return number of bytes occupied by the measurement in the event buffer
+     */
+    long createMeasurementEvent(
             SecurityContext securityContext,
             TableUpdateDetails tud,
             LineTcpParser parser,
-            int workerId
+            int workerId,
+            int writerThreadId
     ) {
         writerWorkerId = LineTcpMeasurementEventType.ALL_WRITERS_INCOMPLETE_EVENT;
         final TableUpdateDetails.ThreadLocalDetails localDetails = tud.getThreadLocalDetails(workerId);
@@ -573,7 +588,14 @@ class LineTcpMeasurementEvent implements Closeable {
         }
         buffer.addDesignatedTimestamp(buffer.getAddress() + Long.BYTES, timestamp);
         buffer.addNumOfColumns(buffer.getAddress() + 2 * Long.BYTES, entitiesWritten);
-        writerWorkerId = tud.getWriterThreadId();
+        writerWorkerId = writerThreadId;
+        return offset - buffer.getAddress();
+    }
+
+    void createMigrationEvent(TableUpdateDetails tableUpdateDetails, int toWriterThreadId) {
+        writerWorkerId = LineTcpMeasurementEventType.ALL_WRITERS_MIGRATE_TABLE;
+        this.tableUpdateDetails = tableUpdateDetails;
+        this.migrationWriterThreadId = toWriterThreadId;
     }
 
     void createWriterReleaseEvent(TableUpdateDetails tableUpdateDetails, boolean commitOnWriterClose) {
@@ -30,4 +30,8 @@ class LineTcpMeasurementEventType {
     static final int ALL_WRITERS_INCOMPLETE_EVENT = -2;
 
     static final int ALL_WRITERS_RELEASE_WRITER = -3;
+
+    // A migration event is published to the queue of the writer thread that currently owns the table,
+    // once the event is consumed the table is handed over to the writer thread set in the event
+    static final int ALL_WRITERS_MIGRATE_TABLE = -4;
 }
@@ -33,6 +33,8 @@ import io.questdb.cairo.vm.api.MemoryMARW;
 import io.questdb.log.Log;
 import io.questdb.log.LogFactory;
 import io.questdb.log.LogRecord;
+import io.questdb.metrics.Counter;
+import io.questdb.metrics.VirtualLongGaugeWithOneLabel;
 import io.questdb.mp.MPSequence;
 import io.questdb.mp.RingQueue;
 import io.questdb.mp.SCSequence;
@@ -65,13 +67,25 @@ public class LineTcpMeasurementScheduler implements Closeable {
     private final Path path = new Path();
     private final MPSequence[] pubSeq;
     private final RingQueue<LineTcpMeasurementEvent>[] queue;
+    private final long rebalanceInterval;
+    private final double rebalanceMaxLoadRatio;
     private final long spinLockTimeoutMs;
+    private final SCSequence[] subSeq;
+    private final Counter tableMigrationCounter;
     private final StringSink[] tableNameSinks;
     private final TableStructureAdapter tableStructureAdapter;
     private final ReadWriteLock tableUpdateDetailsLock = new SimpleReadWriteLock();
     private final LowerCaseCharSequenceObjHashMap<TableUpdateDetails> tableUpdateDetailsUtf16;
     private final Telemetry<TelemetryTask> telemetry;
     private final long writerIdleTimeout;
+    private final VirtualLongGaugeWithOneLabel.StatProvider writerQueueDepthProvider = new WriterQueueDepthProvider();
+    private long lastRebalanceMillis;
+    // set when the migration event could not be published because the writer queue was full
+    private volatile boolean migrationEventPending;
+    private int migrationFromThreadId;
+    // table being migrated between writer threads, at most one migration is in flight at a time
+    private TableUpdateDetails migrationTableUpdateDetails;
+    private volatile long nextRebalanceMillis;
 
     public LineTcpMeasurementScheduler(
             LineTcpReceiverConfiguration lineConfiguration,
@@ -111,6 +125,7 @@ public class LineTcpMeasurementScheduler implements Closeable {
             long commitInterval = configuration.getCommitInterval();
             int nWriterThreads = writerWorkerPool.getWorkerCount();
             pubSeq = new MPSequence[nWriterThreads];
+            subSeq = new SCSequence[nWriterThreads];
             //noinspection unchecked
             queue = new RingQueue[nWriterThreads];
             //noinspection unchecked
@@ -136,15 +151,16 @@ public class LineTcpMeasurementScheduler implements Closeable {
                 );
 
                 queue[i] = q;
-                SCSequence subSeq = new SCSequence();
-                ps.then(subSeq).then(ps);
+                SCSequence ss = new SCSequence();
+                subSeq[i] = ss;
+                ps.then(ss).then(ps);
 
                 assignedTables[i] = new ObjList<>();
 
                 final LineTcpWriterJob lineTcpWriterJob = new LineTcpWriterJob(
                         i,
                         q,
-                        subSeq,
+                        ss,
                         clock,
                         commitInterval, this, engine.getMetrics(), assignedTables[i]
                 );
@@ -158,6 +174,12 @@ public class LineTcpMeasurementScheduler implements Closeable {
                     cairoConfiguration.getWalEnabledDefault()
             );
             writerIdleTimeout = lineConfiguration.getWriterIdleTimeout();
+            rebalanceInterval = lineConfiguration.getWriterRebalanceInterval();
+            rebalanceMaxLoadRatio = lineConfiguration.getWriterRebalanceMaxLoadRatio();
+            lastRebalanceMillis = clock.getTicks();
+            nextRebalanceMillis = lastRebalanceMillis + rebalanceInterval;
+            tableMigrationCounter = engine.getMetrics().line().tableMigrationCounter();
+            engine.getMetrics().line().writerQueueDepthGauge().of(writerQueueDepthProvider);
             lineWalAppender = new LineWalAppender(
                     autoCreateNewColumns,
                     configuration.isStringToCharCastAllowed(),
@@ -173,6 +195,7 @@ public class LineTcpMeasurementScheduler implements Closeable {
 
     @Override
     public void close() {
+        engine.getMetrics().line().writerQueueDepthGauge().of(null);
         tableUpdateDetailsLock.writeLock().lock();
         try {
             closeLocals(tableUpdateDetailsUtf16);
@@ -258,6 +281,41 @@ public class LineTcpMeasurementScheduler implements Closeable {
         }
     }
 
+    /**
+     * Checks the load of writer threads and migrates a table from the busiest writer thread
+     * to the least busy one when the load ratio exceeds the configured maximum. The load is
+     * measured as bytes of measurements dispatched to the thread since the previous check.
+     * Only one table is migrated at a time.
+     */
+    public void rebalanceWriterThreads(long millis) {
+        if (rebalanceInterval <= 0 || queue.length < 2 || (millis < nextRebalanceMillis && !migrationEventPending)) {
+            return;
+        }
+        // only one network IO thread does the rebalancing, others carry on
+        if (!tableUpdateDetailsLock.writeLock().tryLock()) {
+            return;
+        }
+        try {
+            if (migrationTableUpdateDetails != null) {
+                if (migrationEventPending && !unsafePublishMigrationEvent()) {
+                    return;
+                }
+                if (migrationTableUpdateDetails.isMigrating()) {
+                    // the previous writer thread hasn't released the table yet
+                    return;
+                }
+                migrationTableUpdateDetails = null;
+            }
+            if (millis >= nextRebalanceMillis) {
+                unsafeRebalance(Math.max(millis - lastRebalanceMillis, 1));
+                lastRebalanceMillis = millis;
+                nextRebalanceMillis = millis + rebalanceInterval;
+            }
+        } finally {
+            tableUpdateDetailsLock.writeLock().unlock();
+        }
+    }
+
     public void releaseWalTableDetails(Utf8StringObjHashMap<TableUpdateDetails> tableUpdateDetailsUtf8) {
         ObjList<Utf8String> keys = tableUpdateDetailsUtf8.keys();
         for (int n = keys.size() - 1; n > -1; --n) {
@@ -361,21 +419,34 @@ public class LineTcpMeasurementScheduler implements Closeable {
             LineTcpParser parser,
             TableUpdateDetails tud
     ) {
-        final int writerThreadId = tud.getWriterThreadId();
-        long seq = getNextPublisherEventSequence(writerThreadId);
-        if (seq > -1) {
+        while (true) {
+            final int writerThreadId = tud.getWriterThreadId();
+            long seq = getNextPublisherEventSequence(writerThreadId);
+            if (seq < 0) {
+                return true;
+            }
+            long eventSize = -1;
             try {
                 if (tud.isWriterInError()) {
                     throw CairoException.critical(0).put("writer is in error, aborting ILP pipeline");
                 }
-                queue[writerThreadId].get(seq).createMeasurementEvent(securityContext, tud, parser, netIoJob.getWorkerId());
+                final LineTcpMeasurementEvent event = queue[writerThreadId].get(seq);
+                // The table may have been migrated to another writer thread after we read the thread id.
+                // Migration event is published after the thread id is changed, so if the id is still
+                // the same, our event is ahead of the migration event in the queue.
+                if (tud.getWriterThreadId() == writerThreadId) {
+                    eventSize = event.createMeasurementEvent(securityContext, tud, parser, netIoJob.getWorkerId(), writerThreadId);
+                } else {
+                    event.createIncompleteEvent();
+                }
             } finally {
                 pubSeq[writerThreadId].done(seq);
             }
-            tud.incrementEventsProcessedSinceReshuffle();
-            return false;
+            if (eventSize > -1) {
+                tud.incrementEventsProcessedSinceReshuffle(eventSize);
+                return false;
+            }
         }
-        return true;
     }
 
     private TableUpdateDetails getTableUpdateDetailsFromSharedArea(
@@ -530,13 +601,96 @@ public class LineTcpMeasurementScheduler implements Closeable {
             final CharSequence tableName = tableNames.getQuick(n);
             final TableUpdateDetails stats = tableUpdateDetailsUtf16.get(tableName);
             if (stats != null) {
-                loadByWriterThread[stats.getWriterThreadId()] += stats.getEventsProcessedSinceReshuffle();
+                loadByWriterThread[stats.getWriterThreadId()] += stats.getBytesProcessedSinceReshuffle();
             } else {
                 LOG.error().$("could not find statistic for table [name=").$(tableName).I$();
             }
         }
     }
 
+    private boolean unsafePublishMigrationEvent() {
+        final long seq = getNextPublisherEventSequence(migrationFromThreadId);
+        if (seq > -1) {
+            try {
+                queue[migrationFromThreadId].get(seq).createMigrationEvent(
+                        migrationTableUpdateDetails,
+                        migrationTableUpdateDetails.getWriterThreadId()
+                );
+            } finally {
+                pubSeq[migrationFromThreadId].done(seq);
+            }
+            migrationEventPending = false;
+            return true;
+        }
+        migrationEventPending = true;
+        return false;
+    }
+
+    private void unsafeRebalance(long elapsedMillis) {
+        unsafeCalcThreadLoad();
+        int busiestThreadId = 0;
+        int idlestThreadId = 0;
+        for (int i = 1, n = loadByWriterThread.length; i < n; i++) {
+            if (loadByWriterThread[i] > loadByWriterThread[busiestThreadId]) {
+                busiestThreadId = i;
+            }
+            if (loadByWriterThread[i] < loadByWriterThread[idlestThreadId]) {
+                idlestThreadId = i;
+            }
+        }
+
+        final ObjList<CharSequence> tableNames = tableUpdateDetailsUtf16.keys();
+        TableUpdateDetails tableToMove = null;
+        final long busiestLoad = loadByWriterThread[busiestThreadId];
+        final long idlestLoad = loadByWriterThread[idlestThreadId];
+        if (busiestThreadId != idlestThreadId && busiestLoad > rebalanceMaxLoadRatio * idlestLoad) {
+            // Pick the table that evens out the load the most. Tables with the load higher than
+            // the gap between the threads would just swap the threads, including the case when
+            // the busiest thread has a single table.
+            final long loadGap = busiestLoad - idlestLoad;
+            long minLoadDiff = loadGap;
+            for (int n = 0, sz = tableNames.size(); n < sz; n++) {
+                final TableUpdateDetails tud = tableUpdateDetailsUtf16.get(tableNames.getQuick(n));
+                if (tud == null) {
+                    continue;
+                }
+                final long tableLoad = tud.getBytesProcessedSinceReshuffle();
+                if (tud.getWriterThreadId() == busiestThreadId && !tud.isWriterInError() && tableLoad > 0 && tableLoad < loadGap) {
+                    final long loadDiff = Math.abs(loadGap - 2 * tableLoad);
+                    if (loadDiff < minLoadDiff) {
+                        minLoadDiff = loadDiff;
+                        tableToMove = tud;
+                    }
+                }
+            }
+        }
+
+        if (tableToMove != null) {
+            LOG.info().$("migrating table to another writer thread [tableName=").$(tableToMove.getTableNameUtf16())
+                    .$(", fromThreadId=").$(busiestThreadId)
+                    .$(", toThreadId=").$(idlestThreadId)
+                    .$(", rowsPerSec=").$(tableToMove.getEventsProcessedSinceReshuffle() * 1000 / elapsedMillis)
+                    .$(", bytesPerSec=").$(tableToMove.getBytesProcessedSinceReshuffle() * 1000 / elapsedMillis)
+                    .$(", fromThreadBytesPerSec=").$(busiestLoad * 1000 / elapsedMillis)
+                    .$(", toThreadBytesPerSec=").$(idlestLoad * 1000 / elapsedMillis)
+                    .I$();
+            // new measurements go to the new writer thread, but it won't touch them until
+            // the old thread consumes the migration event and hands the table over
+            tableToMove.setWriterThreadId(idlestThreadId);
+            migrationTableUpdateDetails = tableToMove;
+            migrationFromThreadId = busiestThreadId;
+            tableMigrationCounter.inc();
+            unsafePublishMigrationEvent();
+        }
+
+        for (int n = 0, sz = tableNames.size(); n < sz; n++) {
+            final TableUpdateDetails tud = tableUpdateDetailsUtf16.get(tableNames.getQuick(n));
+            if (tud != null) {
+                tud.resetEventsProcessedSinceReshuffle();
+            }
+        }
+    }
+
     protected NetworkIOJob createNetworkIOJob(IODispatcher<LineTcpConnectionContext> dispatcher, int workerId) {
         return new LineTcpNetworkIOJob(configuration, this, dispatcher, workerId);
     }
@@ -549,4 +703,16 @@ public class LineTcpMeasurementScheduler implements Closeable {
         }
         return seq;
     }
+
+    private class WriterQueueDepthProvider implements VirtualLongGaugeWithOneLabel.StatProvider {
+        @Override
+        public int getStatCount() {
+            return pubSeq.length;
+        }
+
+        @Override
+        public long getStatValue(int index) {
+            return Math.max(pubSeq[index].current() - subSeq[index].current(), 0);
+        }
+    }
 }
@@ -115,6 +115,8 @@ class LineTcpNetworkIOJob implements NetworkIOJob {
         assert this.workerId == workerId;
         boolean busy = false;
         if (busyContext != null) {
+            // publishing a pending table migration event may be what frees up the full queue
+            scheduler.rebalanceWriterThreads(millisecondClock.getTicks());
             if (handleIO(busyContext, dispatcher)) {
                 // queue is still full
                 return true;
@@ -134,6 +136,7 @@ class LineTcpNetworkIOJob implements NetworkIOJob {
             if (!busy) {
                 maintenanceJobDeadline = millis + maintenanceInterval;
             }
+            scheduler.rebalanceWriterThreads(millis);
         }
 
         return busy;
@@ -93,6 +93,24 @@ public interface LineTcpReceiverConfiguration {
 
     int getWriterQueueCapacity();
 
+    /**
+     * Interval in milliseconds between writer thread load checks. When the load is
+     * uneven, a table is migrated from the busiest writer thread to the least busy one.
+     * Zero or negative value disables the rebalancing.
+     *
+     * @return interval in milliseconds
+     */
+    long getWriterRebalanceInterval();
+
+    /**
+     * Ratio between the busiest and the least busy writer thread loads that triggers
+     * a table migration. The load is measured as bytes of measurements dispatched to
+     * the thread since the previous load check.
+     *
+     * @return max allowed load ratio
+     */
+    double getWriterRebalanceMaxLoadRatio();
+
     WorkerPoolConfiguration getWriterWorkerPoolConfiguration();
 
     boolean isEnabled();
@@ -138,6 +138,11 @@ class LineTcpWriterJob implements Job, Closeable {
             }
             busy = true;
             final LineTcpMeasurementEvent event = queue.get(cursor);
+            if (isWaitingForMigration(event)) {
+                // the table is being migrated to this thread, but the previous writer thread
+                // hasn't released it yet; the event stays in the queue until then
+                return true;
+            }
 
             try {
                 // we check the event's writer thread ID to avoid consuming
@@ -173,8 +178,15 @@ class LineTcpWriterJob implements Job, Closeable {
                         // This is a critical error, so we treat it as an unhandled one.
                     }
                 } else {
-                    if (event.getWriterWorkerId() == LineTcpMeasurementEventType.ALL_WRITERS_RELEASE_WRITER) {
-                        closeWriter = true;
+                    switch (event.getWriterWorkerId()) {
+                        case LineTcpMeasurementEventType.ALL_WRITERS_RELEASE_WRITER:
+                            closeWriter = true;
+                            break;
+                        case LineTcpMeasurementEventType.ALL_WRITERS_MIGRATE_TABLE:
+                            handOverTable(tud, event.getMigrationWriterThreadId());
+                            break;
+                        default:
+                            break;
                     }
                 }
 
@@ -192,6 +204,46 @@ class LineTcpWriterJob implements Job, Closeable {
         }
     }
 
+    private void handOverTable(TableUpdateDetails tud, int toWriterThreadId) {
+        if (tud.isAssignedToJob()) {
+            assignedTables.remove(tud);
+            tud.setAssignedToJob(false);
+            nextCommitTime = millisecondClock.getTicks();
+        }
+        if (tud.getWriterThreadId() == Integer.MIN_VALUE) {
+            // the table has been closed
+            return;
+        }
+        try {
+            // the new writer thread commits only the tables it receives measurements for,
+            // rows written so far must not wait for the next measurement to be committed
+            tud.commit(false);
+        } catch (Throwable ex) {
+            LOG.critical()
+                    .$("commit failed on table hand over [table=").$(tud.getTableToken())
+                    .$(",ex=").$(ex)
+                    .I$();
+            metrics.health().incrementUnhandledErrors();
+        }
+        LOG.info()
+                .$("handing over table to another writer thread [tableName=").$(tud.getTableToken())
+                .$(", fromThreadId=").$(workerId)
+                .$(", toThreadId=").$(toWriterThreadId)
+                .I$();
+        // all events published for the table before the migration are consumed by now,
+        // the new writer thread may start using the table writer
+        tud.setActiveWriterThreadId(toWriterThreadId);
+    }
+
+    private boolean isWaitingForMigration(LineTcpMeasurementEvent event) {
+        final int eventWriterId = event.getWriterWorkerId();
+        if (eventWriterId != workerId && eventWriterId != LineTcpMeasurementEventType.ALL_WRITERS_RELEASE_WRITER) {
+            return false;
+        }
+        final TableUpdateDetails tud = event.getTableUpdateDetails();
+        return tud != null && tud.getWriterThreadId() == workerId && tud.getActiveWriterThreadId() != workerId;
+    }
+
     private void tickWriters() {
         for (int n = 0, sz = assignedTables.size(); n < sz; n++) {
             assignedTables.getQuick(n).tick();
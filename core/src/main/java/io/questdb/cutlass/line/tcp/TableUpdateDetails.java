@@ -60,9 +60,13 @@ public class TableUpdateDetails implements Closeable {
     private final int timestampIndex;
     private final long writerTickRowsCountMod;
     protected TableWriterAPI writerAPI;
+    // Writer thread that appends to the table. It differs from writerThreadId while the table
+    // is being migrated to another writer thread and the previous thread hasn't released it yet.
+    private volatile int activeWriterThreadId;
     private boolean assignedToJob = false;
-    // Number of rows processed since the last reshuffle, this is an estimate because it is incremented by
-    // multiple threads without synchronisation
+    // Number of bytes and rows processed since the last reshuffle, these are estimates because they
+    // are incremented by multiple threads without synchronisation
+    private long bytesProcessedSinceReshuffle = 0;
     private long eventsProcessedSinceReshuffle = 0;
     private boolean isDropped;
     private long lastMeasurementMillis = Long.MAX_VALUE;
@@ -71,7 +75,8 @@ public class TableUpdateDetails implements Closeable {
     private int networkIOOwnerCount = 0;
     private long nextCommitTime;
     private volatile boolean writerInError;
-    private int writerThreadId;
+    // Writer thread that new measurements are dispatched to
+    private volatile int writerThreadId;
 
     public TableUpdateDetails(
             LineTcpReceiverConfiguration configuration,
@@ -84,6 +89,7 @@ public class TableUpdateDetails implements Closeable {
             Utf8String tableNameUtf8
     ) {
         this.writerThreadId = writerThreadId;
+        this.activeWriterThreadId = writerThreadId;
         this.engine = engine;
         this.ownSecurityContext = ownSecurityContext;
         this.defaultColumnTypes = defaultColumnTypes;
@@ -121,6 +127,7 @@ public class TableUpdateDetails implements Closeable {
             long maxUncommittedRows
     ) {
         this.writerThreadId = writerThreadId;
+        this.activeWriterThreadId = writerThreadId;
         this.engine = engine;
         this.ownSecurityContext = ownSecurityContext;
         this.defaultColumnTypes = defaultColumnTypes;
@@ -187,6 +194,7 @@ public class TableUpdateDetails implements Closeable {
                 }
             }
             writerThreadId = Integer.MIN_VALUE;
+            activeWriterThreadId = Integer.MIN_VALUE;
         }
     }
 
@@ -214,6 +222,14 @@ public class TableUpdateDetails implements Closeable {
         }
     }
 
+    public int getActiveWriterThreadId() {
+        return activeWriterThreadId;
+    }
+
+    public long getBytesProcessedSinceReshuffle() {
+        return bytesProcessedSinceReshuffle;
+    }
+
     public long getEventsProcessedSinceReshuffle() {
         return eventsProcessedSinceReshuffle;
     }
@@ -246,8 +262,9 @@ public class TableUpdateDetails implements Closeable {
         return writerThreadId;
     }
 
-    public void incrementEventsProcessedSinceReshuffle() {
+    public void incrementEventsProcessedSinceReshuffle(long bytes) {
         ++eventsProcessedSinceReshuffle;
+        bytesProcessedSinceReshuffle += bytes;
     }
 
     public boolean isAssignedToJob() {
@@ -258,6 +275,10 @@ public class TableUpdateDetails implements Closeable {
         return this.isDropped;
     }
 
+    public boolean isMigrating() {
+        return activeWriterThreadId != writerThreadId;
+    }
+
     public boolean isWal() {
         return writerThreadId == -1;
     }
@@ -278,10 +299,23 @@ public class TableUpdateDetails implements Closeable {
         }
     }
 
+    public void resetEventsProcessedSinceReshuffle() {
+        eventsProcessedSinceReshuffle = 0;
+        bytesProcessedSinceReshuffle = 0;
+    }
+
     public void rollback() {
         writerAPI.rollback();
     }
 
+    /**
+     * Called by the previous writer thread once it stops using the table writer.
+     * The new writer thread may append to the table only after this call.
+     */
+    public void setActiveWriterThreadId(int activeWriterThreadId) {
+        this.activeWriterThreadId = activeWriterThreadId;
+    }
+
     public void setAssignedToJob(boolean assignedToJob) {
         this.assignedToJob = assignedToJob;
     }
@@ -294,6 +328,10 @@ public class TableUpdateDetails implements Closeable {
         writerInError = true;
     }
 
+    public void setWriterThreadId(int writerThreadId) {
+        this.writerThreadId = writerThreadId;
+    }
+
     public void tick() {
         if (metadataService != null) {
             metadataService.tick();
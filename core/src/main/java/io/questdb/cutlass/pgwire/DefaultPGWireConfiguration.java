@@ -110,6 +110,11 @@ public class DefaultPGWireConfiguration implements PGWireConfiguration {
         return Integer.MAX_VALUE;
     }
 
+    @Override
+    public int getInsertBatchSize() {
+        return 1024;
+    }
+
     @Override
     public int getInsertCacheBlockCount() {
         return 4;
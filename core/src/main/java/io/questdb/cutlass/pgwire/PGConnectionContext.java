@@ -63,6 +63,7 @@ import io.questdb.griffin.SqlCompiler;
 import io.questdb.griffin.SqlException;
 import io.questdb.griffin.SqlExecutionContextImpl;
 import io.questdb.griffin.SqlTimeoutException;
+import io.questdb.griffin.engine.QueryPlanPool;
 import io.questdb.griffin.engine.functions.bind.BindVariableServiceImpl;
 import io.questdb.griffin.engine.ops.UpdateOperation;
 import io.questdb.log.Log;
@@ -78,7 +79,6 @@ import io.questdb.network.PeerIsSlowToReadException;
 import io.questdb.network.PeerIsSlowToWriteException;
 import io.questdb.network.QueryPausedException;
 import io.questdb.network.SuspendEvent;
-import io.questdb.std.AssociativeCache;
 import io.questdb.std.BinarySequence;
 import io.questdb.std.CharSequenceObjHashMap;
 import io.questdb.std.Chars;
@@ -108,6 +108,7 @@ import io.questdb.std.datetime.millitime.DateFormatUtils;
 import io.questdb.std.str.DirectUtf8String;
 import io.questdb.std.str.Path;
 import io.questdb.std.str.StdoutSink;
+import io.questdb.std.str.StringSink;
 import io.questdb.std.str.Utf8Sequence;
 import io.questdb.std.str.Utf8Sink;
 import io.questdb.std.str.Utf8s;
@@ -188,6 +189,7 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
     private final CairoEngine engine;
     private final int forceRecvFragmentationChunkSize;
     private final int forceSendFragmentationChunkSize;
+    private final int insertBatchSize;
     private final int maxBlobSizeOnQuery;
     private final int maxRecompileAttempts;
     private final Metrics metrics;
@@ -196,9 +198,15 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
     private final CharSequenceObjHashMap<NamedStatementWrapper> namedStatementMap;
     private final WeakMutableObjectPool<NamedStatementWrapper> namedStatementWrapperPool;
     private final ObjObjHashMap<TableToken, TableWriterAPI> pendingWriters;
+    // text of the INSERT whose pipelined executions are pending commit
+    private final StringSink pipelinedInsertText = new StringSink();
+    private final QueryPlanPool planPool;
     private final int recvBufferSize;
     private final ResponseUtf8Sink responseUtf8Sink = new ResponseUtf8Sink();
     private final SecurityContextFactory securityContextFactory;
+    private final boolean selectCacheEnabled;
+    // bind variable types of the factory taken from the plan pool
+    private final IntList selectCacheTypes = new IntList();
     private final IntList selectColumnTypes = new IntList();
     private final int sendBufferSize;
     private final IntList syncActions = new IntList(4);
@@ -226,6 +234,8 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
     private long maxSendRows;
     private int parsePhaseBindVariableCount;
     private Path path;
+    // number of autocommit INSERT executions appended to pending writers ahead of the next Sync
+    private int pipelinedInsertCount;
     private boolean queryContainsSecret;
     // command tag used when returning row count to client,
     // see CommandComplete (B) at https://www.postgresql.org/docs/current/protocol-message-formats.html
@@ -256,11 +266,10 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
     private SimpleAssociativeCache<TypesAndInsert> typesAndInsertCache;
     // these references are held by context only for a period of processing single request
     // in PF world this request can span multiple messages, but still, only for one request
-    // the rationale is to be able to return "selectAndTypes" instance to thread-local
-    // cache, which is "typesAndSelectCache". We typically do this after query results are
-    // served to client or query errored out due to network issues
+    // the rationale is to be able to return factory of "selectAndTypes" to the engine-wide
+    // plan pool. We typically do this after query results are served to client or query
+    // errored out due to network issues
     private TypesAndSelect typesAndSelect = null;
-    private AssociativeCache<TypesAndSelect> typesAndSelectCache;
     private boolean typesAndSelectIsCached = true;
     private final PGResumeProcessor resumeCursorQueryRef = this::resumeCursorQuery;
     private final PGResumeProcessor resumeComputeCursorSizeQueryRef = this::resumeComputeCursorSizeQuery;
@@ -275,8 +284,7 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
             CairoEngine engine,
             PGWireConfiguration configuration,
             SqlExecutionContextImpl sqlExecutionContext,
-            NetworkSqlExecutionCircuitBreaker circuitBreaker,
-            AssociativeCache<TypesAndSelect> typesAndSelectCache
+            NetworkSqlExecutionCircuitBreaker circuitBreaker
     ) {
         super(
                 configuration.getFactoryProvider().getPGWireSocketFactory(),
@@ -294,6 +302,7 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
             this.sendBufferSize = Numbers.ceilPow2(configuration.getSendBufferSize());
             this.forceSendFragmentationChunkSize = configuration.getForceSendFragmentationChunkSize();
             this.forceRecvFragmentationChunkSize = configuration.getForceRecvFragmentationChunkSize();
+            this.insertBatchSize = configuration.getInsertBatchSize();
             this.characterStore = new CharacterStore(configuration.getCharacterStoreCapacity(), configuration.getCharacterStorePoolCapacity());
             this.maxBlobSizeOnQuery = configuration.getMaxBlobSizeOnQuery();
             this.dumpNetworkTraffic = configuration.getDumpNetworkTraffic();
@@ -309,7 +318,8 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
 
             this.metrics = engine.getMetrics();
 
-            this.typesAndSelectCache = typesAndSelectCache;
+            this.selectCacheEnabled = configuration.isSelectCacheEnabled();
+            this.planPool = engine.getQueryPlanPool();
 
             final boolean enabledUpdateCache = configuration.isUpdateCacheEnabled();
             final int updateBlockCount = enabledUpdateCache ? configuration.getUpdateCacheBlockCount() : 1;
@@ -428,6 +438,8 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         maxReceiveRows = 0;
         maxSendRows = 0;
         parsePhaseBindVariableCount = 0;
+        pipelinedInsertCount = 0;
+        pipelinedInsertText.clear();
         queryContainsSecret = false;
         queryTag = null;
         queryText = null;
@@ -472,7 +484,6 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         }
         path = Misc.free(path);
         authenticator = Misc.free(authenticator);
-        typesAndSelectCache = Misc.free(typesAndSelectCache);
         typesAndUpdateCache = Misc.free(typesAndUpdateCache);
         typesAndInsertCache = Misc.free(typesAndInsertCache);
     }
@@ -1332,8 +1343,8 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         // we do not want to overwrite cache entries and potentially
         // leak memory
         if (typesAndSelect != null) {
-            if (typesAndSelectIsCached) {
-                typesAndSelectCache.put(queryText, typesAndSelect);
+            if (typesAndSelectIsCached && selectCacheEnabled) {
+                planPool.put(queryText, typesAndSelect.getFactory(), typesAndSelect.getTypes());
                 // clear selectAndTypes so that context doesn't accidentally
                 // free the factory when context finishes abnormally
                 this.typesAndSelect = null;
@@ -1379,6 +1390,42 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         }
     }
 
+    private void closePipelinedInserts(boolean commit) {
+        pipelinedInsertCount = 0;
+        pipelinedInsertText.clear();
+        Throwable error = null;
+        for (ObjObjHashMap.Entry<TableToken, TableWriterAPI> pendingWriter : pendingWriters) {
+            final TableWriterAPI m = pendingWriter.value;
+            try {
+                if (commit && error == null) {
+                    m.commit();
+                } else {
+                    m.rollback();
+                }
+            } catch (Throwable th) {
+                // keep going, remaining writers are rolled back and all of them are released
+                if (error == null) {
+                    error = th;
+                }
+            } finally {
+                Misc.free(m);
+            }
+        }
+        pendingWriters.clear();
+        if (error instanceof CairoException) {
+            throw (CairoException) error;
+        }
+        if (error != null) {
+            throw new RuntimeException(error);
+        }
+    }
+
+    private void commitPipelinedInserts() {
+        if (pipelinedInsertCount > 0) {
+            closePipelinedInserts(true);
+        }
+    }
+
     private boolean compileQuery() throws SqlException {
         if (queryText != null && queryText.length() > 0) {
             // try insert, peek because this is our private cache,
@@ -1403,9 +1450,9 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
                 return false;
             }
 
-            typesAndSelect = typesAndSelectCache.poll(queryText);
-
-            if (typesAndSelect != null) {
+            final RecordCursorFactory factory = pollSelectCache();
+            if (factory != null) {
+                typesAndSelect = new TypesAndSelect(factory, selectCacheTypes);
                 sqlExecutionContext.setCacheHit(true);
                 // cache hit, define bind variables
                 bindVariableService.clear();
@@ -1414,10 +1461,13 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
                 return false;
             }
 
-            // not cached - compile to see what it is
+            // not cached - compile to see what it is, DDL may need the writers of pipelined inserts
+            commitPipelinedInserts();
             sqlExecutionContext.setCacheHit(false);
             try (SqlCompiler compiler = engine.getSqlCompiler()) {
+                final long nanos = Os.currentTimeNanos();
                 final CompiledQuery cc = compiler.compile(queryText, sqlExecutionContext);
+                planPool.onCompiled(Os.currentTimeNanos() - nanos);
                 processCompiledQuery(cc);
             }
         } else {
@@ -1542,7 +1592,11 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         }
     }
 
-    private void executeInsert() throws SqlException, PeerDisconnectedException {
+    /**
+     * @param pipelined true when the insert is executed by an Execute message of the extended protocol,
+     *                  such inserts are committed in batches when not in an explicit transaction
+     */
+    private void executeInsert(boolean pipelined) throws SqlException, PeerDisconnectedException {
         TableWriterAPI writer;
         boolean recompileStale = true;
         for (int retries = 0; true; retries++) {
@@ -1563,6 +1617,29 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
                     case ERROR_TRANSACTION:
                         // when transaction is in error state, skip execution
                         break;
+                    case NO_TRANSACTION:
+                        if (pipelined && insertBatchSize > 1) {
+                            if (pipelinedInsertCount > 0 && !Chars.equals(pipelinedInsertText, queryText)) {
+                                commitPipelinedInserts();
+                            }
+                            final InsertMethod m1 = typesAndInsert.getInsert().createMethod(sqlExecutionContext, this);
+                            recompileStale = false;
+                            if (pipelinedInsertCount++ == 0) {
+                                pipelinedInsertText.put(queryText);
+                            }
+                            try {
+                                rowCount = m1.execute();
+                            } finally {
+                                // the writer is committed, or rolled back on error, along with the rest of the batch
+                                writer = m1.popWriter();
+                                pendingWriters.put(writer.getTableToken(), writer);
+                            }
+                            if (pipelinedInsertCount == insertBatchSize) {
+                                commitPipelinedInserts();
+                            }
+                            break;
+                        }
+                        // fall through
                     default:
                         // in any other case we will commit in place
                         try (final InsertMethod m2 = typesAndInsert.getInsert().createMethod(sqlExecutionContext, this)) {
@@ -1830,6 +1907,10 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
     private void handleException(int position, CharSequence message, boolean critical, int errno, boolean interruption) throws PeerDisconnectedException, PeerIsSlowToReadException {
         metrics.pgWire().getErrorCounter().inc();
         clearCursorAndFactory();
+        if (pipelinedInsertCount > 0) {
+            // much like the implicit transaction of the extended protocol, the batch fails as a whole
+            closePipelinedInserts(false);
+        }
         if (interruption) {
             prepareErrorResponse(position, message);
         } else {
@@ -1916,9 +1997,22 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         final long msgLimit = address + msgLen + 1;
         final long msgLo = address + PREFIXED_MESSAGE_HEADER_LEN; // 8 is offset where name value pairs begin
         lastMsgType = type;
+        if (pipelinedInsertCount > 0 && type != 'B' && type != 'E' && type != 'D' && type != 'P') {
+            // the run of pipelined inserts is over, Sync and Flush must not report uncommitted rows
+            // as ready, while any other message may touch the tables
+            if (type == 'S' || type == 'H') {
+                syncPipelinedInserts();
+            } else {
+                commitPipelinedInserts();
+            }
+        }
         if (errorSkipToSync) {
             if (lastMsgType == 'S' || lastMsgType == 'H') {
                 errorSkipToSync = false;
+                if (lastMsgType == 'S') {
+                    // bind variables of the failed statement must not leak into the next one
+                    prepareForNewQuery();
+                }
                 replyAndContinue();
             }
             // Skip all input until Sync or Flush messages received.
@@ -1996,6 +2090,19 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         throw BadProtocolException.INSTANCE;
     }
 
+    private RecordCursorFactory pollSelectCache() {
+        if (!selectCacheEnabled) {
+            return null;
+        }
+        final RecordCursorFactory factory = planPool.poll(queryText, selectCacheTypes);
+        if (factory != null) {
+            metrics.pgWire().selectCacheHitCounter().inc();
+        } else {
+            metrics.pgWire().selectCacheMissCounter().inc();
+        }
+        return factory;
+    }
+
     private void prepareBindComplete() {
         responseUtf8Sink.put(MESSAGE_TYPE_BIND_COMPLETE);
         responseUtf8Sink.putIntDirect(INT_BYTES_X);
@@ -2458,11 +2565,13 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
             sendCursor(resumeCursorExecuteRef, resumeExecuteCompleteRef, setResumeComputeCursorSizeExecuteRef);
         } else if (typesAndInsert != null) {
             LOG.debug().$("executing insert").$();
-            executeInsert();
+            executeInsert(true);
         } else if (typesAndUpdate != null) {
             LOG.debug().$("executing update").$();
+            commitPipelinedInserts();
             executeUpdate();
         } else { // this must be an OK/SET/COMMIT/ROLLBACK or empty query
+            commitPipelinedInserts();
             executeTag();
             prepareCommandComplete(false);
         }
@@ -2849,6 +2958,8 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
                     }
                     LOG.info().$(e.getFlyweightMessage()).$("setupFactoryAndCursor [retries=").$(retries).I$();
                     freeFactory();
+                    // other instances pooled under this text are stale too
+                    planPool.invalidate(queryText);
                     if (!compileQuery()) {
                         // when we get a query from cache then we don't count it as
                         // a recompile attempt. since a large cache full of stale queries
@@ -2891,6 +3002,20 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
         recvBufferReadOffset = 0;
     }
 
+    private void syncPipelinedInserts() {
+        // the commit is part of Sync processing, which must be answered with ReadyForQuery even when
+        // it fails, hence the error is reported in place rather than skipping input until the next Sync
+        try {
+            closePipelinedInserts(true);
+        } catch (CairoException e) {
+            metrics.pgWire().getErrorCounter().inc();
+            prepareError(e.getPosition(), e.getFlyweightMessage(), e.isCritical(), e.getErrno());
+        } catch (Throwable th) {
+            metrics.pgWire().getErrorCounter().inc();
+            prepareError(-1, th.getMessage(), true, -1);
+        }
+    }
+
     private void validateParameterCounts(short parameterFormatCount, short parameterValueCount, int parameterTypeCount) throws BadProtocolException {
         if (parameterValueCount > 0) {
             if (parameterValueCount < parameterTypeCount) {
@@ -3053,7 +3178,7 @@ public class PGConnectionContext extends IOContext<PGConnectionContext> implemen
                     maxReceiveRows = 0; // unlimited
                     sendCursor(resumeCursorQueryRef, resumeQueryCompleteRef, resumeComputeCursorSizeQueryRef);
                 } else if (typesAndInsert != null) {
-                    executeInsert();
+                    executeInsert(false);
                 } else if (typesAndUpdate != null) {
                     executeUpdate();
                 } else if (cq.getType() == CompiledQuery.INSERT_AS_SELECT || cq.getType() == CompiledQuery.CREATE_TABLE_AS_SELECT) {
@@ -62,6 +62,12 @@ public interface PGWireConfiguration extends WorkerPoolConfiguration {
 
     int getForceSendFragmentationChunkSize();
 
+    /**
+     * Maximum number of pipelined autocommit INSERT executions that are committed together.
+     * Values below 2 commit each execution on its own.
+     */
+    int getInsertBatchSize();
+
     int getInsertCacheBlockCount();
 
     int getInsertCacheRowCount();
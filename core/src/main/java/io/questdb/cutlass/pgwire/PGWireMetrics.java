@@ -30,7 +30,6 @@ import io.questdb.metrics.MetricsRegistry;
 
 public class PGWireMetrics {
 
-    private final LongGauge cachedSelectsGauge;
     private final LongGauge cachedUpdatesGauge;
     private final LongGauge connectionCountGauge;
     private final Counter errorCounter;
@@ -39,17 +38,12 @@ public class PGWireMetrics {
 
     public PGWireMetrics(MetricsRegistry metricsRegistry) {
         this.connectionCountGauge = metricsRegistry.newLongGauge("pg_wire_connections");
-        this.cachedSelectsGauge = metricsRegistry.newLongGauge("pg_wire_select_queries_cached");
         this.cachedUpdatesGauge = metricsRegistry.newLongGauge("pg_wire_update_queries_cached");
         this.selectCacheHitCounter = metricsRegistry.newCounter("pg_wire_select_cache_hits");
         this.selectCacheMissCounter = metricsRegistry.newCounter("pg_wire_select_cache_misses");
         this.errorCounter = metricsRegistry.newCounter("pg_wire_errors");
     }
 
-    public LongGauge cachedSelectsGauge() {
-        return cachedSelectsGauge;
-    }
-
     public LongGauge cachedUpdatesGauge() {
         return cachedUpdatesGauge;
     }
@@ -45,13 +45,11 @@ import static io.questdb.network.IODispatcher.*;
 
 public class PGWireServer implements Closeable {
     private static final Log LOG = LogFactory.getLog(PGWireServer.class);
-    private static final NoOpAssociativeCache<TypesAndSelect> NO_OP_CACHE = new NoOpAssociativeCache<>();
     private final PGConnectionContextFactory contextFactory;
     private final IODispatcher<PGConnectionContext> dispatcher;
     private final Metrics metrics;
     private final CircuitBreakerRegistry registry;
     private final WorkerPool workerPool;
-    private AssociativeCache<TypesAndSelect> typesAndSelectCache;
 
     public PGWireServer(
             PGWireConfiguration configuration,
@@ -61,23 +59,11 @@ public class PGWireServer implements Closeable {
             ObjectFactory<SqlExecutionContextImpl> executionContextObjectFactory
     ) {
         this.metrics = engine.getMetrics();
-        if (configuration.isSelectCacheEnabled()) {
-            this.typesAndSelectCache = new ConcurrentAssociativeCache<>(
-                    configuration.getSelectCacheBlockCount(),
-                    configuration.getSelectCacheRowCount(),
-                    metrics.pgWire().cachedSelectsGauge(),
-                    metrics.pgWire().selectCacheHitCounter(),
-                    metrics.pgWire().selectCacheMissCounter()
-            );
-        } else {
-            this.typesAndSelectCache = NO_OP_CACHE;
-        }
         this.contextFactory = new PGConnectionContextFactory(
                 engine,
                 configuration,
                 registry,
-                executionContextObjectFactory,
-                typesAndSelectCache
+                executionContextObjectFactory
         );
         this.dispatcher = IODispatchers.create(configuration.getDispatcherConfiguration(), contextFactory);
         this.workerPool = workerPool;
@@ -133,16 +119,11 @@ public class PGWireServer implements Closeable {
         }
     }
 
-    public void clearSelectCache() {
-        typesAndSelectCache.clear();
-    }
-
     @Override
     public void close() {
         Misc.free(dispatcher);
         Misc.free(registry);
         Misc.free(contextFactory);
-        typesAndSelectCache = Misc.free(typesAndSelectCache);
     }
 
     public int getPort() {
@@ -154,20 +135,13 @@ public class PGWireServer implements Closeable {
         return workerPool;
     }
 
-    public void resetQueryCache() {
-        if (typesAndSelectCache != null) {
-            typesAndSelectCache.clear();
-        }
-    }
-
     private static class PGConnectionContextFactory extends IOContextFactoryImpl<PGConnectionContext> {
 
         public PGConnectionContextFactory(
                 CairoEngine engine,
                 PGWireConfiguration configuration,
                 CircuitBreakerRegistry registry,
-                ObjectFactory<SqlExecutionContextImpl> executionContextObjectFactory,
-                AssociativeCache<TypesAndSelect> typesAndSelectCache
+                ObjectFactory<SqlExecutionContextImpl> executionContextObjectFactory
         ) {
             super(
                     () -> {
@@ -179,8 +153,7 @@ public class PGWireServer implements Closeable {
                                 engine,
                                 configuration,
                                 executionContextObjectFactory.newInstance(),
-                                circuitBreaker,
-                                typesAndSelectCache
+                                circuitBreaker
                         );
                         FactoryProvider factoryProvider = configuration.getFactoryProvider();
                         SocketAuthenticator authenticator = factoryProvider.getPgWireAuthenticatorFactory().getPgWireAuthenticator(
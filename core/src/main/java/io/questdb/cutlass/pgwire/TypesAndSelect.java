@@ -33,7 +33,9 @@ import io.questdb.std.QuietCloseable;
 
 /**
  * Unlike other TypesAnd* classes, this one doesn't self-return to a pool. That's because
- * it's used for multi-threaded calls to {@link io.questdb.std.ConcurrentAssociativeCache}.
+ * its factory is shared between connections via the engine-wide
+ * {@link io.questdb.griffin.engine.QueryPlanPool}, which keeps the bind variable types
+ * alongside the factory rather than this wrapper.
  */
 public class TypesAndSelect implements QuietCloseable {
     private final IntList types = new IntList();
@@ -43,6 +45,11 @@ public class TypesAndSelect implements QuietCloseable {
         this.factory = factory;
     }
 
+    public TypesAndSelect(RecordCursorFactory factory, IntList types) {
+        this.factory = factory;
+        this.types.addAll(types);
+    }
+
     @Override
     public void close() {
         factory = Misc.free(factory);
@@ -59,4 +66,8 @@ public class TypesAndSelect implements QuietCloseable {
     public RecordCursorFactory getFactory() {
         return factory;
     }
+
+    public IntList getTypes() {
+        return types;
+    }
 }
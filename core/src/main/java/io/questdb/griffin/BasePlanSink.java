@@ -25,6 +25,7 @@
 package io.questdb.griffin;
 
 import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.engine.ProfilingRecordCursorFactory;
 import io.questdb.griffin.engine.functions.constants.ConstantFunction;
 import io.questdb.std.Numbers;
 import io.questdb.std.ObjList;
@@ -203,6 +204,14 @@ public abstract class BasePlanSink implements PlanSink {
         return this;
     }
 
+    // adds EXPLAIN ANALYZE statistics to the node that has just been started
+    protected void putProfile() {
+        final RecordCursorFactory factory = factoryStack.peek();
+        if (factory instanceof ProfilingRecordCursorFactory) {
+            ((ProfilingRecordCursorFactory) factory).putProfile(this);
+        }
+    }
+
     static class EscapingStringSink extends StringSink {
 
         @Override
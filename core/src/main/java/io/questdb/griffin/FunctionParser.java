@@ -55,6 +55,8 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
     // order of values matters here, partial match must have greater value than fuzzy match
     private static final int MATCH_NO_MATCH = 0;
     private static final int MATCH_PARTIAL_MATCH = 2;
+    // functions, other than runtime constants, whose value is not derived from table data
+    private static final LowerCaseCharSequenceHashSet VOLATILE_FUNCTIONS = new LowerCaseCharSequenceHashSet();
     private final CairoConfiguration configuration;
     private final FunctionFactoryCache functionFactoryCache;
     private final ArrayDeque<Function> functionStack = new ArrayDeque<>();
@@ -476,6 +478,12 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
         }
     }
 
+    private static boolean isVolatile(FunctionFactory factory, CharSequence name) {
+        return factory.isRuntimeConstant()
+                || Chars.startsWithLowerCase(name, "rnd_")
+                || VOLATILE_FUNCTIONS.contains(name);
+    }
+
     private static void putArgType(ObjList<Function> args, int i, SqlException ex) {
         Function arg = args.getQuick(i);
         ex.put(ColumnType.nameOf(arg.getType()));
@@ -489,6 +497,9 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
             CairoConfiguration configuration
     ) throws SqlException {
         final int position = node.position;
+        if (sqlCodeGenerator != null && isVolatile(factory, node.token)) {
+            sqlCodeGenerator.markResultUncacheable();
+        }
         Function function;
         try {
             LOG.debug().$("call ").$(node).$(" -> ").$(factory.getSignature()).$("[factory=").$(factory).I$();
@@ -1168,5 +1179,11 @@ public class FunctionParser implements PostOrderTreeTraversalAlgo.Visitor, Mutab
         FunctionFactoryCache.invalidFunctionNameChars.add(' ');
         FunctionFactoryCache.invalidFunctionNameChars.add('\"');
         FunctionFactoryCache.invalidFunctionNameChars.add('\'');
+
+        VOLATILE_FUNCTIONS.add("current_user");
+        VOLATILE_FUNCTIONS.add("session_user");
+        VOLATILE_FUNCTIONS.add("sleep");
+        VOLATILE_FUNCTIONS.add("sysdate");
+        VOLATILE_FUNCTIONS.add("systimestamp");
     }
 }
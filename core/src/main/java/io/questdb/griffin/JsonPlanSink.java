@@ -151,6 +151,7 @@ public class JsonPlanSink extends BasePlanSink {
         checkType(NODE_TYPE);
         sink.put("Node Type\": \"");
         sink.put(type);
+        putProfile();
         return this;
     }
 
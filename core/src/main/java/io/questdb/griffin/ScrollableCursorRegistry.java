@@ -0,0 +1,294 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.SecurityContext;
+import io.questdb.cairo.sql.NetworkSqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.Chars;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.Mutable;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.datetime.millitime.MillisecondClock;
+import io.questdb.std.str.StringSink;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * Engine-wide registry of open cursors of paginated queries. Instead of re-running the query and
+ * skipping rows for every page, the cursor is parked here once a page is sent and the next page
+ * request resumes it at the row it stopped at.
+ * <p>
+ * Each parked cursor comes with its own execution context and circuit breaker, so that it can be
+ * resumed by any worker. The number of cursors is bounded per user, least recently used cursor of
+ * the user is closed once the limit is exceeded. Cursors that are idle for longer than the configured
+ * timeout are closed by {@link CairoEngine#releaseInactive()} and are never resumed.
+ */
+public class ScrollableCursorRegistry implements Mutable, QuietCloseable {
+    private static final Log LOG = LogFactory.getLog(ScrollableCursorRegistry.class);
+    private final MillisecondClock clock;
+    private final CairoConfiguration configuration;
+    private final CairoEngine engine;
+    // parked entries, least recently used first
+    private final ObjList<Entry> entries = new ObjList<>();
+    private long nextId;
+
+    public ScrollableCursorRegistry(CairoEngine engine) {
+        this.engine = engine;
+        this.configuration = engine.getConfiguration();
+        this.clock = configuration.getMillisecondClock();
+    }
+
+    @Override
+    public synchronized void clear() {
+        for (int i = 0, n = entries.size(); i < n; i++) {
+            Misc.free(entries.getQuick(i));
+        }
+        entries.clear();
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    public boolean isEnabled() {
+        return configuration.getSqlScrollableCursorMaxPerUser() > 0;
+    }
+
+    /**
+     * Creates an entry to run a scrollable cursor. The entry belongs to the caller until it is parked.
+     */
+    public Entry newEntry(int workerCount, int sharedWorkerCount) {
+        return new Entry(this, workerCount, sharedWorkerCount);
+    }
+
+    /**
+     * Closes cursors that were idle for longer than the configured timeout.
+     *
+     * @return true when at least one cursor was closed
+     */
+    public synchronized boolean releaseInactive() {
+        final long deadline = clock.getTicks() - configuration.getSqlScrollableCursorIdleTimeout();
+        boolean useful = false;
+        while (entries.size() > 0 && entries.getQuick(0).lastAccessTime <= deadline) {
+            final Entry entry = entries.getQuick(0);
+            LOG.info().$("closing idle scrollable cursor [id=").$(entry.id)
+                    .$(", principal=").$(entry.principal)
+                    .I$();
+            entries.remove(0);
+            Misc.free(entry);
+            useful = true;
+        }
+        return useful;
+    }
+
+    @TestOnly
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes the entry from the registry for exclusive use by the caller. The caller should park
+     * the entry again or close it.
+     *
+     * @param id        cursor id
+     * @param principal user requesting the cursor, cursors of other users are never returned
+     * @return entry or null when there is no such cursor, or it has expired
+     */
+    public synchronized @Nullable Entry take(long id, @NotNull CharSequence principal) {
+        releaseInactive();
+        for (int i = 0, n = entries.size(); i < n; i++) {
+            final Entry entry = entries.getQuick(i);
+            if (entry.id == id && Chars.equals(entry.principal, principal)) {
+                entries.remove(i);
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private synchronized long put(Entry entry) {
+        final int maxPerUser = configuration.getSqlScrollableCursorMaxPerUser();
+        if (maxPerUser < 1) {
+            Misc.free(entry);
+            return -1;
+        }
+
+        int userCount = 0;
+        int lruIndex = -1;
+        for (int i = 0, n = entries.size(); i < n; i++) {
+            if (Chars.equals(entries.getQuick(i).principal, entry.principal)) {
+                if (lruIndex == -1) {
+                    lruIndex = i;
+                }
+                userCount++;
+            }
+        }
+        if (userCount >= maxPerUser) {
+            final Entry lru = entries.getQuick(lruIndex);
+            LOG.info().$("closing least recently used scrollable cursor [id=").$(lru.id)
+                    .$(", principal=").$(lru.principal)
+                    .I$();
+            entries.remove(lruIndex);
+            Misc.free(lru);
+        }
+
+        if (entry.id == -1) {
+            entry.id = nextId++;
+        }
+        entry.lastAccessTime = clock.getTicks();
+        entries.add(entry);
+        return entry.id;
+    }
+
+    public static class Entry implements Mutable, QuietCloseable {
+        private final NetworkSqlExecutionCircuitBreaker circuitBreaker;
+        private final SqlExecutionContextImpl executionContext;
+        private final StringSink query = new StringSink();
+        private final ScrollableCursorRegistry registry;
+        private RecordCursor cursor;
+        private RecordCursorFactory factory;
+        private long fetchedRows;
+        private long id = -1;
+        private long lastAccessTime;
+        private long nextRow;
+        private String principal;
+        private long rowCount = -1;
+
+        private Entry(ScrollableCursorRegistry registry, int workerCount, int sharedWorkerCount) {
+            this.registry = registry;
+            this.circuitBreaker = new NetworkSqlExecutionCircuitBreaker(
+                    registry.configuration.getCircuitBreakerConfiguration(),
+                    MemoryTag.NATIVE_CB3
+            );
+            this.executionContext = new SqlExecutionContextImpl(registry.engine, workerCount, sharedWorkerCount);
+        }
+
+        /**
+         * Checks whether the parked cursor can serve the page of the given query starting at the given row.
+         * Pages before the cursor position are served by re-running the query.
+         */
+        public boolean canResume(CharSequence query, long skip) {
+            return cursor != null && skip >= nextRow && Chars.equals(this.query, query);
+        }
+
+        @Override
+        public void clear() {
+            cursor = Misc.free(cursor);
+            factory = Misc.free(factory);
+            query.clear();
+            fetchedRows = 0;
+            nextRow = 0;
+            rowCount = -1;
+        }
+
+        @Override
+        public void close() {
+            clear();
+            Misc.free(circuitBreaker);
+        }
+
+        /**
+         * Hands the cursor and its factory over to the caller, the entry no longer frees them.
+         */
+        public void detach() {
+            cursor = null;
+            factory = null;
+        }
+
+        public RecordCursor getCursor() {
+            return cursor;
+        }
+
+        public RecordCursorFactory getFactory() {
+            return factory;
+        }
+
+        /**
+         * @return number of rows fetched from the cursor so far
+         */
+        public long getFetchedRows() {
+            return fetchedRows;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * @return total number of rows in the cursor or -1 when the rows were not counted yet
+         */
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * Prepares the execution context of the entry to run or resume the cursor on behalf of the given request.
+         */
+        public SqlExecutionContextImpl of(SecurityContext securityContext, long fd, long statementTimeout) {
+            principal = Chars.toString(securityContext.getPrincipal());
+            circuitBreaker.of(fd);
+            circuitBreaker.resetTimer();
+            if (statementTimeout > 0L) {
+                circuitBreaker.setTimeout(statementTimeout);
+            } else {
+                circuitBreaker.resetMaxTimeToDefault();
+            }
+            executionContext.with(securityContext, null, null, fd, circuitBreaker);
+            executionContext.initNow();
+            return executionContext;
+        }
+
+        /**
+         * Takes ownership of the cursor and the factory and parks the entry in the registry until
+         * the next page is requested. The entry is closed right away when scrollable cursors are disabled.
+         *
+         * @param fetchedRows number of rows fetched from the cursor
+         * @param nextRow     index of the first row of the next page
+         * @param rowCount    total number of rows or -1 when unknown
+         * @return id to resume the cursor with or -1 when the entry was not parked
+         */
+        public long park(CharSequence query, RecordCursorFactory factory, RecordCursor cursor, long fetchedRows, long nextRow, long rowCount) {
+            this.query.clear();
+            this.query.put(query);
+            this.factory = factory;
+            this.cursor = cursor;
+            this.fetchedRows = fetchedRows;
+            this.nextRow = nextRow;
+            this.rowCount = rowCount;
+            return registry.put(this);
+        }
+    }
+}
@@ -51,6 +51,8 @@ import io.questdb.cairo.TableReader;
 import io.questdb.cairo.TableReaderMetadata;
 import io.questdb.cairo.TableToken;
 import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.ZoneMapFilter;
+import io.questdb.cairo.ZoneMapWriter;
 import io.questdb.cairo.map.RecordValueSink;
 import io.questdb.cairo.map.RecordValueSinkFactory;
 import io.questdb.cairo.sql.Function;
@@ -74,7 +76,9 @@ import io.questdb.griffin.engine.EmptyTableRecordCursorFactory;
 import io.questdb.griffin.engine.ExplainPlanFactory;
 import io.questdb.griffin.engine.LimitOverflowException;
 import io.questdb.griffin.engine.LimitRecordCursorFactory;
+import io.questdb.griffin.engine.ProfilingRecordCursorFactory;
 import io.questdb.griffin.engine.RecordComparator;
+import io.questdb.griffin.engine.ResultCacheRecordCursorFactory;
 import io.questdb.griffin.engine.functions.GroupByFunction;
 import io.questdb.griffin.engine.functions.SymbolFunction;
 import io.questdb.griffin.engine.functions.cast.CastByteToCharFunctionFactory;
@@ -190,6 +194,7 @@ import io.questdb.griffin.engine.join.AsOfJoinNoKeyFastRecordCursorFactory;
 import io.questdb.griffin.engine.join.AsOfJoinNoKeyRecordCursorFactory;
 import io.questdb.griffin.engine.join.AsOfJoinRecordCursorFactory;
 import io.questdb.griffin.engine.join.CrossJoinRecordCursorFactory;
+import io.questdb.griffin.engine.join.AsyncHashJoinLightRecordCursorFactory;
 import io.questdb.griffin.engine.join.HashJoinLightRecordCursorFactory;
 import io.questdb.griffin.engine.join.HashJoinRecordCursorFactory;
 import io.questdb.griffin.engine.join.HashOuterJoinFilteredLightRecordCursorFactory;
@@ -205,6 +210,7 @@ import io.questdb.griffin.engine.join.NestedLoopLeftJoinRecordCursorFactory;
 import io.questdb.griffin.engine.join.NullRecordFactory;
 import io.questdb.griffin.engine.join.RecordAsAFieldRecordCursorFactory;
 import io.questdb.griffin.engine.join.SpliceJoinLightRecordCursorFactory;
+import io.questdb.griffin.engine.orderby.AsyncSortedLightRecordCursorFactory;
 import io.questdb.griffin.engine.orderby.LimitedSizeSortedLightRecordCursorFactory;
 import io.questdb.griffin.engine.orderby.LongSortedLightRecordCursorFactory;
 import io.questdb.griffin.engine.orderby.RecordComparatorCompiler;
@@ -280,6 +286,7 @@ import io.questdb.std.MemoryTag;
 import io.questdb.std.Misc;
 import io.questdb.std.Mutable;
 import io.questdb.std.Numbers;
+import io.questdb.std.NumericException;
 import io.questdb.std.ObjList;
 import io.questdb.std.ObjObjHashMap;
 import io.questdb.std.ObjectPool;
@@ -379,6 +386,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
     private final LongList prefixes = new LongList();
     private final RecordComparatorCompiler recordComparatorCompiler;
     private final IntList recordFunctionPositions = new IntList();
+    // tables read by the query, they are part of the result cache key
+    private final ObjList<TableToken> queryTableTokens = new ObjList<>();
     private final PageFrameReduceTaskFactory reduceTaskFactory;
     private final ArrayDeque<ExpressionNode> sqlNodeStack = new ArrayDeque<>();
     private final WhereClauseSymbolEstimator symbolEstimator = new WhereClauseSymbolEstimator();
@@ -399,6 +408,10 @@ public class SqlCodeGenerator implements Mutable, Closeable {
     private final BitSet writeSymbolAsString = new BitSet();
     private boolean enableJitNullChecks = true;
     private boolean fullFatJoins = false;
+    // true while generating factories for EXPLAIN ANALYZE
+    private boolean profiling = false;
+    // false once the query is known to depend on anything but table data, e.g. rnd_*() or now()
+    private boolean resultCacheable = true;
 
     public SqlCodeGenerator(
             CairoEngine engine,
@@ -457,6 +470,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         whereClauseParser.clear();
         symbolEstimator.clear();
         intListPool.clear();
+        queryTableTokens.clear();
+        resultCacheable = true;
     }
 
     @Override
@@ -501,7 +516,12 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         QueryModel queryModel = innerModel.getQueryModel();
         RecordCursorFactory factory;
         if (queryModel != null) {
-            factory = generate(queryModel, executionContext);
+            profiling = model.isAnalyze();
+            try {
+                factory = generate(queryModel, executionContext);
+            } finally {
+                profiling = false;
+            }
             if (innerModel.getModelType() != QUERY) {
                 factory = new RecordCursorFactoryStub(innerModel, factory);
             }
@@ -509,7 +529,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             factory = new RecordCursorFactoryStub(innerModel, null);
         }
 
-        return new ExplainPlanFactory(factory, model.getFormat());
+        return new ExplainPlanFactory(factory, model.getFormat(), model.isAnalyze());
     }
 
     public RecordCursorFactory generateExplain(QueryModel model, RecordCursorFactory factory, int format) {
@@ -517,6 +537,186 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         return new ExplainPlanFactory(recordCursorFactory, format);
     }
 
+    /**
+     * Wraps top-level SELECT factory, so that repeated executions are served from the
+     * {@link io.questdb.griffin.engine.QueryResultCache}. The factory is returned as is when
+     * the cache is disabled or the query result is not a function of table data alone.
+     */
+    public RecordCursorFactory generateResultCache(RecordCursorFactory factory, CharSequence sqlText) {
+        if (!resultCacheable || queryTableTokens.size() == 0 || !engine.getQueryResultCache().isEnabled()) {
+            return factory;
+        }
+
+        final RecordMetadata metadata = factory.getMetadata();
+        final ArrayColumnTypes chainColumnTypes = new ArrayColumnTypes();
+        writeSymbolAsString.clear();
+        for (int i = 0, n = metadata.getColumnCount(); i < n; i++) {
+            final int columnType = metadata.getColumnType(i);
+            if (!isResultCacheSupported(columnType)) {
+                return factory;
+            }
+            if (ColumnType.isSymbol(columnType)) {
+                chainColumnTypes.add(ColumnType.STRING);
+                writeSymbolAsString.set(i);
+            } else {
+                chainColumnTypes.add(columnType);
+            }
+        }
+        entityColumnFilter.of(metadata.getColumnCount());
+        final RecordSink recordSink = RecordSinkFactory.getInstance(asm, metadata, entityColumnFilter, writeSymbolAsString);
+        return new ResultCacheRecordCursorFactory(engine, factory, chainColumnTypes, recordSink, sqlText, queryTableTokens);
+    }
+
+    public void markResultUncacheable() {
+        resultCacheable = false;
+    }
+
+    private static void addBloomPredicate(ZoneMapFilter zoneMapFilter, ExpressionNode column, RecordMetadata metadata, ObjList<ExpressionNode> constants) {
+        if (column == null || column.type != LITERAL) {
+            return;
+        }
+        final int columnIndex = metadata.getColumnIndexQuiet(column.token);
+        if (columnIndex < 0 || !metadata.getColumnMetadata(columnIndex).isBloomIndexed()) {
+            return;
+        }
+        final ObjList<CharSequence> values = new ObjList<>(constants.size());
+        for (int i = 0, n = constants.size(); i < n; i++) {
+            final ExpressionNode constant = constants.getQuick(i);
+            // nulls and expressions are not looked up in the filter
+            if (constant == null || constant.type != CONSTANT || !Chars.isQuoted(constant.token)) {
+                return;
+            }
+            values.add(Chars.toString(constant.token, 1, constant.token.length() - 1, '\''));
+        }
+        zoneMapFilter.addBloom(column.token, metadata.getWriterIndex(columnIndex), metadata.getColumnType(columnIndex), values);
+    }
+
+    private static void addZoneMapPredicates(ZoneMapFilter zoneMapFilter, ExpressionNode node, RecordMetadata metadata, boolean zoneMapsEnabled) {
+        if (node == null || (node.type != OPERATION && node.type != FUNCTION)) {
+            return;
+        }
+        if (isAndKeyword(node.token)) {
+            addZoneMapPredicates(zoneMapFilter, node.lhs, metadata, zoneMapsEnabled);
+            addZoneMapPredicates(zoneMapFilter, node.rhs, metadata, zoneMapsEnabled);
+            return;
+        }
+        if (isInKeyword(node.token)) {
+            final ObjList<ExpressionNode> constants = new ObjList<>();
+            if (node.paramCount == 2) {
+                constants.add(node.rhs);
+                addBloomPredicate(zoneMapFilter, node.lhs, metadata, constants);
+            } else if (node.paramCount > 2) {
+                // arguments are in reverse order, column goes last
+                for (int i = node.paramCount - 2; i > -1; i--) {
+                    constants.add(node.args.getQuick(i));
+                }
+                addBloomPredicate(zoneMapFilter, node.args.getLast(), metadata, constants);
+            }
+            return;
+        }
+        if (node.type != OPERATION || node.paramCount != 2) {
+            return;
+        }
+        if (Chars.equals(node.token, '=')) {
+            final ObjList<ExpressionNode> constants = new ObjList<>();
+            if (node.lhs.type == LITERAL) {
+                constants.add(node.rhs);
+                addBloomPredicate(zoneMapFilter, node.lhs, metadata, constants);
+            } else {
+                constants.add(node.lhs);
+                addBloomPredicate(zoneMapFilter, node.rhs, metadata, constants);
+            }
+        }
+        if (!zoneMapsEnabled) {
+            return;
+        }
+
+        int op;
+        if (Chars.equals(node.token, '=')) {
+            op = ZoneMapFilter.OP_EQ;
+        } else if (Chars.equals(node.token, '<')) {
+            op = ZoneMapFilter.OP_LT;
+        } else if (Chars.equals(node.token, "<=")) {
+            op = ZoneMapFilter.OP_LE;
+        } else if (Chars.equals(node.token, '>')) {
+            op = ZoneMapFilter.OP_GT;
+        } else if (Chars.equals(node.token, ">=")) {
+            op = ZoneMapFilter.OP_GE;
+        } else {
+            return;
+        }
+
+        ExpressionNode column = node.lhs;
+        ExpressionNode constant = node.rhs;
+        if (column.type != LITERAL) {
+            // constant op column
+            column = node.rhs;
+            constant = node.lhs;
+            switch (op) {
+                case ZoneMapFilter.OP_LT:
+                    op = ZoneMapFilter.OP_GT;
+                    break;
+                case ZoneMapFilter.OP_LE:
+                    op = ZoneMapFilter.OP_GE;
+                    break;
+                case ZoneMapFilter.OP_GT:
+                    op = ZoneMapFilter.OP_LT;
+                    break;
+                case ZoneMapFilter.OP_GE:
+                    op = ZoneMapFilter.OP_LE;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (column.type != LITERAL) {
+            return;
+        }
+
+        final int columnIndex = metadata.getColumnIndexQuiet(column.token);
+        if (columnIndex < 0) {
+            return;
+        }
+        final int columnType = metadata.getColumnType(columnIndex);
+        if (!ZoneMapWriter.isSupported(columnType)) {
+            return;
+        }
+
+        boolean negative = false;
+        if (constant.type == OPERATION && constant.paramCount == 1 && Chars.equals(constant.token, '-')) {
+            negative = true;
+            constant = constant.rhs;
+        }
+        if (constant == null || constant.type != CONSTANT) {
+            return;
+        }
+
+        final boolean floatingPoint = ZoneMapWriter.isFloatingPoint(columnType);
+        try {
+            final long value = Numbers.parseLong(constant.token);
+            // int and long nulls compare equal to null values
+            if (value == Numbers.LONG_NULL || value == Numbers.INT_NULL || (negative && -value == Numbers.INT_NULL)) {
+                return;
+            }
+            if (floatingPoint) {
+                zoneMapFilter.add(column.token, metadata.getWriterIndex(columnIndex), columnType, op, (double) (negative ? -value : value));
+            } else {
+                zoneMapFilter.add(column.token, metadata.getWriterIndex(columnIndex), columnType, op, negative ? -value : value);
+            }
+        } catch (NumericException e) {
+            if (!floatingPoint) {
+                return;
+            }
+            try {
+                final double value = Numbers.parseDouble(constant.token);
+                if (Numbers.isFinite(value)) {
+                    zoneMapFilter.add(column.token, metadata.getWriterIndex(columnIndex), columnType, op, negative ? -value : value);
+                }
+            } catch (NumericException ignore) {
+            }
+        }
+    }
+
     private static boolean allGroupsFirstLastWithSingleSymbolFilter(QueryModel model, RecordMetadata metadata) {
         final ObjList<QueryColumn> columns = model.getColumns();
         CharSequence symbolToken = null;
@@ -642,6 +842,37 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         return model.getOrderByDirectionAdvice().getQuick(index);
     }
 
+    private static boolean isResultCacheSupported(int columnType) {
+        switch (ColumnType.tagOf(columnType)) {
+            case ColumnType.BOOLEAN:
+            case ColumnType.BYTE:
+            case ColumnType.SHORT:
+            case ColumnType.CHAR:
+            case ColumnType.INT:
+            case ColumnType.IPv4:
+            case ColumnType.LONG:
+            case ColumnType.DATE:
+            case ColumnType.TIMESTAMP:
+            case ColumnType.FLOAT:
+            case ColumnType.DOUBLE:
+            case ColumnType.STRING:
+            case ColumnType.VARCHAR:
+            case ColumnType.SYMBOL:
+            case ColumnType.BINARY:
+            case ColumnType.LONG256:
+            case ColumnType.GEOBYTE:
+            case ColumnType.GEOSHORT:
+            case ColumnType.GEOINT:
+            case ColumnType.GEOLONG:
+            case ColumnType.LONG128:
+            case ColumnType.UUID:
+            case ColumnType.INTERVAL:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     private static boolean isSingleColumnFunction(ExpressionNode ast, CharSequence name) {
         return ast.type == FUNCTION && ast.paramCount == 1 && Chars.equalsIgnoreCase(ast.token, name) && ast.rhs.type == LITERAL;
     }
@@ -664,6 +895,12 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         return metadata;
     }
 
+    private void addQueryTable(TableToken tableToken) {
+        if (queryTableTokens.indexOf(tableToken) == -1) {
+            queryTableTokens.add(tableToken);
+        }
+    }
+
     private VectorAggregateFunctionConstructor assembleFunctionReference(RecordMetadata metadata, ExpressionNode ast) {
         int columnIndex;
         if (ast.type == FUNCTION && ast.paramCount == 1 && SqlKeywords.isSumKeyword(ast.token) && ast.rhs.type == LITERAL) {
@@ -1053,7 +1290,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
             RecordCursorFactory slave,
             int joinType,
             Function filter,
-            JoinContext context
+            JoinContext context,
+            SqlExecutionContext executionContext
     ) {
         /*
          * JoinContext provides the following information:
@@ -1092,6 +1330,25 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                 // For inner join we can also store per-key count to speed up size calculation.
                 valueTypes.add(ColumnType.INT); // record count for the key
 
+                if (configuration.isSqlParallelHashJoinEnabled() && master.supportsPageFrameCursor()) {
+                    // Master rows come from a table scan, so we can probe them in parallel.
+                    return new AsyncHashJoinLightRecordCursorFactory(
+                            configuration,
+                            executionContext.getMessageBus(),
+                            metadata,
+                            master,
+                            slave,
+                            keyTypes,
+                            valueTypes,
+                            masterKeySink,
+                            slaveKeySink,
+                            masterMetadata.getColumnCount(),
+                            context,
+                            reduceTaskFactory,
+                            executionContext.getSharedWorkerCount()
+                    );
+                }
+
                 return new HashJoinLightRecordCursorFactory(
                         configuration,
                         metadata,
@@ -2171,6 +2428,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
     }
 
     private RecordCursorFactory generateFunctionQuery(QueryModel model, SqlExecutionContext executionContext) throws SqlException {
+        // table functions may return anything, e.g. catalogue or file contents
+        resultCacheable = false;
         final RecordCursorFactory tableFactory = model.getTableNameFunction();
         if (tableFactory != null) {
             // We're transferring ownership of the tableFactory's factory to another factory
@@ -2512,7 +2771,8 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                                         slave,
                                         joinType,
                                         filter,
-                                        slaveModel.getContext()
+                                        slaveModel.getContext(),
+                                        executionContext
                                 );
                                 masterAlias = null;
                                 break;
@@ -3085,6 +3345,27 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                 if (recordCursorFactory.recordCursorSupportsRandomAccess()) {
                     if (canSortAndLimitBeOptimized(model, executionContext, loFunc, hiFunc)) {
                         model.setLimitImplemented(true);
+                        if (
+                                !preSortedByTs
+                                        && configuration.isSqlParallelOrderByEnabled()
+                                        && recordCursorFactory.supportsPageFrameCursor()
+                                        && recordCursorFactory.getScanDirection() == RecordCursorFactory.SCAN_DIRECTION_FORWARD
+                                        && isConstantNonNegativeLimit(loFunc, hiFunc, executionContext)
+                        ) {
+                            // Top K: each worker keeps only the top rows of its page frames.
+                            return new AsyncSortedLightRecordCursorFactory(
+                                    configuration,
+                                    executionContext.getMessageBus(),
+                                    orderedMetadata,
+                                    recordCursorFactory,
+                                    recordComparatorCompiler,
+                                    listColumnFilterA.copy(),
+                                    reduceTaskFactory,
+                                    loFunc.getLong(null),
+                                    hiFunc != null ? hiFunc.getLong(null) : -1,
+                                    executionContext.getSharedWorkerCount()
+                            );
+                        }
                         int baseCursorTimestampIndex = preSortedByTs ? timestampIndex : -1;
                         return new LimitedSizeSortedLightRecordCursorFactory(
                                 configuration,
@@ -3109,6 +3390,25 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                             );
                         }
 
+                        if (
+                                configuration.isSqlParallelOrderByEnabled()
+                                        && recordCursorFactory.supportsPageFrameCursor()
+                                        && recordCursorFactory.getScanDirection() == RecordCursorFactory.SCAN_DIRECTION_FORWARD
+                        ) {
+                            return new AsyncSortedLightRecordCursorFactory(
+                                    configuration,
+                                    executionContext.getMessageBus(),
+                                    orderedMetadata,
+                                    recordCursorFactory,
+                                    recordComparatorCompiler,
+                                    listColumnFilterA.copy(),
+                                    reduceTaskFactory,
+                                    -1,
+                                    -1,
+                                    executionContext.getSharedWorkerCount()
+                            );
+                        }
+
                         return new SortedLightRecordCursorFactory(
                                 configuration,
                                 orderedMetadata,
@@ -3143,12 +3443,20 @@ public class SqlCodeGenerator implements Mutable, Closeable {
     private RecordCursorFactory generateQuery(QueryModel model, SqlExecutionContext executionContext, boolean processJoins) throws SqlException {
         RecordCursorFactory factory = generateQuery0(model, executionContext, processJoins);
         if (model.getUnionModel() != null) {
-            return generateSetFactory(model, factory, executionContext);
+            return profile(generateSetFactory(model, factory, executionContext));
         }
         return factory;
     }
 
     private RecordCursorFactory generateQuery0(QueryModel model, SqlExecutionContext executionContext, boolean processJoins) throws SqlException {
+        if (profiling) {
+            // wrap each stage separately, so that EXPLAIN ANALYZE reports them individually
+            RecordCursorFactory factory = profile(generateSelect(model, executionContext, processJoins));
+            factory = profile(generateFilter(factory, model, executionContext));
+            factory = profile(generateLatestBy(factory, model));
+            factory = profile(generateOrderBy(factory, model, executionContext));
+            return profile(generateLimit(factory, model, executionContext));
+        }
         return generateLimit(
                 generateOrderBy(
                         generateLatestBy(
@@ -3809,6 +4117,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         ) {
             CharSequence tableName = tableNameEn.token;
             TableToken tableToken = executionContext.getTableToken(tableName);
+            addQueryTable(tableToken);
             try (TableReader reader = executionContext.getReader(tableToken)) {
                 QueryColumn queryColumn = nested.getBottomUpColumns().get(0);
                 CharSequence physicalColumnName = queryColumn.getAst().token;
@@ -5046,6 +5355,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         }
 
         final TableToken tableToken = executionContext.getTableToken(tab);
+        addQueryTable(tableToken);
         if (model.isUpdate() && !executionContext.isWalApplication() && executionContext.getCairoEngine().isWalTable(tableToken)) {
             // two phase update execution, this is client-side branch. It has to execute against the sequencer metadata
             // to allow the client to succeed even if WAL apply does not run.
@@ -5220,7 +5530,7 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                 return new EmptyTableRecordCursorFactory(myMeta);
             }
 
-            PartitionFrameCursorFactory dfcFactory;
+            AbstractPartitionFrameCursorFactory dfcFactory;
 
             if (latestByColumnCount > 0) {
                 Function filter = compileFilter(intrinsicModel, myMeta, executionContext);
@@ -5285,6 +5595,10 @@ public class SqlCodeGenerator implements Mutable, Closeable {
                 intervalHitsOnlyOnePartition = reader.getPartitionedBy() == PartitionBy.NONE;
             }
 
+            if (intrinsicModel.filter != null && PartitionBy.isPartitioned(reader.getPartitionedBy())) {
+                dfcFactory.setZoneMapFilter(generateZoneMapFilter(intrinsicModel.filter, metadata));
+            }
+
             if (intrinsicModel.keyColumn != null) {
                 // existence of column would have been already validated
                 final int keyColumnIndex = myMeta.getColumnIndexQuiet(intrinsicModel.keyColumn);
@@ -5759,6 +6073,15 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         return unionFactory;
     }
 
+    private @Nullable ZoneMapFilter generateZoneMapFilter(ExpressionNode filter, RecordMetadata metadata) {
+        final ZoneMapFilter zoneMapFilter = new ZoneMapFilter(configuration);
+        addZoneMapPredicates(zoneMapFilter, filter, metadata, configuration.isZoneMapsEnabled());
+        if (zoneMapFilter.isEmpty()) {
+            return Misc.free(zoneMapFilter);
+        }
+        return zoneMapFilter;
+    }
+
     @Nullable
     private Function getHiFunction(QueryModel model, SqlExecutionContext executionContext) throws SqlException {
         return toLimitFunction(executionContext, model.getLimitHi(), null);
@@ -5853,6 +6176,21 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         }
     }
 
+    private boolean isConstantNonNegativeLimit(Function loFunc, @Nullable Function hiFunc, SqlExecutionContext context) throws SqlException {
+        if (loFunc == null || !loFunc.isConstant() || (hiFunc != null && !hiFunc.isConstant())) {
+            return false;
+        }
+        loFunc.init(null, context);
+        if (loFunc.getLong(null) < 0) {
+            return false;
+        }
+        if (hiFunc != null) {
+            hiFunc.init(null, context);
+            return hiFunc.getLong(null) > -1;
+        }
+        return true;
+    }
+
     private boolean isKeyedTemporalJoin(RecordMetadata masterMetadata, RecordMetadata slaveMetadata) {
         // Check if we can simplify ASOF JOIN ON (ts) to ASOF JOIN.
         if (listColumnFilterA.size() == 1 && listColumnFilterB.size() == 1) {
@@ -6071,6 +6409,13 @@ public class SqlCodeGenerator implements Mutable, Closeable {
         }
     }
 
+    private RecordCursorFactory profile(RecordCursorFactory factory) {
+        if (profiling && !(factory instanceof ProfilingRecordCursorFactory)) {
+            return new ProfilingRecordCursorFactory(configuration, factory);
+        }
+        return factory;
+    }
+
     private void restoreWhereClause(ExpressionNode node) {
         processNodeQueryModels(node, RESTORE_WHERE_CLAUSE);
     }
@@ -29,6 +29,7 @@ import io.questdb.PropServerConfiguration;
 import io.questdb.TelemetryOrigin;
 import io.questdb.TelemetrySystemEvent;
 import io.questdb.cairo.AlterTableUtils;
+import io.questdb.cairo.BloomIndexWriter;
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.CairoEngine;
 import io.questdb.cairo.CairoError;
@@ -56,6 +57,7 @@ import io.questdb.cairo.TableUtils;
 import io.questdb.cairo.TableWriter;
 import io.questdb.cairo.TableWriterAPI;
 import io.questdb.cairo.VacuumColumnVersions;
+import io.questdb.cairo.mv.MatViewDefinition;
 import io.questdb.cairo.security.AllowAllSecurityContext;
 import io.questdb.cairo.sql.BindVariableService;
 import io.questdb.cairo.sql.Function;
@@ -160,6 +162,7 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
     private final FilesFacade ff;
     private final FunctionParser functionParser;
     private final ListColumnFilter listColumnFilter = new ListColumnFilter();
+    private final StringSink matViewRefreshSql = new StringSink();
     private final int maxRecompileAttempts;
     private final MemoryMARW mem = Vm.getMARWInstance();
     private final MessageBus messageBus;
@@ -681,6 +684,24 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
                         tok = SqlUtil.fetchNext(lexer);
                         int indexValueCapacity = -1;
 
+                        if (tok != null && SqlKeywords.isTypeKeyword(tok)) {
+                            // alter table <table name> alter column <column name> add index type bloom
+                            expectKeyword(lexer, "bloom");
+                            tok = SqlUtil.fetchNext(lexer);
+                            if (tok != null && !isSemicolon(tok)) {
+                                throw SqlException.$(lexer.lastTokenPosition(), "unexpected token [").put(tok).put("] while trying to add bloom index");
+                            }
+                            alterTableColumnAddBloomIndex(
+                                    securityContext,
+                                    tableNamePosition,
+                                    tableToken,
+                                    columnNamePosition,
+                                    columnName,
+                                    tableMetadata
+                            );
+                            return;
+                        }
+
                         if (tok != null && (!isSemicolon(tok))) {
                             if (!SqlKeywords.isCapacityKeyword(tok)) {
                                 throw SqlException.$(lexer.lastTokenPosition(), "'capacity' expected");
@@ -759,7 +780,7 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
                     throw SqlException.$(lexer.lastTokenPosition(), "'column' or 'partition' expected");
                 }
             } else if (SqlKeywords.isSetKeyword(tok)) {
-                tok = expectToken(lexer, "'param' or 'type'");
+                tok = expectToken(lexer, "'param', 'ttl' or 'type'");
                 if (SqlKeywords.isParamKeyword(tok)) {
                     final int paramNamePosition = lexer.getPosition();
                     tok = expectToken(lexer, "param name");
@@ -771,6 +792,14 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
                     } else {
                         throw SqlException.$(lexer.lastTokenPosition(), "'=' expected");
                     }
+                } else if (SqlKeywords.isTtlKeyword(tok)) {
+                    if (tableMetadata.getTimestampIndex() == -1) {
+                        throw SqlException.$(lexer.lastTokenPosition(), "TTL can only be set on tables with designated timestamp");
+                    }
+                    final int ttlHoursOrMonths = SqlParser.parseTtlHoursOrMonths(lexer);
+                    compiledQuery.ofAlter(
+                            alterOperationBuilder.ofSetTtl(tableNamePosition, tableToken, tableMetadata.getTableId(), ttlHoursOrMonths).build()
+                    );
                 } else if (SqlKeywords.isTypeKeyword(tok)) {
                     tok = expectToken(lexer, "'bypass' or 'wal'");
                     if (SqlKeywords.isBypassKeyword(tok)) {
@@ -786,7 +815,7 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
                         throw SqlException.$(lexer.lastTokenPosition(), "'bypass' or 'wal' expected");
                     }
                 } else {
-                    throw SqlException.$(lexer.lastTokenPosition(), "'param' or 'type' expected");
+                    throw SqlException.$(lexer.lastTokenPosition(), "'param', 'ttl' or 'type' expected");
                 }
             } else if (SqlKeywords.isResumeKeyword(tok)) {
                 tok = expectToken(lexer, "'wal'");
@@ -995,6 +1024,29 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
         compiledQuery.ofAlter(alterOperationBuilder.build());
     }
 
+    private void alterTableColumnAddBloomIndex(
+            SecurityContext securityContext,
+            int tableNamePosition,
+            TableToken tableToken,
+            int columnNamePosition,
+            CharSequence columnName,
+            TableRecordMetadata metadata
+    ) throws SqlException {
+        final int columnIndex = metadata.getColumnIndexQuiet(columnName);
+        if (columnIndex == -1) {
+            throw SqlException.invalidColumn(columnNamePosition, columnName);
+        }
+
+        final int type = metadata.getColumnType(columnIndex);
+        if (!BloomIndexWriter.isSupported(type)) {
+            throw SqlException.position(columnNamePosition).put("bloom indexes are only supported for symbol and varchar types [column=").put(columnName).put(", type=").put(ColumnType.nameOf(type)).put(']');
+        }
+
+        alterOperationBuilder.ofAddBloomIndex(tableNamePosition, tableToken, metadata.getTableId(), columnName);
+        securityContext.authorizeAlterTableAddIndex(tableToken, alterOperationBuilder.getExtraStrInfo());
+        compiledQuery.ofAlter(alterOperationBuilder.build());
+    }
+
     private void alterTableColumnAddIndex(
             SecurityContext securityContext,
             int tableNamePosition,
@@ -1072,7 +1124,7 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
         }
 
         final int type = metadata.getColumnType(columnIndex);
-        if (!ColumnType.isSymbol(type)) {
+        if (!ColumnType.isSymbol(type) && !metadata.getColumnMetadata(columnIndex).isBloomIndexed()) {
             throw SqlException.position(columnNamePosition).put("indexes are only supported for symbol type [column=").put(columnName).put(", type=").put(ColumnType.nameOf(type)).put(']');
         }
 
@@ -1728,7 +1780,7 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
                 case ExecutionModel.QUERY:
                     QueryModel queryModel = (QueryModel) executionModel;
                     RecordCursorFactory factory = generateWithRetries(queryModel, executionContext);
-                    compiledQuery.of(factory);
+                    compiledQuery.of(codeGenerator.generateResultCache(factory, sqlText));
                     break;
                 case ExecutionModel.CREATE_TABLE:
                     sqlId = queryRegistry.register(sqlText, executionContext);
@@ -2077,12 +2129,16 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
                 if (rdrMetadata.isDedupKey(i)) {
                     model.setDedupKeyFlag(i);
                 }
+                if (rdrMetadata.getColumnMetadata(i).isBloomIndexed()) {
+                    model.setBloomIndexFlag(i);
+                }
             }
             model.setPartitionBy(SqlUtil.nextLiteral(sqlNodePool, PartitionBy.toString(rdr.getPartitionedBy()), 0));
             if (rdrMetadata.getTimestampIndex() != -1) {
                 model.setTimestamp(SqlUtil.nextLiteral(sqlNodePool, rdrMetadata.getColumnName(rdrMetadata.getTimestampIndex()), 0));
             }
             model.setWalEnabled(configuration.isWalSupported() && rdrMetadata.isWalEnabled());
+            model.setTtlHoursOrMonths(rdrMetadata.getTtlHoursOrMonths());
         }
         model.setLikeTableName(null); // resetting like table name as the metadata is copied already at this point.
     }
@@ -2170,6 +2226,9 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
                     throw SqlException.$(name.position, "Could not create table, ").put(e.getFlyweightMessage());
                 }
             } else {
+                if (createTableModel.isMatView()) {
+                    prepareMatViewRefreshSql(createTableModel, executionContext);
+                }
                 tableToken = createTableFromCursorExecutor(createTableModel, executionContext, volumeAlias, name.position);
             }
 
@@ -2195,6 +2254,12 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
             typeCast.clear();
             final RecordMetadata metadata = factory.getMetadata();
             validateTableModelAndCreateTypeCast(model, metadata, typeCast);
+            if (model.isMatView()) {
+                final int timestampIndex = metadata.getTimestampIndex();
+                if (timestampIndex == -1 || !model.isDedupKey(timestampIndex)) {
+                    throw SqlException.$(model.getMatViewSampleBy().position, "materialized view query must select the sampled timestamp");
+                }
+            }
             boolean keepLock = !model.isWalEnabled();
 
             final TableToken tableToken;
@@ -2219,6 +2284,16 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
                 );
             }
 
+            if (model.isMatView()) {
+                try {
+                    registerMatView(model, tableToken);
+                } catch (Throwable th) {
+                    engine.getMatViewGraph().dropView(tableToken);
+                    engine.drop(path, tableToken);
+                    throw th;
+                }
+            }
+
             SqlExecutionCircuitBreaker circuitBreaker = executionContext.getCircuitBreaker();
             try {
                 copyTableDataAndUnlock(
@@ -2243,6 +2318,9 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
                     record.$(']'); // we are closing bracket for the underlying message
                 }
                 record.I$();
+                if (model.isMatView()) {
+                    engine.getMatViewGraph().dropView(tableToken);
+                }
                 engine.drop(path, tableToken);
                 engine.unlockTableName(tableToken);
                 throw e;
@@ -2812,6 +2890,53 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
         }
     }
 
+    // The refresh query is the view query with the base table replaced by a sub-query
+    // filtered on the designated timestamp, so that the interval can be pushed down to
+    // the table scan: ... from (base where ts >= $1 and ts < $2) ...
+    private void prepareMatViewRefreshSql(CreateTableModel model, SqlExecutionContext executionContext) throws SqlException {
+        final ExpressionNode baseTableName = model.getMatViewBaseTableName();
+        final TableToken baseTableToken = executionContext.getTableTokenIfExists(baseTableName.token);
+        if (baseTableToken == null) {
+            throw SqlException.tableDoesNotExist(baseTableName.position, baseTableName.token);
+        }
+        if (!baseTableToken.isWal()) {
+            throw SqlException.$(baseTableName.position, "base table of a materialized view must be a WAL table");
+        }
+
+        final String timestampName;
+        try (TableMetadata metadata = engine.getTableMetadata(baseTableToken)) {
+            final int timestampIndex = metadata.getTimestampIndex();
+            if (timestampIndex == -1) {
+                throw SqlException.$(baseTableName.position, "base table of a materialized view must have a designated timestamp");
+            }
+            timestampName = metadata.getColumnName(timestampIndex);
+        }
+
+        final String sql = model.getMatViewSql();
+        final int lo = model.getMatViewBaseTableNameLo();
+        final int hi = model.getMatViewBaseTableNameHi();
+        matViewRefreshSql.clear();
+        matViewRefreshSql.put(sql, 0, lo)
+                .put('(')
+                .put(sql, lo, hi)
+                .put(" where \"").put(timestampName).put("\" >= $1 and \"").put(timestampName).put("\" < $2)")
+                .put(sql, hi, sql.length());
+    }
+
+    private void registerMatView(CreateTableModel model, TableToken viewToken) throws SqlException {
+        final ExpressionNode sampleBy = model.getMatViewSampleBy();
+        final MatViewDefinition definition = MatViewDefinition.of(
+                viewToken,
+                model.getMatViewBaseTableName().token,
+                matViewRefreshSql,
+                sampleBy.token,
+                sampleBy.position
+        );
+        path.of(configuration.getRoot()).concat(viewToken).concat(MatViewDefinition.MAT_VIEW_FILE_NAME);
+        definition.store(mem, ff, path.$());
+        engine.getMatViewGraph().createView(definition);
+    }
+
     private void reindexTable(SqlExecutionContext executionContext) throws SqlException {
         CharSequence tok;
         tok = SqlUtil.fetchNext(lexer);
@@ -3066,6 +3191,9 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
                 if (!ColumnType.isSymbol(to) && model.isIndexed(modelColumnIndex)) {
                     throw SqlException.$(ccm.getColumnTypePos(), "indexes are supported only for SYMBOL columns: ").put(columnName);
                 }
+                if (!BloomIndexWriter.isSupported(to) && model.isBloomIndexed(modelColumnIndex)) {
+                    throw SqlException.$(ccm.getColumnTypePos(), "bloom indexes are supported only for SYMBOL and VARCHAR columns: ").put(columnName);
+                }
                 typeCast.put(index, to);
             } else {
                 throw SqlException.unsupportedCast(ccm.getColumnTypePos(), columnName, from, to);
@@ -3085,6 +3213,9 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
             if (!ColumnType.isSymbol(metadata.getColumnType(index)) && model.isIndexed(i)) {
                 throw SqlException.$(0, "indexes are supported only for SYMBOL columns: ").put(columnName);
             }
+            if (!BloomIndexWriter.isSupported(metadata.getColumnType(index)) && model.isBloomIndexed(i)) {
+                throw SqlException.$(0, "bloom indexes are supported only for SYMBOL and VARCHAR columns: ").put(columnName);
+            }
 
             if (ColumnType.isNull(metadata.getColumnType(index))) {
                 throw SqlException.$(0, "cannot create NULL-type column, please use type cast, e.g. ").put(columnName).put("::").put("type");
@@ -3374,6 +3505,16 @@ public class SqlCompilerImpl implements SqlCompiler, Closeable, SqlParserCallbac
             return timestampIndex;
         }
 
+        @Override
+        public int getTtlHoursOrMonths() {
+            return model.getTtlHoursOrMonths();
+        }
+
+        @Override
+        public boolean isBloomIndexed(int columnIndex) {
+            return model.isBloomIndexed(columnIndex);
+        }
+
         @Override
         public boolean isDedupKey(int columnIndex) {
             return model.isDedupKey(columnIndex);
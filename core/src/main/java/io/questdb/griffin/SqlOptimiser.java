@@ -6202,6 +6202,11 @@ public class SqlOptimiser implements Mutable {
     protected void authorizeUpdate(QueryModel updateQueryModel, TableToken token) {
     }
 
+    boolean hasGroupByFunction(ExpressionNode node) {
+        return (node.type == FUNCTION && functionParser.getFunctionFactoryCache().isGroupBy(node.token))
+                || checkForAggregates(node);
+    }
+
     QueryModel optimise(
             @Transient final QueryModel model,
             @Transient SqlExecutionContext sqlExecutionContext,
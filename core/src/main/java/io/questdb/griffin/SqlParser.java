@@ -24,6 +24,7 @@
 
 package io.questdb.griffin;
 
+import io.questdb.cairo.BloomIndexWriter;
 import io.questdb.cairo.CairoConfiguration;
 import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.PartitionBy;
@@ -62,6 +63,7 @@ public class SqlParser {
     private final ExpressionParser expressionParser;
     private final ExpressionTreeBuilder expressionTreeBuilder;
     private final ObjectPool<InsertModel> insertModelPool;
+    private final LowerCaseCharSequenceHashSet matViewKeyColumns = new LowerCaseCharSequenceHashSet();
     private final SqlOptimiser optimiser;
     private final ObjectPool<QueryColumn> queryColumnPool;
     private final ObjectPool<QueryModel> queryModelPool;
@@ -163,6 +165,51 @@ public class SqlParser {
         }
     }
 
+    /**
+     * Parses TTL value in the form of "n HOURS | DAYS | WEEKS | MONTHS | YEARS".
+     *
+     * @return positive number of hours or negative number of months, 0 means no TTL
+     */
+    static int parseTtlHoursOrMonths(GenericLexer lexer) throws SqlException {
+        CharSequence tok = SqlUtil.fetchNext(lexer);
+        if (tok == null) {
+            throw SqlException.$(lexer.getPosition(), "TTL value expected");
+        }
+        final int valuePosition = lexer.lastTokenPosition();
+        final int value;
+        try {
+            value = Numbers.parseInt(tok);
+        } catch (NumericException e) {
+            throw SqlException.$(valuePosition, "invalid TTL value, non-negative integer expected");
+        }
+        if (value < 0) {
+            throw SqlException.$(valuePosition, "invalid TTL value, non-negative integer expected");
+        }
+
+        tok = SqlUtil.fetchNext(lexer);
+        if (tok == null) {
+            throw SqlException.$(lexer.getPosition(), "'HOURS', 'DAYS', 'WEEKS', 'MONTHS' or 'YEARS' expected");
+        }
+        final long hoursOrMonths;
+        if (isHourKeyword(tok) || isHoursKeyword(tok)) {
+            hoursOrMonths = value;
+        } else if (isDayKeyword(tok) || isDaysKeyword(tok)) {
+            hoursOrMonths = value * 24L;
+        } else if (isWeekKeyword(tok) || isWeeksKeyword(tok)) {
+            hoursOrMonths = value * 24L * 7L;
+        } else if (isMonthKeyword(tok) || isMonthsKeyword(tok)) {
+            hoursOrMonths = -value;
+        } else if (isYearKeyword(tok) || isYearsKeyword(tok)) {
+            hoursOrMonths = -value * 12L;
+        } else {
+            throw SqlException.$(lexer.lastTokenPosition(), "'HOURS', 'DAYS', 'WEEKS', 'MONTHS' or 'YEARS' expected");
+        }
+        if (hoursOrMonths > Integer.MAX_VALUE || hoursOrMonths < -Integer.MAX_VALUE) {
+            throw SqlException.$(valuePosition, "TTL value is too large");
+        }
+        return (int) hoursOrMonths;
+    }
+
     private static void validateShowTransactions(GenericLexer lexer) throws SqlException {
         CharSequence tok = SqlUtil.fetchNext(lexer);
         if (tok != null && isIsolationKeyword(tok)) {
@@ -539,6 +586,150 @@ public class SqlParser {
         throw SqlException.$(lexer.lastTokenPosition(), "'from' expected");
     }
 
+    private ExecutionModel parseCreateMatView(
+            GenericLexer lexer,
+            CreateTableModel model,
+            SqlExecutionContext executionContext,
+            SqlParserCallback sqlParserCallback
+    ) throws SqlException {
+        // view data is kept up to date by re-inserting recomputed sample by buckets
+        // into a WAL table that deduplicates on the timestamp and the key columns
+        if (!configuration.isWalSupported()) {
+            throw SqlException.$(lexer.lastTokenPosition(), "materialized views require WAL support");
+        }
+        expectTok(lexer, "view");
+
+        final CharSequence viewName;
+        CharSequence tok = tok(lexer, "view name or 'if'");
+        if (SqlKeywords.isIfKeyword(tok)) {
+            if (SqlKeywords.isNotKeyword(tok(lexer, "'not'")) && SqlKeywords.isExistsKeyword(tok(lexer, "'exists'"))) {
+                model.setIgnoreIfExists(true);
+                viewName = tok(lexer, "view name");
+            } else {
+                throw SqlException.$(lexer.lastTokenPosition(), "'if not exists' expected");
+            }
+        } else {
+            viewName = tok;
+        }
+        assertTableNameIsQuotedOrNotAKeyword(viewName, lexer.lastTokenPosition());
+        model.setName(nextLiteral(GenericLexer.assertNoDotsAndSlashes(GenericLexer.unquote(viewName), lexer.lastTokenPosition()), lexer.lastTokenPosition()));
+
+        expectTok(lexer, "as");
+        expectTok(lexer, '(');
+        final int queryLo = lexer.getPosition();
+        final QueryModel queryModel = parseDml(lexer, null, queryLo, true, sqlParserCallback);
+        expectTok(lexer, ')');
+        final int queryHi = lexer.lastTokenPosition();
+
+        // Validate the query before the optimiser rewrites it. Only calendar aligned
+        // SAMPLE BY over a single table is supported, so that the view can be refreshed
+        // by recomputing the buckets touched by new base table data.
+        final QueryModel fromModel = queryModel.getNestedModel();
+        final ExpressionNode baseTableName = fromModel != null ? fromModel.getTableNameExpr() : null;
+        if (
+                baseTableName == null
+                        || baseTableName.type != ExpressionNode.LITERAL
+                        || fromModel.getNestedModel() != null
+                        || fromModel.getJoinModels().size() > 1
+                        || queryModel.getUnionModel() != null
+        ) {
+            throw SqlException.$(queryLo, "materialized view query must select from a single table");
+        }
+        final ExpressionNode sampleBy = fromModel.getSampleBy();
+        if (sampleBy == null) {
+            throw SqlException.$(queryLo, "materialized view query must use SAMPLE BY");
+        }
+        if (sampleBy.type != ExpressionNode.CONSTANT || fromModel.getSampleByUnit() != null) {
+            throw SqlException.$(sampleBy.position, "constant SAMPLE BY interval expected");
+        }
+        final ObjList<ExpressionNode> sampleByFill = fromModel.getSampleByFill();
+        if (sampleByFill.size() > 1 || (sampleByFill.size() == 1 && !isNoneKeyword(sampleByFill.getQuick(0).token))) {
+            throw SqlException.$(sampleByFill.getQuick(0).position, "FILL is not supported in materialized views");
+        }
+        if (fromModel.getSampleByFrom() != null || fromModel.getSampleByTo() != null) {
+            throw SqlException.$(sampleBy.position, "FROM-TO is not supported in materialized views");
+        }
+        final ExpressionNode sampleByOffset = fromModel.getSampleByOffset();
+        final ExpressionNode sampleByTimezoneName = fromModel.getSampleByTimezoneName();
+        if (
+                sampleByOffset == null
+                        || !isZeroOffset(sampleByOffset.token)
+                        || (sampleByTimezoneName != null && !isUTC(sampleByTimezoneName.token))
+        ) {
+            throw SqlException.$(sampleBy.position, "materialized views support only ALIGN TO CALENDAR in UTC without offset");
+        }
+
+        // all non-aggregate columns, including the timestamp, form the deduplication key
+        matViewKeyColumns.clear();
+        ObjList<QueryColumn> columns = queryModel.getBottomUpColumns();
+        for (int i = 0, n = columns.size(); i < n; i++) {
+            final QueryColumn column = columns.getQuick(i);
+            final ExpressionNode ast = column.getAst();
+            if (ast.type == ExpressionNode.LITERAL && Chars.endsWith(ast.token, '*')) {
+                throw SqlException.$(ast.position, "wildcard is not supported in materialized views");
+            }
+            if (!optimiser.hasGroupByFunction(ast)) {
+                matViewKeyColumns.add(column.getName());
+            }
+        }
+
+        final CharSequence sql = lexer.getContent();
+        final int baseTableNameLo = baseTableName.position;
+        int baseTableNameHi = baseTableNameLo;
+        final char c = sql.charAt(baseTableNameLo);
+        if (c == '"' || c == '\'') {
+            baseTableNameHi = Chars.indexOf(sql, baseTableNameLo + 1, queryHi, c) + 1;
+        } else {
+            while (
+                    baseTableNameHi < queryHi
+                            && !Character.isWhitespace(sql.charAt(baseTableNameHi))
+                            && sql.charAt(baseTableNameHi) != ')'
+                            && sql.charAt(baseTableNameHi) != ';'
+            ) {
+                baseTableNameHi++;
+            }
+        }
+        model.setMatView(
+                sql.subSequence(queryLo, queryHi),
+                baseTableName,
+                baseTableNameLo - queryLo,
+                baseTableNameHi - queryLo,
+                sampleBy
+        );
+
+        final QueryModel optimisedModel = optimiser.optimise(queryModel, executionContext, sqlParserCallback);
+        columns = optimisedModel.getBottomUpColumns();
+        for (int i = 0, n = columns.size(); i < n; i++) {
+            final CharSequence columnName = columns.getQuick(i).getName();
+            model.addColumn(columnName, -1, configuration.getDefaultSymbolCapacity());
+            if (matViewKeyColumns.contains(columnName)) {
+                model.setDedupKeyFlag(i);
+            }
+        }
+        model.setQueryModel(optimisedModel);
+
+        tok = optTok(lexer);
+        ExpressionNode partitionBy = parseCreateTablePartition(lexer, tok);
+        if (partitionBy != null) {
+            final int partitionByValue = PartitionBy.fromString(partitionBy.token);
+            if (partitionByValue == -1 || !PartitionBy.isPartitioned(partitionByValue)) {
+                throw SqlException.$(partitionBy.position, "'HOUR', 'DAY', 'MONTH' or 'YEAR' expected");
+            }
+            tok = optTok(lexer);
+        } else {
+            partitionBy = nextLiteral(PartitionBy.toString(PartitionBy.DAY), 0);
+        }
+        model.setPartitionBy(partitionBy);
+        model.setWalEnabled(true);
+        model.setMaxUncommittedRows(configuration.getMaxUncommittedRows());
+        model.setO3MaxLag(configuration.getO3MaxLag());
+
+        if (tok != null && !Chars.equals(tok, ';')) {
+            throw errUnexpected(lexer, tok);
+        }
+        return model;
+    }
+
     private ExecutionModel parseCreateTable(
             GenericLexer lexer,
             SqlExecutionContext executionContext,
@@ -553,6 +744,10 @@ public class SqlParser {
         boolean batchSpecified = false;
         boolean isCreateAsSelect = false;
 
+        if (SqlKeywords.isMaterializedKeyword(tok)) {
+            return parseCreateMatView(lexer, model, executionContext, sqlParserCallback);
+        }
+
         // if it's a CREATE ATOMIC, we don't accept BATCH
         if (SqlKeywords.isAtomicKeyword(tok)) {
             atomicSpecified = true;
@@ -664,6 +859,14 @@ public class SqlParser {
             model.setPartitionBy(partitionBy);
             tok = optTok(lexer);
 
+            if (tok != null && isTtlKeyword(tok)) {
+                if (!PartitionBy.isPartitioned(model.getPartitionBy())) {
+                    throw SqlException.position(lexer.lastTokenPosition()).put("TTL can only be used on partitioned tables");
+                }
+                model.setTtlHoursOrMonths(parseTtlHoursOrMonths(lexer));
+                tok = optTok(lexer);
+            }
+
             if (tok != null) {
                 if (isWalKeyword(tok)) {
                     if (!PartitionBy.isPartitioned(model.getPartitionBy())) {
@@ -911,6 +1114,14 @@ public class SqlParser {
                     TableUtils.validateSymbolCapacityCached(true, symbolCapacity, lexer.lastTokenPosition());
                 }
                 tok = parseCreateTableInlineIndexDef(lexer, model);
+            } else if (ColumnType.isVarchar(type)) {
+                tok = tok(lexer, "'index' or ')'");
+                if (isIndexKeyword(tok)) {
+                    expectTok(lexer, "type");
+                    expectTok(lexer, "bloom");
+                    model.setBloomIndexFlag(model.getColumnCount() - 1);
+                    tok = null;
+                }
             } else {
                 tok = null;
             }
@@ -949,11 +1160,22 @@ public class SqlParser {
         final int position = lexer.lastTokenPosition();
         final int columnIndex = getCreateTableColumnIndex(model, columnName, position);
         final int columnType = model.getColumnType(columnIndex);
+        CharSequence tok = tok(lexer, "'capacity', 'type' or ')'");
+        if (isTypeKeyword(tok)) {
+            expectTok(lexer, "bloom");
+            if (columnType > -1 && !BloomIndexWriter.isSupported(columnType)) {
+                throw SqlException.$(position, "bloom indexes are supported only for SYMBOL and VARCHAR columns: ").put(columnName);
+            }
+            model.setBloomIndexFlag(columnIndex);
+            expectTok(lexer, ')');
+            return;
+        }
+
         if (columnType > -1 && !ColumnType.isSymbol(columnType)) {
             throw SqlException.$(position, "indexes are supported only for SYMBOL columns: ").put(columnName);
         }
 
-        if (isCapacityKeyword(tok(lexer, "'capacity'"))) {
+        if (isCapacityKeyword(tok)) {
             int errorPosition = lexer.getPosition();
             int indexValueBlockSize = expectInt(lexer);
             TableUtils.validateIndexValueBlockSize(errorPosition, indexValueBlockSize);
@@ -980,6 +1202,13 @@ public class SqlParser {
             return tok;
         }
 
+        if (isTypeKeyword(tok)) {
+            expectTok(lexer, "bloom");
+            model.setIndexFlags(false, configuration.getIndexValueBlockSize());
+            model.setBloomIndexFlag(model.getColumnCount() - 1);
+            return null;
+        }
+
         expectTok(lexer, tok, "capacity");
 
         int errorPosition = lexer.getPosition();
@@ -2935,9 +3164,23 @@ public class SqlParser {
         CharSequence tok = tok(lexer, "'create', 'rename' or 'select'");
 
         if (isExplainKeyword(tok)) {
-            int format = parseExplainOptions(lexer, tok);
+            CharSequence explainTok = GenericLexer.immutableOf(tok);
+            final int explainEndPosition = lexer.getPosition();
+            tok = tok(lexer, "'analyze', 'create', 'insert', 'update', 'select', 'with' or '('");
+            final int analyzePosition = lexer.lastTokenPosition();
+            final boolean analyze = isAnalyzeKeyword(tok);
+            if (analyze) {
+                explainTok = GenericLexer.immutableOf(tok);
+            } else {
+                lexer.backTo(explainEndPosition, explainTok);
+            }
+            int format = parseExplainOptions(lexer, explainTok);
             ExecutionModel model = parseExplain(lexer, executionContext, sqlParserCallback);
+            if (analyze && model.getModelType() != ExecutionModel.QUERY) {
+                throw SqlException.$(analyzePosition, "EXPLAIN ANALYZE is supported for SELECT queries only");
+            }
             ExplainModel explainModel = explainModelPool.next();
+            explainModel.setAnalyze(analyze);
             explainModel.setFormat(format);
             explainModel.setModel(model);
             return explainModel;
@@ -130,6 +130,7 @@ public class TextPlanSink extends BasePlanSink {
 
     public PlanSink type(CharSequence type) {
         sink.put(type);
+        putProfile();
         return this;
     }
 
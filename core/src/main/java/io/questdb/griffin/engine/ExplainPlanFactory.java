@@ -31,24 +31,33 @@ import io.questdb.cairo.TableColumnMetadata;
 import io.questdb.cairo.sql.Record;
 import io.questdb.cairo.sql.RecordCursor;
 import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
 import io.questdb.griffin.*;
 import io.questdb.griffin.model.ExplainModel;
 import io.questdb.std.Misc;
 
 /**
  * Simple stub for returning query execution plan text as result set with one column and one row .
+ * In case of EXPLAIN ANALYZE, the query is executed first, so that the plan includes
+ * runtime statistics collected by {@link ProfilingRecordCursorFactory} wrappers.
  */
 public class ExplainPlanFactory extends AbstractRecordCursorFactory {
 
     private final static GenericRecordMetadata METADATA;
+    private final boolean analyze;
     private final RecordCursorFactory base;
     private final ExplainPlanRecordCursor cursor;
 
     private boolean isBaseClosed;
 
     public ExplainPlanFactory(RecordCursorFactory base, int format) {
+        this(base, format, false);
+    }
+
+    public ExplainPlanFactory(RecordCursorFactory base, int format, boolean analyze) {
         super(METADATA);
         this.base = base;
+        this.analyze = analyze;
         this.cursor = new ExplainPlanRecordCursor(format);
         this.isBaseClosed = false;
     }
@@ -66,7 +75,7 @@ public class ExplainPlanFactory extends AbstractRecordCursorFactory {
 
     @Override
     public void toPlan(PlanSink sink) {
-        sink.type("EXPLAIN");
+        sink.type(analyze ? "EXPLAIN ANALYZE" : "EXPLAIN");
     }
 
     @Override
@@ -139,7 +148,13 @@ public class ExplainPlanFactory extends AbstractRecordCursorFactory {
             //on the other hand until we run it factories may be incomplete
             if (!isBaseClosed) {
                 // open the cursor to ensure bind variable types are initialized
-                try (RecordCursor ignored = base.getCursor(executionContext)) {
+                try (RecordCursor baseCursor = base.getCursor(executionContext)) {
+                    if (analyze) {
+                        final SqlExecutionCircuitBreaker circuitBreaker = executionContext.getCircuitBreaker();
+                        while (baseCursor.hasNext()) {
+                            circuitBreaker.statefulThrowExceptionIfTripped();
+                        }
+                    }
                     planSink.of(base, executionContext);
                 } finally {
                     Misc.free(base);
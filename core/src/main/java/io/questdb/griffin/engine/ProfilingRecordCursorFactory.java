@@ -0,0 +1,465 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine;
+
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.DataUnavailableException;
+import io.questdb.cairo.PartitionReadAhead;
+import io.questdb.cairo.TableReader;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.PageFrame;
+import io.questdb.cairo.sql.PageFrameCursor;
+import io.questdb.cairo.sql.PartitionFrameCursor;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.sql.SingleSymbolFilter;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.StaticSymbolTable;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.cairo.sql.TimeFrameRecordCursor;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.cairo.vm.api.MemoryCARW;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.jit.CompiledFilter;
+import io.questdb.mp.SCSequence;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.NanosecondClock;
+import io.questdb.std.ObjList;
+import io.questdb.std.Unsafe;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Transparent factory wrapper used by EXPLAIN ANALYZE. It delegates everything to the
+ * base factory and collects runtime statistics of the base cursors: rows produced,
+ * inclusive wall time, page frames handed over to the consumer and the peak growth
+ * of native map memory. The statistics are added to the plan node of the base factory.
+ * <p>
+ * Map memory is sampled from the global memory counters, so it is only accurate
+ * when the query runs alone.
+ */
+public class ProfilingRecordCursorFactory extends AbstractRecordCursorFactory {
+    private static final int[] MAP_MEMORY_TAGS = {
+            MemoryTag.NATIVE_COMPACT_MAP,
+            MemoryTag.NATIVE_FAST_MAP,
+            MemoryTag.NATIVE_FAST_MAP_INT_LIST,
+            MemoryTag.NATIVE_JOIN_MAP,
+            MemoryTag.NATIVE_UNORDERED_MAP
+    };
+    private final RecordCursorFactory base;
+    private final NanosecondClock clock;
+    private final ProfilingRecordCursor cursor = new ProfilingRecordCursor();
+    private final ProfilingPageFrameCursor pageFrameCursor = new ProfilingPageFrameCursor();
+    private long frameCount;
+    private long mapMemory;
+    private long mapMemoryPeak;
+    private boolean planned;
+    private long rowCount;
+    private long timeNanos;
+
+    public ProfilingRecordCursorFactory(CairoConfiguration configuration, RecordCursorFactory base) {
+        super(base.getMetadata());
+        this.base = base;
+        this.clock = configuration.getNanosecondClock();
+    }
+
+    private static long getMapMemory() {
+        long mem = 0;
+        for (int tag : MAP_MEMORY_TAGS) {
+            mem += Unsafe.getMemUsedByTag(tag);
+        }
+        return mem;
+    }
+
+    @Override
+    public SingleSymbolFilter convertToSampleByIndexPageFrameCursorFactory() {
+        return base.convertToSampleByIndexPageFrameCursorFactory();
+    }
+
+    @Override
+    public PageFrameSequence<?> execute(SqlExecutionContext executionContext, SCSequence collectSubSeq, int order) throws SqlException {
+        return base.execute(executionContext, collectSubSeq, order);
+    }
+
+    @Override
+    public boolean followedLimitAdvice() {
+        return base.followedLimitAdvice();
+    }
+
+    @Override
+    public boolean followedOrderByAdvice() {
+        return base.followedOrderByAdvice();
+    }
+
+    @Override
+    public boolean fragmentedSymbolTables() {
+        return base.fragmentedSymbolTables();
+    }
+
+    @Override
+    public String getBaseColumnName(int idx) {
+        return base.getBaseColumnName(idx);
+    }
+
+    @Override
+    public RecordCursorFactory getBaseFactory() {
+        // the wrapper must be invisible to the parent factories, e.g. when they steal the filter
+        return base.getBaseFactory();
+    }
+
+    @Override
+    public @Nullable ObjList<Function> getBindVarFunctions() {
+        return base.getBindVarFunctions();
+    }
+
+    @Override
+    public @Nullable MemoryCARW getBindVarMemory() {
+        return base.getBindVarMemory();
+    }
+
+    @Override
+    public @Nullable CompiledFilter getCompiledFilter() {
+        return base.getCompiledFilter();
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        final long start = clock.getTicks();
+        final long mapMemoryBefore = getMapMemory();
+        try {
+            cursor.of(base.getCursor(executionContext));
+        } finally {
+            timeNanos += clock.getTicks() - start;
+            trackMapMemory(mapMemoryBefore);
+        }
+        return cursor;
+    }
+
+    @Override
+    public @Nullable Function getFilter() {
+        return base.getFilter();
+    }
+
+    @Override
+    public PageFrameCursor getPageFrameCursor(SqlExecutionContext executionContext, int order) throws SqlException {
+        final long start = clock.getTicks();
+        try {
+            final PageFrameCursor baseCursor = base.getPageFrameCursor(executionContext, order);
+            return baseCursor != null ? pageFrameCursor.of(baseCursor) : null;
+        } finally {
+            timeNanos += clock.getTicks() - start;
+        }
+    }
+
+    @Override
+    public int getScanDirection() {
+        return base.getScanDirection();
+    }
+
+    @Override
+    public TableToken getTableToken() {
+        return base.getTableToken();
+    }
+
+    @Override
+    public TimeFrameRecordCursor getTimeFrameCursor(SqlExecutionContext executionContext) throws SqlException {
+        return base.getTimeFrameCursor(executionContext);
+    }
+
+    @Override
+    public void halfClose() {
+        base.halfClose();
+    }
+
+    @Override
+    public boolean implementsLimit() {
+        return base.implementsLimit();
+    }
+
+    public void putProfile(PlanSink sink) {
+        if (planned) {
+            return;
+        }
+        planned = true;
+        sink.meta("rows").val(rowCount);
+        sink.meta("time_us").val(timeNanos / 1000);
+        if (frameCount > 0) {
+            sink.meta("frames").val(frameCount);
+        }
+        // report the filter kind only on the factory that owns the filter
+        final RecordCursorFactory child = base.getBaseFactory();
+        if (base.usesCompiledFilter()) {
+            if (child == null || !child.usesCompiledFilter()) {
+                sink.meta("jit").val(true);
+            }
+        } else if (base.getFilter() != null && (child == null || child.getFilter() != base.getFilter())) {
+            sink.meta("jit").val(false);
+        }
+        if (mapMemoryPeak > 0) {
+            sink.meta("map_bytes").val(mapMemoryPeak);
+        }
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return base.recordCursorSupportsRandomAccess();
+    }
+
+    @Override
+    public void revertFromSampleByIndexPageFrameCursorFactory() {
+        base.revertFromSampleByIndexPageFrameCursorFactory();
+    }
+
+    @Override
+    public boolean supportsFilterStealing() {
+        return base.supportsFilterStealing();
+    }
+
+    @Override
+    public boolean supportsPageFrameCursor() {
+        return base.supportsPageFrameCursor();
+    }
+
+    @Override
+    public boolean supportsTimeFrameCursor() {
+        return base.supportsTimeFrameCursor();
+    }
+
+    @Override
+    public boolean supportsUpdateRowId(TableToken tableName) {
+        return base.supportsUpdateRowId(tableName);
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        base.toPlan(sink);
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        return base.usesCompiledFilter();
+    }
+
+    @Override
+    public boolean usesIndex() {
+        return base.usesIndex();
+    }
+
+    // Only the memory allocated while the base cursor is being called counts, so that
+    // the maps of the parent factories are not attributed to this one.
+    private void trackMapMemory(long mapMemoryBefore) {
+        mapMemory += getMapMemory() - mapMemoryBefore;
+        mapMemoryPeak = Math.max(mapMemoryPeak, mapMemory);
+    }
+
+    @Override
+    protected void _close() {
+        Misc.free(base);
+    }
+
+    private class ProfilingPageFrameCursor implements PageFrameCursor {
+        private PageFrameCursor base;
+
+        @Override
+        public void calculateSize(RecordCursor.Counter counter) {
+            base.calculateSize(counter);
+        }
+
+        @Override
+        public void close() {
+            base = Misc.free(base);
+        }
+
+        @Override
+        public @Nullable PartitionReadAhead getPartitionReadAhead() {
+            return base.getPartitionReadAhead();
+        }
+
+        @Override
+        public StaticSymbolTable getSymbolTable(int columnIndex) {
+            return base.getSymbolTable(columnIndex);
+        }
+
+        @Override
+        public TableReader getTableReader() {
+            return base.getTableReader();
+        }
+
+        @Override
+        public long getUpdateRowId(long rowIndex) {
+            return base.getUpdateRowId(rowIndex);
+        }
+
+        @Override
+        public SymbolTable newSymbolTable(int columnIndex) {
+            return base.newSymbolTable(columnIndex);
+        }
+
+        @Override
+        public @Nullable PageFrame next() {
+            final long start = clock.getTicks();
+            final PageFrame frame = base.next();
+            timeNanos += clock.getTicks() - start;
+            if (frame != null) {
+                frameCount++;
+                rowCount += frame.getPartitionHi() - frame.getPartitionLo();
+            }
+            return frame;
+        }
+
+        @Override
+        public PageFrameCursor of(PartitionFrameCursor partitionFrameCursor) {
+            base.of(partitionFrameCursor);
+            return this;
+        }
+
+        @Override
+        public long size() {
+            return base.size();
+        }
+
+        @Override
+        public boolean supportsSizeCalculation() {
+            return base.supportsSizeCalculation();
+        }
+
+        @Override
+        public void toTop() {
+            base.toTop();
+        }
+
+        private ProfilingPageFrameCursor of(PageFrameCursor base) {
+            this.base = base;
+            return this;
+        }
+    }
+
+    private class ProfilingRecordCursor implements RecordCursor {
+        private RecordCursor base;
+        private boolean sampled;
+
+        @Override
+        public void calculateSize(SqlExecutionCircuitBreaker circuitBreaker, Counter counter) {
+            final long start = clock.getTicks();
+            final long mapMemoryBefore = getMapMemory();
+            final long before = counter.get();
+            base.calculateSize(circuitBreaker, counter);
+            rowCount += counter.get() - before;
+            timeNanos += clock.getTicks() - start;
+            trackMapMemory(mapMemoryBefore);
+        }
+
+        @Override
+        public void close() {
+            base = Misc.free(base);
+        }
+
+        @Override
+        public Record getRecord() {
+            return base.getRecord();
+        }
+
+        @Override
+        public Record getRecordB() {
+            return base.getRecordB();
+        }
+
+        @Override
+        public SymbolTable getSymbolTable(int columnIndex) {
+            return base.getSymbolTable(columnIndex);
+        }
+
+        @Override
+        public boolean hasNext() throws DataUnavailableException {
+            if (sampled) {
+                final long start = clock.getTicks();
+                final boolean hasNext = base.hasNext();
+                timeNanos += clock.getTicks() - start;
+                if (hasNext) {
+                    rowCount++;
+                }
+                return hasNext;
+            }
+
+            // maps are usually built on the first call, so that's where we look at the memory
+            final long start = clock.getTicks();
+            final long mapMemoryBefore = getMapMemory();
+            final boolean hasNext = base.hasNext();
+            timeNanos += clock.getTicks() - start;
+            trackMapMemory(mapMemoryBefore);
+            sampled = true;
+            if (hasNext) {
+                rowCount++;
+            }
+            return hasNext;
+        }
+
+        @Override
+        public boolean isUsingIndex() {
+            return base.isUsingIndex();
+        }
+
+        @Override
+        public SymbolTable newSymbolTable(int columnIndex) {
+            return base.newSymbolTable(columnIndex);
+        }
+
+        @Override
+        public void recordAt(Record record, long atRowId) {
+            base.recordAt(record, atRowId);
+        }
+
+        @Override
+        public long size() throws DataUnavailableException {
+            return base.size();
+        }
+
+        @Override
+        public void skipRows(Counter rowCount) throws DataUnavailableException {
+            final long start = clock.getTicks();
+            final long before = rowCount.get();
+            base.skipRows(rowCount);
+            ProfilingRecordCursorFactory.this.rowCount += before - rowCount.get();
+            timeNanos += clock.getTicks() - start;
+        }
+
+        @Override
+        public void toTop() {
+            base.toTop();
+            sampled = false;
+        }
+
+        private void of(RecordCursor base) {
+            this.base = base;
+            this.sampled = false;
+        }
+    }
+}
@@ -0,0 +1,362 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.std.CharSequenceObjHashMap;
+import io.questdb.std.Chars;
+import io.questdb.std.IntList;
+import io.questdb.std.Misc;
+import io.questdb.std.Mutable;
+import io.questdb.std.ObjList;
+import io.questdb.std.QuietCloseable;
+import io.questdb.std.str.StringSink;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * Engine-wide pool of compiled SELECT factories shared by the HTTP and PGWire servers. A factory
+ * serves one cursor at a time, so it is checked out of the pool for the duration of the query and
+ * returned once the cursor is closed.
+ * <p>
+ * Factories are keyed by the query text, less leading and trailing whitespace and semicolons.
+ * Unlike {@link io.questdb.std.ConcurrentAssociativeCache}, a key holds as many factories as there
+ * were concurrent executions of the query, so that a burst of identical queries compiles each copy
+ * only once. {@link #releaseInactive()} trims every key to the number of factories that were in use
+ * at the same time since the previous call, while the whole pool is capped by
+ * {@link CairoConfiguration#getSqlPlanPoolCapacity()}, least recently used keys are evicted first.
+ * <p>
+ * Factories compiled with bind variables keep the variable types, so that the same variables can
+ * be defined on checkout. Such factories are not handed out to callers without bind variables.
+ * <p>
+ * A factory compiled against an older version of table metadata fails to open a cursor with
+ * {@link io.questdb.cairo.sql.TableReferenceOutOfDateException}. The other factories of the key
+ * are as stale as that one, so callers drop them via {@link #invalidate(CharSequence)}.
+ */
+public class QueryPlanPool implements Mutable, QuietCloseable {
+    private final CairoConfiguration configuration;
+    private final CharSequenceObjHashMap<Entry> entries = new CharSequenceObjHashMap<>();
+    private final StringSink keySink = new StringSink();
+    private final QueryPlanPoolMetrics metrics;
+    // most recently used entry
+    private Entry head;
+    private int size;
+    // least recently used entry
+    private Entry tail;
+
+    public QueryPlanPool(CairoConfiguration configuration, QueryPlanPoolMetrics metrics) {
+        this.configuration = configuration;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Normalizes the query text for use as a pool key.
+     */
+    public static void normalize(CharSequence sql, StringSink sink) {
+        int lo = 0;
+        int hi = sql.length();
+        while (lo < hi && Character.isWhitespace(sql.charAt(lo))) {
+            lo++;
+        }
+        while (hi > lo && (Character.isWhitespace(sql.charAt(hi - 1)) || sql.charAt(hi - 1) == ';')) {
+            hi--;
+        }
+        sink.put(sql, lo, hi);
+    }
+
+    @Override
+    public synchronized void clear() {
+        Entry entry = head;
+        while (entry != null) {
+            final Entry next = entry.next;
+            entry.freeFactories(entry.factories.size());
+            entry = next;
+        }
+        head = tail = null;
+        entries.clear();
+        metrics.cachedPlansGauge().add(-size);
+        size = 0;
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    /**
+     * Frees the pooled factories of the query, e.g. once one of them turns out to be compiled
+     * against outdated table metadata.
+     */
+    public synchronized void invalidate(@NotNull CharSequence sql) {
+        final Entry entry = entries.get(key(sql));
+        if (entry != null) {
+            removeEntry(entry);
+        }
+    }
+
+    /**
+     * Records the time it took to compile a query that was not found in the pool.
+     */
+    public void onCompiled(long nanos) {
+        metrics.addCompileTime(nanos);
+    }
+
+    /**
+     * Checks out a factory compiled without bind variables.
+     *
+     * @param sql query text
+     * @return factory, owned by the caller until it is returned via {@link #put(CharSequence, RecordCursorFactory)},
+     * or null when there is no idle factory for the query
+     */
+    public @Nullable RecordCursorFactory poll(@NotNull CharSequence sql) {
+        return poll(sql, null);
+    }
+
+    /**
+     * Checks out a factory along with the types of bind variables it was compiled with.
+     *
+     * @param sql               query text
+     * @param bindVariableTypes sink for the bind variable types; null to accept only factories
+     *                          compiled without bind variables
+     * @return factory or null when there is no idle factory for the query
+     */
+    public @Nullable RecordCursorFactory poll(@NotNull CharSequence sql, @Nullable IntList bindVariableTypes) {
+        RecordCursorFactory factory = null;
+        synchronized (this) {
+            final Entry entry = entries.get(key(sql));
+            if (entry != null) {
+                factory = entry.take(bindVariableTypes);
+                if (factory != null) {
+                    size--;
+                    unlink(entry);
+                    linkHead(entry);
+                }
+            }
+        }
+        if (factory != null) {
+            metrics.cachedPlansGauge().dec();
+            metrics.incrementHits();
+        } else {
+            metrics.incrementMisses();
+        }
+        return factory;
+    }
+
+    /**
+     * Returns a factory compiled without bind variables to the pool. The pool takes ownership of the factory.
+     */
+    public void put(@NotNull CharSequence sql, @NotNull RecordCursorFactory factory) {
+        put(sql, factory, null);
+    }
+
+    /**
+     * Returns a factory to the pool. The pool takes ownership of the factory, it may be freed right away
+     * when the pool is disabled.
+     *
+     * @param bindVariableTypes types of bind variables the factory was compiled with, null when there are none
+     */
+    public void put(@NotNull CharSequence sql, @NotNull RecordCursorFactory factory, @Nullable IntList bindVariableTypes) {
+        final int capacity = configuration.getSqlPlanPoolCapacity();
+        if (capacity < 1) {
+            Misc.free(factory);
+            return;
+        }
+
+        int evicted = 0;
+        synchronized (this) {
+            final CharSequence key = key(sql);
+            final int index = entries.keyIndex(key);
+            final Entry entry;
+            if (index < 0) {
+                entry = entries.valueAt(index);
+                unlink(entry);
+            } else {
+                entry = new Entry(Chars.toString(key));
+                entries.putAt(index, entry.key, entry);
+            }
+            linkHead(entry);
+            entry.add(factory, bindVariableTypes);
+            size++;
+
+            while (size > capacity) {
+                // the oldest factory of the least recently used query
+                final Entry victim = tail;
+                size -= victim.freeFactories(1);
+                evicted++;
+                if (victim.factories.size() == 0) {
+                    entries.remove(victim.key);
+                    unlink(victim);
+                }
+            }
+        }
+        metrics.cachedPlansGauge().add(1 - evicted);
+    }
+
+    /**
+     * Frees factories that stayed idle since the previous call. A query keeps as many factories as
+     * were checked out at the same time in the meantime, and at least one factory.
+     *
+     * @return true when at least one factory was freed
+     */
+    public boolean releaseInactive() {
+        int freed = 0;
+        synchronized (this) {
+            Entry entry = head;
+            while (entry != null) {
+                final Entry next = entry.next;
+                final int surplus = Math.min(entry.minIdle, entry.factories.size() - 1);
+                if (surplus > 0) {
+                    freed += entry.freeFactories(surplus);
+                }
+                entry.minIdle = entry.factories.size();
+                entry = next;
+            }
+            size -= freed;
+        }
+        metrics.cachedPlansGauge().add(-freed);
+        return freed > 0;
+    }
+
+    @TestOnly
+    public synchronized int size() {
+        return size;
+    }
+
+    @TestOnly
+    public synchronized int size(CharSequence sql) {
+        final Entry entry = entries.get(key(sql));
+        return entry != null ? entry.factories.size() : 0;
+    }
+
+    private CharSequence key(CharSequence sql) {
+        keySink.clear();
+        normalize(sql, keySink);
+        return keySink;
+    }
+
+    private void linkHead(Entry entry) {
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        head = entry;
+        if (tail == null) {
+            tail = entry;
+        }
+    }
+
+    private void removeEntry(Entry entry) {
+        final int freed = entry.freeFactories(entry.factories.size());
+        size -= freed;
+        entries.remove(entry.key);
+        unlink(entry);
+        metrics.cachedPlansGauge().add(-freed);
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            head = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        } else {
+            tail = entry.prev;
+        }
+        entry.prev = entry.next = null;
+    }
+
+    private static class Entry {
+        // bind variable types of the factories, lists are reused as factories come and go
+        private final ObjList<IntList> bindVariableTypes = new ObjList<>();
+        // idle factories, the most recently returned one last
+        private final ObjList<RecordCursorFactory> factories = new ObjList<>();
+        private final String key;
+        // the least number of idle factories since the last trim, these were not needed to serve
+        // concurrent queries
+        private int minIdle;
+        private Entry next;
+        private Entry prev;
+
+        private Entry(String key) {
+            this.key = key;
+        }
+
+        private void add(RecordCursorFactory factory, @Nullable IntList types) {
+            final int index = factories.size();
+            factories.add(factory);
+            IntList slotTypes = bindVariableTypes.getQuiet(index);
+            if (slotTypes == null) {
+                slotTypes = new IntList();
+                bindVariableTypes.extendAndSet(index, slotTypes);
+            }
+            slotTypes.clear();
+            if (types != null) {
+                slotTypes.addAll(types);
+            }
+        }
+
+        // frees the given number of the oldest factories
+        private int freeFactories(int count) {
+            for (int i = 0; i < count; i++) {
+                Misc.free(factories.getQuick(i));
+            }
+            for (int i = 0; i < count; i++) {
+                // keep the type lists for reuse
+                bindVariableTypes.add(bindVariableTypes.getQuick(0));
+                bindVariableTypes.remove(0);
+                factories.remove(0);
+            }
+            minIdle = Math.min(minIdle, factories.size());
+            return count;
+        }
+
+        private RecordCursorFactory take(@Nullable IntList typesSink) {
+            for (int i = factories.size() - 1; i > -1; i--) {
+                final IntList types = bindVariableTypes.getQuick(i);
+                if (typesSink == null && types.size() > 0) {
+                    continue;
+                }
+                final RecordCursorFactory factory = factories.getQuick(i);
+                if (typesSink != null) {
+                    typesSink.clear();
+                    typesSink.addAll(types);
+                }
+                // keep the type lists aligned with the remaining factories
+                factories.remove(i);
+                bindVariableTypes.remove(i);
+                bindVariableTypes.add(types);
+                minIdle = Math.min(minIdle, factories.size());
+                return factory;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine;
+
+import io.questdb.metrics.Counter;
+import io.questdb.metrics.LongGauge;
+import io.questdb.metrics.MetricsRegistry;
+
+public class QueryPlanPoolMetrics {
+    private final LongGauge cachedPlansGauge;
+    // Time spent compiling queries that were not served from the pool
+    private final Counter compileMicrosCounter;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public QueryPlanPoolMetrics(MetricsRegistry metricsRegistry) {
+        this.cachedPlansGauge = metricsRegistry.newLongGauge("query_plan_pool_cached");
+        this.hitCounter = metricsRegistry.newCounter("query_plan_pool_hits");
+        this.missCounter = metricsRegistry.newCounter("query_plan_pool_misses");
+        this.compileMicrosCounter = metricsRegistry.newCounter("query_plan_pool_compile_micros");
+    }
+
+    public void addCompileTime(long nanos) {
+        compileMicrosCounter.add(nanos / 1000);
+    }
+
+    public LongGauge cachedPlansGauge() {
+        return cachedPlansGauge;
+    }
+
+    public long getCompileMicros() {
+        return compileMicrosCounter.getValue();
+    }
+
+    public long getHitCount() {
+        return hitCounter.getValue();
+    }
+
+    public long getMissCount() {
+        return missCounter.getValue();
+    }
+
+    public void incrementHits() {
+        hitCounter.inc();
+    }
+
+    public void incrementMisses() {
+        missCounter.inc();
+    }
+}
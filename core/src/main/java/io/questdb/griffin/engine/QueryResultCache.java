@@ -0,0 +1,210 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.RecordChain;
+import io.questdb.std.CharSequenceObjHashMap;
+import io.questdb.std.Chars;
+import io.questdb.std.Misc;
+import io.questdb.std.Mutable;
+import io.questdb.std.QuietCloseable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * Engine-wide cache of SELECT results. Results are kept in off-heap {@link RecordChain}s keyed
+ * by the query text, bind variable values and transaction versions of the tables the query reads,
+ * see {@link ResultCacheRecordCursorFactory}. Since a table commit changes the key, stale entries
+ * are never hit; they are evicted once the memory budget is exceeded, least recently used first.
+ * <p>
+ * An entry is handed out to a single cursor at a time. Concurrent readers of the same key run
+ * the query as usual.
+ */
+public class QueryResultCache implements Mutable, QuietCloseable {
+    private final CairoConfiguration configuration;
+    private final CharSequenceObjHashMap<Entry> entries = new CharSequenceObjHashMap<>();
+    // most recently used entry
+    private Entry head;
+    private long memoryUsed;
+    // least recently used entry
+    private Entry tail;
+
+    public QueryResultCache(CairoConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Checks out the entry for the given key. The entry must be returned via {@link #release(Entry)}.
+     *
+     * @param key cache key
+     * @return entry or null when the key is not cached or the entry is in use by another cursor
+     */
+    public synchronized @Nullable Entry acquire(@NotNull CharSequence key) {
+        final Entry entry = entries.get(key);
+        if (entry == null || entry.busy) {
+            return null;
+        }
+        entry.busy = true;
+        unlink(entry);
+        linkHead(entry);
+        return entry;
+    }
+
+    @Override
+    public synchronized void clear() {
+        Entry entry = head;
+        while (entry != null) {
+            final Entry next = entry.next;
+            evict(entry);
+            entry = next;
+        }
+        head = tail = null;
+        entries.clear();
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    public long getMaxMemorySize() {
+        return configuration.getSqlResultCacheSize();
+    }
+
+    @TestOnly
+    public synchronized long getMemoryUsed() {
+        return memoryUsed;
+    }
+
+    public boolean isEnabled() {
+        return configuration.isSqlResultCacheEnabled();
+    }
+
+    /**
+     * Takes ownership of the given chain and caches it under the key. The chain is freed right away
+     * when it does not fit into the cache or the key is already cached.
+     */
+    public synchronized void put(@NotNull CharSequence key, @NotNull RecordChain chain, long rowCount) {
+        final long maxMemorySize = getMaxMemorySize();
+        final long size = chain.getMemorySize();
+        final int index = entries.keyIndex(key);
+        if (size > maxMemorySize || index < 0) {
+            Misc.free(chain);
+            return;
+        }
+
+        final Entry entry = new Entry(Chars.toString(key), chain, rowCount, size);
+        entries.putAt(index, entry.key, entry);
+        linkHead(entry);
+        memoryUsed += size;
+
+        Entry victim = tail;
+        while (memoryUsed > maxMemorySize && victim != null) {
+            final Entry prev = victim.prev;
+            if (victim != entry) {
+                entries.remove(victim.key);
+                unlink(victim);
+                evict(victim);
+            }
+            victim = prev;
+        }
+    }
+
+    public synchronized void release(@NotNull Entry entry) {
+        entry.busy = false;
+        if (entry.evicted) {
+            Misc.free(entry.chain);
+        }
+    }
+
+    @TestOnly
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evict(Entry entry) {
+        memoryUsed -= entry.size;
+        entry.evicted = true;
+        // busy entries are freed once released by the cursor
+        if (!entry.busy) {
+            Misc.free(entry.chain);
+        }
+    }
+
+    private void linkHead(Entry entry) {
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        head = entry;
+        if (tail == null) {
+            tail = entry;
+        }
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            head = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        } else {
+            tail = entry.prev;
+        }
+        entry.prev = entry.next = null;
+    }
+
+    public static class Entry {
+        private final RecordChain chain;
+        private final String key;
+        private final long rowCount;
+        private final long size;
+        private boolean busy;
+        private boolean evicted;
+        private Entry next;
+        private Entry prev;
+
+        private Entry(String key, RecordChain chain, long rowCount, long size) {
+            this.key = key;
+            this.chain = chain;
+            this.rowCount = rowCount;
+            this.size = size;
+        }
+
+        public RecordChain getChain() {
+            return chain;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+    }
+}
@@ -0,0 +1,493 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.griffin.engine;
+
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.ColumnTypes;
+import io.questdb.cairo.DataUnavailableException;
+import io.questdb.cairo.PartitionBy;
+import io.questdb.cairo.RecordChain;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.TableToken;
+import io.questdb.cairo.TableUtils;
+import io.questdb.cairo.TxReader;
+import io.questdb.cairo.sql.BindVariableService;
+import io.questdb.cairo.sql.Function;
+import io.questdb.cairo.sql.PageFrameCursor;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Transient;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.StringSink;
+import io.questdb.std.str.Utf8Sequence;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Top-level factory wrapper that serves results of a SELECT from the {@link QueryResultCache}.
+ * <p>
+ * The cache key consists of the normalized query text, values of the bind variables and
+ * transaction versions of all tables referenced by the query. The versions are read from
+ * the _txn files directly, so a cache hit does not open a single table reader. On a miss,
+ * the base cursor is copied into a record chain as it is iterated and the chain is cached
+ * once the cursor is exhausted. Partially iterated cursors are not cached.
+ */
+public class ResultCacheRecordCursorFactory extends AbstractRecordCursorFactory {
+    private final RecordCursorFactory base;
+    private final QueryResultCache cache;
+    private final ColumnTypes chainColumnTypes;
+    private final CairoConfiguration configuration;
+    private final ResultCacheRecordCursor cursor = new ResultCacheRecordCursor();
+    private final CairoEngine engine;
+    private final StringSink keySink = new StringSink();
+    private final RecordSink recordSink;
+    private final String sql;
+    private final ObjList<TableToken> tableTokens;
+    private final ObjList<TxReader> txReaders = new ObjList<>();
+
+    public ResultCacheRecordCursorFactory(
+            @NotNull CairoEngine engine,
+            @NotNull RecordCursorFactory base,
+            @NotNull ColumnTypes chainColumnTypes,
+            @NotNull RecordSink recordSink,
+            @NotNull CharSequence sql,
+            @Transient @NotNull ObjList<TableToken> tableTokens
+    ) {
+        super(base.getMetadata());
+        this.engine = engine;
+        this.configuration = engine.getConfiguration();
+        this.cache = engine.getQueryResultCache();
+        this.base = base;
+        this.chainColumnTypes = chainColumnTypes;
+        this.recordSink = recordSink;
+        this.tableTokens = new ObjList<>(tableTokens);
+        final StringSink sink = new StringSink();
+        normalize(sql, sink);
+        this.sql = sink.toString();
+    }
+
+    /**
+     * Collapses whitespace outside of quotes, so that differently formatted
+     * copies of the same query share cache entries.
+     */
+    public static void normalize(CharSequence sql, StringSink sink) {
+        char quote = 0;
+        boolean space = false;
+        for (int i = 0, n = sql.length(); i < n; i++) {
+            final char c = sql.charAt(i);
+            if (quote != 0) {
+                sink.put(c);
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (Character.isWhitespace(c)) {
+                space = sink.length() > 0;
+            } else {
+                if (space) {
+                    sink.put(' ');
+                    space = false;
+                }
+                if (c == '\'' || c == '"') {
+                    quote = c;
+                }
+                sink.put(c);
+            }
+        }
+    }
+
+    @Override
+    public boolean followedLimitAdvice() {
+        return base.followedLimitAdvice();
+    }
+
+    @Override
+    public boolean followedOrderByAdvice() {
+        return base.followedOrderByAdvice();
+    }
+
+    @Override
+    public RecordCursorFactory getBaseFactory() {
+        return base;
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        if (cache.isEnabled() && buildKey(executionContext)) {
+            final QueryResultCache.Entry entry = cache.acquire(keySink);
+            if (entry != null) {
+                cursor.of(entry);
+                return cursor;
+            }
+            // table versions are read before the base cursor opens its readers,
+            // so the result cannot be older than the key it is cached under
+            cursor.of(base.getCursor(executionContext), true);
+        } else {
+            cursor.of(base.getCursor(executionContext), false);
+        }
+        return cursor;
+    }
+
+    @Override
+    public PageFrameCursor getPageFrameCursor(SqlExecutionContext executionContext, int order) throws SqlException {
+        return base.getPageFrameCursor(executionContext, order);
+    }
+
+    @Override
+    public int getScanDirection() {
+        return base.getScanDirection();
+    }
+
+    @Override
+    public TableToken getTableToken() {
+        return base.getTableToken();
+    }
+
+    @Override
+    public void halfClose() {
+        base.halfClose();
+    }
+
+    @Override
+    public boolean implementsLimit() {
+        return base.implementsLimit();
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return base.recordCursorSupportsRandomAccess();
+    }
+
+    @Override
+    public boolean supportsPageFrameCursor() {
+        return base.supportsPageFrameCursor();
+    }
+
+    @Override
+    public boolean supportsUpdateRowId(TableToken tableToken) {
+        return base.supportsUpdateRowId(tableToken);
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        base.toPlan(sink);
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        return base.usesCompiledFilter();
+    }
+
+    @Override
+    public boolean usesIndex() {
+        return base.usesIndex();
+    }
+
+    private boolean buildKey(SqlExecutionContext executionContext) {
+        keySink.clear();
+        keySink.put(sql);
+
+        final BindVariableService bindVariableService = executionContext.getBindVariableService();
+        if (bindVariableService != null) {
+            for (int i = 0, n = bindVariableService.getIndexedVariableCount(); i < n; i++) {
+                keySink.put('\0').put('$').put(i).put('=');
+                if (!putBindValue(bindVariableService.getFunction(i))) {
+                    return false;
+                }
+            }
+            final ObjList<CharSequence> names = bindVariableService.getNamedVariables();
+            for (int i = 0, n = names.size(); i < n; i++) {
+                final CharSequence name = names.getQuick(i);
+                keySink.put('\0').put(':').put(name).put('=');
+                if (!putBindValue(bindVariableService.getFunction(name))) {
+                    return false;
+                }
+            }
+        }
+
+        for (int i = 0, n = tableTokens.size(); i < n; i++) {
+            final TableToken tableToken = tableTokens.getQuick(i);
+            // throws the same exception as the base factory when the table was dropped or renamed
+            engine.verifyTableToken(tableToken);
+            keySink.put('\0').put(tableToken.getTableId()).put('@').put(getTxReader(i).unsafeReadVersion());
+        }
+        return true;
+    }
+
+    private TxReader getTxReader(int index) {
+        TxReader txReader = txReaders.getQuiet(index);
+        if (txReader == null) {
+            try (Path path = new Path()) {
+                path.of(configuration.getRoot()).concat(tableTokens.getQuick(index)).concat(TableUtils.TXN_FILE_NAME);
+                txReader = new TxReader(configuration.getFilesFacade()).ofRO(path.$(), PartitionBy.NONE);
+            }
+            txReaders.extendAndSet(index, txReader);
+        }
+        return txReader;
+    }
+
+    private boolean putBindValue(Function function) {
+        if (function == null) {
+            keySink.put("null");
+            return true;
+        }
+        final int type = function.getType();
+        keySink.put(ColumnType.tagOf(type)).put(':');
+        switch (ColumnType.tagOf(type)) {
+            case ColumnType.BOOLEAN:
+                keySink.put(function.getBool(null));
+                break;
+            case ColumnType.BYTE:
+                keySink.put(function.getByte(null));
+                break;
+            case ColumnType.SHORT:
+                keySink.put(function.getShort(null));
+                break;
+            case ColumnType.CHAR:
+                keySink.put((int) function.getChar(null));
+                break;
+            case ColumnType.INT:
+                keySink.put(function.getInt(null));
+                break;
+            case ColumnType.IPv4:
+                keySink.put(function.getIPv4(null));
+                break;
+            case ColumnType.LONG:
+                keySink.put(function.getLong(null));
+                break;
+            case ColumnType.DATE:
+                keySink.put(function.getDate(null));
+                break;
+            case ColumnType.TIMESTAMP:
+                keySink.put(function.getTimestamp(null));
+                break;
+            case ColumnType.FLOAT:
+                keySink.put(Float.floatToRawIntBits(function.getFloat(null)));
+                break;
+            case ColumnType.DOUBLE:
+                keySink.put(Double.doubleToRawLongBits(function.getDouble(null)));
+                break;
+            case ColumnType.UUID:
+                keySink.put(function.getLong128Hi(null)).put(':').put(function.getLong128Lo(null));
+                break;
+            case ColumnType.GEOBYTE:
+                keySink.put(type).put(':').put(function.getGeoByte(null));
+                break;
+            case ColumnType.GEOSHORT:
+                keySink.put(type).put(':').put(function.getGeoShort(null));
+                break;
+            case ColumnType.GEOINT:
+                keySink.put(type).put(':').put(function.getGeoInt(null));
+                break;
+            case ColumnType.GEOLONG:
+                keySink.put(type).put(':').put(function.getGeoLong(null));
+                break;
+            case ColumnType.STRING: {
+                // strings are length-prefixed to keep the key unambiguous
+                final CharSequence value = function.getStrA(null);
+                if (value == null) {
+                    keySink.put(-1);
+                } else {
+                    keySink.put(value.length()).put(':').put(value);
+                }
+                break;
+            }
+            case ColumnType.VARCHAR: {
+                final Utf8Sequence value = function.getVarcharA(null);
+                if (value == null) {
+                    keySink.put(-1);
+                } else {
+                    keySink.put(value.size()).put(':').put(value);
+                }
+                break;
+            }
+            default:
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    protected void _close() {
+        cursor.close();
+        Misc.free(base);
+        Misc.freeObjListAndClear(txReaders);
+    }
+
+    private class ResultCacheRecordCursor implements RecordCursor {
+        private RecordCursor baseCursor;
+        private RecordChain chain;
+        private QueryResultCache.Entry entry;
+        private long maxMemorySize;
+        private long prevOffset;
+        private long rowCount;
+
+        @Override
+        public void calculateSize(SqlExecutionCircuitBreaker circuitBreaker, Counter counter) {
+            if (entry != null) {
+                chain.calculateSize(circuitBreaker, counter);
+            } else {
+                stopRecording();
+                baseCursor.calculateSize(circuitBreaker, counter);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (entry != null) {
+                cache.release(entry);
+                entry = null;
+                chain = null;
+            } else {
+                stopRecording();
+                baseCursor = Misc.free(baseCursor);
+            }
+        }
+
+        @Override
+        public Record getRecord() {
+            return entry != null ? chain.getRecord() : baseCursor.getRecord();
+        }
+
+        @Override
+        public Record getRecordB() {
+            return entry != null ? chain.getRecordB() : baseCursor.getRecordB();
+        }
+
+        @Override
+        public SymbolTable getSymbolTable(int columnIndex) {
+            if (entry != null) {
+                throw new UnsupportedOperationException();
+            }
+            return baseCursor.getSymbolTable(columnIndex);
+        }
+
+        @Override
+        public boolean hasNext() throws DataUnavailableException {
+            if (entry != null) {
+                return chain.hasNext();
+            }
+            if (baseCursor.hasNext()) {
+                if (chain != null) {
+                    prevOffset = chain.put(baseCursor.getRecord(), prevOffset);
+                    rowCount++;
+                    if (chain.getMemorySize() > maxMemorySize) {
+                        stopRecording();
+                    }
+                }
+                return true;
+            }
+            if (chain != null) {
+                cache.put(keySink, chain, rowCount);
+                chain = null;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean isUsingIndex() {
+            return entry == null && baseCursor.isUsingIndex();
+        }
+
+        @Override
+        public SymbolTable newSymbolTable(int columnIndex) {
+            if (entry != null) {
+                throw new UnsupportedOperationException();
+            }
+            return baseCursor.newSymbolTable(columnIndex);
+        }
+
+        public void of(QueryResultCache.Entry entry) {
+            this.entry = entry;
+            this.chain = entry.getChain();
+            this.baseCursor = null;
+            chain.toTop();
+        }
+
+        public void of(RecordCursor baseCursor, boolean record) {
+            this.entry = null;
+            this.baseCursor = baseCursor;
+            if (record) {
+                try {
+                    chain = new RecordChain(chainColumnTypes, recordSink, configuration.getSqlSortValuePageSize(), Integer.MAX_VALUE);
+                } catch (Throwable th) {
+                    this.baseCursor = Misc.free(baseCursor);
+                    throw th;
+                }
+                maxMemorySize = cache.getMaxMemorySize();
+                prevOffset = -1;
+                rowCount = 0;
+            }
+        }
+
+        @Override
+        public void recordAt(Record record, long atRowId) {
+            if (entry != null) {
+                chain.recordAt(record, atRowId);
+            } else {
+                baseCursor.recordAt(record, atRowId);
+            }
+        }
+
+        @Override
+        public long size() throws DataUnavailableException {
+            return entry != null ? entry.getRowCount() : baseCursor.size();
+        }
+
+        @Override
+        public void skipRows(Counter rowCount) throws DataUnavailableException {
+            if (entry != null) {
+                RecordCursor.skipRows(chain, rowCount);
+            } else {
+                stopRecording();
+                baseCursor.skipRows(rowCount);
+            }
+        }
+
+        @Override
+        public void toTop() {
+            if (entry != null) {
+                chain.toTop();
+            } else {
+                stopRecording();
+                baseCursor.toTop();
+            }
+        }
+
+        private void stopRecording() {
+            chain = Misc.free(chain);
+        }
+    }
+}
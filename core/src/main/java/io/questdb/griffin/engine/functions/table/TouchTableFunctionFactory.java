@@ -160,6 +160,10 @@ public class TouchTableFunctionFactory implements FunctionFactory {
                 PageFrame frame;
                 RecordMetadata metadata = recordCursorFactory.getMetadata();
                 while ((frame = pageFrameCursor.next()) != null) {
+                    if (frame.getFormat() == PageFrame.PARQUET_FORMAT) {
+                        // Parquet frames are decoded on demand, there is no mapped memory to touch
+                        continue;
+                    }
                     for (int columnIndex = 0, sz = metadata.getColumnCount(); columnIndex < sz; columnIndex++) {
 
                         final long columnMemorySize = frame.getPageSize(columnIndex);
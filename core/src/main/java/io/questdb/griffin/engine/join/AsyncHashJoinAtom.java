@@ -0,0 +1,176 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnTypes;
+import io.questdb.cairo.RecordSink;
+import io.questdb.cairo.Reopenable;
+import io.questdb.cairo.map.MapKey;
+import io.questdb.cairo.map.MapValue;
+import io.questdb.cairo.map.OrderedMap;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.StatefulAtom;
+import io.questdb.griffin.engine.PerWorkerLocks;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Transient;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Shared state of the parallel hash join. The join key map and the slave row id chain
+ * are built by the query owner thread before any master page frame gets dispatched.
+ * After that, both are read-only, so the worker threads probe the join key map concurrently,
+ * each with its own key map used to write the master key.
+ */
+public class AsyncHashJoinAtom implements StatefulAtom, Reopenable {
+    private final OrderedMap joinKeyMap;
+    private final RecordSink masterKeySink;
+    private final OrderedMap ownerKeyMap;
+    private final ObjList<OrderedMap> perWorkerKeyMaps;
+    private final PerWorkerLocks perWorkerLocks;
+    private final LongChain slaveChain;
+    private final RecordSink slaveKeySink;
+
+    public AsyncHashJoinAtom(
+            @NotNull CairoConfiguration configuration,
+            @Transient @NotNull ColumnTypes joinColumnTypes,
+            @Transient @NotNull ColumnTypes valueTypes,
+            @NotNull RecordSink masterKeySink,
+            @NotNull RecordSink slaveKeySink,
+            int workerCount
+    ) {
+        final int slotCount = Math.min(workerCount, configuration.getPageFrameReduceQueueCapacity());
+        this.perWorkerKeyMaps = new ObjList<>(slotCount);
+        try {
+            this.masterKeySink = masterKeySink;
+            this.slaveKeySink = slaveKeySink;
+            this.joinKeyMap = createMap(configuration, joinColumnTypes, valueTypes);
+            this.slaveChain = new LongChain(configuration.getSqlHashJoinLightValuePageSize(), configuration.getSqlHashJoinLightValueMaxPages());
+            // Key maps never store any entries, they're only used to serialize master keys.
+            this.ownerKeyMap = createMap(configuration, joinColumnTypes, valueTypes);
+            for (int i = 0; i < slotCount; i++) {
+                perWorkerKeyMaps.extendAndSet(i, createMap(configuration, joinColumnTypes, valueTypes));
+            }
+            this.perWorkerLocks = new PerWorkerLocks(configuration, slotCount);
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    /**
+     * Populates the join key map with the slave rows. Must be called on the query owner
+     * thread before the master page frames are dispatched.
+     */
+    public void buildMap(RecordCursor slaveCursor, SqlExecutionCircuitBreaker circuitBreaker) {
+        final Record record = slaveCursor.getRecord();
+        while (slaveCursor.hasNext()) {
+            circuitBreaker.statefulThrowExceptionIfTripped();
+
+            MapKey key = joinKeyMap.withKey();
+            key.put(record, slaveKeySink);
+            MapValue value = key.createValue();
+            if (value.isNew()) {
+                value.putInt(0, slaveChain.put(record.getRowId(), -1));
+                value.putInt(1, 1);
+            } else {
+                value.putInt(0, slaveChain.put(record.getRowId(), value.getInt(0)));
+                value.addInt(1, 1);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        Misc.free(joinKeyMap);
+        Misc.free(slaveChain);
+    }
+
+    @Override
+    public void close() {
+        Misc.free(joinKeyMap);
+        Misc.free(slaveChain);
+        Misc.free(ownerKeyMap);
+        Misc.freeObjList(perWorkerKeyMaps);
+    }
+
+    /**
+     * Looks up the slave row id chain matching the master record's join key.
+     * Safe to call concurrently as long as each thread uses its own slot.
+     *
+     * @param slotId slot id obtained via {@link #maybeAcquire(int, boolean, SqlExecutionCircuitBreaker)}
+     * @param record master record
+     * @return offset of the slave chain head or -1 if there are no matching slave rows
+     */
+    public int findSlaveChain(int slotId, Record record) {
+        final OrderedMap keyMap = slotId == -1 ? ownerKeyMap : perWorkerKeyMaps.getQuick(slotId);
+        final MapKey key = keyMap.withKey();
+        key.put(record, masterKeySink);
+        final MapValue value = joinKeyMap.findValue(keyMap);
+        return value != null ? value.getInt(0) : -1;
+    }
+
+    public LongChain getSlaveChain() {
+        return slaveChain;
+    }
+
+    public int maybeAcquire(int workerId, boolean owner, SqlExecutionCircuitBreaker circuitBreaker) {
+        if (workerId == -1 && owner) {
+            // Owner thread is free to use its own private key map anytime.
+            return -1;
+        }
+        // All other threads, e.g. worker or work stealing threads, must always acquire a lock
+        // to use shared resources.
+        return perWorkerLocks.acquireSlot(workerId, circuitBreaker);
+    }
+
+    public void release(int slotId) {
+        perWorkerLocks.releaseSlot(slotId);
+    }
+
+    @Override
+    public void reopen() {
+        joinKeyMap.reopen();
+        slaveChain.reopen();
+    }
+
+    private static OrderedMap createMap(
+            CairoConfiguration configuration,
+            ColumnTypes keyTypes,
+            ColumnTypes valueTypes
+    ) {
+        return new OrderedMap(
+                configuration.getSqlSmallMapPageSize(),
+                keyTypes,
+                valueTypes,
+                configuration.getSqlSmallMapKeyCapacity(),
+                configuration.getSqlFastMapLoadFactor(),
+                configuration.getSqlMapMaxResizes()
+        );
+    }
+}
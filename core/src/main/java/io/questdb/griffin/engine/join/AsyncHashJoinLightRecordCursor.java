@@ -0,0 +1,301 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.join;
+
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.sql.NoRandomAccessRecordCursor;
+import io.questdb.cairo.sql.PageFrameMemoryRecord;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.Misc;
+import io.questdb.std.Os;
+
+/**
+ * Collects probed master page frames in their dispatch order and joins each matching
+ * master row with its slave rows. The reduce tasks hold [master row index, slave chain head]
+ * pairs, see {@link AsyncHashJoinLightRecordCursorFactory}.
+ */
+class AsyncHashJoinLightRecordCursor implements NoRandomAccessRecordCursor {
+    private static final Log LOG = LogFactory.getLog(AsyncHashJoinLightRecordCursor.class);
+
+    private final int columnSplit;
+    private final boolean hasDescendingOrder;
+    private final PageFrameMemoryRecord masterRecord;
+    private final JoinRecord record;
+    private boolean allFramesActive;
+    private AsyncHashJoinAtom atom;
+    private SqlExecutionCircuitBreaker circuitBreaker;
+    private long cursor = -1;
+    private int frameIndex;
+    private int frameLimit;
+    private long frameRowCount;
+    private long frameRowIndex;
+    private PageFrameSequence<AsyncHashJoinAtom> frameSequence;
+    private boolean isMapBuilt;
+    private boolean isOpen;
+    private DirectLongList rows;
+    private LongChain.Cursor slaveChainCursor;
+    private RecordCursor slaveCursor;
+    private Record slaveRecord;
+
+    public AsyncHashJoinLightRecordCursor(int columnSplit, boolean hasDescendingOrder) {
+        this.columnSplit = columnSplit;
+        this.hasDescendingOrder = hasDescendingOrder;
+        this.masterRecord = new PageFrameMemoryRecord();
+        this.record = new JoinRecord(columnSplit);
+    }
+
+    @Override
+    public void close() {
+        if (isOpen) {
+            LOG.debug()
+                    .$("closing [shard=").$(frameSequence.getShard())
+                    .$(", frameIndex=").$(frameIndex)
+                    .$(", frameCount=").$(frameLimit)
+                    .$(", frameId=").$(frameSequence.getId())
+                    .$(", cursor=").$(cursor)
+                    .I$();
+
+            collectCursor(true);
+            if (frameLimit > -1) {
+                frameSequence.await();
+            }
+            frameSequence.clear();
+            slaveCursor = Misc.free(slaveCursor);
+            isOpen = false;
+        }
+    }
+
+    public void freeRecords() {
+        Misc.free(masterRecord);
+    }
+
+    @Override
+    public Record getRecord() {
+        return record;
+    }
+
+    @Override
+    public SymbolTable getSymbolTable(int columnIndex) {
+        if (columnIndex < columnSplit) {
+            return frameSequence.getSymbolTableSource().getSymbolTable(columnIndex);
+        }
+        return slaveCursor.getSymbolTable(columnIndex - columnSplit);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!isMapBuilt) {
+            // The map must be ready before we start dispatching master page frames.
+            atom.buildMap(slaveCursor, circuitBreaker);
+            isMapBuilt = true;
+        }
+
+        // Check for the first hasNext call.
+        if (frameIndex == -1) {
+            fetchNextFrame();
+        }
+
+        if (slaveChainCursor != null && slaveChainCursor.hasNext()) {
+            slaveCursor.recordAt(slaveRecord, slaveChainCursor.next());
+            return true;
+        }
+
+        // We have rows in the current frame we still need to dispatch
+        if (frameRowIndex < frameRowCount) {
+            nextMasterRow();
+            return true;
+        }
+
+        // Release the previous queue item.
+        // There is no identity check here because this check
+        // had been done when 'cursor' was assigned.
+        collectCursor(false);
+
+        // Do we have more frames?
+        if (frameIndex < frameLimit) {
+            fetchNextFrame();
+            if (frameRowCount > 0 && frameRowIndex < frameRowCount) {
+                nextMasterRow();
+                return true;
+            }
+        }
+
+        if (!allFramesActive) {
+            throwTimeoutException();
+        }
+        return false;
+    }
+
+    @Override
+    public SymbolTable newSymbolTable(int columnIndex) {
+        if (columnIndex < columnSplit) {
+            return frameSequence.getSymbolTableSource().newSymbolTable(columnIndex);
+        }
+        return slaveCursor.newSymbolTable(columnIndex - columnSplit);
+    }
+
+    @Override
+    public long size() {
+        return -1;
+    }
+
+    @Override
+    public void toTop() {
+        collectCursor(false);
+        frameSequence.toTop();
+        frameIndex = -1;
+        frameRowIndex = 0;
+        frameRowCount = 0;
+        allFramesActive = true;
+        slaveChainCursor = null;
+        if (!isMapBuilt) {
+            slaveCursor.toTop();
+            atom.clear();
+            atom.reopen();
+        }
+    }
+
+    private void collectCursor(boolean forceCollect) {
+        if (cursor > -1) {
+            frameSequence.collect(cursor, forceCollect);
+            // It is necessary to clear 'cursor' value
+            // because we updated frameIndex and loop can exit due to lack of frames.
+            // Non-update of 'cursor' could cause double-free.
+            cursor = -1;
+        }
+    }
+
+    private void fetchNextFrame() {
+        if (frameLimit == -1) {
+            frameSequence.prepareForDispatch();
+            frameLimit = frameSequence.getFrameCount() - 1;
+        }
+
+        try {
+            do {
+                cursor = frameSequence.next();
+                if (cursor > -1) {
+                    PageFrameReduceTask task = frameSequence.getTask(cursor);
+                    LOG.debug()
+                            .$("collected [shard=").$(frameSequence.getShard())
+                            .$(", frameIndex=").$(task.getFrameIndex())
+                            .$(", frameCount=").$(frameSequence.getFrameCount())
+                            .$(", frameId=").$(frameSequence.getId())
+                            .$(", active=").$(frameSequence.isActive())
+                            .$(", cursor=").$(cursor)
+                            .I$();
+
+                    if (task.hasError()) {
+                        throw CairoException.nonCritical()
+                                .position(task.getErrorMessagePosition())
+                                .put(task.getErrorMsg())
+                                .setCancellation(task.isCancelled())
+                                .setInterruption(task.isCancelled());
+                    }
+
+                    allFramesActive &= frameSequence.isActive();
+                    rows = task.getFilteredRows();
+                    // Rows hold [master row index, slave chain head] pairs.
+                    frameRowCount = rows.size() >>> 1;
+                    frameIndex = task.getFrameIndex();
+                    frameRowIndex = 0;
+                    if (frameRowCount > 0 && frameSequence.isActive()) {
+                        masterRecord.init(task.getFrameMemory());
+                        break;
+                    } else {
+                        // Force reset frame size if frameSequence was canceled or failed.
+                        frameRowCount = 0;
+                        collectCursor(false);
+                    }
+                } else if (cursor == -2) {
+                    break; // No frames to probe
+                } else {
+                    Os.pause();
+                }
+            } while (frameIndex < frameLimit);
+        } catch (Throwable th) {
+            if (th instanceof CairoException) {
+                CairoException ce = (CairoException) th;
+                if (ce.isInterruption() || ce.isCancellation()) {
+                    LOG.error().$("hash join error [ex=").$(((CairoException) th).getFlyweightMessage()).I$();
+                    throwTimeoutException();
+                } else {
+                    LOG.error().$("hash join error [ex=").$(th).I$();
+                    throw ce;
+                }
+            }
+            LOG.error().$("hash join error [ex=").$(th).I$();
+            throw CairoException.nonCritical().put(th.getMessage());
+        }
+    }
+
+    private void nextMasterRow() {
+        final long rowIndex = hasDescendingOrder ? (frameRowCount - frameRowIndex - 1) : frameRowIndex;
+        frameRowIndex++;
+        masterRecord.setRowIndex(rows.get(2 * rowIndex));
+        slaveChainCursor = atom.getSlaveChain().getCursor((int) rows.get(2 * rowIndex + 1));
+        // we know cursor has values
+        // advance to get the first value
+        slaveChainCursor.hasNext();
+        slaveCursor.recordAt(slaveRecord, slaveChainCursor.next());
+    }
+
+    private void throwTimeoutException() {
+        if (frameSequence.getCancelReason() == SqlExecutionCircuitBreaker.STATE_CANCELLED) {
+            throw CairoException.queryCancelled();
+        } else {
+            throw CairoException.queryTimedOut();
+        }
+    }
+
+    void of(PageFrameSequence<AsyncHashJoinAtom> frameSequence, RecordCursor slaveCursor, SqlExecutionCircuitBreaker circuitBreaker) {
+        this.frameSequence = frameSequence;
+        this.slaveCursor = slaveCursor;
+        this.circuitBreaker = circuitBreaker;
+        atom = frameSequence.getAtom();
+        if (!isOpen) {
+            isOpen = true;
+            atom.reopen();
+        }
+        frameIndex = -1;
+        frameLimit = -1;
+        frameRowIndex = 0;
+        frameRowCount = 0;
+        allFramesActive = true;
+        isMapBuilt = false;
+        slaveChainCursor = null;
+        masterRecord.of(frameSequence.getSymbolTableSource());
+        slaveRecord = slaveCursor.getRecordB();
+        record.of(masterRecord, slaveRecord);
+    }
+}
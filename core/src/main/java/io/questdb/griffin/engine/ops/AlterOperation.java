@@ -61,6 +61,8 @@ public class AlterOperation extends AbstractOperation implements Mutable {
     public final static short SET_DEDUP_DISABLE = SET_DEDUP_ENABLE + 1; // 16
     public final static short CHANGE_COLUMN_TYPE = SET_DEDUP_DISABLE + 1; // 17
     public final static short CONVERT_PARTITION = CHANGE_COLUMN_TYPE + 1; // 18
+    public final static short SET_TTL = CONVERT_PARTITION + 1; // 19
+    public final static short ADD_BLOOM_INDEX = SET_TTL + 1; // 20
     private static final long BIT_INDEXED = 0x1L;
     private static final long BIT_DEDUP_KEY = BIT_INDEXED << 1;
     private final static Log LOG = LogFactory.getLog(AlterOperation.class);
@@ -135,6 +137,9 @@ public class AlterOperation extends AbstractOperation implements Mutable {
                 case ADD_INDEX:
                     applyAddIndex(svc);
                     break;
+                case ADD_BLOOM_INDEX:
+                    applyAddBloomIndex(svc);
+                    break;
                 case DROP_INDEX:
                     applyDropIndex(svc);
                     break;
@@ -150,6 +155,9 @@ public class AlterOperation extends AbstractOperation implements Mutable {
                 case SET_PARAM_COMMIT_LAG:
                     applyParamO3MaxLag(svc);
                     break;
+                case SET_TTL:
+                    applySetTtl(svc);
+                    break;
                 case RENAME_TABLE:
                     applyRenameTable(svc);
                     break;
@@ -385,6 +393,17 @@ public class AlterOperation extends AbstractOperation implements Mutable {
         }
     }
 
+    private void applyAddBloomIndex(MetadataService svc) {
+        final CharSequence columnName = activeExtraStrInfo.getStrA(0);
+        try {
+            svc.addBloomIndex(columnName);
+        } catch (CairoException e) {
+            // augment exception with table position
+            e.position(tableNamePosition);
+            throw e;
+        }
+    }
+
     private void applyAddIndex(MetadataService svc) {
         final CharSequence columnName = activeExtraStrInfo.getStrA(0);
         try {
@@ -513,6 +532,16 @@ public class AlterOperation extends AbstractOperation implements Mutable {
         svc.renameTable(activeExtraStrInfo.getStrA(0), activeExtraStrInfo.getStrB(1));
     }
 
+    private void applySetTtl(MetadataService svc) {
+        int ttlHoursOrMonths = (int) extraInfo.get(0);
+        try {
+            svc.setMetaTtlHoursOrMonths(ttlHoursOrMonths);
+        } catch (CairoException e) {
+            e.position(tableNamePosition);
+            throw e;
+        }
+    }
+
     private void applySetSymbolCache(MetadataService svc, boolean isCacheOn) {
         CharSequence columnName = activeExtraStrInfo.getStrA(0);
         svc.changeCacheFlag(
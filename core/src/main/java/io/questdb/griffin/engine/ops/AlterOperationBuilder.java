@@ -114,6 +114,14 @@ public class AlterOperationBuilder {
         extraInfo.add(columnNamePosition);
     }
 
+    public void ofAddBloomIndex(int tableNamePosition, TableToken tableToken, int tableId, CharSequence columnName) {
+        this.command = ADD_BLOOM_INDEX;
+        this.tableNamePosition = tableNamePosition;
+        this.tableToken = tableToken;
+        this.tableId = tableId;
+        this.extraStrInfo.add(columnName);
+    }
+
     public void ofAddIndex(
             int tableNamePosition,
             TableToken tableToken,
@@ -256,6 +264,15 @@ public class AlterOperationBuilder {
         return this;
     }
 
+    public AlterOperationBuilder ofSetTtl(int tableNamePosition, TableToken tableToken, int tableId, int ttlHoursOrMonths) {
+        this.command = SET_TTL;
+        this.tableNamePosition = tableNamePosition;
+        this.tableToken = tableToken;
+        this.extraInfo.add(ttlHoursOrMonths);
+        this.tableId = tableId;
+        return this;
+    }
+
     public AlterOperationBuilder ofSquashPartitions(int tableNamePosition, TableToken tableToken) {
         this.command = SQUASH_PARTITIONS;
         this.tableNamePosition = tableNamePosition;
@@ -0,0 +1,378 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.orderby;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ColumnTypes;
+import io.questdb.cairo.sql.PageFrameMemory;
+import io.questdb.cairo.sql.PageFrameMemoryRecord;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.StatefulAtom;
+import io.questdb.cairo.sql.SymbolTableSource;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.griffin.engine.PerWorkerLocks;
+import io.questdb.griffin.engine.RecordComparator;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.IntList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.ObjList;
+import io.questdb.std.Transient;
+import io.questdb.std.Unsafe;
+import io.questdb.std.Vect;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Holds per-worker comparators, records and scratch buffers used to sort page frames
+ * in parallel. Each frame is sorted into a run of row indexes with a stable merge sort,
+ * so that rows with equal sort keys keep their original order. For ORDER BY with LIMIT,
+ * only the top rows of each frame are selected with a bounded heap, then sorted.
+ */
+public class AsyncSortedLightAtom implements StatefulAtom {
+    // Runs shorter than this are sorted with insertion sort.
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+    // Number of top rows to keep per frame or -1 to keep all rows.
+    private final long limit;
+    private final RecordComparator ownerComparator;
+    private final PageFrameMemoryRecord ownerRecord;
+    private final DirectLongList ownerScratch;
+    private final ObjList<RecordComparator> perWorkerComparators;
+    private final PerWorkerLocks perWorkerLocks;
+    private final ObjList<PageFrameMemoryRecord> perWorkerRecords;
+    private final ObjList<DirectLongList> perWorkerScratches;
+
+    public AsyncSortedLightAtom(
+            @NotNull CairoConfiguration configuration,
+            @Transient @NotNull RecordComparatorCompiler comparatorCompiler,
+            @Transient @NotNull ColumnTypes columnTypes,
+            @Transient @NotNull IntList keyColumnIndices,
+            long limit,
+            int workerCount
+    ) {
+        this.limit = limit;
+        final int slotCount = Math.min(workerCount, configuration.getPageFrameReduceQueueCapacity());
+        this.perWorkerComparators = new ObjList<>(slotCount);
+        this.perWorkerRecords = new ObjList<>(slotCount);
+        this.perWorkerScratches = new ObjList<>(slotCount);
+        try {
+            final Class<RecordComparator> comparatorClass = comparatorCompiler.compileClass(columnTypes, keyColumnIndices);
+            final long scratchCapacity = configuration.getPageFrameReduceRowIdListCapacity();
+            this.ownerComparator = RecordComparatorCompiler.newInstance(comparatorClass);
+            this.ownerRecord = new PageFrameMemoryRecord();
+            this.ownerScratch = new DirectLongList(scratchCapacity, MemoryTag.NATIVE_OFFLOAD);
+            for (int i = 0; i < slotCount; i++) {
+                perWorkerComparators.extendAndSet(i, RecordComparatorCompiler.newInstance(comparatorClass));
+                perWorkerRecords.extendAndSet(i, new PageFrameMemoryRecord());
+                perWorkerScratches.extendAndSet(i, new DirectLongList(scratchCapacity, MemoryTag.NATIVE_OFFLOAD));
+            }
+            this.perWorkerLocks = new PerWorkerLocks(configuration, slotCount);
+        } catch (Throwable th) {
+            close();
+            throw th;
+        }
+    }
+
+    @Override
+    public void clear() {
+        Misc.free(ownerRecord);
+        ownerScratch.resetCapacity();
+        for (int i = 0, n = perWorkerRecords.size(); i < n; i++) {
+            Misc.free(perWorkerRecords.getQuick(i));
+            perWorkerScratches.getQuick(i).resetCapacity();
+        }
+    }
+
+    @Override
+    public void close() {
+        Misc.free(ownerRecord);
+        Misc.free(ownerScratch);
+        Misc.freeObjList(perWorkerRecords);
+        Misc.freeObjList(perWorkerScratches);
+    }
+
+    public RecordComparator getOwnerComparator() {
+        return ownerComparator;
+    }
+
+    @Override
+    public void init(SymbolTableSource symbolTableSource, SqlExecutionContext executionContext) {
+        ownerRecord.of(symbolTableSource);
+        for (int i = 0, n = perWorkerRecords.size(); i < n; i++) {
+            perWorkerRecords.getQuick(i).of(symbolTableSource);
+        }
+    }
+
+    public int maybeAcquire(int workerId, boolean owner, SqlExecutionCircuitBreaker circuitBreaker) {
+        if (workerId == -1 && owner) {
+            // Owner thread is free to use its own private comparator anytime.
+            return -1;
+        }
+        // All other threads, e.g. worker or work stealing threads, must always acquire a lock
+        // to use shared resources.
+        return perWorkerLocks.acquireSlot(workerId, circuitBreaker);
+    }
+
+    public void release(int slotId) {
+        perWorkerLocks.releaseSlot(slotId);
+    }
+
+    /**
+     * Sorts rows of the given frame and writes their indexes into the rows list.
+     * When the limit is set, only the top limit rows are kept.
+     *
+     * @param slotId      slot id obtained via {@link #maybeAcquire(int, boolean, SqlExecutionCircuitBreaker)}
+     * @param record      record initialized with the frame memory
+     * @param frameMemory memory of the frame to be sorted
+     * @param rowCount    number of rows in the frame
+     * @param rows        destination list for sorted row indexes
+     */
+    public void sortFrame(
+            int slotId,
+            PageFrameMemoryRecord record,
+            PageFrameMemory frameMemory,
+            long rowCount,
+            DirectLongList rows
+    ) {
+        final RecordComparator comparator;
+        final PageFrameMemoryRecord rightRecord;
+        final DirectLongList scratch;
+        if (slotId == -1) {
+            comparator = ownerComparator;
+            rightRecord = ownerRecord;
+            scratch = ownerScratch;
+        } else {
+            comparator = perWorkerComparators.getQuick(slotId);
+            rightRecord = perWorkerRecords.getQuick(slotId);
+            scratch = perWorkerScratches.getQuick(slotId);
+        }
+        rightRecord.init(frameMemory);
+
+        rows.clear();
+        if (limit > -1 && limit < rowCount) {
+            selectTopRows(comparator, record, rightRecord, rows, rowCount);
+            // The heap is not ordered by row index, so restore the scan order
+            // before the stable sort.
+            rows.sortAsUnsigned();
+        } else {
+            if (rows.getCapacity() < rowCount) {
+                rows.setCapacity(rowCount);
+            }
+            for (long r = 0; r < rowCount; r++) {
+                rows.add(r);
+            }
+        }
+        sortRows(comparator, record, rightRecord, rows, scratch);
+    }
+
+    private static long getRow(long addr, long index) {
+        return Unsafe.getUnsafe().getLong(addr + (index << 3));
+    }
+
+    private static void insertionSort(
+            RecordComparator comparator,
+            PageFrameMemoryRecord left,
+            PageFrameMemoryRecord right,
+            long addr,
+            long lo,
+            long hi
+    ) {
+        for (long i = lo + 1; i < hi; i++) {
+            final long row = getRow(addr, i);
+            left.setRowIndex(row);
+            comparator.setLeft(left);
+            long j = i - 1;
+            while (j >= lo) {
+                final long other = getRow(addr, j);
+                right.setRowIndex(other);
+                if (comparator.compare(right) >= 0) {
+                    break;
+                }
+                putRow(addr, j + 1, other);
+                j--;
+            }
+            putRow(addr, j + 1, row);
+        }
+    }
+
+    /**
+     * Checks if the first row goes after the second one in the sort order.
+     * Rows with equal keys are ordered by their indexes.
+     */
+    private static boolean isAfter(
+            RecordComparator comparator,
+            PageFrameMemoryRecord left,
+            PageFrameMemoryRecord right,
+            long rowA,
+            long rowB
+    ) {
+        left.setRowIndex(rowA);
+        comparator.setLeft(left);
+        right.setRowIndex(rowB);
+        final int cmp = comparator.compare(right);
+        return cmp > 0 || (cmp == 0 && rowA > rowB);
+    }
+
+    private static void merge(
+            RecordComparator comparator,
+            PageFrameMemoryRecord left,
+            PageFrameMemoryRecord right,
+            long srcAddr,
+            long dstAddr,
+            long lo,
+            long mid,
+            long hi
+    ) {
+        long i = lo;
+        long j = mid;
+        long k = lo;
+        if (j < hi) {
+            // Take rows from the right run only when they are strictly less than
+            // the left ones to keep the sort stable.
+            right.setRowIndex(getRow(srcAddr, j));
+            while (i < mid && j < hi) {
+                final long leftRow = getRow(srcAddr, i);
+                left.setRowIndex(leftRow);
+                comparator.setLeft(left);
+                if (comparator.compare(right) > 0) {
+                    putRow(dstAddr, k++, getRow(srcAddr, j++));
+                    if (j < hi) {
+                        right.setRowIndex(getRow(srcAddr, j));
+                    }
+                } else {
+                    putRow(dstAddr, k++, leftRow);
+                    i++;
+                }
+            }
+        }
+        if (i < mid) {
+            Vect.memcpy(dstAddr + (k << 3), srcAddr + (i << 3), (mid - i) << 3);
+            k += mid - i;
+        }
+        if (j < hi) {
+            Vect.memcpy(dstAddr + (k << 3), srcAddr + (j << 3), (hi - j) << 3);
+        }
+    }
+
+    private static void putRow(long addr, long index, long row) {
+        Unsafe.getUnsafe().putLong(addr + (index << 3), row);
+    }
+
+    /**
+     * Keeps the top limit rows of the frame in a bounded heap. The heap root
+     * is the last row in the sort order, so that it can be replaced cheaply.
+     */
+    private void selectTopRows(
+            RecordComparator comparator,
+            PageFrameMemoryRecord left,
+            PageFrameMemoryRecord right,
+            DirectLongList heap,
+            long rowCount
+    ) {
+        if (limit == 0) {
+            return;
+        }
+        if (heap.getCapacity() < limit) {
+            heap.setCapacity(limit);
+        }
+        final long addr = heap.getAddress();
+        for (long r = 0; r < rowCount; r++) {
+            final long size = heap.size();
+            if (size < limit) {
+                heap.add(r);
+                // sift up
+                long index = size;
+                while (index > 0) {
+                    final long parent = (index - 1) >>> 1;
+                    final long parentRow = getRow(addr, parent);
+                    if (!isAfter(comparator, left, right, r, parentRow)) {
+                        break;
+                    }
+                    putRow(addr, index, parentRow);
+                    index = parent;
+                }
+                putRow(addr, index, r);
+            } else if (isAfter(comparator, left, right, getRow(addr, 0), r)) {
+                // sift down
+                long index = 0;
+                while (true) {
+                    final long leftChild = 2 * index + 1;
+                    if (leftChild >= size) {
+                        break;
+                    }
+                    long child = leftChild;
+                    long childRow = getRow(addr, leftChild);
+                    if (leftChild + 1 < size) {
+                        final long rightChildRow = getRow(addr, leftChild + 1);
+                        if (isAfter(comparator, left, right, rightChildRow, childRow)) {
+                            child = leftChild + 1;
+                            childRow = rightChildRow;
+                        }
+                    }
+                    if (!isAfter(comparator, left, right, childRow, r)) {
+                        break;
+                    }
+                    putRow(addr, index, childRow);
+                    index = child;
+                }
+                putRow(addr, index, r);
+            }
+        }
+    }
+
+    private void sortRows(
+            RecordComparator comparator,
+            PageFrameMemoryRecord record,
+            PageFrameMemoryRecord rightRecord,
+            DirectLongList rows,
+            DirectLongList scratch
+    ) {
+        final long rowCount = rows.size();
+        for (long lo = 0; lo < rowCount; lo += INSERTION_SORT_THRESHOLD) {
+            insertionSort(comparator, record, rightRecord, rows.getAddress(), lo, Math.min(lo + INSERTION_SORT_THRESHOLD, rowCount));
+        }
+        if (rowCount <= INSERTION_SORT_THRESHOLD) {
+            return;
+        }
+
+        if (scratch.getCapacity() < rowCount) {
+            scratch.setCapacity(rowCount);
+        }
+        long srcAddr = rows.getAddress();
+        long dstAddr = scratch.getAddress();
+        for (long width = INSERTION_SORT_THRESHOLD; width < rowCount; width <<= 1) {
+            for (long lo = 0; lo < rowCount; lo += width << 1) {
+                final long mid = Math.min(lo + width, rowCount);
+                final long hi = Math.min(lo + (width << 1), rowCount);
+                merge(comparator, record, rightRecord, srcAddr, dstAddr, lo, mid, hi);
+            }
+            final long tmp = srcAddr;
+            srcAddr = dstAddr;
+            dstAddr = tmp;
+        }
+        if (srcAddr != rows.getAddress()) {
+            Vect.memcpy(rows.getAddress(), srcAddr, rowCount << 3);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.orderby;
+
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.CairoException;
+import io.questdb.cairo.sql.PageFrameMemoryPool;
+import io.questdb.cairo.sql.PageFrameMemoryRecord;
+import io.questdb.cairo.sql.Record;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.SymbolTable;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.engine.RecordComparator;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.DirectLongList;
+import io.questdb.std.IntList;
+import io.questdb.std.LongList;
+import io.questdb.std.MemoryTag;
+import io.questdb.std.Misc;
+import io.questdb.std.Os;
+import io.questdb.std.Rows;
+
+/**
+ * Collects sorted runs produced by the workers, one run per page frame, and merges
+ * them into a single list of row ids using a binary heap. Ties between runs are broken
+ * by the frame index, so the result is the same as the one of the serial sort.
+ * When the limit is set, the merge stops as soon as the top rows are found.
+ */
+class AsyncSortedLightRecordCursor implements RecordCursor {
+    private static final Log LOG = LogFactory.getLog(AsyncSortedLightRecordCursor.class);
+
+    private final PageFrameMemoryPool frameMemoryPool;
+    private final IntList heap = new IntList();
+    private final PageFrameMemoryRecord leftRecord;
+    // Number of top rows to produce or -1 for all rows.
+    private final long limit;
+    private final PageFrameMemoryRecord record;
+    private final PageFrameMemoryRecord rightRecord;
+    private final LongList runHis = new LongList();
+    private final LongList runPositions = new LongList();
+    private final DirectLongList runRowIds; // sorted runs, concatenated
+    private final long skipFirst;
+    private final DirectLongList sortedRowIds;
+    private boolean allFramesActive;
+    private SqlExecutionCircuitBreaker circuitBreaker;
+    private RecordComparator comparator;
+    private long cursor = -1;
+    private int frameIndex;
+    private int frameLimit;
+    private PageFrameSequence<AsyncSortedLightAtom> frameSequence;
+    private boolean isOpen;
+    private boolean isSorted;
+    private long position;
+    private PageFrameMemoryRecord recordB;
+
+    public AsyncSortedLightRecordCursor(CairoConfiguration configuration, long limit, long skipFirst) {
+        this.limit = limit;
+        this.skipFirst = skipFirst;
+        try {
+            record = new PageFrameMemoryRecord();
+            leftRecord = new PageFrameMemoryRecord();
+            rightRecord = new PageFrameMemoryRecord();
+            frameMemoryPool = new PageFrameMemoryPool();
+            runRowIds = new DirectLongList(configuration.getSqlSortLightValuePageSize() / 8, MemoryTag.NATIVE_DEFAULT);
+            sortedRowIds = new DirectLongList(configuration.getSqlSortLightValuePageSize() / 8, MemoryTag.NATIVE_DEFAULT);
+            isOpen = true;
+        } catch (Throwable th) {
+            close();
+            freeRecords();
+            throw th;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (isOpen) {
+            if (frameSequence != null) {
+                LOG.debug()
+                        .$("closing [shard=").$(frameSequence.getShard())
+                        .$(", frameIndex=").$(frameIndex)
+                        .$(", frameCount=").$(frameLimit)
+                        .$(", frameId=").$(frameSequence.getId())
+                        .$(", cursor=").$(cursor)
+                        .I$();
+
+                collectCursor(true);
+                if (frameLimit > -1) {
+                    frameSequence.await();
+                }
+                frameSequence.clear();
+            }
+            Misc.free(runRowIds);
+            Misc.free(sortedRowIds);
+            Misc.free(frameMemoryPool);
+            isOpen = false;
+        }
+    }
+
+    public void freeRecords() {
+        Misc.free(record);
+        Misc.free(recordB);
+        Misc.free(leftRecord);
+        Misc.free(rightRecord);
+        Misc.free(frameMemoryPool);
+    }
+
+    @Override
+    public Record getRecord() {
+        return record;
+    }
+
+    @Override
+    public Record getRecordB() {
+        if (recordB != null) {
+            return recordB;
+        }
+        recordB = new PageFrameMemoryRecord(record);
+        return recordB;
+    }
+
+    @Override
+    public SymbolTable getSymbolTable(int columnIndex) {
+        return frameSequence.getSymbolTableSource().getSymbolTable(columnIndex);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!isSorted) {
+            collectRuns();
+            mergeRuns();
+            isSorted = true;
+        }
+        if (position < sortedRowIds.size()) {
+            recordAt(record, sortedRowIds.get(position++));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public SymbolTable newSymbolTable(int columnIndex) {
+        return frameSequence.getSymbolTableSource().newSymbolTable(columnIndex);
+    }
+
+    @Override
+    public void recordAt(Record record, long atRowId) {
+        final PageFrameMemoryRecord frameMemoryRecord = (PageFrameMemoryRecord) record;
+        frameMemoryPool.navigateTo(Rows.toPartitionIndex(atRowId), frameMemoryRecord);
+        frameMemoryRecord.setRowIndex(Rows.toLocalRowID(atRowId));
+    }
+
+    @Override
+    public long size() {
+        return isSorted ? Math.max(sortedRowIds.size() - skipFirst, 0) : -1;
+    }
+
+    @Override
+    public void toTop() {
+        position = skipFirst;
+    }
+
+    private void collectCursor(boolean forceCollect) {
+        if (cursor > -1) {
+            frameSequence.collect(cursor, forceCollect);
+            // It is necessary to clear 'cursor' value
+            // because we updated frameIndex and loop can exit due to lack of frames.
+            // Non-update of 'cursor' could cause double-free.
+            cursor = -1;
+        }
+    }
+
+    private void collectRuns() {
+        frameSequence.prepareForDispatch();
+        frameLimit = frameSequence.getFrameCount() - 1;
+        runPositions.setAll(frameLimit + 1, 0);
+        runHis.setAll(frameLimit + 1, 0);
+        runRowIds.clear();
+
+        try {
+            while (frameIndex < frameLimit) {
+                cursor = frameSequence.next();
+                if (cursor > -1) {
+                    final PageFrameReduceTask task = frameSequence.getTask(cursor);
+                    LOG.debug()
+                            .$("collected [shard=").$(frameSequence.getShard())
+                            .$(", frameIndex=").$(task.getFrameIndex())
+                            .$(", frameCount=").$(frameSequence.getFrameCount())
+                            .$(", frameId=").$(frameSequence.getId())
+                            .$(", active=").$(frameSequence.isActive())
+                            .$(", cursor=").$(cursor)
+                            .I$();
+
+                    if (task.hasError()) {
+                        throw CairoException.nonCritical()
+                                .position(task.getErrorMessagePosition())
+                                .put(task.getErrorMsg())
+                                .setCancellation(task.isCancelled())
+                                .setInterruption(task.isCancelled());
+                    }
+
+                    allFramesActive &= frameSequence.isActive();
+                    frameIndex = task.getFrameIndex();
+                    if (frameSequence.isActive()) {
+                        final DirectLongList rows = task.getFilteredRows();
+                        runPositions.setQuick(frameIndex, runRowIds.size());
+                        for (long i = 0, n = rows.size(); i < n; i++) {
+                            runRowIds.add(Rows.toRowID(frameIndex, rows.get(i)));
+                        }
+                        runHis.setQuick(frameIndex, runRowIds.size());
+                    }
+                    collectCursor(false);
+                } else if (cursor == -2) {
+                    break; // No frames to sort
+                } else {
+                    Os.pause();
+                }
+            }
+        } catch (Throwable th) {
+            if (th instanceof CairoException) {
+                CairoException ce = (CairoException) th;
+                if (ce.isInterruption() || ce.isCancellation()) {
+                    LOG.error().$("order by error [ex=").$(ce.getFlyweightMessage()).I$();
+                    throwTimeoutException();
+                } else {
+                    LOG.error().$("order by error [ex=").$(th).I$();
+                    throw ce;
+                }
+            }
+            LOG.error().$("order by error [ex=").$(th).I$();
+            throw CairoException.nonCritical().put(th.getMessage());
+        }
+
+        if (!allFramesActive) {
+            throwTimeoutException();
+        }
+    }
+
+    /**
+     * Compares heads of the given runs.
+     */
+    private int compareRuns(int runA, int runB) {
+        recordAt(leftRecord, runRowIds.get(runPositions.getQuick(runA)));
+        comparator.setLeft(leftRecord);
+        recordAt(rightRecord, runRowIds.get(runPositions.getQuick(runB)));
+        final int cmp = comparator.compare(rightRecord);
+        return cmp != 0 ? cmp : Integer.compare(runA, runB);
+    }
+
+    private void mergeRuns() {
+        sortedRowIds.clear();
+        final long rowCount = limit > -1 ? Math.min(runRowIds.size(), limit) : runRowIds.size();
+        if (sortedRowIds.getCapacity() < rowCount) {
+            sortedRowIds.setCapacity(rowCount);
+        }
+
+        heap.clear();
+        for (int run = 0, n = runPositions.size(); run < n; run++) {
+            if (runPositions.getQuick(run) < runHis.getQuick(run)) {
+                heap.add(run);
+                siftUp(heap.size() - 1);
+            }
+        }
+
+        final long maxRows = limit > -1 ? limit : Long.MAX_VALUE;
+        while (heap.size() > 0 && sortedRowIds.size() < maxRows) {
+            circuitBreaker.statefulThrowExceptionIfTripped();
+            final int run = heap.getQuick(0);
+            final long runPosition = runPositions.getQuick(run);
+            sortedRowIds.add(runRowIds.get(runPosition));
+            if (runPosition + 1 < runHis.getQuick(run)) {
+                runPositions.setQuick(run, runPosition + 1);
+            } else {
+                // The run is exhausted, replace it with the last one.
+                final int last = heap.size() - 1;
+                heap.setQuick(0, heap.getQuick(last));
+                heap.setPos(last);
+            }
+            siftDown(0);
+        }
+        position = skipFirst;
+    }
+
+    private void siftDown(int index) {
+        final int size = heap.size();
+        while (true) {
+            final int leftChild = 2 * index + 1;
+            if (leftChild >= size) {
+                return;
+            }
+            int minChild = leftChild;
+            final int rightChild = leftChild + 1;
+            if (rightChild < size && compareRuns(heap.getQuick(rightChild), heap.getQuick(leftChild)) < 0) {
+                minChild = rightChild;
+            }
+            if (compareRuns(heap.getQuick(index), heap.getQuick(minChild)) <= 0) {
+                return;
+            }
+            swap(index, minChild);
+            index = minChild;
+        }
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            if (compareRuns(heap.getQuick(parent), heap.getQuick(index)) <= 0) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void swap(int i, int j) {
+        final int tmp = heap.getQuick(i);
+        heap.setQuick(i, heap.getQuick(j));
+        heap.setQuick(j, tmp);
+    }
+
+    private void throwTimeoutException() {
+        if (frameSequence.getCancelReason() == SqlExecutionCircuitBreaker.STATE_CANCELLED) {
+            throw CairoException.queryCancelled();
+        } else {
+            throw CairoException.queryTimedOut();
+        }
+    }
+
+    void of(PageFrameSequence<AsyncSortedLightAtom> frameSequence, SqlExecutionCircuitBreaker circuitBreaker) {
+        this.frameSequence = frameSequence;
+        this.circuitBreaker = circuitBreaker;
+        if (!isOpen) {
+            isOpen = true;
+            runRowIds.reopen();
+            sortedRowIds.reopen();
+        }
+        comparator = frameSequence.getAtom().getOwnerComparator();
+        frameIndex = -1;
+        frameLimit = -1;
+        position = 0;
+        allFramesActive = true;
+        isSorted = false;
+        frameMemoryPool.of(frameSequence.getPageFrameAddressCache());
+        record.of(frameSequence.getSymbolTableSource());
+        leftRecord.of(frameSequence.getSymbolTableSource());
+        rightRecord.of(frameSequence.getSymbolTableSource());
+        if (recordB != null) {
+            recordB.of(frameSequence.getSymbolTableSource());
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.griffin.engine.orderby;
+
+import io.questdb.MessageBus;
+import io.questdb.cairo.AbstractRecordCursorFactory;
+import io.questdb.cairo.CairoConfiguration;
+import io.questdb.cairo.ListColumnFilter;
+import io.questdb.cairo.sql.PageFrameMemory;
+import io.questdb.cairo.sql.PageFrameMemoryRecord;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.sql.RecordMetadata;
+import io.questdb.cairo.sql.SqlExecutionCircuitBreaker;
+import io.questdb.cairo.sql.async.PageFrameReduceTask;
+import io.questdb.cairo.sql.async.PageFrameReduceTaskFactory;
+import io.questdb.cairo.sql.async.PageFrameReducer;
+import io.questdb.cairo.sql.async.PageFrameSequence;
+import io.questdb.griffin.PlanSink;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.mp.SCSequence;
+import io.questdb.std.Misc;
+import io.questdb.std.Transient;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import static io.questdb.cairo.sql.PartitionFrameCursorFactory.ORDER_ASC;
+
+/**
+ * Parallel version of {@link SortedLightRecordCursorFactory}. Each page frame of the base
+ * table scan is sorted on the shared worker pool into a run of row ids, then the runs
+ * are merged on the query owner thread.
+ * <p>
+ * Also supports ORDER BY with a constant non-negative LIMIT, i.e. top K queries. In this
+ * case each worker keeps only the top rows of its frame and the merge stops once it has
+ * produced enough rows.
+ */
+public class AsyncSortedLightRecordCursorFactory extends AbstractRecordCursorFactory {
+    private static final PageFrameReducer REDUCER = AsyncSortedLightRecordCursorFactory::sort;
+
+    private final RecordCursorFactory base;
+    private final SCSequence collectSubSeq = new SCSequence();
+    private final AsyncSortedLightRecordCursor cursor;
+    private final PageFrameSequence<AsyncSortedLightAtom> frameSequence;
+    private final long limitHi;
+    private final long limitLo;
+    private final ListColumnFilter sortColumnFilter;
+    private final int workerCount;
+
+    public AsyncSortedLightRecordCursorFactory(
+            @NotNull CairoConfiguration configuration,
+            @NotNull MessageBus messageBus,
+            @NotNull RecordMetadata metadata,
+            @NotNull RecordCursorFactory base,
+            @Transient @NotNull RecordComparatorCompiler comparatorCompiler,
+            @NotNull ListColumnFilter sortColumnFilter,
+            @NotNull PageFrameReduceTaskFactory reduceTaskFactory,
+            long limitLo, // -1 when there is no LIMIT clause
+            long limitHi, // -1 when there is no upper bound in the LIMIT clause
+            int workerCount
+    ) {
+        super(metadata);
+        assert base.supportsPageFrameCursor();
+        this.base = base;
+        this.sortColumnFilter = sortColumnFilter;
+        this.limitLo = limitLo;
+        this.limitHi = limitHi;
+        this.workerCount = workerCount;
+
+        final long limit;
+        final long skipFirst;
+        if (limitLo < 0) {
+            limit = -1;
+            skipFirst = 0;
+        } else if (limitHi < 0) {
+            // first N rows
+            limit = limitLo;
+            skipFirst = 0;
+        } else {
+            // rows from lo (inclusive) to hi (exclusive); produce empty result if hi <= lo
+            limit = Math.max(limitHi, limitLo);
+            skipFirst = limitLo;
+        }
+        final AsyncSortedLightAtom atom = new AsyncSortedLightAtom(
+                configuration,
+                comparatorCompiler,
+                base.getMetadata(),
+                sortColumnFilter,
+                limit,
+                workerCount
+        );
+        this.frameSequence = new PageFrameSequence<>(
+                configuration,
+                messageBus,
+                atom,
+                REDUCER,
+                reduceTaskFactory,
+                workerCount,
+                PageFrameReduceTask.TYPE_ORDER_BY
+        );
+        this.cursor = new AsyncSortedLightRecordCursor(configuration, limit, skipFirst);
+    }
+
+    @Override
+    public RecordCursorFactory getBaseFactory() {
+        return base;
+    }
+
+    @Override
+    public RecordCursor getCursor(SqlExecutionContext executionContext) throws SqlException {
+        cursor.of(frameSequence.of(base, executionContext, collectSubSeq, ORDER_ASC), executionContext.getCircuitBreaker());
+        return cursor;
+    }
+
+    @Override
+    public int getScanDirection() {
+        return SortedRecordCursorFactory.getScanDirection(sortColumnFilter);
+    }
+
+    @Override
+    public boolean implementsLimit() {
+        return limitLo > -1;
+    }
+
+    @Override
+    public boolean recordCursorSupportsRandomAccess() {
+        return true;
+    }
+
+    @Override
+    public void toPlan(PlanSink sink) {
+        sink.type("Async Sort light");
+        if (limitLo > -1) {
+            sink.meta("lo").val(limitLo);
+            if (limitHi > -1) {
+                sink.meta("hi").val(limitHi);
+            }
+        }
+        sink.meta("workers").val(workerCount);
+        SortedLightRecordCursorFactory.addSortKeys(sink, sortColumnFilter);
+        sink.child(base);
+    }
+
+    @Override
+    public boolean usesCompiledFilter() {
+        return base.usesCompiledFilter();
+    }
+
+    @Override
+    public boolean usesIndex() {
+        return base.usesIndex();
+    }
+
+    private static void sort(
+            int workerId,
+            @NotNull PageFrameMemoryRecord record,
+            @NotNull PageFrameReduceTask task,
+            @NotNull SqlExecutionCircuitBreaker circuitBreaker,
+            @Nullable PageFrameSequence<?> stealingFrameSequence
+    ) {
+        final long frameRowCount = task.getFrameRowCount();
+        final AsyncSortedLightAtom atom = task.getFrameSequence(AsyncSortedLightAtom.class).getAtom();
+
+        final boolean owner = stealingFrameSequence != null && stealingFrameSequence == task.getFrameSequence();
+        final int slotId = atom.maybeAcquire(workerId, owner, circuitBreaker);
+        try {
+            final PageFrameMemory frameMemory = task.populateFrameMemory();
+            record.init(frameMemory);
+            atom.sortFrame(slotId, record, frameMemory, frameRowCount, task.getFilteredRows());
+        } finally {
+            atom.release(slotId);
+        }
+    }
+
+    @Override
+    protected void _close() {
+        Misc.free(base);
+        Misc.free(cursor);
+        Misc.free(frameSequence);
+        cursor.freeRecords();
+    }
+}
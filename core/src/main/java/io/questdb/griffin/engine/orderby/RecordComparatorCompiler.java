@@ -29,10 +29,14 @@ import io.questdb.cairo.ColumnTypes;
 import io.questdb.cairo.sql.Record;
 import io.questdb.griffin.SqlParser;
 import io.questdb.griffin.engine.RecordComparator;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
 import io.questdb.std.*;
+import io.questdb.std.ex.BytecodeException;
 import io.questdb.std.str.Utf8s;
 
 public class RecordComparatorCompiler {
+    private static final Log LOG = LogFactory.getLog(RecordComparatorCompiler.class);
     private final BytecodeAssembler asm;
     private final IntList branches = new IntList();
     private final IntList comparatorAccessorIndices = new IntList();
@@ -59,6 +63,16 @@ public class RecordComparatorCompiler {
      * @return RecordComparator instance.
      */
     public RecordComparator compile(ColumnTypes columnTypes, @Transient IntList keyColumnIndices) {
+        return newInstance(compileClass(columnTypes, keyColumnIndices));
+    }
+
+    /**
+     * Same as the {@link #compile(ColumnTypes, IntList)} method, but returns the generated class instead
+     * of its instance. An instance can be later created via the {@link #newInstance(Class)} method.
+     * <p>
+     * Used when creating per-worker comparators for parallel ORDER BY.
+     */
+    public Class<RecordComparator> compileClass(ColumnTypes columnTypes, @Transient IntList keyColumnIndices) {
         assert keyColumnIndices.size() < SqlParser.MAX_ORDER_BY_COLUMNS;
 
         asm.init(RecordComparator.class);
@@ -92,7 +106,20 @@ public class RecordComparatorCompiler {
 
         // class attribute count
         asm.putShort(0);
-        return asm.newInstance();
+        return asm.loadClass();
+    }
+
+    /**
+     * Creates an instance of a comparator class previously generated via the
+     * {@link #compileClass(ColumnTypes, IntList)} method.
+     */
+    public static RecordComparator newInstance(Class<RecordComparator> clazz) {
+        try {
+            return clazz.getDeclaredConstructor().newInstance();
+        } catch (Exception e) {
+            LOG.critical().$("could not create an instance of RecordComparator, cause: ").$(e).$();
+            throw BytecodeException.INSTANCE;
+        }
     }
 
     private void instrumentCompareMethod(int stackMapTableIndex, int nameIndex, int descIndex, IntList keyColumns, ColumnTypes columnTypes) {
@@ -27,17 +27,23 @@ package io.questdb.griffin.engine.table;
 import io.questdb.cairo.BitmapIndexReader;
 import io.questdb.cairo.ColumnType;
 import io.questdb.cairo.ColumnTypeDriver;
+import io.questdb.cairo.PartitionReadAhead;
 import io.questdb.cairo.TableReader;
+import io.questdb.cairo.ZoneMapFilter;
 import io.questdb.cairo.sql.*;
 import io.questdb.cairo.vm.NullMemoryCMR;
 import io.questdb.cairo.vm.api.MemoryR;
 import io.questdb.std.*;
+import io.questdb.std.str.Utf8Sequence;
+import io.questdb.std.str.Utf8StringSink;
 import org.jetbrains.annotations.Nullable;
 
 public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
     private final int columnCount;
     private final IntList columnIndexes;
     private final LongList columnPageAddress = new LongList();
+    private final LongList columnPageFds = new LongList();
+    private final LongList columnPageFileOffsets = new LongList();
     private final LongList columnPageNextAddress = new LongList();
     private final IntList columnSizeShifts;
     // Holds PageFrame#*_FORMAT per each partition.
@@ -48,9 +54,14 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
     private final LongList pageRowsRemaining = new LongList();
     private final LongList pageSizes = new LongList();
     private final IntList pages = new IntList();
+    private final IntList parquetColumnIndexes = new IntList();
+    private final Utf8StringSink parquetPath = new Utf8StringSink();
     private final LongList topsRemaining = new LongList();
     private final int workerCount;
     private long currentPageFrameRowLimit;
+    private int matchedRowGroup;
+    private int matchedRowGroupPartitionIndex;
+    private int parquetPathPartitionIndex;
     private PartitionFrameCursor partitionFrameCursor;
     private TableReader reader;
     private boolean reenterPartitionFrame = false;
@@ -83,6 +94,11 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
         partitionFrameCursor = Misc.free(partitionFrameCursor);
     }
 
+    @Override
+    public @Nullable PartitionReadAhead getPartitionReadAhead() {
+        return partitionFrameCursor.getPartitionReadAhead();
+    }
+
     @Override
     public StaticSymbolTable getSymbolTable(int columnIndex) {
         return reader.getSymbolTable(columnIndexes.getQuick(columnIndex));
@@ -106,10 +122,13 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
     @Override
     public @Nullable PageFrame next() {
         if (reenterPartitionFrame) {
-            return computeFrame(reenterPartitionLo, reenterPartitionHi);
+            final PageFrame frame = computeFrame(reenterPartitionLo, reenterPartitionHi);
+            if (frame != null) {
+                return frame;
+            }
         }
-        PartitionFrame partitionFrame = partitionFrameCursor.next();
-        if (partitionFrame != null) {
+        PartitionFrame partitionFrame;
+        while ((partitionFrame = partitionFrameCursor.next()) != null) {
             reenterPartitionIndex = partitionFrame.getPartitionIndex();
             final long lo = partitionFrame.getRowLo();
             final long hi = partitionFrame.getRowHi();
@@ -117,7 +136,11 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
                     pageFrameMaxRows,
                     Math.max(pageFrameMinRows, (hi - lo) / workerCount)
             );
-            return computeFrame(lo, hi);
+            final PageFrame frame = computeFrame(lo, hi);
+            // all row groups of a Parquet partition frame may be skipped
+            if (frame != null) {
+                return frame;
+            }
         }
         return null;
     }
@@ -126,6 +149,10 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
     public PageFrameCursor of(PartitionFrameCursor partitionFrameCursor) {
         reader = partitionFrameCursor.getTableReader();
         this.partitionFrameCursor = partitionFrameCursor;
+        final PartitionReadAhead readAhead = partitionFrameCursor.getPartitionReadAhead();
+        if (readAhead != null) {
+            readAhead.setColumnIndexes(columnIndexes);
+        }
         toTop();
         return this;
     }
@@ -146,20 +173,53 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
         pages.setAll(columnCount, 0);
         topsRemaining.setAll(columnCount, 0);
         columnPageAddress.setAll(2 * columnCount, 0);
+        columnPageFds.setAll(2 * columnCount, -1);
+        columnPageFileOffsets.setAll(2 * columnCount, 0);
         columnPageNextAddress.setAll(2 * columnCount, 0);
         pageRowsRemaining.setAll(columnCount, -1);
         pageSizes.setAll(2 * columnCount, -1);
+        parquetColumnIndexes.setAll(columnCount, -1);
+        parquetPathPartitionIndex = -1;
+        matchedRowGroupPartitionIndex = -1;
         formats.setAll(formats.size(), (byte) -1);
         formats.clear();
         reenterPartitionFrame = false;
     }
 
-    private TableReaderPageFrame computeFrame(final long partitionLo, final long partitionHi) {
+    private @Nullable TableReaderPageFrame computeFrame(long partitionLo, final long partitionHi) {
         final int base = reader.getColumnBase(reenterPartitionIndex);
+        final byte format = reader.getPartitionFormat(reenterPartitionIndex);
 
         // we may need to split this partition frame either along "top" lines, or along
         // max page frame sizes; to do this, we calculate min top value from given position
         long adjustedHi = Math.min(partitionHi, partitionLo + currentPageFrameRowLimit);
+        if (format == PageFrame.PARQUET_FORMAT) {
+            // page frames don't span Parquet row groups, so that they can be decoded
+            // one row group at a time; row groups that can't match the filter are skipped
+            if (partitionLo >= partitionHi) {
+                reenterPartitionFrame = false;
+                return null;
+            }
+            int rowGroup = reader.findParquetRowGroup(reenterPartitionIndex, partitionLo);
+            while (!mayMatchRowGroup(rowGroup)) {
+                partitionLo = reader.getParquetRowGroupLo(reenterPartitionIndex, ++rowGroup);
+                if (partitionLo >= partitionHi) {
+                    reenterPartitionFrame = false;
+                    return null;
+                }
+            }
+            adjustedHi = Math.min(
+                    Math.min(partitionHi, partitionLo + currentPageFrameRowLimit),
+                    reader.getParquetRowGroupLo(reenterPartitionIndex, rowGroup + 1)
+            );
+            frame.parquetRowGroup = rowGroup;
+            frame.parquetRowGroupLo = reader.getParquetRowGroupLo(reenterPartitionIndex, rowGroup);
+            if (parquetPathPartitionIndex != reenterPartitionIndex) {
+                parquetPath.clear();
+                reader.formatParquetPartitionPath(reenterPartitionIndex, parquetPath);
+                parquetPathPartitionIndex = reenterPartitionIndex;
+            }
+        }
         for (int i = 0; i < columnCount; i++) {
             final int columnIndex = columnIndexes.getQuick(i);
             long top = reader.getColumnTop(base, columnIndex);
@@ -177,8 +237,20 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
             final long partitionLoAdjusted = partitionLo - top;
             final long partitionHiAdjusted = adjustedHi - top;
             final int sh = columnSizeShifts.getQuick(i);
-
-            if (partitionHiAdjusted > 0) {
+            final int parquetColumnIndex = format == PageFrame.PARQUET_FORMAT && partitionHiAdjusted > 0
+                    ? reader.getParquetColumnIndex(base, columnIndex)
+                    : -1;
+            parquetColumnIndexes.setQuick(i, parquetColumnIndex);
+            columnPageFds.setQuick(2 * i, -1);
+            columnPageFds.setQuick(2 * i + 1, -1);
+
+            if (parquetColumnIndex > -1) {
+                // the column is decoded along with the frame, see PageFrameMemoryPool
+                columnPageAddress.setQuick(2 * i, 0);
+                columnPageAddress.setQuick(2 * i + 1, 0);
+                pageSizes.setQuick(2 * i, (partitionHiAdjusted - partitionLoAdjusted) << (sh > -1 ? sh : 0));
+                pageSizes.setQuick(2 * i + 1, 0);
+            } else if (partitionHiAdjusted > 0) {
                 if (sh > -1) {
                     // this assumes reader uses single page to map the whole column
                     // non-negative sh means fixed length column
@@ -187,6 +259,8 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
                     final long offset = partitionLoAdjusted << sh;
                     columnPageAddress.setQuick(2 * i, address + offset);
                     pageSizes.setQuick(2 * i, addressSize - offset);
+                    columnPageFds.setQuick(2 * i, reader.getColumnFd(readerColIndex));
+                    columnPageFileOffsets.setQuick(2 * i, offset);
                 } else {
                     final int columnType = reader.getMetadata().getColumnType(columnIndex);
                     final ColumnTypeDriver columnTypeDriver = ColumnType.getDriver(columnType);
@@ -203,6 +277,11 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
                     columnPageAddress.setQuick(2 * i + 1, auxAddress + auxOffsetLo);
                     pageSizes.setQuick(2 * i, dataSize);
                     pageSizes.setQuick(2 * i + 1, auxOffsetHi - auxOffsetLo);
+                    // data vector address points to the start of the column file
+                    columnPageFds.setQuick(2 * i, dataSize > 0 ? reader.getColumnFd(readerColIndex) : -1);
+                    columnPageFileOffsets.setQuick(2 * i, 0);
+                    columnPageFds.setQuick(2 * i + 1, reader.getColumnFd(readerColIndex + 1));
+                    columnPageFileOffsets.setQuick(2 * i + 1, auxOffsetLo);
                 }
             } else { // column top
                 columnPageAddress.setQuick(2 * i, 0);
@@ -216,8 +295,7 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
             }
         }
 
-        // TODO(puzpuzpuz): we should get the format from table reader
-        formats.extendAndSet(reenterPartitionIndex, PageFrame.NATIVE_FORMAT);
+        formats.extendAndSet(reenterPartitionIndex, format);
 
         // it is possible that all columns in partition frame are empty, but it doesn't mean
         // the partition frame size is 0; sometimes we may want to imply nulls
@@ -235,7 +313,22 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
         return frame;
     }
 
+    private boolean mayMatchRowGroup(int rowGroup) {
+        final ZoneMapFilter zoneMapFilter = partitionFrameCursor.getZoneMapFilter();
+        if (zoneMapFilter == null || (matchedRowGroupPartitionIndex == reenterPartitionIndex && matchedRowGroup == rowGroup)) {
+            return true;
+        }
+        if (zoneMapFilter.mayMatchRowGroup(reader, reenterPartitionIndex, rowGroup)) {
+            matchedRowGroupPartitionIndex = reenterPartitionIndex;
+            matchedRowGroup = rowGroup;
+            return true;
+        }
+        return false;
+    }
+
     private class TableReaderPageFrame implements PageFrame {
+        private int parquetRowGroup;
+        private long parquetRowGroupLo;
         private long partitionHi;
         private int partitionIndex;
         private long partitionLo;
@@ -245,6 +338,16 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
             return columnPageAddress.getQuick(2 * columnIndex + 1);
         }
 
+        @Override
+        public long getAuxPageFd(int columnIndex) {
+            return columnPageFds.getQuick(2 * columnIndex + 1);
+        }
+
+        @Override
+        public long getAuxPageFileOffset(int columnIndex) {
+            return columnPageFileOffsets.getQuick(2 * columnIndex + 1);
+        }
+
         @Override
         public long getAuxPageSize(int columnIndex) {
             return pageSizes.getQuick(2 * columnIndex + 1);
@@ -270,11 +373,41 @@ public class FwdTableReaderPageFrameCursor implements PageFrameCursor {
             return columnPageAddress.getQuick(2 * columnIndex);
         }
 
+        @Override
+        public long getPageFd(int columnIndex) {
+            return columnPageFds.getQuick(2 * columnIndex);
+        }
+
+        @Override
+        public long getPageFileOffset(int columnIndex) {
+            return columnPageFileOffsets.getQuick(2 * columnIndex);
+        }
+
         @Override
         public long getPageSize(int columnIndex) {
             return pageSizes.getQuick(2 * columnIndex);
         }
 
+        @Override
+        public int getParquetColumnIndex(int columnIndex) {
+            return parquetColumnIndexes.getQuick(columnIndex);
+        }
+
+        @Override
+        public Utf8Sequence getParquetPath() {
+            return parquetPath;
+        }
+
+        @Override
+        public int getParquetRowGroup() {
+            return parquetRowGroup;
+        }
+
+        @Override
+        public long getParquetRowGroupLo() {
+            return parquetRowGroupLo;
+        }
+
         @Override
         public long getPartitionHi() {
             return partitionHi;
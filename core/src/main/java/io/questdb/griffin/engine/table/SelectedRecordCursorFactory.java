@@ -26,6 +26,7 @@ package io.questdb.griffin.engine.table;
 
 import io.questdb.cairo.AbstractRecordCursorFactory;
 import io.questdb.cairo.BitmapIndexReader;
+import io.questdb.cairo.PartitionReadAhead;
 import io.questdb.cairo.TableReader;
 import io.questdb.cairo.TableToken;
 import io.questdb.cairo.sql.*;
@@ -36,6 +37,7 @@ import io.questdb.griffin.SqlExecutionContext;
 import io.questdb.jit.CompiledFilter;
 import io.questdb.std.IntList;
 import io.questdb.std.ObjList;
+import io.questdb.std.str.Utf8Sequence;
 import org.jetbrains.annotations.Nullable;
 
 public class SelectedRecordCursorFactory extends AbstractRecordCursorFactory {
@@ -177,6 +179,16 @@ public class SelectedRecordCursorFactory extends AbstractRecordCursorFactory {
             return baseFrame.getAuxPageAddress(columnCrossIndex.getQuick(columnIndex));
         }
 
+        @Override
+        public long getAuxPageFd(int columnIndex) {
+            return baseFrame.getAuxPageFd(columnCrossIndex.getQuick(columnIndex));
+        }
+
+        @Override
+        public long getAuxPageFileOffset(int columnIndex) {
+            return baseFrame.getAuxPageFileOffset(columnCrossIndex.getQuick(columnIndex));
+        }
+
         @Override
         public long getAuxPageSize(int columnIndex) {
             return baseFrame.getAuxPageSize(columnCrossIndex.getQuick(columnIndex));
@@ -202,11 +214,41 @@ public class SelectedRecordCursorFactory extends AbstractRecordCursorFactory {
             return baseFrame.getPageAddress(columnCrossIndex.getQuick(columnIndex));
         }
 
+        @Override
+        public long getPageFd(int columnIndex) {
+            return baseFrame.getPageFd(columnCrossIndex.getQuick(columnIndex));
+        }
+
+        @Override
+        public long getPageFileOffset(int columnIndex) {
+            return baseFrame.getPageFileOffset(columnCrossIndex.getQuick(columnIndex));
+        }
+
         @Override
         public long getPageSize(int columnIndex) {
             return baseFrame.getPageSize(columnCrossIndex.getQuick(columnIndex));
         }
 
+        @Override
+        public int getParquetColumnIndex(int columnIndex) {
+            return baseFrame.getParquetColumnIndex(columnCrossIndex.getQuick(columnIndex));
+        }
+
+        @Override
+        public Utf8Sequence getParquetPath() {
+            return baseFrame.getParquetPath();
+        }
+
+        @Override
+        public int getParquetRowGroup() {
+            return baseFrame.getParquetRowGroup();
+        }
+
+        @Override
+        public long getParquetRowGroupLo() {
+            return baseFrame.getParquetRowGroupLo();
+        }
+
         @Override
         public long getPartitionHi() {
             return baseFrame.getPartitionHi();
@@ -248,6 +290,11 @@ public class SelectedRecordCursorFactory extends AbstractRecordCursorFactory {
             baseCursor.close();
         }
 
+        @Override
+        public @Nullable PartitionReadAhead getPartitionReadAhead() {
+            return baseCursor.getPartitionReadAhead();
+        }
+
         @Override
         public StaticSymbolTable getSymbolTable(int columnIndex) {
             return baseCursor.getSymbolTable(columnCrossIndex.getQuick(columnIndex));
@@ -38,6 +38,7 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
     private static final int COLUMN_FLAG_CACHED = 1;
     private static final int COLUMN_FLAG_INDEXED = COLUMN_FLAG_CACHED << 1;
     private static final int COLUMN_FLAG_DEDUP_KEY = COLUMN_FLAG_INDEXED << 1;
+    private static final int COLUMN_FLAG_BLOOM_INDEX = COLUMN_FLAG_DEDUP_KEY << 1;
     private final LongList columnBits = new LongList();
     private final CharSequenceObjHashMap<ColumnCastModel> columnCastModels = new CharSequenceObjHashMap<>();
     private final LowerCaseCharSequenceIntHashMap columnNameIndexMap = new LowerCaseCharSequenceIntHashMap();
@@ -46,12 +47,19 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
     private long batchSize = -1;
     private boolean ignoreIfExists = false;
     private ExpressionNode likeTableName;
+    private ExpressionNode matViewBaseTableName;
+    // position range of the base table name in the materialized view query text
+    private int matViewBaseTableNameHi;
+    private int matViewBaseTableNameLo;
+    private ExpressionNode matViewSampleBy;
+    private String matViewSql;
     private int maxUncommittedRows;
     private ExpressionNode name;
     private long o3MaxLag;
     private ExpressionNode partitionBy;
     private QueryModel queryModel;
     private ExpressionNode timestamp;
+    private int ttlHoursOrMonths;
     private CharSequence volumeAlias;
     private boolean walEnabled;
 
@@ -97,7 +105,13 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         timestamp = null;
         partitionBy = null;
         likeTableName = null;
+        matViewSql = null;
+        matViewBaseTableName = null;
+        matViewBaseTableNameLo = 0;
+        matViewBaseTableNameHi = 0;
+        matViewSampleBy = null;
         name = null;
+        ttlHoursOrMonths = 0;
         volumeAlias = null;
         columnBits.clear();
         columnNames.clear();
@@ -148,6 +162,26 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         return likeTableName;
     }
 
+    public ExpressionNode getMatViewBaseTableName() {
+        return matViewBaseTableName;
+    }
+
+    public int getMatViewBaseTableNameHi() {
+        return matViewBaseTableNameHi;
+    }
+
+    public int getMatViewBaseTableNameLo() {
+        return matViewBaseTableNameLo;
+    }
+
+    public ExpressionNode getMatViewSampleBy() {
+        return matViewSampleBy;
+    }
+
+    public String getMatViewSql() {
+        return matViewSql;
+    }
+
     @Override
     public int getMaxUncommittedRows() {
         return maxUncommittedRows;
@@ -202,6 +236,11 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         return timestamp == null ? -1 : getColumnIndex(timestamp.token);
     }
 
+    @Override
+    public int getTtlHoursOrMonths() {
+        return ttlHoursOrMonths;
+    }
+
     public CharSequence getVolumeAlias() {
         return volumeAlias;
     }
@@ -210,6 +249,11 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         return batchSize == -1;
     }
 
+    @Override
+    public boolean isBloomIndexed(int index) {
+        return (getLowAt(index * 2 + 1) & COLUMN_FLAG_BLOOM_INDEX) != 0;
+    }
+
     @Override
     public boolean isDedupKey(int index) {
         return (getLowAt(index * 2 + 1) & COLUMN_FLAG_DEDUP_KEY) != 0;
@@ -224,6 +268,10 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         return (getLowAt(index * 2 + 1) & COLUMN_FLAG_INDEXED) != 0;
     }
 
+    public boolean isMatView() {
+        return matViewSql != null;
+    }
+
     @Override
     public boolean isSequential(int columnIndex) {
         // todo: expose this flag on CREATE TABLE statement
@@ -243,6 +291,12 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         this.batchSize = batchSize;
     }
 
+    public void setBloomIndexFlag(int index) {
+        int flagsIndex = index * 2 + 1;
+        int flags = getLowAt(flagsIndex) | COLUMN_FLAG_BLOOM_INDEX;
+        columnBits.setQuick(flagsIndex, Numbers.encodeLowHighInts(flags, getHighAt(flagsIndex)));
+    }
+
     public void setDedupKeyFlag(int index) {
         int flagsIndex = index * 2 + 1;
         int flags = getLowAt(flagsIndex) | COLUMN_FLAG_DEDUP_KEY;
@@ -265,6 +319,20 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         this.likeTableName = tableName;
     }
 
+    public void setMatView(
+            CharSequence sql,
+            ExpressionNode baseTableName,
+            int baseTableNameLo,
+            int baseTableNameHi,
+            ExpressionNode sampleBy
+    ) {
+        this.matViewSql = Chars.toString(sql);
+        this.matViewBaseTableName = baseTableName;
+        this.matViewBaseTableNameLo = baseTableNameLo;
+        this.matViewBaseTableNameHi = baseTableNameHi;
+        this.matViewSampleBy = sampleBy;
+    }
+
     public void setMaxUncommittedRows(int maxUncommittedRows) {
         this.maxUncommittedRows = maxUncommittedRows;
     }
@@ -289,6 +357,10 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         this.timestamp = timestamp;
     }
 
+    public void setTtlHoursOrMonths(int ttlHoursOrMonths) {
+        this.ttlHoursOrMonths = ttlHoursOrMonths;
+    }
+
     public void setVolumeAlias(CharSequence volumeAlias) {
         // set if the create table statement contains IN VOLUME 'volumeAlias'.
         // volumePath will be resolved by the compiler
@@ -320,7 +392,7 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
         } else {
             sink.putAscii(" atomic");
         }
-        sink.putAscii(" table ");
+        sink.putAscii(isMatView() ? " materialized view " : " table ");
         sink.put(getName().token);
         if (getQueryModel() != null) {
             sink.putAscii(" as (");
@@ -334,6 +406,11 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
                     sink.put(getIndexBlockCapacity(i));
                     sink.putAscii(')');
                 }
+                if (isBloomIndexed(i)) {
+                    sink.putAscii(", index(");
+                    sink.put(getColumnName(i));
+                    sink.putAscii(" type bloom)");
+                }
             }
             final ObjList<CharSequence> castColumns = getColumnCastModels().keys();
             for (int i = 0, n = castColumns.size(); i < n; i++) {
@@ -391,6 +468,10 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
                         sink.putAscii(" index capacity ");
                         sink.put(getIndexBlockCapacity(i));
                     }
+
+                    if (isBloomIndexed(i)) {
+                        sink.putAscii(" index type bloom");
+                    }
                 }
             }
             sink.putAscii(')');
@@ -404,6 +485,9 @@ public class CreateTableModel implements Mutable, ExecutionModel, Sinkable, Tabl
 
         if (partitionBy != null) {
             sink.putAscii(" partition by ").put(partitionBy.token);
+            if (ttlHoursOrMonths != 0) {
+                sink.putAscii(" ttl ").put(ttlHoursOrMonths);
+            }
             if (walEnabled) {
                 sink.putAscii(" wal");
             }
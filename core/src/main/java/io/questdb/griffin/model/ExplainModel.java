@@ -37,6 +37,7 @@ public class ExplainModel implements ExecutionModel, Mutable, Sinkable {
     public static final ObjectFactory<ExplainModel> FACTORY = ExplainModel::new;
     public static final int FORMAT_JSON = 2;
     public static final int FORMAT_TEXT = 1;
+    private boolean analyze;
     private int format;
     private ExecutionModel model;
 
@@ -45,6 +46,7 @@ public class ExplainModel implements ExecutionModel, Mutable, Sinkable {
 
     @Override
     public void clear() {
+        analyze = false;
         format = 0;
         model = null;
     }
@@ -62,6 +64,18 @@ public class ExplainModel implements ExecutionModel, Mutable, Sinkable {
         return EXPLAIN;
     }
 
+    /**
+     * Returns true for EXPLAIN ANALYZE, i.e. when the query has to be executed
+     * and the plan annotated with runtime statistics.
+     */
+    public boolean isAnalyze() {
+        return analyze;
+    }
+
+    public void setAnalyze(boolean analyze) {
+        this.analyze = analyze;
+    }
+
     public void setFormat(int format) {
         this.format = format;
     }
@@ -73,6 +87,9 @@ public class ExplainModel implements ExecutionModel, Mutable, Sinkable {
     @Override
     public void toSink(@NotNull CharSink<?> sink) {
         sink.putAscii("EXPLAIN");
+        if (analyze) {
+            sink.putAscii(" ANALYZE");
+        }
         sink.putAscii(" (FORMAT ").putAscii(format == FORMAT_TEXT ? "TEXT" : "JSON").putAscii(") ");
     }
 }
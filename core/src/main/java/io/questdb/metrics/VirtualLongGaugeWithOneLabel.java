@@ -0,0 +1,78 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.metrics;
+
+import io.questdb.std.str.BorrowableUtf8Sink;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Read-only gauge used to expose a stat per label value, e.g. per worker thread.
+ * Label values are the stat indexes. The gauge is not scraped until a stat provider
+ * is set, as the number of stats is known only once the owning component starts.
+ */
+public class VirtualLongGaugeWithOneLabel implements Scrapable {
+    private final CharSequence labelName0;
+    private final CharSequence name;
+    private volatile StatProvider provider;
+
+    public VirtualLongGaugeWithOneLabel(CharSequence name, CharSequence labelName0) {
+        this.name = name;
+        this.labelName0 = labelName0;
+    }
+
+    public void of(@Nullable StatProvider provider) {
+        this.provider = provider;
+    }
+
+    @Override
+    public void scrapeIntoPrometheus(@NotNull BorrowableUtf8Sink sink) {
+        final StatProvider provider = this.provider;
+        if (provider == null) {
+            return;
+        }
+        sink.putAscii(PrometheusFormatUtils.TYPE_PREFIX);
+        sink.put(name);
+        sink.putAscii(" gauge\n");
+        for (int i = 0, n = provider.getStatCount(); i < n; i++) {
+            sink.putAscii(PrometheusFormatUtils.METRIC_NAME_PREFIX);
+            sink.put(name);
+            sink.putAscii('{');
+            sink.put(labelName0);
+            sink.putAscii("=\"");
+            sink.put(i);
+            sink.putAscii("\"}");
+            PrometheusFormatUtils.appendSampleLineSuffix(sink, provider.getStatValue(i));
+        }
+        PrometheusFormatUtils.appendNewLine(sink);
+    }
+
+    public interface StatProvider {
+        int getStatCount();
+
+        long getStatValue(int index);
+    }
+}
@@ -37,6 +37,20 @@ import io.questdb.std.datetime.microtime.MicrosecondClock;
 
 public class WorkerPoolUtils {
 
+    /**
+     * Assigns the jobs that process tasks published by a single O3 commit: per-partition merge,
+     * column open, column copy (including dedup merge), column sort/shuffle and indexing.
+     * Any worker running these jobs helps the committing thread, so that one large commit
+     * can use all workers of the pool.
+     */
+    public static void setupO3Jobs(WorkerPool workerPool, MessageBus messageBus) {
+        workerPool.assign(new ColumnIndexerJob(messageBus));
+        workerPool.assign(new O3PartitionJob(messageBus));
+        workerPool.assign(new O3OpenColumnJob(messageBus));
+        workerPool.assign(new O3CopyJob(messageBus));
+        workerPool.assign(new ColumnTaskJob(messageBus));
+    }
+
     public static void setupQueryJobs(
             WorkerPool workerPool,
             CairoEngine cairoEngine
@@ -52,7 +66,12 @@ public class WorkerPoolUtils {
             workerPool.assign(new GroupByMergeShardJob(messageBus));
         }
 
-        if (configuration.isSqlParallelFilterEnabled() || configuration.isSqlParallelGroupByEnabled()) {
+        if (
+                configuration.isSqlParallelFilterEnabled()
+                        || configuration.isSqlParallelGroupByEnabled()
+                        || configuration.isSqlParallelHashJoinEnabled()
+                        || configuration.isSqlParallelOrderByEnabled()
+        ) {
             final MicrosecondClock microsecondClock = messageBus.getConfiguration().getMicrosecondClock();
             final NanosecondClock nanosecondClock = messageBus.getConfiguration().getNanosecondClock();
             for (int i = 0; i < workerCount; i++) {
@@ -84,10 +103,14 @@ public class WorkerPoolUtils {
             workerPool.assign(columnPurgeJob);
         }
 
-        workerPool.assign(new ColumnIndexerJob(messageBus));
-        workerPool.assign(new O3PartitionJob(messageBus));
-        workerPool.assign(new O3OpenColumnJob(messageBus));
-        workerPool.assign(new O3CopyJob(messageBus));
-        workerPool.assign(new ColumnTaskJob(messageBus));
+        final PartitionTtlJob partitionTtlJob = new PartitionTtlJob(cairoEngine);
+        workerPool.freeOnExit(partitionTtlJob);
+        workerPool.assign(partitionTtlJob);
+
+        final ColdPartitionConversionJob coldPartitionConversionJob = new ColdPartitionConversionJob(cairoEngine);
+        workerPool.freeOnExit(coldPartitionConversionJob);
+        workerPool.assign(coldPartitionConversionJob);
+
+        setupO3Jobs(workerPool, messageBus);
     }
 }
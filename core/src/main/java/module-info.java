@@ -39,6 +39,7 @@ open module io.questdb {
     exports io.questdb.cairo.security;
 
     exports io.questdb.cutlass;
+    exports io.questdb.cutlass.arrow;
     exports io.questdb.cutlass.http;
     exports io.questdb.cutlass.http.processors;
     exports io.questdb.cutlass.http.ex;
@@ -107,6 +108,7 @@ open module io.questdb {
     exports io.questdb.cutlass.line.tcp.auth;
     exports io.questdb.cairo.frm;
     exports io.questdb.cairo.frm.file;
+    exports io.questdb.cairo.mv;
     exports io.questdb.std.histogram.org.HdrHistogram;
     exports io.questdb.client;
     exports io.questdb.std.bytes;
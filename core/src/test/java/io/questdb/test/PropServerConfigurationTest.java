@@ -201,6 +201,7 @@ public class PropServerConfigurationTest {
         Assert.assertEquals(30, configuration.getCairoConfiguration().getFileOperationRetryCount());
         Assert.assertEquals(300000, configuration.getCairoConfiguration().getIdleCheckInterval());
         Assert.assertEquals(10000, configuration.getCairoConfiguration().getInactiveReaderMaxOpenPartitions());
+        Assert.assertEquals(2, configuration.getCairoConfiguration().getInactiveReaderMaxOpenParquetPartitions());
         Assert.assertEquals(120_000, configuration.getCairoConfiguration().getInactiveReaderTTL());
         Assert.assertEquals(600_000, configuration.getCairoConfiguration().getInactiveWriterTTL());
         Assert.assertEquals(256, configuration.getCairoConfiguration().getIndexValueBlockSize());
@@ -283,6 +284,11 @@ public class PropServerConfigurationTest {
 
         Assert.assertTrue(configuration.getCairoConfiguration().isSqlParallelFilterPreTouchEnabled());
         Assert.assertEquals(16, configuration.getCairoConfiguration().getSqlParallelWorkStealingThreshold());
+        Assert.assertEquals(3, configuration.getCairoConfiguration().getSqlParquetFrameCacheCapacity());
+        Assert.assertEquals(0, configuration.getCairoConfiguration().getSqlPageFramePrefetchCount());
+        Assert.assertEquals(0, configuration.getCairoConfiguration().getSqlPartitionReadAheadWindow());
+        Assert.assertFalse(configuration.getCairoConfiguration().isSqlPartitionReadAheadReleaseEnabled());
+        Assert.assertEquals(256, configuration.getCairoConfiguration().getSqlPlanPoolCapacity());
         Assert.assertEquals(1_000_000, configuration.getCairoConfiguration().getSqlPageFrameMaxRows());
         Assert.assertEquals(100_000, configuration.getCairoConfiguration().getSqlPageFrameMinRows());
         Assert.assertEquals(256, configuration.getCairoConfiguration().getPageFrameReduceRowIdListCapacity());
@@ -292,6 +298,13 @@ public class PropServerConfigurationTest {
         Assert.assertEquals(100_000_000, configuration.getCairoConfiguration().getGroupByPresizeMaxCapacity());
         Assert.assertEquals(Numbers.SIZE_1GB, configuration.getCairoConfiguration().getGroupByPresizeMaxHeapSize());
         Assert.assertEquals(128 * 1024, configuration.getCairoConfiguration().getGroupByAllocatorDefaultChunkSize());
+        Assert.assertFalse(configuration.getCairoConfiguration().isSqlParallelHashJoinEnabled());
+        Assert.assertFalse(configuration.getCairoConfiguration().isSqlParallelOrderByEnabled());
+        Assert.assertFalse(configuration.getCairoConfiguration().isSqlResultCacheEnabled());
+        Assert.assertEquals(64 * Numbers.SIZE_1MB, configuration.getCairoConfiguration().getSqlResultCacheSize());
+        Assert.assertEquals(60_000, configuration.getCairoConfiguration().getSqlScrollableCursorIdleTimeout());
+        Assert.assertEquals(4, configuration.getCairoConfiguration().getSqlScrollableCursorMaxPerUser());
+        Assert.assertFalse(configuration.getCairoConfiguration().isZoneMapsEnabled());
         Assert.assertTrue(configuration.getCairoConfiguration().isSqlOrderBySortEnabled());
         Assert.assertEquals(600, configuration.getCairoConfiguration().getSqlOrderByRadixSortThreshold());
 
@@ -357,6 +370,8 @@ public class PropServerConfigurationTest {
         Assert.assertEquals(32768, configuration.getLineTcpReceiverConfiguration().getNetMsgBufferSize());
         Assert.assertEquals(32768, configuration.getLineTcpReceiverConfiguration().getMaxMeasurementSize());
         Assert.assertEquals(128, configuration.getLineTcpReceiverConfiguration().getWriterQueueCapacity());
+        Assert.assertEquals(10_000, configuration.getLineTcpReceiverConfiguration().getWriterRebalanceInterval());
+        Assert.assertEquals(2.0, configuration.getLineTcpReceiverConfiguration().getWriterRebalanceMaxLoadRatio(), 0.000001);
         Assert.assertEquals(0, configuration.getLineTcpReceiverConfiguration().getWriterWorkerPoolConfiguration().getWorkerCount());
         Assert.assertEquals(10, configuration.getLineTcpReceiverConfiguration().getWriterWorkerPoolConfiguration().getYieldThreshold());
         Assert.assertEquals(7_000, configuration.getLineTcpReceiverConfiguration().getWriterWorkerPoolConfiguration().getNapThreshold());
@@ -413,6 +428,7 @@ public class PropServerConfigurationTest {
         Assert.assertEquals(8 * configuration.getWorkerPoolConfiguration().getWorkerCount(), configuration.getPGWireConfiguration().getSelectCacheBlockCount());
         Assert.assertEquals(2 * configuration.getWorkerPoolConfiguration().getWorkerCount(), configuration.getPGWireConfiguration().getSelectCacheRowCount());
         Assert.assertTrue(configuration.getPGWireConfiguration().isInsertCacheEnabled());
+        Assert.assertEquals(1024, configuration.getPGWireConfiguration().getInsertBatchSize());
         Assert.assertEquals(4, configuration.getPGWireConfiguration().getInsertCacheBlockCount());
         Assert.assertEquals(4, configuration.getPGWireConfiguration().getInsertCacheRowCount());
         Assert.assertTrue(configuration.getPGWireConfiguration().isUpdateCacheEnabled());
@@ -439,12 +455,16 @@ public class PropServerConfigurationTest {
         Assert.assertFalse(configuration.getCairoConfiguration().attachPartitionCopy());
 
         Assert.assertEquals(30_000, configuration.getCairoConfiguration().getWalPurgeInterval());
+        Assert.assertEquals(60_000, configuration.getCairoConfiguration().getTtlCheckInterval());
+        Assert.assertEquals(0, configuration.getCairoConfiguration().getColdPartitionAge());
+        Assert.assertEquals(60_000, configuration.getCairoConfiguration().getColdPartitionCheckInterval());
         Assert.assertEquals(3, configuration.getCairoConfiguration().getWalRecreateDistressedSequencerAttempts());
         Assert.assertEquals(120_000, configuration.getCairoConfiguration().getInactiveWalWriterTTL());
         Assert.assertEquals(4096, configuration.getCairoConfiguration().getWalTxnNotificationQueueCapacity());
         Assert.assertTrue(configuration.getCairoConfiguration().isWalSupported());
         Assert.assertTrue(configuration.getCairoConfiguration().getWalEnabledDefault());
         Assert.assertTrue(configuration.getCairoConfiguration().isWalApplyEnabled());
+        Assert.assertTrue(configuration.getCairoConfiguration().isWalApplyParallelPartitionsEnabled());
         Assert.assertTrue(configuration.getWalApplyPoolConfiguration().isEnabled());
         Assert.assertFalse(configuration.getWalApplyPoolConfiguration().haltOnError());
         Assert.assertEquals("wal-apply", configuration.getWalApplyPoolConfiguration().getPoolName());
@@ -454,6 +474,7 @@ public class PropServerConfigurationTest {
         Assert.assertEquals(10_000, configuration.getWalApplyPoolConfiguration().getSleepThreshold());
         Assert.assertEquals(1000, configuration.getWalApplyPoolConfiguration().getYieldThreshold());
         Assert.assertEquals(20, configuration.getCairoConfiguration().getWalApplyLookAheadTransactionCount());
+        Assert.assertEquals(100_000, configuration.getCairoConfiguration().getWalApplySquashMaxRows());
         Assert.assertEquals(4, configuration.getCairoConfiguration().getO3LagCalculationWindowsSize());
         Assert.assertEquals(200_000, configuration.getCairoConfiguration().getWalSegmentRolloverRowCount());
         Assert.assertEquals(20.0d, configuration.getCairoConfiguration().getWalLagRowsMultiplier(), 0.00001);
@@ -1103,6 +1124,8 @@ public class PropServerConfigurationTest {
             Assert.assertEquals(2049, configuration.getLineTcpReceiverConfiguration().getNetMsgBufferSize());
             Assert.assertEquals(128, configuration.getLineTcpReceiverConfiguration().getMaxMeasurementSize());
             Assert.assertEquals(256, configuration.getLineTcpReceiverConfiguration().getWriterQueueCapacity());
+            Assert.assertEquals(5000, configuration.getLineTcpReceiverConfiguration().getWriterRebalanceInterval());
+            Assert.assertEquals(1.5, configuration.getLineTcpReceiverConfiguration().getWriterRebalanceMaxLoadRatio(), 0.000001);
             Assert.assertEquals(2, configuration.getLineTcpReceiverConfiguration().getWriterWorkerPoolConfiguration().getWorkerCount());
             Assert.assertArrayEquals(new int[]{1, 2}, configuration.getLineTcpReceiverConfiguration().getWriterWorkerPoolConfiguration().getWorkerAffinity());
             Assert.assertEquals(20, configuration.getLineTcpReceiverConfiguration().getWriterWorkerPoolConfiguration().getYieldThreshold());
@@ -1135,6 +1158,7 @@ public class PropServerConfigurationTest {
             Assert.assertEquals(1, configuration.getPGWireConfiguration().getSelectCacheBlockCount());
             Assert.assertEquals(2, configuration.getPGWireConfiguration().getSelectCacheRowCount());
             Assert.assertFalse(configuration.getPGWireConfiguration().isInsertCacheEnabled());
+            Assert.assertEquals(512, configuration.getPGWireConfiguration().getInsertBatchSize());
             Assert.assertEquals(128, configuration.getPGWireConfiguration().getInsertCacheBlockCount());
             Assert.assertEquals(256, configuration.getPGWireConfiguration().getInsertCacheRowCount());
             Assert.assertFalse(configuration.getPGWireConfiguration().isUpdateCacheEnabled());
@@ -1382,6 +1406,7 @@ public class PropServerConfigurationTest {
         Assert.assertEquals(10, configuration.getFileOperationRetryCount());
         Assert.assertEquals(20_000, configuration.getIdleCheckInterval());
         Assert.assertEquals(42, configuration.getInactiveReaderMaxOpenPartitions());
+        Assert.assertEquals(3, configuration.getInactiveReaderMaxOpenParquetPartitions());
         Assert.assertEquals(600_000, configuration.getInactiveReaderTTL());
         Assert.assertEquals(400_000, configuration.getInactiveWriterTTL());
         Assert.assertEquals(1024, configuration.getIndexValueBlockSize());
@@ -1463,9 +1488,21 @@ public class PropServerConfigurationTest {
         Assert.assertFalse(configuration.isSqlParallelFilterEnabled());
         Assert.assertFalse(configuration.isSqlParallelFilterPreTouchEnabled());
         Assert.assertFalse(configuration.isSqlParallelGroupByEnabled());
+        Assert.assertTrue(configuration.isSqlParallelHashJoinEnabled());
+        Assert.assertTrue(configuration.isSqlParallelOrderByEnabled());
+        Assert.assertTrue(configuration.isSqlResultCacheEnabled());
+        Assert.assertEquals(32 * Numbers.SIZE_1MB, configuration.getSqlResultCacheSize());
+        Assert.assertEquals(30_000, configuration.getSqlScrollableCursorIdleTimeout());
+        Assert.assertEquals(2, configuration.getSqlScrollableCursorMaxPerUser());
+        Assert.assertTrue(configuration.isZoneMapsEnabled());
         Assert.assertFalse(configuration.isSqlOrderBySortEnabled());
         Assert.assertEquals(100, configuration.getSqlOrderByRadixSortThreshold());
         Assert.assertEquals(32, configuration.getSqlParallelWorkStealingThreshold());
+        Assert.assertEquals(5, configuration.getSqlParquetFrameCacheCapacity());
+        Assert.assertEquals(2, configuration.getSqlPageFramePrefetchCount());
+        Assert.assertEquals(3, configuration.getSqlPartitionReadAheadWindow());
+        Assert.assertTrue(configuration.isSqlPartitionReadAheadReleaseEnabled());
+        Assert.assertEquals(64, configuration.getSqlPlanPoolCapacity());
         Assert.assertEquals(1000, configuration.getSqlPageFrameMaxRows());
         Assert.assertEquals(100, configuration.getSqlPageFrameMinRows());
         Assert.assertEquals(128, configuration.getPageFrameReduceShardCount());
@@ -1511,13 +1548,18 @@ public class PropServerConfigurationTest {
         Assert.assertTrue(configuration.attachPartitionCopy());
 
         Assert.assertEquals(333, configuration.getWalPurgeInterval());
+        Assert.assertEquals(444, configuration.getTtlCheckInterval());
+        Assert.assertEquals(2_592_000_000L, configuration.getColdPartitionAge());
+        Assert.assertEquals(555, configuration.getColdPartitionCheckInterval());
         Assert.assertEquals(13, configuration.getWalRecreateDistressedSequencerAttempts());
         Assert.assertEquals(333303, configuration.getInactiveWalWriterTTL());
         Assert.assertEquals(128, configuration.getWalTxnNotificationQueueCapacity());
         Assert.assertTrue(configuration.isWalSupported());
         Assert.assertTrue(configuration.getWalEnabledDefault());
         Assert.assertFalse(configuration.isWalApplyEnabled());
+        Assert.assertFalse(configuration.isWalApplyParallelPartitionsEnabled());
         Assert.assertEquals(23, configuration.getWalApplyLookAheadTransactionCount());
+        Assert.assertEquals(1000, configuration.getWalApplySquashMaxRows());
         Assert.assertFalse(configuration.isTableTypeConversionEnabled());
         Assert.assertEquals(100, configuration.getWalWriterPoolMaxSegments());
         Assert.assertEquals(120, configuration.getO3LagCalculationWindowsSize());
@@ -0,0 +1,298 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cairo;
+
+import io.questdb.cairo.BloomIndexWriter;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.str.LPSZ;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.Utf8s;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.std.TestFilesFacadeImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BloomIndexTest extends AbstractCairoTest {
+    private final AtomicInteger day2ColumnOpens = new AtomicInteger();
+    private final FilesFacade ff = new TestFilesFacadeImpl() {
+        @Override
+        public long openRO(LPSZ name) {
+            if (Utf8s.containsAscii(name, "1970-01-02") && (Utf8s.endsWithAscii(name, "sym.d") || Utf8s.endsWithAscii(name, "vch.d"))) {
+                day2ColumnOpens.incrementAndGet();
+            }
+            return super.openRO(name);
+        }
+    };
+
+    @Test
+    public void testAddIndexToSymbolColumn() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable("x", "", false);
+            assertBloomFile("1970-01-02", "sym", false);
+            ddl("alter table x alter column sym add index type bloom");
+            assertBloomFile("1970-01-01", "sym", true);
+            assertBloomFile("1970-01-02", "sym", true);
+            assertBloomFile("1970-01-03", "sym", true);
+            assertBloomFile("1970-01-02", "vch", false);
+
+            day2ColumnOpens.set(0);
+            assertSql(
+                    "v\tsym\n" +
+                            "25\tk25\n",
+                    "select v, sym from x where sym = 'k25'"
+            );
+            assertSql(
+                    "v\tsym\n" +
+                            "5\tk5\n" +
+                            "27\tk27\n",
+                    "select v, sym from x where sym in ('k5', 'k27')"
+            );
+            Assert.assertEquals(0, day2ColumnOpens.get());
+
+            assertSql(
+                    "v\tsym\n" +
+                            "15\tk15\n",
+                    "select v, sym from x where 'k15' = sym"
+            );
+            Assert.assertTrue(day2ColumnOpens.get() > 0);
+        });
+    }
+
+    @Test
+    public void testAddIndexToVarcharColumn() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable("x", "", false);
+            ddl("alter table x alter column vch add index type bloom");
+            assertBloomFile("1970-01-02", "vch", true);
+
+            day2ColumnOpens.set(0);
+            assertSql(
+                    "v\tvch\n" +
+                            "28\tvalue-28\n",
+                    "select v, vch from x where vch = 'value-28' and v > 0"
+            );
+            assertSql("v\tvch\n", "select v, vch from x where vch in ('value-100', 'value-101')");
+            Assert.assertEquals(0, day2ColumnOpens.get());
+
+            // partitions are not pruned by predicates under OR
+            assertSql("count\n2\n", "select count() from x where vch = 'value-28' or v = 12");
+            Assert.assertTrue(day2ColumnOpens.get() > 0);
+        });
+    }
+
+    @Test
+    public void testAppendExtendsFilter() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable("x", ", index(sym type bloom)", false);
+            insert("insert into x(v, sym, vch, ts) values (30, 'k30', 'value-30', '1970-01-03T23:00')");
+            insert("insert into x(v, sym, vch, ts) values (31, 'k31', 'value-31', '1970-01-03T23:30')");
+            day2ColumnOpens.set(0);
+            assertSql(
+                    "v\tsym\n" +
+                            "31\tk31\n",
+                    "select v, sym from x where sym = 'k31'"
+            );
+            Assert.assertEquals(0, day2ColumnOpens.get());
+        });
+    }
+
+    @Test
+    public void testCreateTableInline() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            ddl("create table x (v int, sym symbol index type bloom, vch varchar index type bloom, ts timestamp) timestamp(ts) partition by day");
+            insert("insert into x select (x - 1)::int, 'k' || (x - 1), 'value-' || (x - 1), timestamp_sequence(0, 8640000000) from long_sequence(30)");
+            assertBloomFile("1970-01-02", "sym", true);
+            assertBloomFile("1970-01-02", "vch", true);
+
+            day2ColumnOpens.set(0);
+            assertSql(
+                    "v\n" +
+                            "3\n",
+                    "select v from x where sym = 'k3' and vch = 'value-3'"
+            );
+            // values come from different partitions
+            assertSql("v\n", "select v from x where sym = 'k3' and vch = 'value-25'");
+            Assert.assertEquals(0, day2ColumnOpens.get());
+        });
+    }
+
+    @Test
+    public void testDropIndex() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable("x", ", index(vch type bloom)", false);
+            assertBloomFile("1970-01-02", "vch", true);
+            ddl("alter table x alter column vch drop index");
+            assertBloomFile("1970-01-01", "vch", false);
+            assertBloomFile("1970-01-02", "vch", false);
+
+            day2ColumnOpens.set(0);
+            assertSql("v\n25\n", "select v from x where vch = 'value-25'");
+            Assert.assertTrue(day2ColumnOpens.get() > 0);
+
+            assertException(
+                    "alter table x alter column vch drop index",
+                    27,
+                    "indexes are only supported for symbol type [column=vch, type=VARCHAR]"
+            );
+        });
+    }
+
+    @Test
+    public void testO3RebuildsFilter() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable("x", ", index(sym type bloom)", false);
+            insert("insert into x(v, sym, vch, ts) values (1000, 'k1000', 'value-1000', '1970-01-02T12:30')");
+            assertSql(
+                    "v\tts\n" +
+                            "1000\t1970-01-02T12:30:00.000000Z\n",
+                    "select v, ts from x where sym = 'k1000'"
+            );
+            day2ColumnOpens.set(0);
+            assertSql("v\n", "select v from x where sym = 'k25' and v < 0");
+            assertSql("v\n26\n", "select v from x where sym = 'k26'");
+            Assert.assertEquals(0, day2ColumnOpens.get());
+        });
+    }
+
+    @Test
+    public void testPlan() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable("x", ", index(sym type bloom), index(vch type bloom)", false);
+            assertPlanNoLeakCheck(
+                    "select v from x where sym = 'k1' and vch in ('value-1', 'value-2')",
+                    "SelectedRecord\n" +
+                            "    Async Filter workers: 1\n" +
+                            "      filter: (sym='k1' and vch in [value-1,value-2])\n" +
+                            "        PageFrame\n" +
+                            "            Row forward scan\n" +
+                            "            Frame forward scan on: x\n" +
+                            "              zone map filter: sym='k1' and vch in ['value-1','value-2']\n"
+            );
+        });
+    }
+
+    @Test
+    public void testReindex() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable("x", ", index(sym type bloom)", false);
+            try (Path path = bloomFile("1970-01-02", "sym")) {
+                Assert.assertTrue(configuration.getFilesFacade().removeQuiet(path.$()));
+            }
+            engine.releaseAllWriters();
+            ddl("reindex table x column sym lock exclusive");
+            assertBloomFile("1970-01-02", "sym", true);
+
+            day2ColumnOpens.set(0);
+            assertSql("v\n7\n", "select v from x where sym = 'k7'");
+            Assert.assertEquals(0, day2ColumnOpens.get());
+        });
+    }
+
+    @Test
+    public void testUnsupportedColumn() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable("x", "", false);
+            assertException(
+                    "alter table x alter column v add index type bloom",
+                    27,
+                    "bloom indexes are only supported for symbol and varchar types [column=v, type=INT]"
+            );
+            assertException(
+                    "create table y (v int index type bloom, ts timestamp) timestamp(ts) partition by day",
+                    22,
+                    "',' or ')' expected"
+            );
+            ddl("create table z (sym symbol, ts timestamp) timestamp(ts)");
+            assertException(
+                    "alter table z alter column sym add index type bloom",
+                    12,
+                    "cannot create bloom index, table is not partitioned"
+            );
+        });
+    }
+
+    @Test
+    public void testUpdateRebuildsFilter() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable("x", ", index(vch type bloom)", false);
+            update("update x set vch = 'updated' where v = 15");
+            assertSql(
+                    "v\tvch\n" +
+                            "15\tupdated\n",
+                    "select v, vch from x where vch = 'updated'"
+            );
+            day2ColumnOpens.set(0);
+            assertSql("v\n", "select v from x where vch = 'value-15'");
+            Assert.assertEquals(0, day2ColumnOpens.get());
+        });
+    }
+
+    @Test
+    public void testWalTable() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable("x", "", true);
+            ddl("alter table x alter column sym add index type bloom");
+            insert("insert into x(v, sym, vch, ts) values (1000, 'k1000', 'value-1000', '1970-01-02T12:30')");
+            drainWalQueue();
+            assertBloomFile("1970-01-03", "sym", true);
+            assertSql(
+                    "v\tts\n" +
+                            "1000\t1970-01-02T12:30:00.000000Z\n",
+                    "select v, ts from x where sym = 'k1000'"
+            );
+            day2ColumnOpens.set(0);
+            assertSql("v\n29\n", "select v from x where sym in ('k29', 'k1001')");
+            Assert.assertEquals(0, day2ColumnOpens.get());
+        });
+    }
+
+    private static void assertBloomFile(String partition, String columnName, boolean exists) {
+        try (Path path = bloomFile(partition, columnName)) {
+            Assert.assertEquals(exists, configuration.getFilesFacade().exists(path.$()));
+        }
+    }
+
+    private static Path bloomFile(String partition, String columnName) {
+        final Path path = new Path();
+        path.of(configuration.getRoot()).concat(engine.verifyTableName("x")).concat(partition).concat(columnName).put(BloomIndexWriter.FILE_SUFFIX);
+        return path;
+    }
+
+    private void createTable(String tableName, String indexes, boolean wal) throws Exception {
+        // 3 day partitions with 10 rows each, v is 0..9 on the 1st day, 10..19 on the 2nd and 20..29 on the 3rd
+        ddl(
+                "create table " + tableName + " as (" +
+                        "select (x - 1)::int v, ('k' || (x - 1))::symbol sym, ('value-' || (x - 1))::varchar vch, timestamp_sequence(0, 8640000000) ts " +
+                        "from long_sequence(30)" +
+                        ")" + indexes + " timestamp(ts) partition by day" + (wal ? " wal" : " bypass wal")
+        );
+        if (wal) {
+            drainWalQueue();
+        }
+    }
+}
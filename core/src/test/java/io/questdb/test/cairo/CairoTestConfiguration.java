@@ -73,6 +73,11 @@ public class CairoTestConfiguration extends CairoConfigurationWrapper {
         return overrides != null && overrides.getFilesFacade() != null ? overrides.getFilesFacade() : super.getFilesFacade();
     }
 
+    @Override
+    public IOURingFacade getIOURingFacade() {
+        return overrides.getIOURingFacade() != null ? overrides.getIOURingFacade() : super.getIOURingFacade();
+    }
+
     @Override
     public long getInactiveWalWriterTTL() {
         return -10000;
@@ -31,6 +31,7 @@ import io.questdb.cutlass.json.JsonException;
 import io.questdb.std.Chars;
 import io.questdb.std.FilesFacade;
 import io.questdb.std.FilesFacadeImpl;
+import io.questdb.std.IOURingFacade;
 import io.questdb.std.RostiAllocFacade;
 import io.questdb.std.datetime.microtime.MicrosecondClock;
 import io.questdb.std.datetime.microtime.MicrosecondClockImpl;
@@ -54,6 +55,7 @@ public class Overrides {
     private Map<String, String> env = null;
     private FactoryProvider factoryProvider = null;
     private FilesFacade ff;
+    private IOURingFacade ioURingFacade;
     private boolean isHiddenTelemetryTable = false;
     private boolean mangleTableDirNames = true;
     private CairoConfiguration propsConfig;
@@ -95,6 +97,10 @@ public class Overrides {
         return ff;
     }
 
+    public IOURingFacade getIOURingFacade() {
+        return ioURingFacade;
+    }
+
     public String getInputRoot() {
         return null;
     }
@@ -124,6 +130,7 @@ public class Overrides {
         testMicrosClock = defaultMicrosecondClock;
         rostiAllocFacade = null;
         ff = null;
+        ioURingFacade = null;
         mangleTableDirNames = true;
         factoryProvider = null;
         env = null;
@@ -140,6 +147,10 @@ public class Overrides {
         this.env = env;
     }
 
+    public void setIOURingFacade(IOURingFacade ioURingFacade) {
+        this.ioURingFacade = ioURingFacade;
+    }
+
     public void setIsHidingTelemetryTable(boolean val) {
         this.isHiddenTelemetryTable = val;
     }
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cairo;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.PartitionReadAhead;
+import io.questdb.cairo.PartitionReadAheadMetrics;
+import io.questdb.std.FilesFacade;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.std.TestFilesFacadeImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PartitionReadAheadTest extends AbstractCairoTest {
+    private final AtomicInteger coldCount = new AtomicInteger();
+    private final FilesFacade ff = new TestFilesFacadeImpl() {
+        @Override
+        public void madvise(long address, long len, int advise) {
+            if (advise == PartitionReadAhead.MADV_WILLNEED) {
+                willNeedCount.incrementAndGet();
+            } else if (advise == PartitionReadAhead.MADV_COLD) {
+                coldCount.incrementAndGet();
+            }
+            super.madvise(address, len, advise);
+        }
+    };
+    private final AtomicInteger willNeedCount = new AtomicInteger();
+
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+        node1.setProperty(PropertyKey.CAIRO_SQL_PARTITION_READ_AHEAD_WINDOW, 2);
+        node1.setProperty(PropertyKey.CAIRO_SQL_PARALLEL_FILTER_ENABLED, false);
+        coldCount.set(0);
+        willNeedCount.set(0);
+    }
+
+    @Test
+    public void testBackwardScanNotReadAhead() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable();
+            final long partitions = metrics().getReadAheadPartitionCount();
+            printSql("x order by ts desc");
+            Assert.assertEquals(partitions, metrics().getReadAheadPartitionCount());
+            Assert.assertEquals(0, willNeedCount.get());
+        });
+    }
+
+    @Test
+    public void testFullScan() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable();
+            final long partitions = metrics().getReadAheadPartitionCount();
+            final long bytes = metrics().getReadAheadBytes();
+            final long releasedBytes = metrics().getReleasedBytes();
+            assertSql("count\tsum\n1000\t500500\n", "select count(), sum(i) from (x where i > 0)");
+            // every partition but the first one is read ahead of the scan
+            Assert.assertEquals(partitions + 9, metrics().getReadAheadPartitionCount());
+            Assert.assertTrue(metrics().getReadAheadBytes() > bytes);
+            Assert.assertEquals(releasedBytes, metrics().getReleasedBytes());
+            Assert.assertTrue(willNeedCount.get() > 0);
+            Assert.assertEquals(0, coldCount.get());
+        });
+    }
+
+    @Test
+    public void testIntervalScan() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable();
+            final long partitions = metrics().getReadAheadPartitionCount();
+            assertSql("count\tsum\n300\t105150\n", "select count(), sum(i) from x where ts in '2024-01-03;2d'");
+            // partitions outside the interval are never read ahead
+            Assert.assertEquals(partitions + 2, metrics().getReadAheadPartitionCount());
+        });
+    }
+
+    @Test
+    public void testParallelFilter() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_SQL_PARALLEL_FILTER_ENABLED, true);
+        node1.setProperty(PropertyKey.CAIRO_SQL_PARTITION_READ_AHEAD_RELEASE_ENABLED, true);
+        assertMemoryLeak(ff, () -> {
+            createTable();
+            final long partitions = metrics().getReadAheadPartitionCount();
+            final long releasedBytes = metrics().getReleasedBytes();
+            assertSql("count\tsum\n500\t375250\n", "select count(), sum(i) from (x where i > 500)");
+            Assert.assertEquals(partitions + 9, metrics().getReadAheadPartitionCount());
+            Assert.assertTrue(metrics().getReleasedBytes() > releasedBytes);
+        });
+    }
+
+    @Test
+    public void testProjectedColumnsOnly() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable();
+            long bytes = metrics().getReadAheadBytes();
+            printSql("x");
+            final long allColumnsBytes = metrics().getReadAheadBytes() - bytes;
+
+            bytes = metrics().getReadAheadBytes();
+            printSql("select i from x");
+            final long oneColumnBytes = metrics().getReadAheadBytes() - bytes;
+
+            Assert.assertTrue(oneColumnBytes > 0);
+            Assert.assertTrue(oneColumnBytes < allColumnsBytes);
+        });
+    }
+
+    @Test
+    public void testReadAheadDisabled() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_SQL_PARTITION_READ_AHEAD_WINDOW, 0);
+        assertMemoryLeak(ff, () -> {
+            createTable();
+            final long partitions = metrics().getReadAheadPartitionCount();
+            printSql("x");
+            Assert.assertEquals(partitions, metrics().getReadAheadPartitionCount());
+            Assert.assertEquals(0, willNeedCount.get());
+        });
+    }
+
+    @Test
+    public void testReleaseConsumedPartitions() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_SQL_PARTITION_READ_AHEAD_RELEASE_ENABLED, true);
+        assertMemoryLeak(ff, () -> {
+            createTable();
+            final long releasedBytes = metrics().getReleasedBytes();
+            printSql("x");
+            Assert.assertTrue(metrics().getReleasedBytes() > releasedBytes);
+            Assert.assertTrue(coldCount.get() > 0);
+
+            // released partitions are still readable
+            assertSql("count\tsum\n1000\t500500\n", "select count(), sum(i) from x");
+        });
+    }
+
+    private static PartitionReadAheadMetrics metrics() {
+        return engine.getMetrics().partitionReadAhead();
+    }
+
+    private void createTable() throws Exception {
+        ddl(
+                "create table x as (" +
+                        "  select timestamp_sequence('2024-01-01', 864000000) ts, x::int i, rnd_str(4, 8, 1) s, rnd_varchar(4, 8, 1) v" +
+                        "  from long_sequence(1000)" +
+                        ") timestamp(ts) partition by day"
+        );
+    }
+}
@@ -0,0 +1,243 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cairo;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.TableUtils;
+import io.questdb.std.FilesFacade;
+import io.questdb.std.str.LPSZ;
+import io.questdb.std.str.Path;
+import io.questdb.std.str.Utf8s;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.std.TestFilesFacadeImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ZoneMapTest extends AbstractCairoTest {
+    private final AtomicInteger day2ColumnOpens = new AtomicInteger();
+    private final FilesFacade ff = new TestFilesFacadeImpl() {
+        @Override
+        public long openRO(LPSZ name) {
+            if (Utf8s.containsAscii(name, "1970-01-02") && Utf8s.endsWithAscii(name, "v.d")) {
+                day2ColumnOpens.incrementAndGet();
+            }
+            return super.openRO(name);
+        }
+    };
+
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+        node1.setProperty(PropertyKey.CAIRO_ZONE_MAPS_ENABLED, true);
+    }
+
+    @Test
+    public void testBackwardScan() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable("x", false);
+            assertQueryNoLeakCheck(
+                    "v\tts\n" +
+                            "29\t1970-01-03T21:36:00.000000Z\n" +
+                            "25\t1970-01-03T12:00:00.000000Z\n",
+                    "select v, ts from x where v > 24 and v % 4 = 1 order by ts desc",
+                    "ts###DESC",
+                    true,
+                    false
+            );
+            Assert.assertEquals(0, day2ColumnOpens.get());
+        });
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            node1.setProperty(PropertyKey.CAIRO_ZONE_MAPS_ENABLED, false);
+            createTable("x", false);
+            assertZoneMapFile("1970-01-01", false);
+            assertSql("count\n5\n", "select count() from x where v >= 25");
+            Assert.assertEquals(1, day2ColumnOpens.get());
+        });
+    }
+
+    @Test
+    public void testDoubleColumn() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable("x", false);
+            assertSql(
+                    "v\td\n" +
+                            "3\t0.75\n" +
+                            "4\t1.0\n",
+                    "select v, d from x where d <= 1.0 and d > 0.5"
+            );
+            assertSql("v\td\n", "select v, d from x where d = -1.0");
+            Assert.assertEquals(0, day2ColumnOpens.get());
+        });
+    }
+
+    @Test
+    public void testIntervalScan() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable("x", false);
+            assertSql(
+                    "v\tts\n" +
+                            "27\t1970-01-03T16:48:00.000000Z\n" +
+                            "28\t1970-01-03T19:12:00.000000Z\n",
+                    "select v, ts from x where ts > '1970-01-01T12:00' and 26 < v and v < 29"
+            );
+            Assert.assertEquals(0, day2ColumnOpens.get());
+        });
+    }
+
+    @Test
+    public void testNullsDoNotMatch() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable("x", false);
+            ddl("alter table x add column n int");
+            insert("insert into x(v, n, ts) values (30, 7, '1970-01-03T23:30')");
+            day2ColumnOpens.set(0);
+            // column n is null in all but one row of the last partition
+            assertSql(
+                    "v\tn\n" +
+                            "30\t7\n",
+                    "select v, n from x where n > 0"
+            );
+            Assert.assertEquals(0, day2ColumnOpens.get());
+        });
+    }
+
+    @Test
+    public void testO3RebuildsZoneMap() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable("x", false);
+            insert("insert into x(v, ts) values (1000, '1970-01-02T12:30')");
+            assertSql(
+                    "v\tts\n" +
+                            "1000\t1970-01-02T12:30:00.000000Z\n",
+                    "select v, ts from x where v > 100"
+            );
+            day2ColumnOpens.set(0);
+            assertSql("v\tts\n", "select v, ts from x where v > 2000");
+            Assert.assertEquals(0, day2ColumnOpens.get());
+        });
+    }
+
+    @Test
+    public void testPlan() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable("x", false);
+            assertPlanNoLeakCheck(
+                    "select * from x where v > 24 and 3.5 >= d and s = 'a'",
+                    "Async JIT Filter workers: 1\n" +
+                            "  filter: (24<v and 3.5>=d and s='a')\n" +
+                            "    PageFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: x\n" +
+                            "          zone map filter: v>24 and d<=3.5\n"
+            );
+        });
+    }
+
+    @Test
+    public void testPrunesFullScan() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable("x", false);
+            assertZoneMapFile("1970-01-01", true);
+            assertZoneMapFile("1970-01-03", true);
+            assertSql(
+                    "v\n" +
+                            "25\n" +
+                            "26\n",
+                    "select v from x where v >= 25 and v < 27"
+            );
+            assertSql(
+                    "v\n" +
+                            "5\n",
+                    "select v from x where v = 5"
+            );
+            assertSql("v\n", "select v from x where v > 100");
+            Assert.assertEquals(0, day2ColumnOpens.get());
+
+            assertSql("count\n10\n", "select count() from x where v >= 10 and v <= 19");
+            Assert.assertEquals(1, day2ColumnOpens.get());
+        });
+    }
+
+    @Test
+    public void testUpdateInvalidatesZoneMap() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable("x", false);
+            update("update x set v = 500 where v = 15");
+            assertSql(
+                    "v\tts\n" +
+                            "500\t1970-01-02T12:00:00.000000Z\n",
+                    "select v, ts from x where v > 100"
+            );
+        });
+    }
+
+    @Test
+    public void testWalTable() throws Exception {
+        assertMemoryLeak(ff, () -> {
+            createTable("x", true);
+            insert("insert into x(v, ts) values (1000, '1970-01-02T12:30')");
+            drainWalQueue();
+            assertSql(
+                    "v\tts\n" +
+                            "1000\t1970-01-02T12:30:00.000000Z\n",
+                    "select v, ts from x where v > 100"
+            );
+            day2ColumnOpens.set(0);
+            assertSql("v\n29\n", "select v from x where v > 28 and v < 100");
+            Assert.assertEquals(0, day2ColumnOpens.get());
+        });
+    }
+
+    private static void assertZoneMapFile(String partition, boolean exists) {
+        try (Path path = new Path()) {
+            path.of(configuration.getRoot()).concat(engine.verifyTableName("x")).concat(partition).concat(TableUtils.ZONE_MAP_FILE_NAME);
+            Assert.assertEquals(exists, configuration.getFilesFacade().exists(path.$()));
+        }
+    }
+
+    private void createTable(String tableName, boolean wal) throws Exception {
+        // 3 day partitions with 10 rows each, v is 0..9 on the 1st day, 10..19 on the 2nd and 20..29 on the 3rd
+        ddl(
+                "create table " + tableName + " as (" +
+                        "select (x - 1)::int v, (x - 1) / 4.0 d, rnd_symbol('a','b') s, timestamp_sequence(0, 8640000000) ts " +
+                        "from long_sequence(30)" +
+                        ") timestamp(ts) partition by day" + (wal ? " wal" : " bypass wal")
+        );
+        if (wal) {
+            drainWalQueue();
+        }
+        // zone maps are built from column files on commit
+        day2ColumnOpens.set(0);
+    }
+}
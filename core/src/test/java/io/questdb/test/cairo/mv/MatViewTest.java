@@ -0,0 +1,219 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cairo.mv;
+
+import io.questdb.cairo.mv.MatViewRefreshJob;
+import io.questdb.cairo.mv.MatViewRefreshState;
+import io.questdb.std.ObjList;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MatViewTest extends AbstractCairoTest {
+
+    @Test
+    public void testBaseTableMustBeWal() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table base (sym symbol, price double, ts timestamp) timestamp(ts) partition by day bypass wal");
+            assertException(
+                    "create materialized view price_1h as (select sym, last(price) price, ts from base sample by 1h)",
+                    77,
+                    "base table of a materialized view must be a WAL table"
+            );
+        });
+    }
+
+    @Test
+    public void testBaseTableMustExist() throws Exception {
+        assertMemoryLeak(() -> assertException(
+                "create materialized view price_1h as (select sym, last(price) price, ts from base sample by 1h)",
+                77,
+                "table does not exist"
+        ));
+    }
+
+    @Test
+    public void testFillNotSupported() throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTable();
+            assertException(
+                    "create materialized view price_1h as (select sym, last(price) price, ts from base sample by 1h fill(null))",
+                    100,
+                    "FILL is not supported in materialized views"
+            );
+        });
+    }
+
+    @Test
+    public void testIfNotExists() throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTable();
+            ddl("create materialized view price_1h as (select sym, last(price) price, ts from base sample by 1h)");
+            ddl("create materialized view if not exists price_1h as (select sym, last(price) price, ts from base sample by 1h)");
+            assertException(
+                    "create materialized view price_1h as (select sym, last(price) price, ts from base sample by 1h)",
+                    25,
+                    "table already exists"
+            );
+        });
+    }
+
+    @Test
+    public void testIncrementalRefresh() throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTable();
+            insert(
+                    "insert into base values" +
+                            " ('gbpusd', 1.320, '2024-09-10T12:01')," +
+                            " ('gbpusd', 1.323, '2024-09-10T12:02')," +
+                            " ('jpyusd', 103.21, '2024-09-10T12:02')," +
+                            " ('gbpusd', 1.321, '2024-09-10T13:02')"
+            );
+            drainWalQueue();
+
+            ddl("create materialized view price_1h as (select sym, last(price) price, ts from base sample by 1h) partition by day");
+            drainWalQueue();
+
+            final String viewSql = "select sym, price, ts from price_1h order by ts, sym";
+            final String querySql = "select sym, last(price) price, ts from base sample by 1h order by ts, sym";
+            final String expected = "sym\tprice\tts\n" +
+                    "gbpusd\t1.323\t2024-09-10T12:00:00.000000Z\n" +
+                    "jpyusd\t103.21\t2024-09-10T12:00:00.000000Z\n" +
+                    "gbpusd\t1.321\t2024-09-10T13:00:00.000000Z\n";
+            assertSql(expected, viewSql);
+            assertSql(expected, querySql);
+
+            // out-of-order rows land in an already materialized bucket
+            insert(
+                    "insert into base values" +
+                            " ('gbpusd', 1.327, '2024-09-10T12:05')," +
+                            " ('jpyusd', 103.25, '2024-09-10T14:01')"
+            );
+            refreshViews();
+
+            final String expected2 = "sym\tprice\tts\n" +
+                    "gbpusd\t1.327\t2024-09-10T12:00:00.000000Z\n" +
+                    "jpyusd\t103.21\t2024-09-10T12:00:00.000000Z\n" +
+                    "gbpusd\t1.321\t2024-09-10T13:00:00.000000Z\n" +
+                    "jpyusd\t103.25\t2024-09-10T14:00:00.000000Z\n";
+            assertSql(expected2, viewSql);
+            assertSql(expected2, querySql);
+
+            // nothing to refresh
+            refreshViews();
+            assertSql(expected2, viewSql);
+        });
+    }
+
+    @Test
+    public void testRefreshAfterDropView() throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTable();
+            ddl("create materialized view price_1h as (select sym, last(price) price, ts from base sample by 1h)");
+            drainWalQueue();
+            drop("drop table price_1h");
+
+            insert("insert into base values ('gbpusd', 1.320, '2024-09-10T12:01')");
+            refreshViews();
+
+            final ObjList<MatViewRefreshState> views = new ObjList<>();
+            engine.getMatViewGraph().getViews(views);
+            Assert.assertEquals(0, views.size());
+        });
+    }
+
+    @Test
+    public void testRefreshWithFilterAndAlias() throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTable();
+            ddl(
+                    "create materialized view gbp_1d as (" +
+                            "select b.ts, max(b.price) hi, min(b.price) lo from \"base\" b where b.sym = 'gbpusd' sample by 1d" +
+                            ")"
+            );
+            insert(
+                    "insert into base values" +
+                            " ('gbpusd', 1.320, '2024-09-10T12:01')," +
+                            " ('jpyusd', 103.21, '2024-09-10T12:02')," +
+                            " ('gbpusd', 1.323, '2024-09-11T12:02')"
+            );
+            refreshViews();
+            insert("insert into base values ('gbpusd', 1.310, '2024-09-10T01:00')");
+            refreshViews();
+
+            assertSql(
+                    "ts\thi\tlo\n" +
+                            "2024-09-10T00:00:00.000000Z\t1.32\t1.31\n" +
+                            "2024-09-11T00:00:00.000000Z\t1.323\t1.323\n",
+                    "gbp_1d"
+            );
+        });
+    }
+
+    @Test
+    public void testSampleByRequired() throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTable();
+            assertException(
+                    "create materialized view price_1h as (select sym, last(price) price, ts from base)",
+                    38,
+                    "must use SAMPLE BY"
+            );
+        });
+    }
+
+    @Test
+    public void testViewDefinitionSurvivesReload() throws Exception {
+        assertMemoryLeak(() -> {
+            createBaseTable();
+            ddl("create materialized view price_1h as (select sym, last(price) price, ts from base sample by 1h)");
+            insert("insert into base values ('gbpusd', 1.320, '2024-09-10T12:01')");
+            drainWalQueue();
+
+            engine.getMatViewGraph().clear();
+            engine.load();
+
+            refreshViews();
+            assertSql(
+                    "sym\tprice\tts\n" +
+                            "gbpusd\t1.32\t2024-09-10T12:00:00.000000Z\n",
+                    "price_1h"
+            );
+        });
+    }
+
+    private static void createBaseTable() throws Exception {
+        ddl("create table base (sym symbol, price double, ts timestamp) timestamp(ts) partition by day wal");
+    }
+
+    private static void refreshViews() {
+        drainWalQueue();
+        try (MatViewRefreshJob refreshJob = new MatViewRefreshJob(engine, 1, 1)) {
+            refreshJob.run(0);
+        }
+        drainWalQueue();
+    }
+}
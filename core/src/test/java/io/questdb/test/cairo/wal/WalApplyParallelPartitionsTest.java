@@ -0,0 +1,94 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cairo.wal;
+
+import io.questdb.PropertyKey;
+import io.questdb.test.AbstractBootstrapTest;
+import io.questdb.test.TestServerMain;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class WalApplyParallelPartitionsTest extends AbstractBootstrapTest {
+
+    @Before
+    public void setUp() {
+        super.setUp();
+        TestUtils.unchecked(() -> createDummyConfiguration());
+        dbPath.parent().$();
+    }
+
+    @Test
+    public void testDedupCommitSpanningManyPartitions() throws Exception {
+        assertApplyManyPartitions(true);
+    }
+
+    @Test
+    public void testDedupCommitSpanningManyPartitionsSerial() throws Exception {
+        assertApplyManyPartitions(false);
+    }
+
+    private void assertApplyManyPartitions(boolean parallelPartitions) throws Exception {
+        TestUtils.assertMemoryLeak(() -> {
+            try (TestServerMain serverMain = startWithEnvVariables(
+                    PropertyKey.SHARED_WORKER_COUNT.getEnvVarName(), "1",
+                    PropertyKey.WAL_APPLY_WORKER_COUNT.getEnvVarName(), "4",
+                    PropertyKey.CAIRO_WAL_APPLY_PARALLEL_PARTITIONS_ENABLED.getEnvVarName(), String.valueOf(parallelPartitions)
+            )) {
+                serverMain.compile("create table x (sym symbol, v long, s varchar, ts timestamp) timestamp(ts) partition by hour wal dedup upsert keys(ts, sym)");
+
+                // in-order commit creates 48 partitions
+                serverMain.compile(
+                        "insert into x select case when x % 2 = 1 then 'a' else 'b' end, x, rnd_varchar(1, 20, 1), timestamp_sequence('2024-01-01', 60_000_000) from long_sequence(2880)"
+                );
+                // out-of-order commit touches every partition, half of the rows replace existing ones
+                serverMain.compile(
+                        "insert into x select case when x % 2 = 0 then 'a' else 'd' end, -x, rnd_varchar(1, 20, 1), " +
+                                "timestamp_sequence('2024-01-02T23:59', -60_000_000) from long_sequence(2880)"
+                );
+                serverMain.getEngine().awaitTable("x", 30, TimeUnit.SECONDS);
+
+                serverMain.assertSql(
+                        "select count(), count_distinct(timestamp_floor('h', ts)) from x",
+                        "count\tcount_distinct\n" +
+                                "4320\t48\n"
+                );
+                serverMain.assertSql(
+                        "select count() from x where v < 0",
+                        "count\n" +
+                                "2880\n"
+                );
+                serverMain.assertSql(
+                        "select max(c) from (select ts, count() c from x group by ts)",
+                        "max\n" +
+                                "2\n"
+                );
+            }
+        });
+    }
+}
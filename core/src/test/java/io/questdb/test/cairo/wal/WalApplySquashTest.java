@@ -0,0 +1,153 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cairo.wal;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.TableWriter;
+import io.questdb.cairo.wal.WalWriter;
+import io.questdb.log.Log;
+import io.questdb.log.LogFactory;
+import io.questdb.std.Misc;
+import io.questdb.std.Rnd;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Test;
+
+public class WalApplySquashTest extends AbstractCairoTest {
+    private static final Log LOG = LogFactory.getLog(WalApplySquashTest.class);
+
+    @Test
+    public void testDedupSquashedTransactions() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, sym symbol, v long) timestamp(ts) partition by hour wal dedup upsert keys(ts, sym)");
+            try (WalWriter walWriter = getWalWriter("x")) {
+                // every transaction overwrites the rows of the previous one
+                for (int i = 0; i < 50; i++) {
+                    for (int j = 0; j < 4; j++) {
+                        TableWriter.Row row = walWriter.newRow(j * 1_000_000L);
+                        row.putSym(1, j % 2 == 0 ? "a" : "b" + i);
+                        row.putLong(2, i);
+                        row.append();
+                    }
+                    walWriter.commit();
+                }
+            }
+            drainWalQueue();
+
+            assertSql(
+                    "count\tmin\tmax\n" +
+                            "102\t0\t49\n",
+                    "select count(), min(v), max(v) from x"
+            );
+            assertSql(
+                    "ts\tsym\tv\n" +
+                            "1970-01-01T00:00:00.000000Z\ta\t49\n" +
+                            "1970-01-01T00:00:02.000000Z\ta\t49\n",
+                    "select * from x where sym = 'a'"
+            );
+        });
+    }
+
+    @Test
+    public void testSquashDisabled() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_WAL_APPLY_SQUASH_MAX_ROWS, 0);
+        assertSquashedTransactions(TestUtils.generateRandom(LOG), 3);
+    }
+
+    @Test
+    public void testSquashLimitedByRows() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_WAL_APPLY_SQUASH_MAX_ROWS, 10);
+        assertSquashedTransactions(TestUtils.generateRandom(LOG), 3);
+    }
+
+    @Test
+    public void testSquashLimitedByTxnCount() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_WAL_MAX_LAG_TXN_COUNT, 3);
+        assertSquashedTransactions(TestUtils.generateRandom(LOG), 3);
+    }
+
+    @Test
+    public void testSquashManyWriters() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_WAL_MAX_LAG_TXN_COUNT, -1);
+        assertSquashedTransactions(TestUtils.generateRandom(LOG), 5);
+    }
+
+    @Test
+    public void testSquashSingleWriter() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_WAL_MAX_LAG_TXN_COUNT, -1);
+        assertSquashedTransactions(TestUtils.generateRandom(LOG), 1);
+    }
+
+    private void assertSquashedTransactions(Rnd rnd, int writerCount) throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, sym symbol, s symbol, v long) timestamp(ts) partition by hour wal");
+            ddl("create table y (ts timestamp, sym symbol, s symbol, v long) timestamp(ts) partition by hour bypass wal");
+
+            final WalWriter[] walWriters = new WalWriter[writerCount];
+            try (TableWriter writer = getWriter("y")) {
+                for (int i = 0; i < writerCount; i++) {
+                    walWriters[i] = getWalWriter("x");
+                }
+
+                long v = 0;
+                for (int run = 0, runs = 20 + rnd.nextInt(20); run < runs; run++) {
+                    // each writer commits a run of transactions, runs of the same segment are squashed,
+                    // symbols new to the table are added by the writers in different order
+                    final WalWriter walWriter = walWriters[rnd.nextInt(writerCount)];
+                    for (int txn = 0, txns = 1 + rnd.nextInt(30); txn < txns; txn++) {
+                        final long tsLo = rnd.nextBoolean() ? v * 100_000L : rnd.nextLong(v + 1) * 100_000L;
+                        for (int r = 0, rows = rnd.nextInt(5); r < rows; r++) {
+                            final long ts = tsLo + rnd.nextLong(3_600_000_000L);
+                            final CharSequence sym = rnd.nextInt(10) == 0 ? null : rnd.nextString(1);
+                            final CharSequence s = "s" + rnd.nextInt(200);
+
+                            TableWriter.Row walRow = walWriter.newRow(ts);
+                            walRow.putSym(1, sym);
+                            walRow.putSym(2, s);
+                            walRow.putLong(3, v);
+                            walRow.append();
+
+                            TableWriter.Row row = writer.newRow(ts);
+                            row.putSym(1, sym);
+                            row.putSym(2, s);
+                            row.putLong(3, v);
+                            row.append();
+                            v++;
+                        }
+                        walWriter.commit();
+                    }
+                }
+                writer.commit();
+            } finally {
+                Misc.free(walWriters);
+            }
+            drainWalQueue();
+
+            assertSqlCursors("y order by v", "x order by v");
+            assertSqlCursors("select sym, count() from y order by sym", "select sym, count() from x order by sym");
+        });
+    }
+}
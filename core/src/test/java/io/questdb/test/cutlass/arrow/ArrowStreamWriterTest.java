@@ -0,0 +1,223 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cutlass.arrow;
+
+import io.questdb.cairo.sql.PageFrame;
+import io.questdb.cairo.sql.PageFrameAddressCache;
+import io.questdb.cairo.sql.PageFrameCursor;
+import io.questdb.cairo.sql.PageFrameMemory;
+import io.questdb.cairo.sql.PageFrameMemoryPool;
+import io.questdb.cairo.sql.PageFrameMemoryRecord;
+import io.questdb.cairo.sql.PartitionFrameCursorFactory;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cutlass.arrow.ArrowStreamWriter;
+import io.questdb.std.IntList;
+import io.questdb.std.str.StringSink;
+import io.questdb.std.str.Utf8StringSink;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ArrowStreamWriterTest extends AbstractCairoTest {
+
+    @Test
+    public void testColumnSubset() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select x, 'a' || x s, timestamp_sequence(0, 1000) ts from long_sequence(3)) timestamp(ts)");
+            final IntList columnIndexes = new IntList();
+            columnIndexes.add(2);
+            columnIndexes.add(0);
+            try (
+                    RecordCursorFactory factory = select("x");
+                    ArrowStreamWriter writer = new ArrowStreamWriter()
+            ) {
+                writer.of(factory.getMetadata(), columnIndexes);
+                TestUtils.assertEquals(
+                        "ts:Timestamp\tx:Int64\n" +
+                                "0\t1\n" +
+                                "1000\t2\n" +
+                                "2000\t3\n",
+                        writeRecords(factory, writer, 2)
+                );
+            }
+        });
+    }
+
+    @Test
+    public void testEmptyResult() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (i int, ts timestamp) timestamp(ts) partition by day");
+            try (
+                    RecordCursorFactory factory = select("x");
+                    ArrowStreamWriter writer = new ArrowStreamWriter()
+            ) {
+                writer.of(factory.getMetadata(), null);
+                TestUtils.assertEquals("i:Int32\tts:Timestamp\n", writeRecords(factory, writer, 10));
+                TestUtils.assertEquals("i:Int32\tts:Timestamp\n", writeFrames(factory, writer));
+            }
+        });
+    }
+
+    @Test
+    public void testPageFramesMatchRecords() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl(
+                    "create table x as (select" +
+                            " rnd_boolean() b, rnd_byte() bt, rnd_short() sh, rnd_int(0, 10, 2) i, rnd_long(0, 10, 2) l," +
+                            " rnd_float(2) f, rnd_double(2) d, rnd_date(1, 10000000, 2) dt, rnd_str(3, 5, 2) s," +
+                            " rnd_varchar(1, 5, 2) v, rnd_symbol('a', 'b', null) sym, rnd_char() c, rnd_uuid4() u," +
+                            " rnd_ipv4() ip, rnd_geohash(10) g, rnd_bin(1, 4, 2) bin, timestamp_sequence(0, 600000000) ts" +
+                            " from long_sequence(23)) timestamp(ts) partition by hour"
+            );
+            // column top in all but the last partition
+            ddl("alter table x add column late int");
+            insert("insert into x(ts, late) values (13800000000, 42)");
+
+            try (
+                    RecordCursorFactory factory = select("x");
+                    ArrowStreamWriter writer = new ArrowStreamWriter()
+            ) {
+                writer.of(factory.getMetadata(), null);
+                final String expected = writeRecords(factory, writer, 5);
+                Assert.assertEquals(25, expected.split("\n").length);
+                TestUtils.assertEquals(expected, writeFrames(factory, writer));
+                TestUtils.assertEquals(expected, writeRecords(factory, writer, 1000));
+            }
+        });
+    }
+
+    @Test
+    public void testTypes() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (b boolean, bt byte, sh short, i int, l long, f float, d double, dt date, s string, v varchar, sym symbol, c char, ts timestamp) timestamp(ts)");
+            insert("insert into x values (true, 1, 2, 3, 4, 5.5, 6.25, 7, 'str', 'вар', 'sym', 'c', 8)");
+            insert("insert into x values (false, 0, 0, null, null, null, null, null, null, null, null, null, 9)");
+            try (
+                    RecordCursorFactory factory = select("x");
+                    ArrowStreamWriter writer = new ArrowStreamWriter()
+            ) {
+                writer.of(factory.getMetadata(), null);
+                final String expected = "b:Bool\tbt:Int8\tsh:Int16\ti:Int32\tl:Int64\tf:Float32\td:Float64\tdt:Date\ts:Utf8\tv:Utf8\tsym:Utf8\tc:Utf8\tts:Timestamp\n" +
+                        "true\t1\t2\t3\t4\t5.5\t6.25\t7\tstr\tвар\tsym\tc\t8\n" +
+                        "false\t0\t0\tnull\tnull\tnull\tnull\tnull\tnull\tnull\tnull\tnull\t9\n";
+                TestUtils.assertEquals(expected, writeRecords(factory, writer, 1));
+                TestUtils.assertEquals(expected, writeFrames(factory, writer));
+            }
+        });
+    }
+
+    @Test
+    public void testTextTypes() throws Exception {
+        assertMemoryLeak(() -> {
+            try (
+                    RecordCursorFactory factory = select(
+                            "select cast('a0b1c2d3-0000-4000-8000-000000000001' as uuid) u, cast('1.2.3.4' as ipv4) ip," +
+                                    " cast(null as uuid) nu, cast(null as ipv4) nip, #u33d g"
+                    );
+                    ArrowStreamWriter writer = new ArrowStreamWriter()
+            ) {
+                writer.of(factory.getMetadata(), null);
+                TestUtils.assertEquals(
+                        "u:Utf8\tip:Utf8\tnu:Utf8\tnip:Utf8\tg:Utf8\n" +
+                                "a0b1c2d3-0000-4000-8000-000000000001\t1.2.3.4\tnull\tnull\tu33d\n",
+                        writeRecords(factory, writer, 10)
+                );
+            }
+        });
+    }
+
+    private static void copySegments(ArrowStreamWriter writer, Utf8StringSink sink) {
+        for (int i = 0, n = writer.getSegmentCount(); i < n; i++) {
+            final long address = writer.getSegmentAddress(i);
+            sink.putNonAscii(address, address + writer.getSegmentSize(i));
+        }
+    }
+
+    private static String decode(Utf8StringSink stream) {
+        final StringSink sink = new StringSink();
+        TestArrowStreamReader.toText(stream, sink);
+        return sink.toString();
+    }
+
+    private static String writeFrames(RecordCursorFactory factory, ArrowStreamWriter writer) {
+        Assert.assertTrue(factory.supportsPageFrameCursor());
+        final Utf8StringSink stream = new Utf8StringSink();
+        writer.prepareSchema();
+        copySegments(writer, stream);
+        final PageFrameAddressCache addressCache = new PageFrameAddressCache(configuration);
+        addressCache.of(factory.getMetadata());
+        try (
+                PageFrameCursor cursor = factory.getPageFrameCursor(sqlExecutionContext, PartitionFrameCursorFactory.ORDER_ASC);
+                PageFrameMemoryPool memoryPool = new PageFrameMemoryPool();
+                PageFrameMemoryRecord record = new PageFrameMemoryRecord()
+        ) {
+            memoryPool.of(addressCache);
+            record.of(cursor);
+            PageFrame frame;
+            int frameIndex = 0;
+            while ((frame = cursor.next()) != null) {
+                addressCache.add(frameIndex, frame);
+                final PageFrameMemory memory = memoryPool.navigateTo(frameIndex++);
+                record.init(memory);
+                writer.appendPageFrame(memory, record, 0, frame.getPartitionHi() - frame.getPartitionLo());
+                writer.prepareRecordBatch();
+                copySegments(writer, stream);
+                writer.clearRecordBatch();
+            }
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        writer.prepareEndOfStream();
+        copySegments(writer, stream);
+        return decode(stream);
+    }
+
+    private static String writeRecords(RecordCursorFactory factory, ArrowStreamWriter writer, int batchSize) throws Exception {
+        final Utf8StringSink stream = new Utf8StringSink();
+        writer.prepareSchema();
+        copySegments(writer, stream);
+        try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+            while (cursor.hasNext()) {
+                writer.appendRecord(cursor.getRecord());
+                if (writer.getRowCount() == batchSize) {
+                    writer.prepareRecordBatch();
+                    copySegments(writer, stream);
+                    writer.clearRecordBatch();
+                }
+            }
+        }
+        if (writer.getRowCount() > 0) {
+            writer.prepareRecordBatch();
+            copySegments(writer, stream);
+            writer.clearRecordBatch();
+        }
+        writer.prepareEndOfStream();
+        copySegments(writer, stream);
+        return decode(stream);
+    }
+}
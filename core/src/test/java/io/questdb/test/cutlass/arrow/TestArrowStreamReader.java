@@ -0,0 +1,260 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.cutlass.arrow;
+
+import io.questdb.std.IntList;
+import io.questdb.std.ObjList;
+import io.questdb.std.str.StringSink;
+import io.questdb.std.str.Utf8Sequence;
+import org.junit.Assert;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes an Arrow IPC stream into text, one line per row, so that tests don't depend on how rows
+ * are split into record batches. Alignment of messages, buffers and flatbuffer fields is asserted.
+ */
+public final class TestArrowStreamReader {
+    private static final int TYPE_BINARY = 4;
+    private static final int TYPE_BOOL = 6;
+    private static final int TYPE_DATE = 8;
+    private static final int TYPE_FLOATING_POINT = 3;
+    private static final int TYPE_INT = 2;
+    private static final int TYPE_TIMESTAMP = 10;
+    private static final int TYPE_UTF8 = 5;
+    private final IntList fieldTypes = new IntList();
+    // bit width of ints, precision of floating points
+    private final IntList fieldWidths = new IntList();
+    private final ObjList<String> names = new ObjList<>();
+    private final StringSink sink;
+    private final Utf8Sequence stream;
+
+    private TestArrowStreamReader(Utf8Sequence stream, StringSink sink) {
+        this.stream = stream;
+        this.sink = sink;
+    }
+
+    public static void toText(Utf8Sequence stream, StringSink sink) {
+        sink.clear();
+        new TestArrowStreamReader(stream, sink).read();
+    }
+
+    private int fieldOffset(int table, int field) {
+        final int vtable = table - getInt(table);
+        final int vtableSize = getShort(vtable);
+        final int o = 4 + 2 * field;
+        return o < vtableSize ? getShort(vtable + o) : 0;
+    }
+
+    private int getByte(int offset) {
+        return stream.byteAt(offset) & 0xff;
+    }
+
+    private int getInt(int offset) {
+        return getByte(offset) | getByte(offset + 1) << 8 | getByte(offset + 2) << 16 | getByte(offset + 3) << 24;
+    }
+
+    private long getLong(int offset) {
+        return (getInt(offset) & 0xffffffffL) | ((long) getInt(offset + 4)) << 32;
+    }
+
+    private int getShort(int offset) {
+        return getByte(offset) | getByte(offset + 1) << 8;
+    }
+
+    private void putValue(int body, int batch, int buffer, int type, int width, int row) {
+        final int validityLen = (int) getLong(bufferAt(batch, buffer) + 8);
+        if (validityLen > 0) {
+            final int validity = body + (int) getLong(bufferAt(batch, buffer));
+            if ((getByte(validity + (row >>> 3)) & (1 << (row & 7))) == 0) {
+                sink.put("null");
+                return;
+            }
+        }
+        final int data = body + (int) getLong(bufferAt(batch, buffer + 1));
+        switch (type) {
+            case TYPE_BOOL:
+                sink.put((getByte(data + (row >>> 3)) & (1 << (row & 7))) != 0);
+                break;
+            case TYPE_INT:
+                switch (width) {
+                    case 8:
+                        sink.put((byte) getByte(data + row));
+                        break;
+                    case 16:
+                        sink.put((short) getShort(data + 2 * row));
+                        break;
+                    case 32:
+                        sink.put(getInt(data + 4 * row));
+                        break;
+                    default:
+                        sink.put(getLong(data + 8 * row));
+                        break;
+                }
+                break;
+            case TYPE_FLOATING_POINT:
+                if (width == 1) {
+                    sink.put(Float.toString(Float.intBitsToFloat(getInt(data + 4 * row))));
+                } else {
+                    sink.put(Double.toString(Double.longBitsToDouble(getLong(data + 8 * row))));
+                }
+                break;
+            case TYPE_DATE:
+            case TYPE_TIMESTAMP:
+                sink.put(getLong(data + 8 * row));
+                break;
+            default:
+                final int values = body + (int) getLong(bufferAt(batch, buffer + 2));
+                final int lo = getInt(data + 4 * row);
+                final int hi = getInt(data + 4 * row + 4);
+                final byte[] bytes = new byte[hi - lo];
+                for (int i = lo; i < hi; i++) {
+                    bytes[i - lo] = stream.byteAt(values + i);
+                }
+                if (type == TYPE_UTF8) {
+                    sink.put(new String(bytes, StandardCharsets.UTF_8));
+                } else {
+                    for (byte b : bytes) {
+                        sink.put(Character.forDigit((b >> 4) & 0xf, 16)).put(Character.forDigit(b & 0xf, 16));
+                    }
+                }
+                break;
+        }
+    }
+
+    private void read() {
+        int pos = 0;
+        while (true) {
+            Assert.assertEquals(0, pos % 8);
+            Assert.assertEquals(-1, getInt(pos));
+            final int metadataSize = getInt(pos + 4);
+            pos += 8;
+            if (metadataSize == 0) {
+                break;
+            }
+            Assert.assertEquals(0, metadataSize % 8);
+            final int message = pos + getInt(pos);
+            Assert.assertEquals(4, getShort(message + fieldOffset(message, 0)));
+            final int headerType = getByte(message + fieldOffset(message, 1));
+            final int header = ref(message, 2);
+            final int bodyLengthOffset = message + fieldOffset(message, 3);
+            Assert.assertEquals(0, (bodyLengthOffset - pos) % 8);
+            final long bodyLength = getLong(bodyLengthOffset);
+            Assert.assertEquals(0, bodyLength % 8);
+            pos += metadataSize;
+            if (headerType == 1) {
+                readSchema(header);
+            } else {
+                Assert.assertEquals(3, headerType);
+                readRecordBatch(header, pos);
+            }
+            pos += (int) bodyLength;
+        }
+        Assert.assertEquals(stream.size(), pos);
+    }
+
+    private void readRecordBatch(int batch, int body) {
+        final long rowCount = getLong(batch + fieldOffset(batch, 0));
+        final int nodes = ref(batch, 1);
+        Assert.assertEquals(names.size(), getInt(nodes));
+        final int buffers = ref(batch, 2);
+        for (int row = 0; row < rowCount; row++) {
+            for (int i = 0, buffer = 0, n = names.size(); i < n; i++) {
+                final int type = fieldTypes.getQuick(i);
+                Assert.assertEquals(rowCount, getLong(nodes + 4 + 16 * i));
+                if (i > 0) {
+                    sink.put('\t');
+                }
+                putValue(body, buffers, buffer, type, fieldWidths.getQuick(i), row);
+                buffer += type == TYPE_UTF8 || type == TYPE_BINARY ? 3 : 2;
+            }
+            sink.put('\n');
+        }
+        for (int i = 0, n = getInt(buffers); i < n; i++) {
+            Assert.assertEquals(0, getLong(bufferAt(buffers, i)) % 8);
+        }
+    }
+
+    private int bufferAt(int buffers, int index) {
+        final int address = buffers + 4 + 16 * index;
+        Assert.assertEquals(0, address % 8 - (buffers + 4) % 8);
+        return address;
+    }
+
+    private void readSchema(int schema) {
+        final int fields = ref(schema, 1);
+        for (int i = 0, n = getInt(fields); i < n; i++) {
+            final int field = fields + 4 + 4 * i + getInt(fields + 4 + 4 * i);
+            final int nameOffset = ref(field, 0);
+            final byte[] name = new byte[getInt(nameOffset)];
+            for (int j = 0; j < name.length; j++) {
+                name[j] = stream.byteAt(nameOffset + 4 + j);
+            }
+            final int type = getByte(field + fieldOffset(field, 2));
+            final int typeTable = ref(field, 3);
+            // children are mandatory
+            Assert.assertNotEquals(0, fieldOffset(field, 5));
+            int width = 0;
+            if (type == TYPE_INT) {
+                width = getInt(typeTable + fieldOffset(typeTable, 0));
+            } else if (type == TYPE_FLOATING_POINT) {
+                width = getShort(typeTable + fieldOffset(typeTable, 0));
+            }
+            names.add(new String(name, StandardCharsets.UTF_8));
+            fieldTypes.add(type);
+            fieldWidths.add(width);
+            if (i > 0) {
+                sink.put('\t');
+            }
+            sink.put(names.getLast()).put(':').put(typeName(type, width));
+        }
+        sink.put('\n');
+    }
+
+    private int ref(int table, int field) {
+        final int offset = table + fieldOffset(table, field);
+        return offset + getInt(offset);
+    }
+
+    private static String typeName(int type, int width) {
+        switch (type) {
+            case TYPE_BOOL:
+                return "Bool";
+            case TYPE_INT:
+                return "Int" + width;
+            case TYPE_FLOATING_POINT:
+                return width == 1 ? "Float32" : "Float64";
+            case TYPE_DATE:
+                return "Date";
+            case TYPE_TIMESTAMP:
+                return "Timestamp";
+            case TYPE_BINARY:
+                return "Binary";
+            default:
+                return "Utf8";
+        }
+    }
+}
@@ -133,6 +133,7 @@ import io.questdb.test.cairo.TableModel;
 import io.questdb.test.cairo.TestRecord;
 import io.questdb.test.cairo.TestTableReaderRecordCursor;
 import io.questdb.test.cutlass.NetUtils;
+import io.questdb.test.cutlass.arrow.TestArrowStreamReader;
 import io.questdb.test.cutlass.suspend.TestCase;
 import io.questdb.test.cutlass.suspend.TestCases;
 import io.questdb.test.mp.TestWorkerPool;
@@ -3275,6 +3276,61 @@ public class IODispatcherTest extends AbstractTest {
         });
     }
 
+    @Test
+    public void testJsonQueryArrowFormat() throws Exception {
+        getSimpleTester().run(engine -> {
+            testHttpClient.assertGet(
+                    "{\"ddl\":\"OK\"}",
+                    "create table x as (select x i, 'sym' || (x % 2) s, timestamp_sequence(0, 3600000000) ts from long_sequence(5)) timestamp(ts) partition by hour"
+            );
+            final CharSequenceObjHashMap<String> queryParams = new CharSequenceObjHashMap<>();
+            queryParams.put("fmt", "arrow");
+            final Utf8StringSink stream = new Utf8StringSink();
+            final StringSink sink = new StringSink();
+
+            // forward scan, record batches are sent straight from page frames
+            testHttpClient.toSink("/exec", "x", queryParams, stream, "200");
+            TestArrowStreamReader.toText(stream, sink);
+            TestUtils.assertEquals(
+                    "i:Int64\ts:Utf8\tts:Timestamp\n" +
+                            "1\tsym1\t0\n" +
+                            "2\tsym0\t3600000000\n" +
+                            "3\tsym1\t7200000000\n" +
+                            "4\tsym0\t10800000000\n" +
+                            "5\tsym1\t14400000000\n",
+                    sink
+            );
+
+            queryParams.put("limit", "2,4");
+            queryParams.put("cols", "ts,i");
+            testHttpClient.toSink("/exec", "x", queryParams, stream, "200");
+            TestArrowStreamReader.toText(stream, sink);
+            TestUtils.assertEquals(
+                    "ts:Timestamp\ti:Int64\n" +
+                            "3600000000\t2\n" +
+                            "7200000000\t3\n" +
+                            "10800000000\t4\n",
+                    sink
+            );
+
+            // backward scan goes through the record cursor
+            queryParams.clear();
+            queryParams.put("fmt", "arrow");
+            testHttpClient.toSink("/exec", "x order by ts desc limit 2", queryParams, stream, "200");
+            TestArrowStreamReader.toText(stream, sink);
+            TestUtils.assertEquals(
+                    "i:Int64\ts:Utf8\tts:Timestamp\n" +
+                            "5\tsym1\t14400000000\n" +
+                            "4\tsym0\t10800000000\n",
+                    sink
+            );
+
+            // errors before the first byte is sent are still reported as JSON
+            testHttpClient.toSink("/exec", "select * from y", queryParams, stream, "400");
+            TestUtils.assertContains(stream.toString(), "table does not exist [table=y]");
+        });
+    }
+
     @Test
     public void testJsonQueryBadUtf8() throws Exception {
         testJsonQuery(
@@ -4828,6 +4884,147 @@ public class IODispatcherTest extends AbstractTest {
         );
     }
 
+    @Test
+    public void testJsonQueryScrollableCursor() throws Exception {
+        getSimpleTester().run(engine -> {
+            testHttpClient.assertGet("{\"ddl\":\"OK\"}", "create table x as (select x i from long_sequence(6))");
+
+            final CharSequenceObjHashMap<String> queryParams = new CharSequenceObjHashMap<>();
+            queryParams.put("query", "x");
+            queryParams.put("limit", "1,3");
+            queryParams.put("scroll", "true");
+            testHttpClient.assertGet(
+                    "/exec",
+                    "{\"query\":\"x\",\"columns\":[{\"name\":\"i\",\"type\":\"LONG\"}],\"timestamp\":-1,\"dataset\":[[1],[2],[3]],\"count\":3,\"cursor\":0}",
+                    queryParams,
+                    null,
+                    null
+            );
+            Assert.assertEquals(1, engine.getScrollableCursorRegistry().size());
+
+            // rows inserted after the first page are not visible to the parked cursor
+            testHttpClient.assertGet("{\"ddl\":\"OK\"}", "insert into x select x + 6 from long_sequence(4)");
+
+            queryParams.clear();
+            queryParams.put("query", "x");
+            queryParams.put("limit", "4,5");
+            queryParams.put("cursor", "0");
+            testHttpClient.assertGet(
+                    "/exec",
+                    "{\"query\":\"x\",\"columns\":[{\"name\":\"i\",\"type\":\"LONG\"}],\"timestamp\":-1,\"dataset\":[[4],[5]],\"count\":5,\"cursor\":0}",
+                    queryParams,
+                    null,
+                    null
+            );
+            Assert.assertEquals(1, engine.getScrollableCursorRegistry().size());
+
+            queryParams.put("limit", "6,10");
+            testHttpClient.assertGet(
+                    "/exec",
+                    "{\"query\":\"x\",\"columns\":[{\"name\":\"i\",\"type\":\"LONG\"}],\"timestamp\":-1,\"dataset\":[[6]],\"count\":6}",
+                    queryParams,
+                    null,
+                    null
+            );
+            // exhausted cursor is closed
+            Assert.assertEquals(0, engine.getScrollableCursorRegistry().size());
+
+            // unknown cursor id re-runs the query
+            testHttpClient.assertGet(
+                    "/exec",
+                    "{\"query\":\"x\",\"columns\":[{\"name\":\"i\",\"type\":\"LONG\"}],\"timestamp\":-1,\"dataset\":[[6],[7],[8],[9],[10]],\"count\":10}",
+                    queryParams,
+                    null,
+                    null
+            );
+        });
+    }
+
+    @Test
+    public void testJsonQueryScrollableCursorCount() throws Exception {
+        getSimpleTester().run(engine -> {
+            testHttpClient.assertGet("{\"ddl\":\"OK\"}", "create table x as (select x i from long_sequence(20))");
+
+            // filtered cursor has unknown size, so rows are counted to the end of the cursor
+            final CharSequenceObjHashMap<String> queryParams = new CharSequenceObjHashMap<>();
+            queryParams.put("query", "x where i % 2 = 0");
+            queryParams.put("limit", "1,2");
+            queryParams.put("count", "true");
+            queryParams.put("scroll", "true");
+            testHttpClient.assertGet(
+                    "/exec",
+                    "{\"query\":\"x where i % 2 = 0\",\"columns\":[{\"name\":\"i\",\"type\":\"LONG\"}],\"timestamp\":-1,\"dataset\":[[2],[4]],\"count\":10,\"cursor\":0}",
+                    queryParams,
+                    null,
+                    null
+            );
+
+            queryParams.put("limit", "3,4");
+            queryParams.put("cursor", "0");
+            testHttpClient.assertGet(
+                    "/exec",
+                    "{\"query\":\"x where i % 2 = 0\",\"columns\":[{\"name\":\"i\",\"type\":\"LONG\"}],\"timestamp\":-1,\"dataset\":[[6],[8]],\"count\":10,\"cursor\":0}",
+                    queryParams,
+                    null,
+                    null
+            );
+
+            // pages can be skipped forward
+            queryParams.put("limit", "8,9");
+            testHttpClient.assertGet(
+                    "/exec",
+                    "{\"query\":\"x where i % 2 = 0\",\"columns\":[{\"name\":\"i\",\"type\":\"LONG\"}],\"timestamp\":-1,\"dataset\":[[16],[18]],\"count\":10,\"cursor\":0}",
+                    queryParams,
+                    null,
+                    null
+            );
+
+            // going back re-runs the query, the new cursor keeps the id
+            queryParams.put("limit", "1,2");
+            testHttpClient.assertGet(
+                    "/exec",
+                    "{\"query\":\"x where i % 2 = 0\",\"columns\":[{\"name\":\"i\",\"type\":\"LONG\"}],\"timestamp\":-1,\"dataset\":[[2],[4]],\"count\":10,\"cursor\":0}",
+                    queryParams,
+                    null,
+                    null
+            );
+            Assert.assertEquals(1, engine.getScrollableCursorRegistry().size());
+        });
+    }
+
+    @Test
+    public void testJsonQueryScrollableCursorMaxPerUser() throws Exception {
+        getSimpleTester().run(engine -> {
+            final int maxPerUser = engine.getConfiguration().getSqlScrollableCursorMaxPerUser();
+            final CharSequenceObjHashMap<String> queryParams = new CharSequenceObjHashMap<>();
+            queryParams.put("query", "select x from long_sequence(10)");
+            queryParams.put("limit", "1,1");
+            queryParams.put("scroll", "true");
+            for (int i = 0; i <= maxPerUser; i++) {
+                testHttpClient.assertGet(
+                        "/exec",
+                        "{\"query\":\"select x from long_sequence(10)\",\"columns\":[{\"name\":\"x\",\"type\":\"LONG\"}],\"timestamp\":-1,\"dataset\":[[1]],\"count\":1,\"cursor\":" + i + "}",
+                        queryParams,
+                        null,
+                        null
+                );
+            }
+            Assert.assertEquals(maxPerUser, engine.getScrollableCursorRegistry().size());
+
+            // least recently used cursor was closed
+            queryParams.put("limit", "2,2");
+            queryParams.put("cursor", "0");
+            testHttpClient.assertGet(
+                    "/exec",
+                    "{\"query\":\"select x from long_sequence(10)\",\"columns\":[{\"name\":\"x\",\"type\":\"LONG\"}],\"timestamp\":-1,\"dataset\":[[2]],\"count\":2,\"cursor\":" + (maxPerUser + 1) + "}",
+                    queryParams,
+                    null,
+                    null
+            );
+            Assert.assertEquals(maxPerUser, engine.getScrollableCursorRegistry().size());
+        });
+    }
+
     @Test
     public void testJsonQuerySelectAlterSelect() throws Exception {
         testJsonQuery0(1, engine -> {
@@ -198,6 +198,22 @@ public class TestHttpClient implements QuietCloseable {
         }
     }
 
+    public void toSink(
+            CharSequence url,
+            CharSequence sql,
+            @Nullable CharSequenceObjHashMap<String> queryParams,
+            Utf8StringSink sink,
+            @Nullable CharSequence expectedStatus
+    ) {
+        try {
+            toSink0(url, sql, sink, null, null, null, queryParams, expectedStatus);
+        } finally {
+            if (!keepConnection) {
+                httpClient.disconnect();
+            }
+        }
+    }
+
     private void reqToSink(
             HttpClient.Request req,
             Utf8StringSink sink,
@@ -120,6 +120,8 @@ public class AbstractLineTcpReceiverTest extends AbstractCairoTest {
     };
     protected int partitionByDefault = PartitionBy.DAY;
     protected boolean useLegacyStringDefault = true;
+    protected long writerRebalanceInterval = 10_000;
+    protected double writerRebalanceMaxLoadRatio = 2.0;
 
     protected final LineTcpReceiverConfiguration lineConfiguration = new DefaultLineTcpReceiverConfiguration() {
         @Override
@@ -201,6 +203,16 @@ public class AbstractLineTcpReceiverTest extends AbstractCairoTest {
             return 4;
         }
 
+        @Override
+        public long getWriterRebalanceInterval() {
+            return writerRebalanceInterval;
+        }
+
+        @Override
+        public double getWriterRebalanceMaxLoadRatio() {
+            return writerRebalanceMaxLoadRatio;
+        }
+
         @Override
         public boolean isUseLegacyStringDefault() {
             return useLegacyStringDefault;
@@ -253,6 +265,8 @@ public class AbstractLineTcpReceiverTest extends AbstractCairoTest {
         commitIntervalDefault = 2000;
         partitionByDefault = PartitionBy.DAY;
         disconnectOnError = false;
+        writerRebalanceInterval = 10_000;
+        writerRebalanceMaxLoadRatio = 2.0;
         nf = NetworkFacadeImpl.INSTANCE;
     }
 
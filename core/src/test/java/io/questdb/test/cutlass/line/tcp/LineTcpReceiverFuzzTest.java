@@ -106,6 +106,17 @@ public class LineTcpReceiverFuzzTest extends AbstractLineTcpReceiverFuzzTest {
         runTest();
     }
 
+    @Test
+    public void testLoadRebalanceWriterThreads() throws Exception {
+        // check writer thread load on every maintenance run and migrate tables on a slight
+        // imbalance, so that tables are moved between writer threads while being written to
+        writerRebalanceInterval = 1;
+        writerRebalanceMaxLoadRatio = 1.1;
+        maintenanceInterval = 5;
+        initLoadParameters(100, Os.isWindows() ? 3 : 5, 7, 12, 20);
+        runTest();
+    }
+
     @Test
     public void testLoadSendSymbolsWithSpace() throws Exception {
         initLoadParameters(100, Os.isWindows() ? 3 : 5, 4, 8, 20);
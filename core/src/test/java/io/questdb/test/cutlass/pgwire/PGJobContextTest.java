@@ -1812,6 +1812,98 @@ if __name__ == "__main__":
 //        }
 //    }
 
+    @Test
+    public void testBatchInsertPipelinedCommitsOnce() throws Exception {
+        skipOnWalRun(); // txn count of non-WAL table
+        assertWithPgServer(CONN_AWARE_EXTENDED_ALL, (connection, binary, mode, port) -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("create table test (id long, val int)");
+            }
+
+            connection.setAutoCommit(true);
+            try (PreparedStatement batchInsert = connection.prepareStatement("insert into test(id,val) values(?,?)")) {
+                for (int i = 0; i < 100; i++) {
+                    batchInsert.setLong(1, i);
+                    batchInsert.setInt(2, 2 * i);
+                    batchInsert.addBatch();
+                }
+                final long[] counts = batchInsert.executeLargeBatch();
+                Assert.assertEquals(100, counts.length);
+                for (long count : counts) {
+                    Assert.assertEquals(1, count);
+                }
+            }
+
+            final StringSink sink = new StringSink();
+            try (
+                    Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery("select count(), sum(val) from test")
+            ) {
+                assertResultSet(
+                        "count[BIGINT],sum[BIGINT]\n" +
+                                "100,9900\n",
+                        sink,
+                        rs
+                );
+            }
+            // the pipelined executions were committed together
+            try (TableReader reader = getReader("test")) {
+                Assert.assertEquals(1, reader.getTxn());
+            }
+        });
+    }
+
+    @Test
+    public void testBatchInsertPipelinedFailureRollsBackBatch() throws Exception {
+        skipOnWalRun(); // out-of-order insert fails on non-partitioned table only
+        assertWithPgServer(CONN_AWARE_EXTENDED_ALL, (connection, binary, mode, port) -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("create table test (id long, k timestamp) timestamp(k)");
+            }
+
+            connection.setAutoCommit(true);
+            try (PreparedStatement batchInsert = connection.prepareStatement("insert into test(id, k) values(?,?)")) {
+                batchInsert.setLong(1, 1L);
+                batchInsert.setLong(2, 1_000L);
+                batchInsert.addBatch();
+                batchInsert.setLong(1, 2L);
+                batchInsert.setLong(2, 0L);
+                batchInsert.addBatch();
+                batchInsert.setLong(1, 3L);
+                batchInsert.setLong(2, 2_000L);
+                batchInsert.addBatch();
+                batchInsert.executeLargeBatch();
+                Assert.fail();
+            } catch (BatchUpdateException e) {
+                TestUtils.assertContains(e.getMessage(), "out of order");
+            }
+
+            // much like an implicit transaction, the batch is rolled back as a whole
+            final StringSink sink = new StringSink();
+            try (
+                    Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery("select * from test")
+            ) {
+                assertResultSet("id[BIGINT],k[TIMESTAMP]\n", sink, rs);
+            }
+
+            // the connection carries on with the next batch
+            try (PreparedStatement batchInsert = connection.prepareStatement("insert into test(id, k) values(?,?)")) {
+                batchInsert.setLong(1, 4L);
+                batchInsert.setLong(2, 3_000L);
+                batchInsert.addBatch();
+                batchInsert.executeLargeBatch();
+            }
+            sink.clear();
+            try (
+                    Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery("select id from test")
+            ) {
+                assertResultSet("id[BIGINT]\n4\n", sink, rs);
+            }
+        });
+    }
+
     @Test
     public void testBatchInsertWithTransaction() throws Exception {
         skipOnWalRun(); // Non-partitioned
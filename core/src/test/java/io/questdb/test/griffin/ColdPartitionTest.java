@@ -0,0 +1,225 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.ColdPartitionConversionJob;
+import io.questdb.cairo.TableReader;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ColdPartitionTest extends AbstractCairoTest {
+
+    @Test
+    public void testColdPartitionJob() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, x int, s symbol) timestamp(ts) partition by day");
+            insert("insert into x select timestamp_sequence('2024-01-01', 21600000000), x::int, rnd_symbol('a','b','c') from long_sequence(20)");
+            ddl("create table y as (select * from x) timestamp(ts) partition by day");
+
+            // disabled by default
+            runColdPartitionJob();
+            assertParquetPartitions("x", "false\nfalse\nfalse\nfalse\nfalse\n");
+
+            node1.setProperty(PropertyKey.CAIRO_COLD_PARTITION_AGE, "48h");
+            runColdPartitionJob();
+            assertParquetPartitions("x", "true\ntrue\nfalse\nfalse\nfalse\n");
+            assertSqlCursors("y", "x");
+
+            // nothing new to convert
+            runColdPartitionJob();
+            assertParquetPartitions("x", "true\ntrue\nfalse\nfalse\nfalse\n");
+
+            insert("insert into x values ('2024-01-06T12:00:00.000000Z', 21, 'a')");
+            insert("insert into y values ('2024-01-06T12:00:00.000000Z', 21, 'a')");
+            runColdPartitionJob();
+            assertParquetPartitions("x", "true\ntrue\ntrue\nfalse\nfalse\nfalse\n");
+            assertSqlCursors("y", "x");
+        });
+    }
+
+    @Test
+    public void testColdPartitionJobWalTable() throws Exception {
+        assertMemoryLeak(() -> {
+            node1.setProperty(PropertyKey.CAIRO_COLD_PARTITION_AGE, "24h");
+            ddl("create table x (ts timestamp, x int, v varchar) timestamp(ts) partition by day wal");
+            insert("insert into x select timestamp_sequence('2024-01-01', 21600000000), x::int, rnd_varchar(1, 20, 1) from long_sequence(12)");
+            drainWalQueue();
+            ddl("create table y as (select * from x) timestamp(ts) partition by day");
+
+            runColdPartitionJob();
+            // second job run before WAL apply must not queue the same conversion again
+            runColdPartitionJob();
+            drainWalQueue();
+            Assert.assertFalse(engine.getTableSequencerAPI().isSuspended(engine.verifyTableName("x")));
+
+            assertParquetPartitions("x", "true\nfalse\nfalse\n");
+            assertSqlCursors("y", "x");
+        });
+    }
+
+    @Test
+    public void testReadAllTypes() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select" +
+                    " x id," +
+                    " rnd_boolean() a_boolean," +
+                    " rnd_byte() a_byte," +
+                    " rnd_short() a_short," +
+                    " rnd_char() a_char," +
+                    " rnd_int() an_int," +
+                    " rnd_long() a_long," +
+                    " rnd_float() a_float," +
+                    " rnd_double() a_double," +
+                    " rnd_symbol('a','b','c', null) a_symbol," +
+                    " rnd_geohash(4) a_geo_byte," +
+                    " rnd_geohash(32) a_geo_int," +
+                    " rnd_str('hello', 'world', '!', null) a_string," +
+                    " rnd_bin(1, 8, 1) a_bin," +
+                    " rnd_varchar('ганьба','слава','добрий','вечір', null) a_varchar," +
+                    " rnd_ipv4() a_ip," +
+                    " rnd_uuid4() a_uuid," +
+                    " rnd_long256() a_long256," +
+                    " cast(timestamp_sequence(600000000000, 700) as date) a_date," +
+                    " timestamp_sequence('2024-06-01', 3600000000) ts" +
+                    " from long_sequence(100)) timestamp(ts) partition by day");
+            ddl("create table y as (select * from x) timestamp(ts) partition by day");
+
+            ddl("alter table x convert partition to parquet where ts < '2024-06-05'");
+            assertParquetPartitions("x", "true\ntrue\ntrue\ntrue\nfalse\n");
+            assertSqlCursors("y", "x");
+            assertSqlCursors("y where a_symbol = 'b'", "x where a_symbol = 'b'");
+            assertSqlCursors("select a_symbol, count() from y order by 1", "select a_symbol, count() from x order by 1");
+            assertSqlCursors("y order by ts desc", "x order by ts desc");
+
+            // already converted partitions are left as they are
+            ddl("alter table x convert partition to parquet where ts < '2024-06-03'");
+            assertSqlCursors("y", "x");
+        });
+    }
+
+    @Test
+    public void testReadColumnTops() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, i int, s string) timestamp(ts) partition by day");
+            insert("insert into x select timestamp_sequence('2024-01-01', 21600000000), x::int, rnd_str(3, 6, 1) from long_sequence(10)");
+            ddl("alter table x add column l long");
+            ddl("alter table x add column v varchar");
+            insert("insert into x select timestamp_sequence('2024-01-03T14:00:00', 3600000000), x::int, rnd_str(3, 6, 1), x, rnd_varchar(1, 10, 1) from long_sequence(8)");
+            insert("insert into x values ('2024-01-04T12:00:00.000000Z', 100, 'a', 100, 'b')");
+            ddl("create table y as (select * from x) timestamp(ts) partition by day");
+
+            ddl("alter table x convert partition to parquet where ts < '2024-01-04'");
+            assertParquetPartitions("x", "true\ntrue\ntrue\nfalse\n");
+            assertSqlCursors("y", "x");
+            assertSqlCursors("y where l > 3", "x where l > 3");
+            assertSqlCursors("select sum(l), count(v) from y", "select sum(l), count(v) from x");
+        });
+    }
+
+    @Test
+    public void testReadIndexedSymbol() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select" +
+                    " rnd_symbol('a','b','c', null) s," +
+                    " x," +
+                    " timestamp_sequence('2024-01-01', 7200000000) ts" +
+                    " from long_sequence(60)), index(s) timestamp(ts) partition by day");
+            ddl("alter table x add column s2 symbol index");
+            insert("insert into x select rnd_symbol('a','b','c', null), x, timestamp_sequence('2024-01-05T12:00:00', 3600000000), rnd_symbol('d', 'e') from long_sequence(48)");
+            ddl("create table y as (select * from x) timestamp(ts) partition by day");
+
+            ddl("alter table x convert partition to parquet where ts < '2024-01-07'");
+            assertParquetPartitions("x", "true\ntrue\ntrue\ntrue\ntrue\ntrue\nfalse\n");
+            assertSqlCursors("y where s = 'a'", "x where s = 'a'");
+            assertSqlCursors("y where s = null", "x where s = null");
+            assertSqlCursors("y where s in ('b', 'c')", "x where s in ('b', 'c')");
+            assertSqlCursors("y where s2 = 'd'", "x where s2 = 'd'");
+            assertSqlCursors("y where s2 = null", "x where s2 = null");
+            assertSqlCursors("y latest on ts partition by s", "x latest on ts partition by s");
+            assertSqlCursors("y where ts < '2024-01-03' latest on ts partition by s", "x where ts < '2024-01-03' latest on ts partition by s");
+            assertSqlCursors("y where ts < '2024-01-06' latest on ts partition by s2", "x where ts < '2024-01-06' latest on ts partition by s2");
+            assertSqlCursors("y where s = 'b' order by ts desc", "x where s = 'b' order by ts desc");
+            assertSqlCursors(
+                    "select count() from y where s = 'c' and ts in '2024-01-02'",
+                    "select count() from x where s = 'c' and ts in '2024-01-02'"
+            );
+        });
+    }
+
+    @Test
+    public void testReaderReleasesParquetPartitions() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select x, timestamp_sequence('2024-01-01', 21600000000) ts from long_sequence(40)) timestamp(ts) partition by day");
+            ddl("alter table x convert partition to parquet where ts < '2024-01-10'");
+            assertSql("count\tsum\n40\t820\n", "select count(), sum(x) from x");
+
+            try (TableReader reader = getReader("x")) {
+                reader.openPartition(0);
+                reader.openPartition(9);
+                Assert.assertEquals(10, reader.getPartitionCount());
+                for (int i = 0; i < 9; i++) {
+                    reader.openPartition(i);
+                }
+                Assert.assertEquals(10, reader.getOpenPartitionCount());
+                reader.goPassive();
+                // the native partition and the two latest Parquet partitions
+                Assert.assertEquals(2, configuration.getInactiveReaderMaxOpenParquetPartitions());
+                Assert.assertEquals(3, reader.getOpenPartitionCount());
+            }
+            assertSql("count\tsum\n40\t820\n", "select count(), sum(x) from x");
+        });
+    }
+
+    @Test
+    public void testWriteAfterConversion() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, x int, s symbol) timestamp(ts) partition by day");
+            insert("insert into x select timestamp_sequence('2024-01-01', 21600000000), x::int, rnd_symbol('a','b','c') from long_sequence(12)");
+            ddl("create table y as (select * from x) timestamp(ts) partition by day");
+            try (TableReader ignore = getReader("x")) {
+                assertSql("count\n12\n", "select count() from x");
+                ddl("alter table x convert partition to parquet where ts < '2024-01-03'");
+                // new symbol values are added to the map after the conversion
+                insert("insert into x values ('2024-01-03T12:00:00.000000Z', 13, 'd')");
+                insert("insert into y values ('2024-01-03T12:00:00.000000Z', 13, 'd')");
+                assertSqlCursors("select s, count() from y order by 1", "select s, count() from x order by 1");
+                assertSqlCursors("y", "x");
+            }
+        });
+    }
+
+    private void assertParquetPartitions(String tableName, String expected) throws Exception {
+        assertSql("isParquet\n" + expected, "select isParquet from table_partitions('" + tableName + "')");
+    }
+
+    private static void runColdPartitionJob() {
+        try (ColdPartitionConversionJob job = new ColdPartitionConversionJob(engine)) {
+            job.run(0);
+        }
+    }
+}
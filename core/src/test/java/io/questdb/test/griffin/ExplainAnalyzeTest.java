@@ -0,0 +1,172 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin;
+
+import io.questdb.jit.JitUtil;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Test;
+
+public class ExplainAnalyzeTest extends AbstractCairoTest {
+
+    @Test
+    public void testAnalyzeFilter() throws Exception {
+        assertMemoryLeak(() -> assertAnalyze(
+                "QUERY PLAN\n" +
+                        "Async JIT Filter rows: 90 time_us: _ jit: true workers: 1\n" +
+                        "  filter: 10<x\n" +
+                        "    PageFrame rows: 100 time_us: _ frames: 5\n" +
+                        "        Row forward scan\n" +
+                        "        Frame forward scan on: x\n",
+                "explain analyze select * from x where x > 10"
+        ));
+    }
+
+    @Test
+    public void testAnalyzeHashJoin() throws Exception {
+        assertMemoryLeak(() -> assertAnalyze(
+                "QUERY PLAN\n" +
+                        "SelectedRecord rows: 4 time_us: _ map_bytes: _\n" +
+                        "    Hash Join Light rows: 4 time_us: _ map_bytes: _\n" +
+                        "      condition: b.x=a.x\n" +
+                        "        Async JIT Filter rows: 4 time_us: _ jit: true workers: 1\n" +
+                        "          filter: x<5\n" +
+                        "            PageFrame rows: 100 time_us: _ frames: 5\n" +
+                        "                Row forward scan\n" +
+                        "                Frame forward scan on: x\n" +
+                        "        Hash\n" +
+                        "            PageFrame rows: 100 time_us: _\n" +
+                        "                Row forward scan\n" +
+                        "                Frame forward scan on: x\n",
+                "explain analyze select * from x a join x b on (x) where a.x < 5"
+        ));
+    }
+
+    @Test
+    public void testAnalyzeJsonFormat() throws Exception {
+        assertMemoryLeak(() -> assertAnalyze(
+                "QUERY PLAN\n" +
+                        "[\n" +
+                        "  {\n" +
+                        "    \"Plan\": {\n" +
+                        "        \"Node Type\": \"Async JIT Filter\",\n" +
+                        "        \"rows\":  10,\n" +
+                        "        \"time_us\": _,\n" +
+                        "        \"jit\":  true,\n" +
+                        "        \"workers\":  1,\n" +
+                        "        \"filter\": \"90<x\",\n" +
+                        "        \"Plans\": [\n" +
+                        "        {\n" +
+                        "            \"Node Type\": \"PageFrame\",\n" +
+                        "            \"rows\":  100,\n" +
+                        "            \"time_us\": _,\n" +
+                        "            \"frames\":  5,\n" +
+                        "            \"Plans\": [\n" +
+                        "            {\n" +
+                        "                \"Node Type\": \"Row forward scan\"\n" +
+                        "            },\n" +
+                        "            {\n" +
+                        "                \"Node Type\": \"Frame forward scan\",\n" +
+                        "                \"on\": \"x\"\n" +
+                        "            } ]\n" +
+                        "        } ]\n" +
+                        "    }\n" +
+                        "  }\n" +
+                        "]\n",
+                "explain analyze (format json) select * from x where x > 90"
+        ));
+    }
+
+    @Test
+    public void testAnalyzeNonSelect() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (x long)");
+            assertException(
+                    "explain analyze insert into x select * from x",
+                    8,
+                    "EXPLAIN ANALYZE is supported for SELECT queries only"
+            );
+            assertException(
+                    "explain analyze update x set x = 1",
+                    8,
+                    "EXPLAIN ANALYZE is supported for SELECT queries only"
+            );
+        });
+    }
+
+    @Test
+    public void testAnalyzeOrderByLimit() throws Exception {
+        assertMemoryLeak(() -> assertAnalyze(
+                "QUERY PLAN\n" +
+                        "Sort light rows: 3 time_us: _ lo: 3\n" +
+                        "  keys: [x desc]\n" +
+                        "    PageFrame rows: 100 time_us: _\n" +
+                        "        Row forward scan\n" +
+                        "        Frame forward scan on: x\n",
+                "explain analyze select * from x order by x desc limit 3"
+        ));
+    }
+
+    @Test
+    public void testAnalyzeUnion() throws Exception {
+        assertMemoryLeak(() -> assertAnalyze(
+                "QUERY PLAN\n" +
+                        "Union All rows: 200 time_us: _\n" +
+                        "    PageFrame rows: 100 time_us: _\n" +
+                        "        Row forward scan\n" +
+                        "        Frame forward scan on: x\n" +
+                        "    PageFrame rows: 100 time_us: _\n" +
+                        "        Row forward scan\n" +
+                        "        Frame forward scan on: x\n",
+                "explain analyze select x from x union all select x from x"
+        ));
+    }
+
+    @Test
+    public void testExplainWithoutAnalyzeHasNoStatistics() throws Exception {
+        assertMemoryLeak(() -> assertAnalyze(
+                "QUERY PLAN\n" +
+                        "Limit lo: 5\n" +
+                        "    PageFrame\n" +
+                        "        Row forward scan\n" +
+                        "        Frame forward scan on: x\n",
+                "explain select * from x limit 5"
+        ));
+    }
+
+    private static void assertAnalyze(String expected, String query) throws Exception {
+        ddl("create table x as (select x, rnd_symbol('a','b','c') s, timestamp_sequence(0, 3600000000) ts from long_sequence(100)) timestamp(ts) partition by day");
+        printSql(query);
+        String actual = sink.toString()
+                .replaceAll("\"time_us\":  \\d+", "\"time_us\": _")
+                .replaceAll("time_us: \\d+", "time_us: _")
+                .replaceAll("map_bytes: \\d+", "map_bytes: _");
+        if (!JitUtil.isJitSupported()) {
+            expected = expected.replace("Async JIT", "Async").replace("jit: true", "jit: false").replace("\"jit\":  true", "\"jit\":  false");
+        }
+        TestUtils.assertEquals(expected, actual);
+    }
+}
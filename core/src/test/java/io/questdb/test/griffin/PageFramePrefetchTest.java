@@ -0,0 +1,179 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.CairoException;
+import io.questdb.griffin.SqlException;
+import io.questdb.std.IOURing;
+import io.questdb.std.IOURingFacadeImpl;
+import io.questdb.std.IOURingImpl;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PageFramePrefetchTest extends AbstractCairoTest {
+    private final AtomicInteger readCount = new AtomicInteger();
+
+    @Override
+    @Before
+    public void setUp() {
+        // small queue bounds the number of frames dispatched ahead of the consumer
+        setProperty(PropertyKey.CAIRO_PAGE_FRAME_REDUCE_QUEUE_CAPACITY, 4);
+        super.setUp();
+        node1.setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_MIN_ROWS, 2);
+        node1.setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_MAX_ROWS, 5);
+        readCount.set(0);
+    }
+
+    @Test
+    public void testColumnTops() throws Exception {
+        Assume.assumeTrue(IOURingFacadeImpl.INSTANCE.isAvailable());
+        node1.getConfigurationOverrides().setIOURingFacade(new CountingIOURingFacade(false));
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, i int, s string) timestamp(ts) partition by day");
+            insert("insert into x select timestamp_sequence('2024-01-01', 1800000000), x::int, rnd_str(3, 6, 1) from long_sequence(96)");
+            ddl("alter table x add column l long");
+            ddl("alter table x add column v varchar");
+            insert("insert into x select timestamp_sequence('2024-01-02T20:00:00', 1800000000), x::int, rnd_str(3, 6, 1), x, rnd_varchar(1, 10, 1) from long_sequence(40)");
+
+            assertPrefetch("x where i > 3");
+            assertPrefetch("x where l > 3 order by ts desc");
+            assertPrefetch("select ts, v, s from x where v like '%a%' or s like '%a%'");
+            Assert.assertTrue(readCount.get() > 0);
+        });
+    }
+
+    @Test
+    public void testFilters() throws Exception {
+        Assume.assumeTrue(IOURingFacadeImpl.INSTANCE.isAvailable());
+        node1.getConfigurationOverrides().setIOURingFacade(new CountingIOURingFacade(false));
+        assertMemoryLeak(() -> {
+            createTable();
+            assertPrefetch("x where i > 50");
+            assertPrefetch("x where i > 50 order by ts desc");
+            assertPrefetch("x where s = 'a' limit 7, 42");
+            assertPrefetch("select id, str, v from x where l > 500 and v is not null");
+            Assert.assertTrue(readCount.get() > 0);
+        });
+    }
+
+    @Test
+    public void testIOURingNotAvailable() throws Exception {
+        node1.getConfigurationOverrides().setIOURingFacade(new IOURingFacadeImpl() {
+            @Override
+            public boolean isAvailable() {
+                return false;
+            }
+
+            @Override
+            public IOURing newInstance(int capacity) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        assertMemoryLeak(() -> {
+            createTable();
+            assertPrefetch("x where i > 50");
+        });
+    }
+
+    @Test
+    public void testReadFailuresFallBackToMmap() throws Exception {
+        Assume.assumeTrue(IOURingFacadeImpl.INSTANCE.isAvailable());
+        node1.getConfigurationOverrides().setIOURingFacade(new CountingIOURingFacade(true));
+        assertMemoryLeak(() -> {
+            createTable();
+            assertPrefetch("x where i > 50");
+            assertPrefetch("select id, str, v from x where l > 500 and v is not null");
+            Assert.assertTrue(readCount.get() > 0);
+        });
+    }
+
+    @Test
+    public void testRingCreationFailure() throws Exception {
+        Assume.assumeTrue(IOURingFacadeImpl.INSTANCE.isAvailable());
+        node1.getConfigurationOverrides().setIOURingFacade(new IOURingFacadeImpl() {
+            @Override
+            public IOURing newInstance(int capacity) {
+                throw CairoException.critical(24).put("Cannot create io_uring instance");
+            }
+        });
+        assertMemoryLeak(() -> {
+            createTable();
+            assertPrefetch("x where i > 50");
+        });
+    }
+
+    private static void createTable() throws SqlException {
+        ddl("create table x as (select" +
+                " x id," +
+                " rnd_int(0, 100, 0) i," +
+                " rnd_long(0, 1000, 1) l," +
+                " rnd_double(1) d," +
+                " rnd_symbol('a','b','c', null) s," +
+                " rnd_str('foo', 'bar', null) str," +
+                " rnd_varchar('ганьба','слава','добрий','вечір', null) v," +
+                " timestamp_sequence('2024-01-01', 900000000) ts" +
+                " from long_sequence(400)) timestamp(ts) partition by day");
+    }
+
+    // compares query results with the results of the mmap path
+    private void assertPrefetch(String query) throws SqlException {
+        node1.setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_PREFETCH_COUNT, 0);
+        printSql(query);
+        final String expected = sink.toString();
+        node1.setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_PREFETCH_COUNT, 3);
+        assertSql(expected, query);
+    }
+
+    private class CountingIOURingFacade extends IOURingFacadeImpl {
+        private final boolean failReads;
+
+        private CountingIOURingFacade(boolean failReads) {
+            this.failReads = failReads;
+        }
+
+        @Override
+        public IOURing newInstance(int capacity) {
+            return new IOURingImpl(this, capacity) {
+                @Override
+                public long enqueueRead(long fd, long offset, long bufPtr, int len) {
+                    readCount.incrementAndGet();
+                    return super.enqueueRead(fd, offset, bufPtr, len);
+                }
+
+                @Override
+                public int getCqeRes() {
+                    return failReads ? -5 : super.getCqeRes();
+                }
+            };
+        }
+    }
+}
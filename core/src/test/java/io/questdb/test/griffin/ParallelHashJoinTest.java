@@ -0,0 +1,168 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.mp.WorkerPool;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelHashJoinTest extends AbstractCairoTest {
+    private static final int PAGE_FRAME_COUNT = 4; // also used to set queue size, so must be a power of 2
+    private static final int PAGE_FRAME_MAX_ROWS = 100;
+
+    @Before
+    public void setUp() {
+        setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_MAX_ROWS, PAGE_FRAME_MAX_ROWS);
+        // We intentionally use small values for shard count and reduce
+        // queue capacity to exhibit various edge cases.
+        setProperty(PropertyKey.CAIRO_PAGE_FRAME_SHARD_COUNT, 2);
+        setProperty(PropertyKey.CAIRO_PAGE_FRAME_REDUCE_QUEUE_CAPACITY, PAGE_FRAME_COUNT);
+        setProperty(PropertyKey.CAIRO_SQL_PARALLEL_WORK_STEALING_THRESHOLD, 1);
+        super.setUp();
+    }
+
+    @Test
+    public void testBackwardScan() throws Exception {
+        testParallelHashJoin("select m.ts, m.l, s.v from m join s on (l) order by m.ts desc");
+    }
+
+    @Test
+    public void testEmptySlave() throws Exception {
+        testParallelHashJoin("select m.ts, m.l, s.v from m join (s where v < 0) s on (l)");
+    }
+
+    @Test
+    public void testIntKey() throws Exception {
+        testParallelHashJoin("select m.ts, m.i, s.v from m join s on (i)");
+    }
+
+    @Test
+    public void testLongKey() throws Exception {
+        testParallelHashJoin("select m.ts, m.l, s.v, s.sym from m join s on (l)");
+    }
+
+    @Test
+    public void testMultiKey() throws Exception {
+        testParallelHashJoin("select m.ts, m.l, m.sym, s.v from m join s on (l, sym)");
+    }
+
+    @Test
+    public void testPlan() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_SQL_PARALLEL_HASH_JOIN_ENABLED, true);
+        assertMemoryLeak(() -> {
+            createTables();
+            assertPlanNoLeakCheck(
+                    "select m.ts, m.l, s.v from m join s on (l)",
+                    "SelectedRecord\n" +
+                            "    Async Hash Join Light workers: 1\n" +
+                            "      condition: s.l=m.l\n" +
+                            "        PageFrame\n" +
+                            "            Row forward scan\n" +
+                            "            Frame forward scan on: m\n" +
+                            "        Hash\n" +
+                            "            PageFrame\n" +
+                            "                Row forward scan\n" +
+                            "                Frame forward scan on: s\n"
+            );
+        });
+    }
+
+    @Test
+    public void testStringKey() throws Exception {
+        testParallelHashJoin("select m.ts, m.str, s.v from m join s on (str)");
+    }
+
+    @Test
+    public void testSymbolKey() throws Exception {
+        testParallelHashJoin("select m.ts, m.sym, s.sym, s.v from m join s on (sym)");
+    }
+
+    @Test
+    public void testVarcharKey() throws Exception {
+        testParallelHashJoin("select m.ts, m.vch, s.v from m join s on (vch)");
+    }
+
+    private static void createTables(CairoEngine engine, SqlExecutionContext sqlExecutionContext) throws SqlException {
+        engine.ddl(
+                "create table m as (select" +
+                        " rnd_symbol('a','b','c','d',null) sym," +
+                        " rnd_long(0,50,1) l," +
+                        " rnd_int(0,50,1) i," +
+                        " rnd_str('x','y','z',null) str," +
+                        " rnd_varchar('foo','bar','baz','шъ',null) vch," +
+                        " timestamp_sequence(0,100000) ts" +
+                        " from long_sequence(" + (PAGE_FRAME_COUNT * PAGE_FRAME_MAX_ROWS) + ")) timestamp(ts) partition by hour",
+                sqlExecutionContext
+        );
+        engine.ddl(
+                "create table s as (select" +
+                        " rnd_symbol('a','b','c','d',null) sym," +
+                        " rnd_long(0,60,1) l," +
+                        " rnd_int(0,60,1) i," +
+                        " rnd_str('x','y','z',null) str," +
+                        " rnd_varchar('foo','bar','baz','шъ',null) vch," +
+                        " x v" +
+                        " from long_sequence(50))",
+                sqlExecutionContext
+        );
+    }
+
+    private void createTables() throws SqlException {
+        createTables(engine, sqlExecutionContext);
+    }
+
+    private void testParallelHashJoin(String query) throws Exception {
+        assertMemoryLeak(() -> {
+            final WorkerPool pool = new WorkerPool((() -> 4));
+            TestUtils.execute(pool, (engine, compiler, sqlExecutionContext) -> {
+                        createTables(engine, sqlExecutionContext);
+
+                        final StringSink expected = new StringSink();
+                        node1.setProperty(PropertyKey.CAIRO_SQL_PARALLEL_HASH_JOIN_ENABLED, false);
+                        TestUtils.printSql(engine, sqlExecutionContext, query, expected);
+
+                        final StringSink actual = new StringSink();
+                        node1.setProperty(PropertyKey.CAIRO_SQL_PARALLEL_HASH_JOIN_ENABLED, true);
+                        TestUtils.printSql(engine, sqlExecutionContext, query, actual);
+                        TestUtils.assertEquals(expected, actual);
+
+                        // Run the query once again to validate the cached factory.
+                        actual.clear();
+                        TestUtils.printSql(engine, sqlExecutionContext, query, actual);
+                        TestUtils.assertEquals(expected, actual);
+                    },
+                    configuration,
+                    LOG
+            );
+        });
+    }
+}
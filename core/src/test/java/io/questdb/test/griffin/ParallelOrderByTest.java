@@ -0,0 +1,217 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.CairoEngine;
+import io.questdb.griffin.SqlException;
+import io.questdb.griffin.SqlExecutionContext;
+import io.questdb.mp.WorkerPool;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelOrderByTest extends AbstractCairoTest {
+    private static final int PAGE_FRAME_COUNT = 4; // also used to set queue size, so must be a power of 2
+    private static final int PAGE_FRAME_MAX_ROWS = 100;
+
+    @Before
+    public void setUp() {
+        setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_MAX_ROWS, PAGE_FRAME_MAX_ROWS);
+        // We intentionally use small values for shard count and reduce
+        // queue capacity to exhibit various edge cases.
+        setProperty(PropertyKey.CAIRO_PAGE_FRAME_SHARD_COUNT, 2);
+        setProperty(PropertyKey.CAIRO_PAGE_FRAME_REDUCE_QUEUE_CAPACITY, PAGE_FRAME_COUNT);
+        setProperty(PropertyKey.CAIRO_SQL_PARALLEL_WORK_STEALING_THRESHOLD, 1);
+        super.setUp();
+    }
+
+    @Test
+    public void testDoubleDesc() throws Exception {
+        testParallelOrderBy("select * from x order by d desc");
+    }
+
+    @Test
+    public void testEmptyTable() throws Exception {
+        assertMemoryLeak(() -> {
+            final WorkerPool pool = new WorkerPool((() -> 4));
+            TestUtils.execute(pool, (engine, compiler, sqlExecutionContext) -> {
+                        node1.setProperty(PropertyKey.CAIRO_SQL_PARALLEL_ORDER_BY_ENABLED, true);
+                        engine.ddl("create table y (s symbol, ts timestamp) timestamp(ts) partition by day", sqlExecutionContext);
+                        final StringSink sink = new StringSink();
+                        TestUtils.printSql(engine, sqlExecutionContext, "select * from y order by s", sink);
+                        TestUtils.assertEquals("s\tts\n", sink);
+                    },
+                    configuration,
+                    LOG
+            );
+        });
+    }
+
+    @Test
+    public void testLimit() throws Exception {
+        testParallelTopK("select * from x order by d desc", 0, 10);
+    }
+
+    @Test
+    public void testLimitEmptyRange() throws Exception {
+        testParallelTopK("select * from x order by l", 20, 10);
+    }
+
+    @Test
+    public void testLimitLargerThanFrame() throws Exception {
+        testParallelTopK("select * from x order by l, s", 0, PAGE_FRAME_MAX_ROWS + 7);
+    }
+
+    @Test
+    public void testLimitLargerThanTable() throws Exception {
+        testParallelTopK("select * from x order by str desc", 0, 100_000);
+    }
+
+    @Test
+    public void testLimitLoHi() throws Exception {
+        testParallelTopK("select * from x order by s desc", 15, 45);
+    }
+
+    @Test
+    public void testLimitPlan() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_SQL_PARALLEL_ORDER_BY_ENABLED, true);
+        assertMemoryLeak(() -> {
+            createTable(engine, sqlExecutionContext);
+            assertPlanNoLeakCheck(
+                    "select * from x order by d desc limit 10, 20",
+                    "Async Sort light lo: 10 hi: 20 workers: 1\n" +
+                            "  keys: [d desc]\n" +
+                            "    PageFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: x\n"
+            );
+        });
+    }
+
+    @Test
+    public void testLimitZero() throws Exception {
+        testParallelTopK("select * from x order by d", 0, 0);
+    }
+
+    @Test
+    public void testMultipleKeys() throws Exception {
+        testParallelOrderBy("select * from x order by s, l desc, ts");
+    }
+
+    @Test
+    public void testPlan() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_SQL_PARALLEL_ORDER_BY_ENABLED, true);
+        assertMemoryLeak(() -> {
+            createTable(engine, sqlExecutionContext);
+            assertPlanNoLeakCheck(
+                    "select * from x order by s, d desc",
+                    "Async Sort light workers: 1\n" +
+                            "  keys: [s, d desc]\n" +
+                            "    PageFrame\n" +
+                            "        Row forward scan\n" +
+                            "        Frame forward scan on: x\n"
+            );
+        });
+    }
+
+    @Test
+    public void testRandomAccess() throws Exception {
+        testParallelOrderBy("select * from (x order by str) x1 join (x order by str) x2 on (l) order by x1.ts, x2.ts");
+    }
+
+    @Test
+    public void testStableTies() throws Exception {
+        // Many rows share the same key, so the run merge must keep the original row order.
+        testParallelOrderBy("select * from x order by s");
+    }
+
+    @Test
+    public void testString() throws Exception {
+        testParallelOrderBy("select str, ts from x order by str");
+    }
+
+    @Test
+    public void testVarchar() throws Exception {
+        testParallelOrderBy("select * from x order by vch desc, ts desc");
+    }
+
+    private static void createTable(CairoEngine engine, SqlExecutionContext sqlExecutionContext) throws SqlException {
+        engine.ddl(
+                "create table x as (select" +
+                        " rnd_symbol('a','b','c','d',null) s," +
+                        " rnd_long(0,50,1) l," +
+                        " rnd_double(1) d," +
+                        " rnd_str(3,6,1) str," +
+                        " rnd_varchar(1,6,1) vch," +
+                        " timestamp_sequence(0,100000) ts" +
+                        " from long_sequence(" + (PAGE_FRAME_COUNT * PAGE_FRAME_MAX_ROWS + 42) + ")) timestamp(ts) partition by hour",
+                sqlExecutionContext
+        );
+    }
+
+    private void testParallelTopK(String query, long lo, long hi) throws Exception {
+        // The order of rows with equal keys is not defined for LIMIT queries in the serial
+        // implementation, while the parallel one keeps the scan order. That's why we compare
+        // the result with the LIMIT applied on top of the full sort.
+        final String limit = lo > 0 ? " limit " + lo + ", " + hi : " limit " + hi;
+        testParallelOrderBy(
+                "select s, l, d, str, vch, ts from (select *, row_number() over () rn from (" + query + ")) where rn > " + lo + " and rn <= " + hi,
+                query + limit
+        );
+    }
+
+    private void testParallelOrderBy(String query) throws Exception {
+        testParallelOrderBy(query, query);
+    }
+
+    private void testParallelOrderBy(String serialQuery, String parallelQuery) throws Exception {
+        assertMemoryLeak(() -> {
+            final WorkerPool pool = new WorkerPool((() -> 4));
+            TestUtils.execute(pool, (engine, compiler, sqlExecutionContext) -> {
+                        createTable(engine, sqlExecutionContext);
+
+                        final StringSink expected = new StringSink();
+                        node1.setProperty(PropertyKey.CAIRO_SQL_PARALLEL_ORDER_BY_ENABLED, false);
+                        TestUtils.printSql(engine, sqlExecutionContext, serialQuery, expected);
+
+                        final StringSink actual = new StringSink();
+                        node1.setProperty(PropertyKey.CAIRO_SQL_PARALLEL_ORDER_BY_ENABLED, true);
+                        TestUtils.printSql(engine, sqlExecutionContext, parallelQuery, actual);
+                        TestUtils.assertEquals(expected, actual);
+
+                        // Run the query once again to validate the cached factory.
+                        actual.clear();
+                        TestUtils.printSql(engine, sqlExecutionContext, parallelQuery, actual);
+                        TestUtils.assertEquals(expected, actual);
+                    },
+                    configuration,
+                    LOG
+            );
+        });
+    }
+}
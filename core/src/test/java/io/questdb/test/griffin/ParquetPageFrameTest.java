@@ -0,0 +1,169 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.TableReader;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParquetPageFrameTest extends AbstractCairoTest {
+
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+        node1.setProperty(PropertyKey.CAIRO_PARTITION_ENCODER_PARQUET_ROW_GROUP_SIZE, 7);
+        node1.setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_MIN_ROWS, 2);
+        node1.setProperty(PropertyKey.CAIRO_SQL_PAGE_FRAME_MAX_ROWS, 5);
+    }
+
+    @Test
+    public void testColumnTops() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, i int, s string) timestamp(ts) partition by day");
+            insert("insert into x select timestamp_sequence('2024-01-01', 1800000000), x::int, rnd_str(3, 6, 1) from long_sequence(96)");
+            ddl("alter table x add column l long");
+            ddl("alter table x add column v varchar");
+            insert("insert into x select timestamp_sequence('2024-01-02T20:00:00', 1800000000), x::int, rnd_str(3, 6, 1), x, rnd_varchar(1, 10, 1) from long_sequence(40)");
+            ddl("create table y as (select * from x) timestamp(ts) partition by day");
+
+            ddl("alter table x convert partition to parquet where ts < '2024-01-04'");
+            assertSqlCursors("y", "x");
+            assertSqlCursors("y order by ts desc", "x order by ts desc");
+            assertSqlCursors("y where l > 3", "x where l > 3");
+            assertSqlCursors("y where v like '%a%'", "x where v like '%a%'");
+            assertSqlCursors("select sum(l), count(v), count(s) from y", "select sum(l), count(v), count(s) from x");
+        });
+    }
+
+    @Test
+    public void testFiltersAndAggregates() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select" +
+                    " x id," +
+                    " rnd_int(0, 100, 0) i," +
+                    " rnd_long(0, 1000, 1) l," +
+                    " rnd_double(1) d," +
+                    " rnd_symbol('a','b','c', null) s," +
+                    " rnd_str('foo', 'bar', null) str," +
+                    " rnd_varchar('ганьба','слава','добрий','вечір', null) v," +
+                    " timestamp_sequence('2024-01-01', 900000000) ts" +
+                    " from long_sequence(400)) timestamp(ts) partition by day");
+            ddl("create table y as (select * from x) timestamp(ts) partition by day");
+
+            ddl("alter table x convert partition to parquet where ts < '2024-01-04'");
+            assertSqlCursors("y where i > 50", "x where i > 50");
+            assertSqlCursors("y where i > 50 and l < 500", "x where i > 50 and l < 500");
+            assertSqlCursors("y where d > 0.5 order by ts desc", "x where d > 0.5 order by ts desc");
+            assertSqlCursors("y where s = 'a' and str = 'foo'", "x where s = 'a' and str = 'foo'");
+            assertSqlCursors("y where v = 'слава' limit -10", "x where v = 'слава' limit -10");
+            assertSqlCursors("select sum(i), max(l), avg(d), count() from y", "select sum(i), max(l), avg(d), count() from x");
+            assertSqlCursors("select s, sum(i), max(l), count(v) from y order by 1", "select s, sum(i), max(l), count(v) from x order by 1");
+            assertSqlCursors("select ts, sum(l) from y sample by 1h", "select ts, sum(l) from x sample by 1h");
+            assertSqlCursors(
+                    "select * from y where ts in '2024-01-02' and i < 30",
+                    "select * from x where ts in '2024-01-02' and i < 30"
+            );
+            assertSqlCursors(
+                    "select * from y where ts between '2024-01-02T03:00' and '2024-01-04T03:00' order by ts desc",
+                    "select * from x where ts between '2024-01-02T03:00' and '2024-01-04T03:00' order by ts desc"
+            );
+        });
+    }
+
+    @Test
+    public void testRandomAccessEvictsDecodedFrames() throws Exception {
+        node1.setProperty(PropertyKey.CAIRO_SQL_PARQUET_FRAME_CACHE_CAPACITY, 1);
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select" +
+                    " rnd_int() i," +
+                    " rnd_str(2, 10, 1) str," +
+                    " rnd_varchar(1, 40, 1) v," +
+                    " timestamp_sequence('2024-01-01', 1800000000) ts" +
+                    " from long_sequence(150)) timestamp(ts) partition by day");
+            ddl("create table y as (select * from x) timestamp(ts) partition by day");
+
+            ddl("alter table x convert partition to parquet where ts < '2024-01-04'");
+            // sorting revisits frames out of order, so they are decoded again;
+            // frames pinned by the cursor records must survive that
+            assertSqlCursors("y order by i", "x order by i");
+            assertSqlCursors("y order by str, ts", "x order by str, ts");
+            assertSqlCursors("y order by v desc, ts", "x order by v desc, ts");
+        });
+    }
+
+    @Test
+    public void testRowGroupPruning() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select" +
+                    " x::int i," +
+                    " x l," +
+                    " rnd_str(2, 10, 1) str," +
+                    " timestamp_sequence('2024-01-01', 1800000000) ts" +
+                    " from long_sequence(144)) timestamp(ts) partition by day");
+            ddl("create table y as (select * from x) timestamp(ts) partition by day");
+
+            ddl("alter table x convert partition to parquet where ts < '2024-01-03'");
+            try (TableReader reader = getReader("x")) {
+                reader.openPartition(0);
+                // 48 rows per partition, 7 rows per row group
+                Assert.assertEquals(7, reader.getParquetRowGroupCount(0));
+                Assert.assertEquals(14, reader.getParquetRowGroupLo(0, 2));
+                Assert.assertEquals(48, reader.getParquetRowGroupLo(0, 7));
+                Assert.assertEquals(2, reader.findParquetRowGroup(0, 20));
+            }
+
+            assertSqlCursors("y where i = 20", "x where i = 20");
+            assertSqlCursors("y where i < 10", "x where i < 10");
+            assertSqlCursors("y where i <= 60 order by ts desc", "x where i <= 60 order by ts desc");
+            assertSqlCursors("y where l = 50 or l = 3", "x where l = 50 or l = 3");
+            assertSqlCursors("select count(), sum(l) from y where i > 40", "select count(), sum(l) from x where i > 40");
+            assertSqlCursors("y where i = 1000", "x where i = 1000");
+        });
+    }
+
+    @Test
+    public void testSymbols() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select" +
+                    " rnd_symbol('a','b','c', null) s," +
+                    " rnd_symbol('d','e') s2," +
+                    " x," +
+                    " timestamp_sequence('2024-01-01', 1800000000) ts" +
+                    " from long_sequence(200)), index(s) timestamp(ts) partition by day");
+            ddl("create table y as (select * from x) timestamp(ts) partition by day");
+
+            ddl("alter table x convert partition to parquet where ts < '2024-01-04'");
+            assertSqlCursors("y where s = 'a'", "x where s = 'a'");
+            assertSqlCursors("y where s2 = 'e' and x > 20", "x where s2 = 'e' and x > 20");
+            assertSqlCursors("select s, s2, count(), sum(x) from y order by 1, 2", "select s, s2, count(), sum(x) from x order by 1, 2");
+            assertSqlCursors("y latest on ts partition by s2", "x latest on ts partition by s2");
+        });
+    }
+}
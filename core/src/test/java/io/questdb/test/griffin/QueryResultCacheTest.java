@@ -0,0 +1,207 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.griffin.engine.QueryResultCache;
+import io.questdb.griffin.engine.ResultCacheRecordCursorFactory;
+import io.questdb.test.AbstractCairoTest;
+import io.questdb.test.tools.TestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueryResultCacheTest extends AbstractCairoTest {
+
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+        node1.setProperty(PropertyKey.CAIRO_SQL_RESULT_CACHE_ENABLED, true);
+    }
+
+    @Test
+    public void testBindVariablesArePartOfKey() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable("x", false);
+            final String query = "select x from x where x > $1";
+
+            bindVariableService.clear();
+            bindVariableService.setLong(0, 8);
+            assertResult(query, "x\n9\n10\n", false);
+            assertResult(query, "x\n9\n10\n", true);
+
+            bindVariableService.setLong(0, 9);
+            assertResult(query, "x\n10\n", false);
+            assertResult(query, "x\n10\n", true);
+            Assert.assertEquals(2, cache().size());
+        });
+    }
+
+    @Test
+    public void testCacheDisabled() throws Exception {
+        assertMemoryLeak(() -> {
+            node1.setProperty(PropertyKey.CAIRO_SQL_RESULT_CACHE_ENABLED, false);
+            createTable("x", false);
+            try (RecordCursorFactory factory = select("select * from x")) {
+                Assert.assertFalse(factory instanceof ResultCacheRecordCursorFactory);
+            }
+        });
+    }
+
+    @Test
+    public void testCommitInvalidatesEntry() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable("x", false);
+            final String query = "select sym, sum(x) from x order by sym";
+            final String expected = "sym\tsum\n" +
+                    "a\t29\n" +
+                    "b\t26\n";
+            assertResult(query, expected, false);
+            assertResult(query, expected, true);
+
+            insert("insert into x values ('a', 100, '2024-01-02')");
+            assertResult(
+                    query,
+                    "sym\tsum\n" +
+                            "a\t129\n" +
+                            "b\t26\n",
+                    false
+            );
+        });
+    }
+
+    @Test
+    public void testHitSkipsTableReader() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable("x", false);
+            createTable("y", false);
+            final String expected = "sym\tx\tx1\n" +
+                    "a\t1\t1\n" +
+                    "a\t2\t2\n" +
+                    "b\t3\t3\n";
+            assertResult("select x.sym, x.x, y.x from x join y on (x) limit 3", expected, false);
+            assertResult("select x.sym, x.x, y.x from x join y on (x) limit 3", expected, true);
+            // whitespace outside of quotes is ignored
+            assertResult("select   x.sym, x.x,\ny.x  from x join y on (x) limit 3 ", expected, true);
+            Assert.assertEquals(1, cache().size());
+        });
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() throws Exception {
+        assertMemoryLeak(() -> {
+            // room for a single page of results
+            node1.setProperty(PropertyKey.CAIRO_SQL_RESULT_CACHE_SIZE, configuration.getSqlSortValuePageSize() + 1);
+            createTable("x", false);
+
+            assertResult("select x from x where x = 1", "x\n1\n", false);
+            assertResult("select x from x where x = 1", "x\n1\n", true);
+            assertResult("select x from x where x = 2", "x\n2\n", false);
+            Assert.assertEquals(1, cache().size());
+            assertResult("select x from x where x = 2", "x\n2\n", true);
+            assertResult("select x from x where x = 1", "x\n1\n", false);
+            Assert.assertTrue(cache().getMemoryUsed() <= configuration.getSqlResultCacheSize());
+        });
+    }
+
+    @Test
+    public void testPartiallyReadCursorIsNotCached() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable("x", false);
+            try (
+                    RecordCursorFactory factory = select("select * from x");
+                    RecordCursor cursor = factory.getCursor(sqlExecutionContext)
+            ) {
+                Assert.assertTrue(cursor.hasNext());
+            }
+            Assert.assertEquals(0, cache().size());
+        });
+    }
+
+    @Test
+    public void testVolatileQueriesAreNotCached() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable("x", false);
+            assertNotCached("select rnd_int() from x");
+            assertNotCached("select * from x where ts < now()");
+            assertNotCached("select systimestamp(), x from x");
+            assertNotCached("select * from long_sequence(3)");
+            assertNotCached("select * from x cross join long_sequence(2)");
+            assertNotCached("select 42");
+        });
+    }
+
+    @Test
+    public void testWalApplyInvalidatesEntry() throws Exception {
+        assertMemoryLeak(() -> {
+            createTable("x", true);
+            final String query = "select count(), max(x) from x";
+            assertResult(query, "count\tmax\n10\t10\n", false);
+            assertResult(query, "count\tmax\n10\t10\n", true);
+
+            insert("insert into x values ('c', 11, '2024-01-02')");
+            // not applied yet, the cached result is still valid
+            assertResult(query, "count\tmax\n10\t10\n", true);
+
+            drainWalQueue();
+            assertResult(query, "count\tmax\n11\t11\n", false);
+            assertResult(query, "count\tmax\n11\t11\n", true);
+        });
+    }
+
+    private static void assertNotCached(String query) throws Exception {
+        try (RecordCursorFactory factory = select(query)) {
+            Assert.assertFalse(query, factory instanceof ResultCacheRecordCursorFactory);
+        }
+    }
+
+    private static void assertResult(String query, String expected, boolean cached) throws Exception {
+        try (RecordCursorFactory factory = select(query)) {
+            Assert.assertTrue(factory instanceof ResultCacheRecordCursorFactory);
+            try (RecordCursor cursor = factory.getCursor(sqlExecutionContext)) {
+                // cache hits do not open table readers
+                Assert.assertEquals(cached, engine.getBusyReaderCount() == 0);
+                println(factory, cursor);
+                TestUtils.assertEquals(expected, sink);
+            }
+        }
+    }
+
+    private static QueryResultCache cache() {
+        return engine.getQueryResultCache();
+    }
+
+    private static void createTable(String name, boolean wal) throws Exception {
+        ddl("create table " + name + " (sym symbol, x long, ts timestamp) timestamp(ts) partition by day" + (wal ? " wal" : " bypass wal"));
+        insert("insert into " + name + " select rnd_symbol('a', 'b'), x, '2024-01-01'::timestamp + x * 1000000 from long_sequence(10)");
+        if (wal) {
+            drainWalQueue();
+        }
+    }
+}
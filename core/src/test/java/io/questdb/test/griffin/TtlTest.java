@@ -0,0 +1,199 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+
+package io.questdb.test.griffin;
+
+import io.questdb.cairo.CairoTable;
+import io.questdb.cairo.MetadataCacheReader;
+import io.questdb.cairo.PartitionTtlJob;
+import io.questdb.cairo.TableReader;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TtlTest extends AbstractCairoTest {
+
+    @Test
+    public void testAlterSetTtl() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, x int) timestamp(ts) partition by hour");
+            insert("insert into x select timestamp_sequence('2024-01-01', 3600000000), x from long_sequence(10)");
+
+            runTtlJob();
+            assertSql("count\n10\n", "select count() from x");
+
+            ddl("alter table x set ttl 4 hours");
+            assertTtl("x", 4);
+
+            runTtlJob();
+            assertSql(
+                    "min\tcount\n" +
+                            "2024-01-01T05:00:00.000000Z\t5\n",
+                    "select min(ts), count() from x"
+            );
+
+            ddl("alter table x set ttl 0 hours");
+            assertTtl("x", 0);
+        });
+    }
+
+    @Test
+    public void testCreateTableTtl() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, x int) timestamp(ts) partition by day ttl 2 days");
+            assertTtl("x", 48);
+            ddl("create table y (ts timestamp, x int) timestamp(ts) partition by month ttl 1 year wal");
+            assertTtl("y", -12);
+            ddl("create table z (ts timestamp, x int) timestamp(ts) partition by week ttl 3 weeks bypass wal");
+            assertTtl("z", 3 * 7 * 24);
+
+            try (TableReader reader = getReader("x")) {
+                Assert.assertEquals(48, reader.getMetadata().getTtlHoursOrMonths());
+            }
+
+            // create table like copies TTL
+            ddl("create table x2 (like x)");
+            assertTtl("x2", 48);
+        });
+    }
+
+    @Test
+    public void testInvalidTtl() throws Exception {
+        assertMemoryLeak(() -> {
+            assertException(
+                    "create table x (ts timestamp, x int) timestamp(ts) partition by none ttl 2 days",
+                    69,
+                    "TTL can only be used on partitioned tables"
+            );
+            assertException(
+                    "create table x (ts timestamp, x int) timestamp(ts) partition by day ttl",
+                    71,
+                    "TTL value expected"
+            );
+            assertException(
+                    "create table x (ts timestamp, x int) timestamp(ts) partition by day ttl -1 days",
+                    72,
+                    "invalid TTL value, non-negative integer expected"
+            );
+            assertException(
+                    "create table x (ts timestamp, x int) timestamp(ts) partition by day ttl 1 minute",
+                    74,
+                    "'HOURS', 'DAYS', 'WEEKS', 'MONTHS' or 'YEARS' expected"
+            );
+            assertException(
+                    "create table x (ts timestamp, x int) timestamp(ts) partition by day ttl 1000000000 years",
+                    72,
+                    "TTL value is too large"
+            );
+
+            ddl("create table y (ts timestamp, x int)");
+            assertException(
+                    "alter table y set ttl 1 day",
+                    18,
+                    "TTL can only be set on tables with designated timestamp"
+            );
+        });
+    }
+
+    @Test
+    public void testTtlJobDropsExpiredPartitions() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, x int) timestamp(ts) partition by day ttl 2 days");
+            insert("insert into x select timestamp_sequence('2024-01-01', 21600000000), x from long_sequence(20)");
+
+            runTtlJob();
+            // max timestamp is 2024-01-05T18:00, so partitions ending at or before 2024-01-03T18:00 are expired
+            assertSql(
+                    "min\tmax\tcount\n" +
+                            "2024-01-03T00:00:00.000000Z\t2024-01-05T18:00:00.000000Z\t12\n",
+                    "select min(ts), max(ts), count() from x"
+            );
+
+            insert("insert into x values ('2024-01-10', 100)");
+            runTtlJob();
+            // the last partition is never dropped
+            assertSql(
+                    "min\tmax\tcount\n" +
+                            "2024-01-10T00:00:00.000000Z\t2024-01-10T00:00:00.000000Z\t1\n",
+                    "select min(ts), max(ts), count() from x"
+            );
+        });
+    }
+
+    @Test
+    public void testTtlJobMonths() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, x int) timestamp(ts) partition by month ttl 2 months");
+            insert("insert into x select timestamp_sequence('2024-01-15', 864000000000), x from long_sequence(12)");
+
+            runTtlJob();
+            // max timestamp is 2024-05-04, partitions ending at or before 2024-03-04 are expired
+            assertSql(
+                    "min\tcount\n" +
+                            "2024-03-05T00:00:00.000000Z\t7\n",
+                    "select min(ts), count() from x"
+            );
+        });
+    }
+
+    @Test
+    public void testTtlJobWalTable() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x (ts timestamp, x int) timestamp(ts) partition by day ttl 1 day wal");
+            insert("insert into x select timestamp_sequence('2024-01-01', 21600000000), x from long_sequence(20)");
+            drainWalQueue();
+
+            try (PartitionTtlJob job = new PartitionTtlJob(engine)) {
+                Assert.assertTrue(job.run(0));
+            }
+            // second job run before WAL apply must not queue the same drop again
+            try (PartitionTtlJob job = new PartitionTtlJob(engine)) {
+                job.run(0);
+            }
+            drainWalQueue();
+            Assert.assertFalse(engine.getTableSequencerAPI().isSuspended(engine.verifyTableName("x")));
+
+            assertSql(
+                    "min\tmax\tcount\n" +
+                            "2024-01-04T00:00:00.000000Z\t2024-01-05T18:00:00.000000Z\t8\n",
+                    "select min(ts), max(ts), count() from x"
+            );
+        });
+    }
+
+    private static void assertTtl(String tableName, int expectedTtl) {
+        try (MetadataCacheReader metadataRO = engine.getMetadataCache().readLock()) {
+            final CairoTable table = metadataRO.getTable(engine.verifyTableName(tableName));
+            Assert.assertNotNull(table);
+            Assert.assertEquals(expectedTtl, table.getTtlHoursOrMonths());
+        }
+    }
+
+    private static void runTtlJob() {
+        try (PartitionTtlJob job = new PartitionTtlJob(engine)) {
+            job.run(0);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*******************************************************************************
+ *     ___                  _   ____  ____
+ *    / _ \ _   _  ___  ___| |_|  _ \| __ )
+ *   | | | | | | |/ _ \/ __| __| | | |  _ \
+ *   | |_| | |_| |  __/\__ \ |_| |_| | |_) |
+ *    \__\_\\__,_|\___||___/\__|____/|____/
+ *
+ *  Copyright (c) 2014-2019 Appsicle
+ *  Copyright (c) 2019-2024 QuestDB
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ ******************************************************************************/
+
+package io.questdb.test.griffin.engine;
+
+import io.questdb.PropertyKey;
+import io.questdb.cairo.ColumnType;
+import io.questdb.cairo.sql.RecordCursor;
+import io.questdb.cairo.sql.RecordCursorFactory;
+import io.questdb.cairo.sql.TableReferenceOutOfDateException;
+import io.questdb.griffin.engine.QueryPlanPool;
+import io.questdb.griffin.engine.QueryPlanPoolMetrics;
+import io.questdb.metrics.MetricsRegistryImpl;
+import io.questdb.std.IntList;
+import io.questdb.std.Misc;
+import io.questdb.std.str.StringSink;
+import io.questdb.test.AbstractCairoTest;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QueryPlanPoolTest extends AbstractCairoTest {
+
+    @Test
+    public void testBindVariableTypes() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select x from long_sequence(10))");
+            final String query = "select x from x where x > $1";
+            final IntList types = new IntList();
+            types.add(ColumnType.LONG);
+
+            try (QueryPlanPool pool = newPool()) {
+                bindVariableService.clear();
+                bindVariableService.setLong(0, 5);
+                pool.put(query, select(query), types);
+
+                // callers without bind variables must not get the factory
+                Assert.assertNull(pool.poll(query));
+
+                final IntList sink = new IntList();
+                sink.add(42);
+                final RecordCursorFactory factory = pool.poll(query, sink);
+                Assert.assertNotNull(factory);
+                Assert.assertEquals(types, sink);
+                pool.put(query, factory, sink);
+
+                // factories without bind variables are handed out to any caller
+                pool.put("select * from x", select("select * from x"));
+                final RecordCursorFactory plain = pool.poll("select * from x", sink);
+                Assert.assertNotNull(plain);
+                Assert.assertEquals(0, sink.size());
+                Misc.free(plain);
+            }
+        });
+    }
+
+    @Test
+    public void testCapacityEvictsLeastRecentlyUsed() throws Exception {
+        assertMemoryLeak(() -> {
+            node1.setProperty(PropertyKey.CAIRO_SQL_PLAN_POOL_CAPACITY, 3);
+            ddl("create table x as (select x from long_sequence(10))");
+            try (QueryPlanPool pool = newPool()) {
+                pool.put("select 1 from x", select("select 1 from x"));
+                pool.put("select 2 from x", select("select 2 from x"));
+                pool.put("select 2 from x", select("select 2 from x"));
+                // touch the first query so that the second one becomes the least recently used
+                pool.put("select 1 from x", pool.poll("select 1 from x"));
+                pool.put("select 3 from x", select("select 3 from x"));
+
+                Assert.assertEquals(3, pool.size());
+                Assert.assertEquals(1, pool.size("select 1 from x"));
+                Assert.assertEquals(1, pool.size("select 2 from x"));
+                Assert.assertEquals(1, pool.size("select 3 from x"));
+
+                pool.put("select 4 from x", select("select 4 from x"));
+                Assert.assertEquals(3, pool.size());
+                Assert.assertEquals(0, pool.size("select 2 from x"));
+            }
+        });
+    }
+
+    @Test
+    public void testConcurrentCheckouts() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select x from long_sequence(10))");
+            final String query = "select sum(x) from x";
+            try (QueryPlanPool pool = newPool()) {
+                final RecordCursorFactory f1 = select(query);
+                final RecordCursorFactory f2 = select(query);
+                final RecordCursorFactory f3 = select(query);
+                pool.put(query, f1);
+                pool.put(query, f2);
+                pool.put(query, f3);
+                Assert.assertEquals(3, pool.size(query));
+
+                // each concurrent execution gets its own instance, the most recently returned first
+                final RecordCursorFactory c1 = pool.poll(query);
+                final RecordCursorFactory c2 = pool.poll(query);
+                Assert.assertSame(f3, c1);
+                Assert.assertSame(f2, c2);
+                try (
+                        RecordCursor cursor1 = c1.getCursor(sqlExecutionContext);
+                        RecordCursor cursor2 = c2.getCursor(sqlExecutionContext)
+                ) {
+                    Assert.assertTrue(cursor1.hasNext());
+                    Assert.assertTrue(cursor2.hasNext());
+                    Assert.assertEquals(55, cursor1.getRecord().getLong(0));
+                    Assert.assertEquals(55, cursor2.getRecord().getLong(0));
+                }
+
+                Assert.assertEquals(1, pool.size(query));
+                pool.put(query, c1);
+                pool.put(query, c2);
+                Assert.assertEquals(3, pool.size(query));
+            }
+        });
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        assertMemoryLeak(() -> {
+            node1.setProperty(PropertyKey.CAIRO_SQL_PLAN_POOL_CAPACITY, 0);
+            ddl("create table x as (select x from long_sequence(10))");
+            try (QueryPlanPool pool = newPool()) {
+                pool.put("select * from x", select("select * from x"));
+                Assert.assertEquals(0, pool.size());
+                Assert.assertNull(pool.poll("select * from x"));
+            }
+        });
+    }
+
+    @Test
+    public void testEngineClearFreesFactories() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select x from long_sequence(10))");
+            final QueryPlanPool pool = engine.getQueryPlanPool();
+            pool.put("select * from x", select("select * from x"));
+            pool.put("select * from x", select("select * from x"));
+            Assert.assertEquals(2, pool.size());
+            engine.clear();
+            Assert.assertEquals(0, pool.size());
+        });
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select x from long_sequence(10))");
+            final String query = "select * from x";
+            try (QueryPlanPool pool = newPool()) {
+                pool.put(query, select(query));
+                pool.put(query, select(query));
+                ddl("alter table x add column y int");
+
+                final RecordCursorFactory factory = pool.poll(query);
+                Assert.assertNotNull(factory);
+                try (RecordCursor ignore = factory.getCursor(sqlExecutionContext)) {
+                    Assert.fail();
+                } catch (TableReferenceOutOfDateException e) {
+                    // the other pooled instance is stale as well
+                    pool.invalidate(query);
+                } finally {
+                    Misc.free(factory);
+                }
+                Assert.assertEquals(0, pool.size());
+                Assert.assertNull(pool.poll(query));
+            }
+        });
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select x from long_sequence(10))");
+            final QueryPlanPoolMetrics metrics = new QueryPlanPoolMetrics(new MetricsRegistryImpl());
+            try (QueryPlanPool pool = new QueryPlanPool(configuration, metrics)) {
+                Assert.assertNull(pool.poll("select * from x"));
+                pool.onCompiled(3_000_000);
+                pool.put("select * from x", select("select * from x"));
+                pool.put("select * from x", select("select * from x"));
+                Assert.assertEquals(2, metrics.cachedPlansGauge().getValue());
+
+                final RecordCursorFactory factory = pool.poll("select * from x");
+                Assert.assertNotNull(factory);
+                Assert.assertEquals(1, metrics.cachedPlansGauge().getValue());
+                pool.put("select * from x", factory);
+
+                Assert.assertEquals(1, metrics.getHitCount());
+                Assert.assertEquals(1, metrics.getMissCount());
+                Assert.assertEquals(3_000, metrics.getCompileMicros());
+
+                pool.clear();
+                Assert.assertEquals(0, metrics.cachedPlansGauge().getValue());
+            }
+        });
+    }
+
+    @Test
+    public void testNormalize() {
+        final StringSink sink = new StringSink();
+        QueryPlanPool.normalize("  select * from x;\n", sink);
+        Assert.assertEquals("select * from x", sink.toString());
+
+        sink.clear();
+        QueryPlanPool.normalize("select ';' from x ; ; ", sink);
+        Assert.assertEquals("select ';' from x", sink.toString());
+
+        sink.clear();
+        QueryPlanPool.normalize(" ;\t", sink);
+        Assert.assertEquals("", sink.toString());
+    }
+
+    @Test
+    public void testNormalizedTextSharesEntry() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select x from long_sequence(10))");
+            try (QueryPlanPool pool = newPool()) {
+                pool.put("select * from x;", select("select * from x"));
+                final RecordCursorFactory factory = pool.poll("\n select * from x ");
+                Assert.assertNotNull(factory);
+                Misc.free(factory);
+            }
+        });
+    }
+
+    @Test
+    public void testReleaseInactiveTrimsToConcurrency() throws Exception {
+        assertMemoryLeak(() -> {
+            ddl("create table x as (select x from long_sequence(10))");
+            final String query = "select * from x";
+            try (QueryPlanPool pool = newPool()) {
+                for (int i = 0; i < 4; i++) {
+                    pool.put(query, select(query));
+                }
+                // nothing was measured yet
+                Assert.assertFalse(pool.releaseInactive());
+                Assert.assertEquals(4, pool.size(query));
+
+                // two queries run at the same time, the other two factories are not needed
+                final RecordCursorFactory f1 = pool.poll(query);
+                final RecordCursorFactory f2 = pool.poll(query);
+                pool.put(query, f1);
+                pool.put(query, f2);
+                Assert.assertTrue(pool.releaseInactive());
+                Assert.assertEquals(2, pool.size(query));
+
+                // an idle query keeps a single factory
+                Assert.assertTrue(pool.releaseInactive());
+                Assert.assertEquals(1, pool.size(query));
+                Assert.assertFalse(pool.releaseInactive());
+                Assert.assertEquals(1, pool.size(query));
+            }
+        });
+    }
+
+    private static QueryPlanPool newPool() {
+        return new QueryPlanPool(configuration, new QueryPlanPoolMetrics(new MetricsRegistryImpl()));
+    }
+}
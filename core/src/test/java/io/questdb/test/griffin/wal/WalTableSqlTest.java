@@ -1281,6 +1281,8 @@ public class WalTableSqlTest extends AbstractCairoTest {
 
 
             node1.setProperty(PropertyKey.CAIRO_WAL_APPLY_TABLE_TIME_QUOTA, 0);
+            // apply transactions one by one
+            node1.setProperty(PropertyKey.CAIRO_WAL_APPLY_SQUASH_MAX_ROWS, 0);
             runApplyOnce();
 
             TableToken token = engine.verifyTableName(tableName);
@@ -1655,6 +1657,8 @@ public class WalTableSqlTest extends AbstractCairoTest {
 
             Overrides overrides = node1.getConfigurationOverrides();
             overrides.setProperty(PropertyKey.CAIRO_WAL_APPLY_TABLE_TIME_QUOTA, 0);
+            // apply transactions one by one
+            overrides.setProperty(PropertyKey.CAIRO_WAL_APPLY_SQUASH_MAX_ROWS, 0);
             runApplyOnce();
 
             TableToken token = engine.verifyTableName(tableName);
@@ -74,12 +74,11 @@ public class WalTelemetryTest extends AbstractCairoTest {
                 telemetryJob.runSerially();
             }
 
+            // both transactions come from the same WAL segment, they are squashed and applied together
             CharSequence sysPrefix = configuration.getSystemTableNamePrefix();
             assertSql("created\tevent\ttableId\twalId\tseqTxn\trowCount\tphysicalRowCount\tlatency\n" +
                     "1970-01-01T00:00:00.004000Z\t103\t4\t1\t1\t-1\t-1\t2.0000\n" +
-                    "1970-01-01T00:00:00.004000Z\t105\t4\t1\t1\t5\t5\t0.0000\n" +
-                    "1970-01-01T00:00:00.004000Z\t103\t4\t1\t2\t-1\t-1\t1.0000\n" +
-                    "1970-01-01T00:00:00.004000Z\t105\t4\t1\t2\t1\t1\t0.0000\n", sysPrefix + TelemetryWalTask.TABLE_NAME);
+                    "1970-01-01T00:00:00.004000Z\t105\t4\t1\t2\t6\t6\t0.0000\n", sysPrefix + TelemetryWalTask.TABLE_NAME);
 
             assertSql("created\tevent\torigin\n" +
                     "1970-01-01T00:00:00.001000Z\t100\t1\n" +
@@ -130,6 +130,38 @@ public class MetricsRegistryTest {
         assetNull(gauge);
     }
 
+    @Test
+    public void testVirtualGaugeWithOneLabel() {
+        MetricsRegistry metricsRegistry = new MetricsRegistryImpl();
+        VirtualLongGaugeWithOneLabel gauge = new VirtualLongGaugeWithOneLabel("gauge", "worker");
+        metricsRegistry.addScrapable(gauge);
+
+        // nothing to scrape until the stats are provided
+        assertScrapable(metricsRegistry, "");
+
+        final long[] stats = {3, 0, 42};
+        gauge.of(new VirtualLongGaugeWithOneLabel.StatProvider() {
+            @Override
+            public int getStatCount() {
+                return stats.length;
+            }
+
+            @Override
+            public long getStatValue(int index) {
+                return stats[index];
+            }
+        });
+        String expected = "# TYPE questdb_gauge gauge\n" +
+                "questdb_gauge{worker=\"0\"} 3\n" +
+                "questdb_gauge{worker=\"1\"} 0\n" +
+                "questdb_gauge{worker=\"2\"} 42\n" +
+                "\n";
+        assertScrapable(metricsRegistry, expected);
+
+        gauge.of(null);
+        assertScrapable(metricsRegistry, "");
+    }
+
     private static void assertScrapable(Scrapable scrapable, CharSequence expected) {
         try (DirectUtf8Sink sink = new DirectUtf8Sink(32)) {
             scrapable.scrapeIntoPrometheus(sink);